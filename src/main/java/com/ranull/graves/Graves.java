@@ -56,6 +56,7 @@ public class Graves extends JavaPlugin {
     private GraveManager graveManager;
     private GraveyardManager graveyardManager;
     private ParticleManager particleManager;
+    private final ConfigResolver configResolver = new ConfigResolver(this);
     private Compatibility compatibility;
     private FileConfiguration fileConfiguration;
     private boolean wasReloaded = false;
@@ -287,6 +288,8 @@ public class Graves extends JavaPlugin {
         saveTextFiles();
         reloadConfig();
         updateConfig();
+        configResolver.invalidate();
+        hologramManager.getHologramRenderer().clear();
         unregisterListeners();
         registerListeners();
         // dataManager.reload();
@@ -460,6 +463,10 @@ public class Graves extends JavaPlugin {
             getServer().getPluginManager().registerEvents(new BlockExplodeListener(this), this);
         }
 
+        if (versionManager.hasPersistentData()) {
+            getServer().getPluginManager().registerEvents(new EntityPickupItemListener(this), this);
+        }
+
         //getServer().getPluginManager().registerEvents(new GraveTestListener(this), this); // Test Listener
     }
 
@@ -869,37 +876,11 @@ public class Graves extends JavaPlugin {
     }
 
     public ConfigurationSection getConfig(String config, EntityType entityType, List<String> permissionList) {
-        if (permissionList != null && !permissionList.isEmpty()) {
-            for (String permission : permissionList) {
-                String section = "settings.permission." + permission;
-
-                if (getConfig().isConfigurationSection(section)) {
-                    ConfigurationSection configurationSection = getConfig().getConfigurationSection(section);
-
-                    if (configurationSection != null && (versionManager.hasConfigContains()
-                            ? configurationSection.contains(config, true)
-                            : configurationSection.contains(config))) {
-                        return configurationSection;
-                    }
-                }
-            }
-        }
-
-        if (entityType != null) {
-            String section = "settings.entity." + entityType.name();
-
-            if (getConfig().isConfigurationSection(section)) {
-                ConfigurationSection configurationSection = getConfig().getConfigurationSection(section);
-
-                if (configurationSection != null && (versionManager.hasConfigContains()
-                        ? configurationSection.contains(config, true)
-                        : configurationSection.contains(config))) {
-                    return configurationSection;
-                }
-            }
-        }
+        return configResolver.resolve(config, entityType, permissionList);
+    }
 
-        return getConfig().getConfigurationSection("settings.default.default");
+    public ConfigResolver getConfigResolver() {
+        return configResolver;
     }
 
     private void loadResourceDefaults(FileConfiguration fileConfiguration, String resource) {
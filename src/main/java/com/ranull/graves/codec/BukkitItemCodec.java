@@ -0,0 +1,55 @@
+package com.ranull.graves.codec;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Item codec using Bukkit object streams, available on every server.
+ */
+public final class BukkitItemCodec implements GraveItemCodec {
+    /**
+     * The id of this codec.
+     */
+    public static final byte ID = 0;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return "Bukkit";
+    }
+
+    @Override
+    public byte[] encode(ItemStack itemStack) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+        try (BukkitObjectOutputStream bukkitObjectOutputStream = new BukkitObjectOutputStream(byteArrayOutputStream)) {
+            bukkitObjectOutputStream.writeObject(itemStack);
+        }
+
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    @Override
+    public ItemStack decode(byte[] bytes) throws IOException {
+        try (BukkitObjectInputStream bukkitObjectInputStream = new BukkitObjectInputStream(new ByteArrayInputStream(bytes))) {
+            Object object = bukkitObjectInputStream.readObject();
+
+            if (!(object instanceof ItemStack)) {
+                throw new IOException("Expected an ItemStack but found " + object);
+            }
+
+            return (ItemStack) object;
+        } catch (ClassNotFoundException exception) {
+            throw new IOException(exception);
+        }
+    }
+}
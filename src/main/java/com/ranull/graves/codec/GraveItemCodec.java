@@ -0,0 +1,46 @@
+package com.ranull.graves.codec;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.io.IOException;
+
+/**
+ * Converts a single item stack to and from bytes.
+ * <p>
+ * Implementations are registered with {@link GraveItemFormat} under a unique id, which is stored alongside the
+ * encoded items so they can be read back with the same codec.
+ * </p>
+ */
+public interface GraveItemCodec {
+    /**
+     * Gets the id stored with items written by this codec.
+     *
+     * @return the codec id.
+     */
+    byte getId();
+
+    /**
+     * Gets the name of this codec.
+     *
+     * @return the codec name.
+     */
+    String getName();
+
+    /**
+     * Encodes an item stack to bytes.
+     *
+     * @param itemStack the item stack, never null or air.
+     * @return the encoded bytes.
+     * @throws IOException if the item stack cannot be encoded.
+     */
+    byte[] encode(ItemStack itemStack) throws IOException;
+
+    /**
+     * Decodes an item stack from bytes.
+     *
+     * @param bytes the encoded bytes.
+     * @return the decoded item stack.
+     * @throws IOException if the bytes cannot be decoded.
+     */
+    ItemStack decode(byte[] bytes) throws IOException;
+}
@@ -0,0 +1,648 @@
+package com.ranull.graves.codec;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.util.Base64Util;
+import com.ranull.graves.util.InventoryUtil;
+import org.bukkit.Material;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned, compact storage format for grave inventories, equipment and single slots.
+ * <p>
+ * Encoded values look like {@code GX<version>:<payload>}. The payload holds a flags byte, the id of the
+ * {@link GraveItemCodec} that wrote the items and a body that is optionally deflated. The body only contains
+ * non-empty slots, each written as its slot index followed by the length-prefixed item bytes. Because the storage
+ * columns are text on every supported database, the payload is Base64 encoded once as a whole rather than per item.
+ * </p>
+ * <p>
+ * Values without the {@code GX} header are read as the legacy {@code |}-joined Base64 format.
+ * </p>
+ * <p>
+ * A value with a header that cannot be read, because it is corrupt or was written by a codec this server does not
+ * have, fails to decode as a whole rather than decoding to fewer items, so the caller can keep the stored value.
+ * </p>
+ */
+public final class GraveItemFormat {
+    /**
+     * The prefix of every value written by this format.
+     */
+    public static final String PREFIX = "GX";
+
+    /**
+     * The current format version.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The header written in front of every value.
+     */
+    private static final String HEADER = PREFIX + VERSION + ":";
+
+    /**
+     * Flag set when the body is deflated.
+     */
+    private static final int FLAG_DEFLATE = 1;
+
+    /**
+     * Bodies smaller than this are never deflated.
+     */
+    private static final int DEFLATE_THRESHOLD = 256;
+
+    /**
+     * The main plugin instance associated with Graves.
+     */
+    private final Graves plugin;
+
+    /**
+     * Available codecs keyed by id.
+     */
+    private final Map<Byte, GraveItemCodec> codecMap;
+
+    /**
+     * The codec used for writing.
+     */
+    private final GraveItemCodec codec;
+
+    /**
+     * Whether bodies should be deflated.
+     */
+    private final boolean compress;
+
+    /**
+     * Initializes a new instance of the {@code GraveItemFormat} class.
+     *
+     * @param plugin the plugin instance.
+     */
+    public GraveItemFormat(Graves plugin) {
+        this.plugin = plugin;
+        this.codecMap = new HashMap<>();
+        this.compress = plugin.getConfig().getBoolean("settings.storage.item-codec.compress", true);
+
+        registerCodec(new BukkitItemCodec());
+
+        if (PaperItemCodec.isSupported()) {
+            registerCodec(new PaperItemCodec());
+        }
+
+        this.codec = plugin.getConfig().getBoolean("settings.storage.item-codec.native", true)
+                && codecMap.containsKey(PaperItemCodec.ID)
+                ? codecMap.get(PaperItemCodec.ID) : codecMap.get(BukkitItemCodec.ID);
+
+        plugin.debugMessage("Using " + codec.getName() + " item codec for grave storage.", 1);
+    }
+
+    /**
+     * Registers a codec that can be used to read stored items.
+     *
+     * @param graveItemCodec the codec.
+     */
+    public void registerCodec(GraveItemCodec graveItemCodec) {
+        codecMap.put(graveItemCodec.getId(), graveItemCodec);
+    }
+
+    /**
+     * Checks if a stored value was written by this format.
+     *
+     * @param string the stored value.
+     * @return true if the value has a format header, false if it is legacy or null.
+     */
+    public static boolean isEncoded(String string) {
+        return string != null && string.startsWith(PREFIX) && string.indexOf(':') > PREFIX.length();
+    }
+
+    /**
+     * Encodes the contents of an inventory.
+     *
+     * @param inventory the inventory.
+     * @return the encoded value, or null if an error occurs.
+     */
+    public String encodeInventory(Inventory inventory) {
+        return encodeItems(inventory.getContents());
+    }
+
+    /**
+     * Encodes an array of slots, skipping empty slots.
+     *
+     * @param itemStacks the slots.
+     * @return the encoded value, or null if an error occurs.
+     */
+    public String encodeItems(ItemStack[] itemStacks) {
+        try {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+            try (DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
+                Map<Integer, byte[]> encodedMap = new HashMap<>();
+
+                for (int slot = 0; slot < itemStacks.length; slot++) {
+                    byte[] bytes = toBytes(itemStacks[slot]);
+
+                    if (bytes != null) {
+                        encodedMap.put(slot, bytes);
+                    }
+                }
+
+                dataOutputStream.writeShort(itemStacks.length);
+                dataOutputStream.writeShort(encodedMap.size());
+
+                for (Map.Entry<Integer, byte[]> entry : encodedMap.entrySet()) {
+                    dataOutputStream.writeShort(entry.getKey());
+                    dataOutputStream.writeInt(entry.getValue().length);
+                    dataOutputStream.write(entry.getValue());
+                }
+            }
+
+            return wrap(byteArrayOutputStream.toByteArray());
+        } catch (IOException exception) {
+            plugin.getLogger().severe("Failed to encode grave items: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+
+        return null;
+    }
+
+    /**
+     * Encodes a single item.
+     *
+     * @param itemStack the item, may be null or air.
+     * @return the encoded value, or null if an error occurs.
+     */
+    public String encodeItem(ItemStack itemStack) {
+        return encodeItems(new ItemStack[]{ itemStack });
+    }
+
+    /**
+     * Encodes an equipment map.
+     *
+     * @param equipmentMap the equipment map, may be null.
+     * @return the encoded value, or null if an error occurs.
+     */
+    public String encodeEquipment(Map<EquipmentSlot, ItemStack> equipmentMap) {
+        try {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+            try (DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
+                Map<EquipmentSlot, byte[]> encodedMap = new HashMap<>();
+
+                for (Map.Entry<EquipmentSlot, ItemStack> entry : equipmentMap != null
+                        ? equipmentMap.entrySet() : new HashMap<EquipmentSlot, ItemStack>().entrySet()) {
+                    byte[] bytes = toBytes(entry.getValue());
+
+                    if (bytes != null) {
+                        encodedMap.put(entry.getKey(), bytes);
+                    }
+                }
+
+                dataOutputStream.writeShort(encodedMap.size());
+
+                for (Map.Entry<EquipmentSlot, byte[]> entry : encodedMap.entrySet()) {
+                    dataOutputStream.writeUTF(entry.getKey().name());
+                    dataOutputStream.writeInt(entry.getValue().length);
+                    dataOutputStream.write(entry.getValue());
+                }
+            }
+
+            return wrap(byteArrayOutputStream.toByteArray());
+        } catch (IOException exception) {
+            plugin.getLogger().severe("Failed to encode grave equipment: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+
+        return null;
+    }
+
+    /**
+     * Decodes slots, reading the legacy format transparently.
+     *
+     * @param string the stored value.
+     * @return the slots, empty slots are null.
+     * @throws IOException if the value cannot be decoded.
+     */
+    public ItemStack[] decodeItems(String string) throws IOException {
+        if (string == null || string.isEmpty()) {
+            return new ItemStack[0];
+        }
+
+        if (!isEncoded(string)) {
+            return decodeLegacyItems(string);
+        }
+
+        Payload payload = unwrap(string);
+        DataInputStream dataInputStream = payload.dataInputStream;
+        ItemStack[] itemStacks = new ItemStack[dataInputStream.readUnsignedShort()];
+        int count = dataInputStream.readUnsignedShort();
+
+        for (int i = 0; i < count; i++) {
+            int slot = dataInputStream.readUnsignedShort();
+            byte[] bytes = readBytes(dataInputStream);
+
+            if (slot >= itemStacks.length) {
+                throw new IOException("Slot " + slot + " is outside of the " + itemStacks.length + " stored slots");
+            }
+
+            itemStacks[slot] = fromBytes(payload.codec, bytes, slot);
+        }
+
+        return itemStacks;
+    }
+
+    /**
+     * Counts the non-empty slots of a stored value without decoding any items.
+     *
+     * @param string the stored value.
+     * @return the number of non-empty slots, or -1 if it cannot be determined without decoding.
+     */
+    public int countItems(String string) {
+        if (string == null || string.isEmpty()) {
+            return 0;
+        }
+
+        if (!isEncoded(string)) {
+            return -1;
+        }
+
+        try {
+            DataInputStream dataInputStream = unwrap(string).dataInputStream;
+
+            dataInputStream.readUnsignedShort();
+
+            return dataInputStream.readUnsignedShort();
+        } catch (IOException exception) {
+            return -1;
+        }
+    }
+
+    /**
+     * Decodes a single item, reading the legacy format transparently.
+     *
+     * @param string the stored value.
+     * @return the item, or null if the slot is empty.
+     * @throws IOException if the value cannot be decoded.
+     */
+    public ItemStack decodeItem(String string) throws IOException {
+        if (string != null && !isEncoded(string)) {
+            Object object = Base64Util.base64ToObject(string);
+
+            return object instanceof ItemStack ? (ItemStack) object : null;
+        }
+
+        ItemStack[] itemStacks = decodeItems(string);
+
+        return itemStacks.length > 0 ? itemStacks[0] : null;
+    }
+
+    /**
+     * Decodes an inventory, reading the legacy format transparently.
+     *
+     * @param inventoryHolder the inventory holder.
+     * @param string          the stored value.
+     * @param title           the inventory title.
+     * @return the inventory.
+     * @throws IOException if the value cannot be decoded.
+     */
+    public Inventory decodeInventory(InventoryHolder inventoryHolder, String string, String title)
+            throws IOException {
+        if (!isEncoded(string)) {
+            return InventoryUtil.stringToInventory(inventoryHolder, string, title, plugin);
+        }
+
+        ItemStack[] itemStacks = decodeItems(string);
+        Inventory inventory = plugin.getServer().createInventory(inventoryHolder,
+                InventoryUtil.getInventorySize(itemStacks.length), title);
+
+        for (int slot = 0; slot < itemStacks.length; slot++) {
+            if (itemStacks[slot] != null) {
+                inventory.setItem(slot, itemStacks[slot]);
+            }
+        }
+
+        return inventory;
+    }
+
+    /**
+     * Decodes an equipment map, reading the legacy format transparently.
+     *
+     * @param string the stored value.
+     * @return the equipment map.
+     * @throws IOException if the value cannot be decoded.
+     */
+    public Map<EquipmentSlot, ItemStack> decodeEquipment(String string) throws IOException {
+        Map<EquipmentSlot, ItemStack> equipmentMap = new HashMap<>();
+
+        if (string == null || string.isEmpty()) {
+            return equipmentMap;
+        }
+
+        if (!isEncoded(string)) {
+            Object object = Base64Util.base64ToObject(string);
+
+            if (object instanceof Map) {
+                // Legacy equipment was written keyed by slot name.
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                    EquipmentSlot equipmentSlot = toEquipmentSlot(entry.getKey());
+
+                    if (equipmentSlot != null && entry.getValue() instanceof ItemStack) {
+                        equipmentMap.put(equipmentSlot, (ItemStack) entry.getValue());
+                    }
+                }
+            }
+
+            return equipmentMap;
+        }
+
+        Payload payload = unwrap(string);
+        DataInputStream dataInputStream = payload.dataInputStream;
+        int count = dataInputStream.readUnsignedShort();
+
+        for (int i = 0; i < count; i++) {
+            EquipmentSlot equipmentSlot = toEquipmentSlot(dataInputStream.readUTF());
+            byte[] bytes = readBytes(dataInputStream);
+
+            ItemStack itemStack = fromBytes(payload.codec, bytes, i);
+
+            if (equipmentSlot != null && itemStack != null) {
+                equipmentMap.put(equipmentSlot, itemStack);
+            }
+        }
+
+        return equipmentMap;
+    }
+
+    /**
+     * Encodes an item with the write codec.
+     *
+     * @param itemStack the item.
+     * @return the bytes, or null if the item is empty or cannot be encoded.
+     */
+    private byte[] toBytes(ItemStack itemStack) {
+        if (itemStack == null || itemStack.getType() == Material.AIR || itemStack.getAmount() <= 0) {
+            return null;
+        }
+
+        try {
+            return codec.encode(itemStack);
+        } catch (IOException | RuntimeException exception) {
+            plugin.getLogger().warning("Removed problematic item " + itemStack + " from grave. While the grave will "
+                    + "still generate, this is likely a Spigot/Paper bug: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+
+        return null;
+    }
+
+    /**
+     * Decodes an item. An item that cannot be read fails the whole value, as skipping it would lose the item.
+     *
+     * @param graveItemCodec the codec the item was written with.
+     * @param bytes          the bytes.
+     * @param slot           the slot, used in the error.
+     * @return the item.
+     * @throws IOException if the item cannot be decoded.
+     */
+    private static ItemStack fromBytes(GraveItemCodec graveItemCodec, byte[] bytes, int slot) throws IOException {
+        try {
+            return graveItemCodec.decode(bytes);
+        } catch (RuntimeException exception) {
+            throw new IOException("Item in slot " + slot + " cannot be decoded by the "
+                    + graveItemCodec.getName() + " item codec", exception);
+        } catch (IOException exception) {
+            throw new IOException("Item in slot " + slot + " cannot be decoded by the "
+                    + graveItemCodec.getName() + " item codec: " + exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Reads the length-prefixed bytes of an item.
+     *
+     * @param dataInputStream the body input.
+     * @return the bytes.
+     * @throws IOException if the length is outside of the body.
+     */
+    private static byte[] readBytes(DataInputStream dataInputStream) throws IOException {
+        int length = dataInputStream.readInt();
+
+        if (length < 0 || length > dataInputStream.available()) {
+            throw new IOException("Item length " + length + " is outside of the payload");
+        }
+
+        byte[] bytes = new byte[length];
+
+        dataInputStream.readFully(bytes);
+
+        return bytes;
+    }
+
+    /**
+     * Reads slots written in the legacy {@code |}-joined Base64 format.
+     *
+     * @param string the stored value.
+     * @return the slots, empty slots are null.
+     */
+    private ItemStack[] decodeLegacyItems(String string) {
+        String[] strings = string.split("\\|");
+        ItemStack[] itemStacks = new ItemStack[strings.length];
+
+        for (int slot = 0; slot < strings.length; slot++) {
+            Object object = Base64Util.base64ToObject(strings[slot]);
+
+            if (object instanceof ItemStack && ((ItemStack) object).getType() != Material.AIR) {
+                itemStacks[slot] = (ItemStack) object;
+            }
+        }
+
+        return itemStacks;
+    }
+
+    /**
+     * Adds the header, flags and codec id to a body, deflating it if worthwhile.
+     *
+     * @param body the body.
+     * @return the encoded value.
+     */
+    private String wrap(byte[] body) {
+        int flags = 0;
+
+        if (compress && body.length >= DEFLATE_THRESHOLD) {
+            byte[] deflated = deflate(body);
+
+            if (deflated.length < body.length) {
+                body = deflated;
+                flags |= FLAG_DEFLATE;
+            }
+        }
+
+        byte[] payload = new byte[body.length + 2];
+
+        payload[0] = (byte) flags;
+        payload[1] = codec.getId();
+        System.arraycopy(body, 0, payload, 2, body.length);
+
+        return HEADER + Base64.getEncoder().encodeToString(payload);
+    }
+
+    /**
+     * Reads the header, flags and codec id of a value and opens its body.
+     *
+     * @param string the stored value.
+     * @return the payload.
+     * @throws IOException if the value cannot be read.
+     */
+    private Payload unwrap(String string) throws IOException {
+        int separator = string.indexOf(':');
+        int version;
+
+        try {
+            version = Integer.parseInt(string.substring(PREFIX.length(), separator));
+        } catch (NumberFormatException exception) {
+            throw new IOException("Invalid item format header", exception);
+        }
+
+        if (version > VERSION) {
+            throw new IOException("Unsupported item format version " + version);
+        }
+
+        byte[] payload;
+
+        try {
+            payload = Base64.getDecoder().decode(string.substring(separator + 1));
+        } catch (IllegalArgumentException exception) {
+            throw new IOException("Invalid item format payload", exception);
+        }
+
+        if (payload.length < 2) {
+            throw new IOException("Truncated item format payload");
+        }
+
+        GraveItemCodec graveItemCodec = codecMap.get(payload[1]);
+
+        if (graveItemCodec == null) {
+            throw new IOException("Item codec " + payload[1] + " is not available on this server");
+        }
+
+        byte[] body = new byte[payload.length - 2];
+
+        System.arraycopy(payload, 2, body, 0, body.length);
+
+        if ((payload[0] & FLAG_DEFLATE) != 0) {
+            body = inflate(body);
+        }
+
+        return new Payload(graveItemCodec, new DataInputStream(new ByteArrayInputStream(body)));
+    }
+
+    /**
+     * Deflates bytes.
+     *
+     * @param bytes the bytes.
+     * @return the deflated bytes.
+     */
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(bytes.length);
+        byte[] buffer = new byte[4096];
+
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            while (!deflater.finished()) {
+                byteArrayOutputStream.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    /**
+     * Inflates bytes.
+     *
+     * @param bytes the deflated bytes.
+     * @return the inflated bytes.
+     * @throws IOException if the bytes are not valid deflate data.
+     */
+    private static byte[] inflate(byte[] bytes) throws IOException {
+        Inflater inflater = new Inflater();
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(bytes.length * 4);
+        byte[] buffer = new byte[4096];
+
+        try {
+            inflater.setInput(bytes);
+
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated deflate data");
+                }
+
+                byteArrayOutputStream.write(buffer, 0, length);
+            }
+        } catch (DataFormatException exception) {
+            throw new IOException(exception);
+        } finally {
+            inflater.end();
+        }
+
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    /**
+     * Converts a legacy or stored equipment slot key to an equipment slot.
+     *
+     * @param key the key.
+     * @return the equipment slot, or null if unknown.
+     */
+    private static EquipmentSlot toEquipmentSlot(Object key) {
+        if (key instanceof EquipmentSlot) {
+            return (EquipmentSlot) key;
+        }
+
+        try {
+            return key != null ? EquipmentSlot.valueOf(key.toString()) : null;
+        } catch (IllegalArgumentException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * An opened payload.
+     */
+    private static final class Payload {
+        /**
+         * The codec the items were written with.
+         */
+        private final GraveItemCodec codec;
+
+        /**
+         * The body input.
+         */
+        private final DataInputStream dataInputStream;
+
+        /**
+         * Creates a payload.
+         *
+         * @param codec           the codec the items were written with.
+         * @param dataInputStream the body input.
+         */
+        private Payload(GraveItemCodec codec, DataInputStream dataInputStream) {
+            this.codec = codec;
+            this.dataInputStream = dataInputStream;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ranull.graves.codec;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Item codec using Paper's native {@code ItemStack#serializeAsBytes} and {@code ItemStack#deserializeBytes}.
+ * <p>
+ * The methods are looked up reflectively so the plugin still runs on Spigot, where this codec is unsupported.
+ * </p>
+ */
+public final class PaperItemCodec implements GraveItemCodec {
+    /**
+     * The id of this codec.
+     */
+    public static final byte ID = 1;
+
+    /**
+     * The {@code ItemStack#serializeAsBytes} method, or null if unavailable.
+     */
+    private static final Method SERIALIZE_METHOD;
+
+    /**
+     * The static {@code ItemStack#deserializeBytes} method, or null if unavailable.
+     */
+    private static final Method DESERIALIZE_METHOD;
+
+    static {
+        Method serializeMethod = null;
+        Method deserializeMethod = null;
+
+        try {
+            serializeMethod = ItemStack.class.getMethod("serializeAsBytes");
+            deserializeMethod = ItemStack.class.getMethod("deserializeBytes", byte[].class);
+        } catch (NoSuchMethodException ignored) {
+        }
+
+        SERIALIZE_METHOD = serializeMethod;
+        DESERIALIZE_METHOD = deserializeMethod;
+    }
+
+    /**
+     * Checks if the server supports Paper's native item serialization.
+     *
+     * @return true if supported, false otherwise.
+     */
+    public static boolean isSupported() {
+        return SERIALIZE_METHOD != null && DESERIALIZE_METHOD != null;
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return "Paper";
+    }
+
+    @Override
+    public byte[] encode(ItemStack itemStack) throws IOException {
+        try {
+            return (byte[]) SERIALIZE_METHOD.invoke(itemStack);
+        } catch (IllegalAccessException | InvocationTargetException exception) {
+            throw new IOException(exception);
+        }
+    }
+
+    @Override
+    public ItemStack decode(byte[] bytes) throws IOException {
+        try {
+            return (ItemStack) DESERIALIZE_METHOD.invoke(null, (Object) bytes);
+        } catch (IllegalAccessException | InvocationTargetException exception) {
+            throw new IOException(exception);
+        }
+    }
+}
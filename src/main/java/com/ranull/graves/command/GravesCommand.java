@@ -1,6 +1,7 @@
 package com.ranull.graves.command;
 
 import com.ranull.graves.Graves;
+import com.ranull.graves.manager.GraveSpillStore;
 import com.ranull.graves.type.Grave;
 import org.bukkit.ChatColor;
 import org.bukkit.OfflinePlayer;
@@ -66,6 +67,9 @@ public final class GravesCommand implements CommandExecutor, TabCompleter {
                 case "dump":
                     handleDumpCommand(commandSender);
                     break;
+                case "memory":
+                    handleMemoryCommand(commandSender);
+                    break;
                 case "debug":
                     handleDebugCommand(commandSender, args);
                     break;
@@ -129,6 +133,11 @@ public final class GravesCommand implements CommandExecutor, TabCompleter {
                         + " Dump server information");
             }
 
+            if (plugin.hasGrantedPermission("graves.memory", player.getPlayer())) {
+                sender.sendMessage(ChatColor.RED + "/graves memory " + ChatColor.DARK_GRAY + "-" + ChatColor.RESET
+                        + " View grave memory usage");
+            }
+
             if (plugin.hasGrantedPermission("graves.debug", player.getPlayer())) {
                 sender.sendMessage(ChatColor.RED + "/graves debug {level} " + ChatColor.DARK_GRAY + "-" + ChatColor.RESET
                         + " Change debug level");
@@ -142,6 +151,8 @@ public final class GravesCommand implements CommandExecutor, TabCompleter {
                     + " Reload plugin");
             sender.sendMessage(ChatColor.RED + "/graves dump " + ChatColor.DARK_GRAY + "-" + ChatColor.RESET
                     + " Dump server information");
+            sender.sendMessage(ChatColor.RED + "/graves memory " + ChatColor.DARK_GRAY + "-" + ChatColor.RESET
+                    + " View grave memory usage");
             sender.sendMessage(ChatColor.RED + "/graves debug {level} " + ChatColor.DARK_GRAY + "-" + ChatColor.RESET
                     + " Change debug level");
         }
@@ -179,6 +190,11 @@ public final class GravesCommand implements CommandExecutor, TabCompleter {
                 stringList.add("dump");
             }
 
+            if (!(commandSender instanceof Player)
+                    || plugin.hasGrantedPermission("graves.memory", ((Player) commandSender).getPlayer())) {
+                stringList.add("memory");
+            }
+
             if (!(commandSender instanceof Player)
                     || plugin.hasGrantedPermission("graves.debug", ((Player) commandSender).getPlayer())) {
                 stringList.add("debug");
@@ -400,6 +416,35 @@ public final class GravesCommand implements CommandExecutor, TabCompleter {
         }
     }
 
+    private void handleMemoryCommand(CommandSender commandSender) {
+        if (!(commandSender instanceof Player) || plugin.hasGrantedPermission("graves.memory", ((Player) commandSender).getPlayer())) {
+            GraveSpillStore graveSpillStore = plugin.getDataManager().getGraveSpillStore();
+            int total = plugin.getCacheManager().getGraveMap().size();
+            int spilled = graveSpillStore.size();
+            int loaded = 0;
+
+            for (Grave grave : plugin.getCacheManager().getGraveMap().values()) {
+                if (grave.isInventoryLoaded()) {
+                    loaded++;
+                }
+            }
+
+            Runtime runtime = Runtime.getRuntime();
+
+            commandSender.sendMessage(ChatColor.RED + "☠" + ChatColor.DARK_GRAY + " » " + ChatColor.RESET
+                    + "Graves: " + total + ", Resident: " + (total - spilled) + " (" + loaded
+                    + " inventories loaded), Spilled: " + spilled);
+            commandSender.sendMessage(ChatColor.RED + "☠" + ChatColor.DARK_GRAY + " » " + ChatColor.RESET
+                    + "Spill file: " + graveSpillStore.getLiveBytes() / 1024 + " KB live, "
+                    + graveSpillStore.getFileSize() / 1024 + " KB on disk");
+            commandSender.sendMessage(ChatColor.RED + "☠" + ChatColor.DARK_GRAY + " » " + ChatColor.RESET
+                    + "Heap: " + (runtime.totalMemory() - runtime.freeMemory()) / 1048576 + " MB used of "
+                    + runtime.maxMemory() / 1048576 + " MB");
+        } else if (commandSender instanceof Player) {
+            plugin.getEntityManager().sendMessage("message.permission-denied", (Player) commandSender);
+        }
+    }
+
     private void handleDebugCommand(CommandSender commandSender, String[] args) {
         if (!(commandSender instanceof Player) || plugin.hasGrantedPermission("graves.debug", ((Player) commandSender).getPlayer())) {
             if (args.length > 1) {
@@ -4,12 +4,15 @@ import org.bukkit.Location;
 import org.bukkit.World;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents data for a specific chunk in the game world, including block and entity data.
+ * <p>
+ * Safe to read from any thread. Block data is copy-on-write: changes build a new table under the chunk's monitor and
+ * publish it, so readers always probe a complete table without locking. Entity data is held in a concurrent map.
+ * </p>
  */
 public class ChunkData implements Serializable {
     /**
@@ -37,13 +40,18 @@ public class ChunkData implements Serializable {
     private final int z;
 
     /**
-     * A map of block locations and their corresponding block data.
+     * Initial number of slots of the block data table, must be a power of two.
+     */
+    private static final int INITIAL_BLOCK_CAPACITY = 4;
+
+    /**
+     * The block data table, never modified after it is published.
      * <p>
-     * This {@link Map} contains {@link Location} keys representing the locations of blocks and {@link BlockData} values
-     * representing the data of those blocks at those locations.
+     * Positions are packed by {@link #blockKey(int, int, int)}, so looking up a block does not create a
+     * {@link Location}. The table uses open addressing with linear probing.
      * </p>
      */
-    private final Map<Location, BlockData> blockDataMap;
+    private volatile BlockDataTable blockDataTable;
 
     /**
      * A map of entity UUIDs and their corresponding entity data.
@@ -60,11 +68,22 @@ public class ChunkData implements Serializable {
      * @param location The location within the chunk.
      */
     public ChunkData(Location location) {
-        this.world = location.getWorld();
-        this.x = location.getBlockX() >> 4;
-        this.z = location.getBlockZ() >> 4;
-        this.blockDataMap = new HashMap<>();
-        this.entityDataMap = new HashMap<>();
+        this(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    /**
+     * Constructs a new ChunkData instance based on chunk coordinates.
+     *
+     * @param world The world of the chunk.
+     * @param x     The x-coordinate of the chunk.
+     * @param z     The z-coordinate of the chunk.
+     */
+    public ChunkData(World world, int x, int z) {
+        this.world = world;
+        this.x = x;
+        this.z = z;
+        this.blockDataTable = new BlockDataTable(INITIAL_BLOCK_CAPACITY);
+        this.entityDataMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -100,7 +119,7 @@ public class ChunkData implements Serializable {
      * @return True if the chunk has data, false otherwise.
      */
     public boolean hasData() {
-        return !blockDataMap.isEmpty() || !entityDataMap.isEmpty();
+        return blockDataTable.count > 0 || !entityDataMap.isEmpty();
     }
 
     /**
@@ -122,21 +141,116 @@ public class ChunkData implements Serializable {
     }
 
     /**
-     * Gets the map of block data within the chunk.
+     * Packs a block position into a key. Only the position within the chunk is kept for x and z.
+     *
+     * @param x The block x-coordinate.
+     * @param y The block y-coordinate.
+     * @param z The block z-coordinate.
+     * @return The key.
+     */
+    public static int blockKey(int x, int y, int z) {
+        return (y << 8) | ((x & 15) << 4) | (z & 15);
+    }
+
+    /**
+     * Gets the block data at a block position within the chunk.
+     *
+     * @param x The block x-coordinate.
+     * @param y The block y-coordinate.
+     * @param z The block z-coordinate.
+     * @return The block data, or null if there is none.
+     */
+    public BlockData getBlockData(int x, int y, int z) {
+        BlockDataTable table = blockDataTable;
+        int index = table.indexOf(blockKey(x, y, z));
+
+        return index >= 0 ? table.values[index] : null;
+    }
+
+    /**
+     * Gets the block data at a location within the chunk.
+     *
+     * @param location The location.
+     * @return The block data, or null if there is none.
+     */
+    public BlockData getBlockData(Location location) {
+        return getBlockData(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Checks if there is block data at a block position within the chunk.
+     *
+     * @param x The block x-coordinate.
+     * @param y The block y-coordinate.
+     * @param z The block z-coordinate.
+     * @return True if there is block data, false otherwise.
+     */
+    public boolean hasBlockData(int x, int y, int z) {
+        return getBlockData(x, y, z) != null;
+    }
+
+    /**
+     * Gets a copy of the block data within the chunk.
+     *
+     * @return The list of block data.
+     */
+    public List<BlockData> getBlockDataList() {
+        BlockDataTable table = blockDataTable;
+        List<BlockData> blockDataList = new ArrayList<>(table.count);
+
+        for (BlockData blockData : table.values) {
+            if (blockData != null) {
+                blockDataList.add(blockData);
+            }
+        }
+
+        return blockDataList;
+    }
+
+    /**
+     * Gets a read-only copy of the block data within the chunk, keyed by location.
      *
      * @return The map of block data.
+     * @deprecated use {@link #getBlockData(int, int, int)} or {@link #getBlockDataList()}.
      */
+    @Deprecated
     public Map<Location, BlockData> getBlockDataMap() {
-        return blockDataMap;
+        Map<Location, BlockData> blockDataMap = new HashMap<>();
+
+        for (BlockData blockData : getBlockDataList()) {
+            blockDataMap.put(blockData.getLocation(), blockData);
+        }
+
+        return Collections.unmodifiableMap(blockDataMap);
     }
 
     /**
      * Adds block data to the chunk.
      *
      * @param blockData The block data to add.
+     * @return The block data previously at the same position, or null.
      */
-    public void addBlockData(BlockData blockData) {
-        blockDataMap.put(blockData.getLocation(), blockData);
+    public synchronized BlockData addBlockData(BlockData blockData) {
+        Location location = blockData.getLocation();
+        int key = blockKey(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        BlockDataTable table = blockDataTable;
+        int index = table.indexOf(key);
+        BlockDataTable copy;
+        BlockData previous = null;
+
+        if (index >= 0) {
+            copy = table.copy(table.values.length);
+            previous = copy.values[index];
+            copy.values[index] = blockData;
+        } else {
+            copy = table.copy((table.count + 1) * 4 > table.values.length * 3
+                    ? table.values.length << 1 : table.values.length);
+            copy.insert(key, blockData);
+        }
+
+        blockDataTable = copy;
+
+        return previous;
     }
 
     /**
@@ -145,7 +259,37 @@ public class ChunkData implements Serializable {
      * @param location The location of the block data to remove.
      */
     public void removeBlockData(Location location) {
-        blockDataMap.remove(location);
+        removeBlockData(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Removes block data from the chunk based on a block position.
+     *
+     * @param x The block x-coordinate.
+     * @param y The block y-coordinate.
+     * @param z The block z-coordinate.
+     * @return The removed block data, or null if there was none.
+     */
+    public synchronized BlockData removeBlockData(int x, int y, int z) {
+        BlockDataTable table = blockDataTable;
+        int index = table.indexOf(blockKey(x, y, z));
+
+        if (index < 0) {
+            return null;
+        }
+
+        BlockDataTable copy = new BlockDataTable(table.values.length);
+
+        // Rebuilding skips the removed entry, so no tombstones or shifting are needed.
+        for (int i = 0; i < table.values.length; i++) {
+            if (table.values[i] != null && i != index) {
+                copy.insert(table.keys[i], table.values[i]);
+            }
+        }
+
+        blockDataTable = copy;
+
+        return table.values[index];
     }
 
     /**
@@ -161,17 +305,123 @@ public class ChunkData implements Serializable {
      * Adds entity data to the chunk.
      *
      * @param entityData The entity data to add.
+     * @return The entity data previously stored for the same entity, or null.
      */
-    public void addEntityData(EntityData entityData) {
-        entityDataMap.put(entityData.getUUIDEntity(), entityData);
+    public EntityData addEntityData(EntityData entityData) {
+        return entityDataMap.put(entityData.getUUIDEntity(), entityData);
     }
 
     /**
      * Removes entity data from the chunk based on the entity's UUID.
      *
      * @param entityData The entity data to remove.
+     * @return The removed entity data, or null.
+     */
+    public EntityData removeEntityData(EntityData entityData) {
+        return entityDataMap.remove(entityData.getUUIDEntity());
+    }
+
+    /**
+     * Open-addressing table from packed block positions to block data. Only modified before it is published.
      */
-    public void removeEntityData(EntityData entityData) {
-        entityDataMap.remove(entityData.getUUIDEntity());
+    private static final class BlockDataTable implements Serializable {
+        /**
+         * The packed block positions, valid where {@link #values} is not null.
+         */
+        private final int[] keys;
+
+        /**
+         * The block data, null marks an empty slot.
+         */
+        private final BlockData[] values;
+
+        /**
+         * The number of entries.
+         */
+        private int count;
+
+        /**
+         * Creates an empty table.
+         *
+         * @param length The number of slots, a power of two.
+         */
+        private BlockDataTable(int length) {
+            this.keys = new int[length];
+            this.values = new BlockData[length];
+        }
+
+        /**
+         * Gets the slot a key hashes to.
+         *
+         * @param key  The key.
+         * @param mask The table length minus one.
+         * @return The slot.
+         */
+        private static int slot(int key, int mask) {
+            int hash = key * 0x9E3779B9;
+
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+
+        /**
+         * Finds the slot of a key.
+         *
+         * @param key The key.
+         * @return The slot, or -1 if the key is not in the table.
+         */
+        private int indexOf(int key) {
+            int mask = values.length - 1;
+
+            for (int i = slot(key, mask); values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        /**
+         * Adds a key that is not in the table yet. The table must have a free slot.
+         *
+         * @param key   The key.
+         * @param value The value.
+         */
+        private void insert(int key, BlockData value) {
+            int mask = values.length - 1;
+            int i = slot(key, mask);
+
+            while (values[i] != null) {
+                i = (i + 1) & mask;
+            }
+
+            keys[i] = key;
+            values[i] = value;
+            count++;
+        }
+
+        /**
+         * Copies the table into a new table.
+         *
+         * @param length The length of the new table, a power of two at least as large as this one.
+         * @return The copy.
+         */
+        private BlockDataTable copy(int length) {
+            BlockDataTable copy = new BlockDataTable(length);
+
+            if (length == values.length) {
+                System.arraycopy(keys, 0, copy.keys, 0, length);
+                System.arraycopy(values, 0, copy.values, 0, length);
+                copy.count = count;
+            } else {
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != null) {
+                        copy.insert(keys[i], values[i]);
+                    }
+                }
+            }
+
+            return copy;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,6 @@
 package com.ranull.graves.integration;
 
 import com.ranull.graves.Graves;
-import com.ranull.graves.data.ChunkData;
 import com.ranull.graves.data.EntityData;
 import com.ranull.graves.listener.integration.citizensnpcs.CitizensNPCInteractListener;
 import com.ranull.graves.manager.EntityDataManager;
@@ -67,16 +66,10 @@ public final class CitizensNPC extends EntityDataManager {
      * Creates NPC corpses based on the cached entity data.
      */
     public void createCorpses() {
-        for (ChunkData chunkData : plugin.getCacheManager().getChunkMap().values()) {
-            for (EntityData entityData : chunkData.getEntityDataMap().values()) {
+        for (Grave grave : new ArrayList<>(plugin.getCacheManager().getGraveMap().values())) {
+            for (EntityData entityData : plugin.getCacheManager().getEntityDataList(grave.getUUID())) {
                 if (entityData.getType() == EntityData.Type.CITIZENSNPC) {
-                    if (plugin.getCacheManager().getGraveMap().containsKey(entityData.getUUIDGrave())) {
-                        Grave grave = plugin.getCacheManager().getGraveMap().get(entityData.getUUIDGrave());
-
-                        if (grave != null) {
-                            createCorpse(entityData.getUUIDEntity(), entityData.getLocation(), grave, false);
-                        }
-                    }
+                    createCorpse(entityData.getUUIDEntity(), entityData.getLocation(), grave, false);
                 }
             }
         }
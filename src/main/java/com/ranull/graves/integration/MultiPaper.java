@@ -106,7 +106,7 @@ public final class MultiPaper {
                             .getString("gui.grave.title"), grave.getLocationDeath(), grave, plugin);
                 }
                 Grave.StorageMode storageMode = plugin.getGraveManager()
-                        .getStorageMode(plugin.getConfig("storage.mode", grave).getString("storage.mode"));
+                        .getGraveSettings(grave).getStorageMode();
 
                 grave.setInventory(plugin.getGraveManager().createGraveInventory(grave, grave.getLocationDeath(),
                         itemStackList, title, storageMode));
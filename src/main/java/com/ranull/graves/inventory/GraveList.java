@@ -14,7 +14,7 @@ import java.util.UUID;
  */
 public class GraveList implements InventoryHolder {
     private final UUID uuid;
-    private final List<Grave> graveList;
+    private List<Grave> graveList;
     private Inventory inventory;
 
     /**
@@ -57,6 +57,24 @@ public class GraveList implements InventoryHolder {
         return uuid;
     }
 
+    /**
+     * Replaces the graves shown, after the inventory was rendered again.
+     *
+     * @param graveList The list of graves now shown.
+     */
+    public void setGraveList(List<Grave> graveList) {
+        this.graveList = graveList;
+    }
+
+    /**
+     * Gets the number of graves shown.
+     *
+     * @return The number of graves.
+     */
+    public int size() {
+        return graveList.size();
+    }
+
     /**
      * Gets the Grave object at the specified slot in the grave list.
      *
@@ -42,6 +42,12 @@ public class BlockBreakListener implements Listener {
      */
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
+        if (!plugin.getDataManager().isLoaded()) {
+            // Grave blocks are not known until the startup load has finished
+            event.setCancelled(true);
+            return;
+        }
+
         Player player = event.getPlayer();
         Block block = event.getBlock();
         Grave grave = plugin.getBlockManager().getGraveFromBlock(block);
@@ -70,7 +76,7 @@ public class BlockBreakListener implements Listener {
      * @return True if breaking the grave is allowed, false otherwise.
      */
     private boolean isGraveBreakAllowed(Grave grave) {
-        return plugin.getConfig("grave.break", grave).getBoolean("grave.break");
+        return !grave.isUndecodable() && plugin.getConfig("grave.break", grave).getBoolean("grave.break");
     }
 
     /**
@@ -155,7 +161,9 @@ public class BlockBreakListener implements Listener {
                 Location graveLocation = plugin.getGraveManager().getGraveLocation(player.getLocation(), grave);
                 if (graveLocation != null) {
                     double distance = location.distance(graveLocation);
-                    if (plugin.getConfig("grave.protection-radius", grave).getInt("grave.protection-radius") != 0 && distance <= plugin.getConfig("grave.protection-radius", grave).getInt("grave.protection-radius")) {
+                    int protectionRadius = plugin.getGraveManager().getGraveSettings(grave).getProtectionRadius();
+
+                    if (protectionRadius != 0 && distance <= protectionRadius) {
                         return true;
                     }
                 }
@@ -75,7 +75,9 @@ public class BlockBurnAndIgniteListener implements Listener {
                 Location graveLocation = plugin.getGraveManager().getGraveLocation(block.getLocation(), grave);
                 if (graveLocation != null) {
                     double distance = location.distance(graveLocation);
-                    if (plugin.getConfig("grave.protection-radius", grave).getInt("grave.protection-radius") != 0 && distance <= plugin.getConfig("grave.protection-radius", grave).getInt("grave.protection-radius")) {
+                    int protectionRadius = plugin.getGraveManager().getGraveSettings(grave).getProtectionRadius();
+
+                    if (protectionRadius != 0 && distance <= protectionRadius) {
                         return true;
                     }
                 }
@@ -80,7 +80,9 @@ public class BlockPlaceListener implements Listener {
                 Location graveLocation = plugin.getGraveManager().getGraveLocation(location, grave);
                 if (graveLocation != null) {
                     double distance = location.distance(graveLocation);
-                    if (plugin.getConfig("grave.protection-radius", grave).getInt("grave.protection-radius") != 0 && distance <= plugin.getConfig("grave.protection-radius", grave).getInt("grave.protection-radius")) {
+                    int protectionRadius = plugin.getGraveManager().getGraveSettings(grave).getProtectionRadius();
+
+                    if (protectionRadius != 0 && distance <= protectionRadius) {
                         return true;
                     }
                 }
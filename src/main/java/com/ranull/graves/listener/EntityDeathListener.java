@@ -103,7 +103,7 @@ public class EntityDeathListener implements Listener {
         int applicableMaxGraves = (maxGravesPermission > 0) ? maxGravesPermission : serverMaxGraves;
 
         // Check if the player has reached the applicable grave limit
-        if (plugin.getGraveManager().getGraveList(livingEntity).size() >= applicableMaxGraves) {
+        if (plugin.getGraveManager().getGraveCount(livingEntity) >= applicableMaxGraves) {
             if (plugin.hasGrantedPermission("graves.max.replace", player) && plugin
                     .getConfig("grave.replace-oldest", livingEntity, permissionList).getBoolean("grave.replace-oldest")) {
                 plugin.getGraveManager().removeOldestGrave(livingEntity);
@@ -208,9 +208,11 @@ public class EntityDeathListener implements Listener {
      */
     private List<ItemStack> getRemovedItemStacks(LivingEntity livingEntity) {
         List<ItemStack> removedItemStackList = new ArrayList<>();
-        if (plugin.getCacheManager().getRemovedItemStackMap().containsKey(livingEntity.getUniqueId())) {
-            removedItemStackList.addAll(plugin.getCacheManager().getRemovedItemStackMap().get(livingEntity.getUniqueId()));
-            plugin.getCacheManager().getRemovedItemStackMap().remove(livingEntity.getUniqueId());
+        List<ItemStack> cachedItemStackList = plugin.getCacheManager().getRemovedItemStackMap()
+                .remove(livingEntity.getUniqueId());
+
+        if (cachedItemStackList != null) {
+            removedItemStackList.addAll(cachedItemStackList);
         }
         return removedItemStackList;
     }
@@ -35,6 +35,12 @@ public class EntityExplodeListener implements Listener {
      */
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onEntityExplode(EntityExplodeEvent event) {
+        if (!plugin.getDataManager().isLoaded()) {
+            // Grave blocks are not known until the startup load has finished
+            event.blockList().clear();
+            return;
+        }
+
         List<Block> affectedBlocks = event.blockList();
 
         Iterator<Block> iterator = affectedBlocks.iterator();
@@ -43,27 +49,19 @@ public class EntityExplodeListener implements Listener {
             Location blockLocation = block.getLocation();
 
             Grave grave = plugin.getBlockManager().getGraveFromBlock(block);
-            if (grave != null) {
-                if (plugin.getConfig("grave.explode-protection", grave).getBoolean("grave.explode-protection")){
-                    for (Block blocks : affectedBlocks) {
-                        Location blockLocations = block.getLocation();
-                        Grave graves = plugin.getBlockManager().getGraveFromBlock(blocks);
-
-                        if (graves != null) {
-                            Location graveLocation = plugin.getGraveManager().getGraveLocation(blockLocations, graves);
-                            if (graveLocation != null) {
-                                try {
-                                    double distance = blockLocation.distance(graveLocation);
-                                    int protectionRadius = plugin.getConfig("grave.protection-radius", grave).getInt("grave.protection-radius");
-                                    if (protectionRadius != 0 && distance + 15 <= protectionRadius + 15) {
-                                        event.blockList().clear();
-                                        event.setCancelled(true);
-                                    }
-                                } catch (IllegalArgumentException ignored) {
+            if (grave != null && grave.isUndecodable()) {
+                // The items of this grave only exist in its stored data, so it is never destroyed
+                iterator.remove();
+            } else if (grave != null) {
+                if (plugin.getGraveManager().getGraveSettings(grave).isExplodeProtection()){
+                    int protectionRadius = plugin.getGraveManager().getGraveSettings(grave).getProtectionRadius();
 
-                                }
-                            }
-                        }
+                    if (protectionRadius != 0 && !plugin.getCacheManager().getGraveSpatialIndex()
+                            .getWithinRadius(blockLocation, protectionRadius,
+                                    plugin.getCacheManager().getGraveMap()::containsKey).isEmpty()) {
+                        event.blockList().clear();
+                        event.setCancelled(true);
+                        return;
                     }
                 } else {
                     Location graveHeadLocation = grave.getLocationDeath();
@@ -86,7 +84,7 @@ public class EntityExplodeListener implements Listener {
      * @return True if the grave should explode, false otherwise.
      */
     private boolean shouldExplode(Grave grave) {
-        return plugin.getConfig("grave.explode", grave).getBoolean("grave.explode");
+        return plugin.getGraveManager().getGraveSettings(grave).isExplode();
     }
 
     /**
@@ -103,7 +101,7 @@ public class EntityExplodeListener implements Listener {
         plugin.getServer().getPluginManager().callEvent(graveExplodeEvent);
 
         if (!graveExplodeEvent.isCancelled()) {
-            if (plugin.getConfig("drop.explode", grave).getBoolean("drop.explode")) {
+            if (plugin.getGraveManager().getGraveSettings(grave).isDropExplode()) {
                 plugin.getGraveManager().breakGrave(location, grave);
             } else {
                 plugin.getGraveManager().removeGrave(grave);
@@ -113,7 +111,7 @@ public class EntityExplodeListener implements Listener {
             plugin.getGraveManager().playEffect("effect.loot", location, grave);
             plugin.getEntityManager().runCommands("event.command.explode", event.getEntity(), location, grave);
 
-            if (plugin.getConfig("zombie.explode", grave).getBoolean("zombie.explode")) {
+            if (plugin.getGraveManager().getGraveSettings(grave).isZombieExplode()) {
                 plugin.getEntityManager().spawnZombie(location, grave);
             }
         } else {
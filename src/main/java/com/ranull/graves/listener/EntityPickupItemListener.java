@@ -0,0 +1,38 @@
+package com.ranull.graves.listener;
+
+import com.ranull.graves.Graves;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+
+/**
+ * Listener for handling EntityPickupItemEvent to keep track of players picking up grave compasses.
+ */
+public class EntityPickupItemListener implements Listener {
+    private final Graves plugin;
+
+    /**
+     * Constructs an EntityPickupItemListener with the specified Graves plugin.
+     *
+     * @param plugin The Graves plugin instance.
+     */
+    public EntityPickupItemListener(Graves plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Handles the EntityPickupItemEvent to mark the inventory of a player as changed when they pick up a grave
+     * compass.
+     *
+     * @param event The EntityPickupItemEvent to handle.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityPickupItem(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player
+                && plugin.getEntityManager().getCompassTracker().isGraveCompass(event.getItem().getItemStack())) {
+            plugin.getEntityManager().getCompassTracker().markDirty(event.getEntity());
+        }
+    }
+}
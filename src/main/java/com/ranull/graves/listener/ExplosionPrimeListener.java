@@ -44,7 +44,7 @@ public class ExplosionPrimeListener implements Listener {
                 double distance = explosionLocation.distance(graveLocation);
 
                 // Get the protection radius from the configuration
-                int protectionRadius = plugin.getConfig("grave.protection-radius", grave).getInt("grave.protection-radius", 0);
+                int protectionRadius = plugin.getGraveManager().getGraveSettings(grave).getProtectionRadius();
 
                 try {
                     // If the explosion is within the protection radius, cancel the explosion
@@ -71,7 +71,7 @@ public class ExplosionPrimeListener implements Listener {
      * @return True if the grave should explode, false otherwise.
      */
     private boolean shouldExplode(Grave grave) {
-        return plugin.getConfig("grave.explode", grave).getBoolean("grave.explode", false);
+        return !grave.isUndecodable() && plugin.getGraveManager().getGraveSettings(grave).isExplode();
     }
 
     /**
@@ -89,7 +89,7 @@ public class ExplosionPrimeListener implements Listener {
         // Check if the custom event was cancelled
         if (!graveExplodeEvent.isCancelled()) {
             // Handle the grave explosion based on the plugin's configuration
-            if (plugin.getConfig("drop.explode", grave).getBoolean("drop.explode", false)) {
+            if (plugin.getGraveManager().getGraveSettings(grave).isDropExplode()) {
                 plugin.getGraveManager().breakGrave(graveLocation, grave);
             } else {
                 plugin.getGraveManager().removeGrave(grave);
@@ -99,7 +99,7 @@ public class ExplosionPrimeListener implements Listener {
             plugin.getGraveManager().playEffect("effect.loot", graveLocation, grave);
             plugin.getEntityManager().runCommands("event.command.explode", event.getEntity(), graveLocation, grave);
 
-            if (plugin.getConfig("zombie.explode", grave).getBoolean("zombie.explode", false)) {
+            if (plugin.getGraveManager().getGraveSettings(grave).isZombieExplode()) {
                 plugin.getEntityManager().spawnZombie(graveLocation, grave);
             }
         } else {
@@ -36,12 +36,21 @@ public class InventoryCloseListener implements Listener {
      */
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onInventoryClose(InventoryCloseEvent event) {
+        // Stop updating grave lists and grave menus once they are closed
+        plugin.getGUIManager().getMenuRegistry().unregister(CompatibilityInventoryView.getTopInventory(event));
+
         if (isGraveInventory(event) && isPlayer(event.getPlayer())) {
             Player player = (Player) event.getPlayer();
             Entity entity = event.getPlayer();
             Inventory topInventory = CompatibilityInventoryView.getTopInventory(event);
             Grave grave = (Grave) topInventory.getHolder();
 
+            // Persist any slots changed while the inventory was open
+            if (grave != null) {
+                plugin.getDataManager().getGraveInventoryTracker().flush(grave);
+                plugin.getGUIManager().getMenuRegistry().markDirty(grave);
+            }
+
             // Call the custom GraveCloseEvent
             callGraveCloseEvent(event, grave, player, entity);
 
@@ -100,13 +109,13 @@ public class InventoryCloseListener implements Listener {
     }
 
     /**
-     * Checks if the grave is empty.
+     * Checks if the grave is empty. A grave whose items could not be decoded is never empty.
      *
      * @param grave The grave to check.
      * @return True if the grave is empty, false otherwise.
      */
     private boolean isEmptyGrave(Grave grave) {
-        return grave.getItemAmount() <= 0;
+        return !grave.isUndecodable() && grave.getItemAmount() <= 0;
     }
 
     /**
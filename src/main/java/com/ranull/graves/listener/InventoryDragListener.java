@@ -5,7 +5,6 @@ import com.ranull.graves.integration.MiniMessage;
 import com.ranull.graves.inventory.GraveList;
 import com.ranull.graves.inventory.GraveMenu;
 import com.ranull.graves.type.Grave;
-import com.ranull.graves.util.InventoryUtil;
 import com.ranull.graves.util.StringUtil;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
@@ -49,6 +48,7 @@ public class InventoryDragListener implements Listener {
     public void onInventoryDrag(InventoryDragEvent event) {
         InventoryHolder inventoryHolder = event.getInventory().getHolder();
         Player player = (Player) event.getWhoClicked();
+        plugin.getEntityManager().getCompassTracker().markDirty(player);
 
         if (inventoryHolder != null) {
             if (inventoryHolder instanceof Grave) {
@@ -111,10 +111,8 @@ public class InventoryDragListener implements Listener {
     private void handleGraveInventoryDrag(InventoryDragEvent event, Player player, Grave grave) {
         if (!grave.getGravePreview()) {
             if (plugin.getEntityManager().canOpenGrave(player, grave)) {
-                // Schedule a task to update the grave's inventory in the data manager
-                plugin.getServer().getScheduler().runTaskLater(plugin, () ->
-                        plugin.getDataManager().updateGrave(grave, "inventory",
-                                InventoryUtil.inventoryToString(grave.getInventory())), 1L);
+                // Track the change, changed slots are persisted once the inventory is quiet or closed
+                plugin.getDataManager().getGraveInventoryTracker().markDirty(grave);
             } else {
                 event.setCancelled(true);
             }
@@ -34,6 +34,8 @@ public class PlayerDropItemListener implements Listener {
     public void onPlayerDropItem(PlayerDropItemEvent event) {
         ItemStack itemStack = event.getItemDrop().getItemStack();
 
+        plugin.getEntityManager().getCompassTracker().markDirty(event.getPlayer());
+
         if (isGraveItem(itemStack)) {
             event.getItemDrop().remove();
         }
@@ -5,14 +5,13 @@ import com.ranull.graves.data.BlockData;
 import com.ranull.graves.data.ChunkData;
 import com.ranull.graves.event.GraveAutoLootEvent;
 import com.ranull.graves.integration.MiniMessage;
+import com.ranull.graves.manager.CompassTracker;
+import com.ranull.graves.manager.SpatialIndex;
 import com.ranull.graves.type.Grave;
-import com.ranull.graves.util.LocationUtil;
 import com.ranull.graves.util.StringUtil;
-import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
-import org.bukkit.Material;
 import org.bukkit.Location;
-import org.bukkit.block.BlockFace;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -20,10 +19,9 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.NamespacedKey;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -32,6 +30,12 @@ import java.util.UUID;
 public class PlayerMoveListener implements Listener {
     private final Graves plugin;
 
+    /**
+     * Reused location for the safety checks of a move, so the common path does not allocate. Moves are handled on
+     * the main thread only.
+     */
+    private final Location checkLocation = new Location(null, 0, 0, 0);
+
     /**
      * Constructs a PlayerMoveListener with the specified Graves plugin.
      *
@@ -51,26 +55,43 @@ public class PlayerMoveListener implements Listener {
      * and if the grave's configuration allows walking over it, the grave is automatically looted
      * if the player is allowed to open it.
      *
+     * Moves in chunks without graves by players without a grave compass return without allocating.
+     *
      * @param event The PlayerMoveEvent to handle.
      */
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
+        Location to = event.getTo();
+
+        if (to == null || to.getWorld() == null || !hasPlayerMoved(event)) {
+            return;
+        }
+
         Player player = event.getPlayer();
 
         if (isNotSpectatorMode(player)) {
-            if (hasPlayerMoved(event)) {
-                Location location = LocationUtil.roundLocation(player.getLocation());
+            World world = to.getWorld();
+            int x = to.getBlockX();
+            int y = (int) Math.round(to.getY());
+            int z = to.getBlockZ();
 
-                if (isLocationSafe(location)) {
-                    plugin.getLocationManager().setLastSolidLocation(player, location.clone());
-                }
+            if (isLocationSafe(world, x, y, z)) {
+                plugin.getLocationManager().setLastSolidLocation(player, world, x, y, z);
+            }
 
-                if (isLocationContainingGrave(location)) {
-                    handleGraveAutoLoot(event, player, location);
+            ChunkData chunkData = plugin.getCacheManager().getChunkIndex().get(world, x >> 4, z >> 4);
+
+            if (chunkData != null) {
+                BlockData blockData = getBlockData(chunkData, x, y, z);
+
+                if (blockData != null) {
+                    handleGraveAutoLoot(player, new Location(world, x, y, z), blockData);
                 }
+            }
 
-                // Remove the specific type of compass if within 10 blocks of a grave
-                removeSpecificCompassNearGrave(player, location);
+            // Remove the specific type of compass if within 15 blocks of a grave
+            if (plugin.getEntityManager().getCompassTracker().carriesGraveCompass(player)) {
+                removeSpecificCompassNearGrave(player, to);
             }
         }
     }
@@ -98,50 +119,51 @@ public class PlayerMoveListener implements Listener {
     }
 
     /**
-     * Checks if the location is safe for the player.
+     * Checks if a block location is safe for the player. The block below is checked first, as it rules out most
+     * moves through the air and water.
      *
-     * @param location The location to check.
+     * @param world The world.
+     * @param x     The x-coordinate.
+     * @param y     The y-coordinate.
+     * @param z     The z-coordinate.
      * @return True if the location is safe, false otherwise.
      */
-    private boolean isLocationSafe(Location location) {
-        return plugin.getLocationManager().isInsideBorder(location)
-                && location.getBlock().getRelative(BlockFace.DOWN).getType().isSolid()
-                && plugin.getLocationManager().isLocationSafePlayer(location);
-    }
+    private boolean isLocationSafe(World world, int x, int y, int z) {
+        if (!world.getBlockAt(x, y - 1, z).getType().isSolid()) {
+            return false;
+        }
 
-    /**
-     * Checks if the location contains a grave.
-     *
-     * @param location The location to check.
-     * @return True if the location contains a grave, false otherwise.
-     */
-    private boolean isLocationContainingGrave(Location location) {
-        return location.getWorld() != null && plugin.getDataManager().hasChunkData(location);
+        checkLocation.setWorld(world);
+        checkLocation.setX(x);
+        checkLocation.setY(y);
+        checkLocation.setZ(z);
+
+        boolean isSafe = plugin.getLocationManager().isInsideBorder(checkLocation)
+                && plugin.getLocationManager().isLocationSafePlayer(checkLocation);
+
+        checkLocation.setWorld(null); // Do not keep the world alive
+
+        return isSafe;
     }
 
     /**
      * Handles the auto-loot of a grave when a player moves over it.
      *
-     * @param event    The PlayerMoveEvent.
-     * @param player   The player moving over the grave.
-     * @param location The location of the grave.
+     * @param player    The player moving over the grave.
+     * @param location  The location of the grave.
+     * @param blockData The block data of the grave.
      */
-    private void handleGraveAutoLoot(PlayerMoveEvent event, Player player, Location location) {
-        ChunkData chunkData = plugin.getDataManager().getChunkData(location);
-        BlockData blockData = getBlockDataFromLocation(chunkData, location);
-
-        if (blockData != null) {
-            Grave grave = plugin.getCacheManager().getGraveMap().get(blockData.getGraveUUID());
+    private void handleGraveAutoLoot(Player player, Location location, BlockData blockData) {
+        Grave grave = plugin.getCacheManager().getGraveMap().get(blockData.getGraveUUID());
 
-            if (grave != null && plugin.getConfig("block.walk-over", grave).getBoolean("block.walk-over")
-                    && plugin.getEntityManager().canOpenGrave(player, grave)) {
-                plugin.getGraveManager().cleanupCompasses(player, grave);
-                GraveAutoLootEvent graveAutoLootEvent = new GraveAutoLootEvent(player, location, grave);
+        if (grave != null && plugin.getConfig("block.walk-over", grave).getBoolean("block.walk-over")
+                && plugin.getEntityManager().canOpenGrave(player, grave)) {
+            plugin.getGraveManager().cleanupCompasses(player, grave);
+            GraveAutoLootEvent graveAutoLootEvent = new GraveAutoLootEvent(player, location, grave);
 
-                plugin.getServer().getPluginManager().callEvent(graveAutoLootEvent);
-                if (!graveAutoLootEvent.isCancelled()) {
-                    plugin.getGraveManager().autoLootGrave(player, location, grave);
-                }
+            plugin.getServer().getPluginManager().callEvent(graveAutoLootEvent);
+            if (!graveAutoLootEvent.isCancelled()) {
+                plugin.getGraveManager().autoLootGrave(player, location, grave);
             }
         }
     }
@@ -153,84 +175,71 @@ public class PlayerMoveListener implements Listener {
      * @param location The player's current location.
      */
     private void removeSpecificCompassNearGrave(Player player, Location location) {
+        Set<UUID> nearbyGraveUUIDSet = new HashSet<>();
+
+        for (SpatialIndex.Match<UUID> match : plugin.getCacheManager().getGraveSpatialIndex()
+                .getWithinRadius(location, 15, null)) {
+            nearbyGraveUUIDSet.add(match.getValue());
+        }
+
+        // Most moves are nowhere near a grave, so skip the inventory scan entirely.
+        if (nearbyGraveUUIDSet.isEmpty()) {
+            return;
+        }
+
+        CompassTracker compassTracker = plugin.getEntityManager().getCompassTracker();
         PlayerInventory inventory = player.getInventory();
         ItemStack[] items = inventory.getContents();
 
         for (ItemStack item : items) {
-            if (item != null && item.hasItemMeta()) {
-                ItemMeta itemMeta = item.getItemMeta();
-                if (itemMeta != null) {
-                    // Check if the item is a compass with the specific name
-                    if ((item.getType() == Material.valueOf(String.valueOf(plugin.getVersionManager().getMaterialForVersion("RECOVERY_COMPASS"))))
-                            && itemMeta.hasDisplayName()) {
-
-                        UUID graveUUID = getGraveUUIDFromItemStack(item);
-
-                        if (graveUUID != null) {
-                            Grave grave = plugin.getCacheManager().getGraveMap().get(graveUUID);
-                            try {
-                                if (grave != null && location.getWorld() != null) {
-                                    Location graveLocation = plugin.getGraveManager().getGraveLocation(player.getLocation(), grave);
-                                    if (graveLocation != null && location.distance(graveLocation) <= 15) {
-                                        // Remove the specific item from the inventory
-                                        String compassName;
-                                        if (plugin.getIntegrationManager().hasMiniMessage()) {
-                                            String compassNameNew = StringUtil.parseString("&f" + plugin
-                                                    .getConfig("compass.name", grave).getString("compass.name"), grave, plugin);
-                                            compassName = MiniMessage.parseString(compassNameNew);
-                                        } else {
-                                            compassName = StringUtil.parseString("&f" + plugin
-                                                    .getConfig("compass.name", grave).getString("compass.name"), grave, plugin);
-                                        }
-                                        if (itemMeta.getDisplayName().equals(compassName)) {
-                                            inventory.remove(item);
-                                        }
-                                    }
-                                }
-                            } catch (IllegalArgumentException | NullPointerException ignored) {
-                                // ignored
-                            }
+            UUID graveUUID = compassTracker.getGraveUUID(item);
+
+            if (graveUUID != null && nearbyGraveUUIDSet.contains(graveUUID) && item.getItemMeta().hasDisplayName()) {
+                Grave grave = plugin.getCacheManager().getGraveMap().get(graveUUID);
+                try {
+                    if (grave != null) {
+                        // Remove the specific item from the inventory
+                        String compassName;
+                        if (plugin.getIntegrationManager().hasMiniMessage()) {
+                            String compassNameNew = StringUtil.parseString("&f" + plugin
+                                    .getConfig("compass.name", grave).getString("compass.name"), grave, plugin);
+                            compassName = MiniMessage.parseString(compassNameNew);
+                        } else {
+                            compassName = StringUtil.parseString("&f" + plugin
+                                    .getConfig("compass.name", grave).getString("compass.name"), grave, plugin);
+                        }
+                        if (item.getItemMeta().getDisplayName().equals(compassName)) {
+                            inventory.remove(item);
+                            compassTracker.markDirty(player);
                         }
                     }
+                } catch (IllegalArgumentException | NullPointerException ignored) {
+                    // ignored
                 }
             }
         }
     }
 
     /**
-     * Retrieves the Grave UUID from the item stack.
+     * Retrieves the BlockData at or directly above or below a block within the ChunkData.
      *
-     * @param itemStack The item stack to check.
-     * @return The UUID of the grave associated with the item stack, or null if not found.
+     * @param chunkData The ChunkData containing the block data.
+     * @param x         The x-coordinate.
+     * @param y         The y-coordinate.
+     * @param z         The z-coordinate.
+     * @return The BlockData at the specified location, or null if not found.
      */
-    private UUID getGraveUUIDFromItemStack(ItemStack itemStack) {
-        if (itemStack.hasItemMeta()) {
-            if (itemStack.getItemMeta() == null) return null;
-            String uuidString = itemStack.getItemMeta().getPersistentDataContainer()
-                    .get(new NamespacedKey(plugin, "graveUUID"), PersistentDataType.STRING);
-            return uuidString != null ? UUID.fromString(uuidString) : null;
+    private BlockData getBlockData(ChunkData chunkData, int x, int y, int z) {
+        BlockData blockData = chunkData.getBlockData(x, y, z);
+
+        if (blockData == null) {
+            blockData = chunkData.getBlockData(x, y + 1, z);
         }
-        return null;
-    }
 
-    /**
-     * Retrieves the BlockData from the location within the ChunkData.
-     *
-     * @param chunkData The ChunkData containing the block data map.
-     * @param location  The location to retrieve the block data from.
-     * @return The BlockData at the specified location, or null if not found.
-     */
-    private BlockData getBlockDataFromLocation(ChunkData chunkData, Location location) {
-        BlockData blockData = null;
-
-        if (chunkData.getBlockDataMap().containsKey(location)) {
-            blockData = chunkData.getBlockDataMap().get(location);
-        } else if (chunkData.getBlockDataMap().containsKey(location.clone().add(0, 1, 0))) {
-            blockData = chunkData.getBlockDataMap().get(location.clone().add(0, 1, 0));
-        } else if (chunkData.getBlockDataMap().containsKey(location.clone().subtract(0, 1, 0))) {
-            blockData = chunkData.getBlockDataMap().get(location.clone().subtract(0, 1, 0));
+        if (blockData == null) {
+            blockData = chunkData.getBlockData(x, y - 1, z);
         }
 
         return blockData;
     }
-}
\ No newline at end of file
+}
@@ -37,6 +37,7 @@ public class PlayerQuitListener implements Listener {
         Player player = event.getPlayer();
 
         removeLastSolidLocation(player);
+        plugin.getEntityManager().getCompassTracker().forget(player);
         stopModifyingGraveyardIfNecessary(player);
     }
 
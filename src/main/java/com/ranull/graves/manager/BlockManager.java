@@ -11,7 +11,6 @@ import org.bukkit.block.Block;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * The BlockManager class is responsible for managing block data and operations related to graves.
@@ -35,15 +34,10 @@ public final class BlockManager {
      * @return The BlockData associated with the block, or null if not found.
      */
     public BlockData getBlockData(Block block) {
-        if (plugin.getDataManager().hasChunkData(block.getLocation())) {
-            ChunkData chunkData = plugin.getDataManager().getChunkData(block.getLocation());
+        ChunkData chunkData = plugin.getCacheManager().getChunkIndex().get(block.getWorld(), block.getX() >> 4,
+                block.getZ() >> 4);
 
-            if (chunkData.getBlockDataMap().containsKey(block.getLocation())) {
-                return chunkData.getBlockDataMap().get(block.getLocation());
-            }
-        }
-
-        return null;
+        return chunkData != null ? chunkData.getBlockData(block.getX(), block.getY(), block.getZ()) : null;
     }
 
     /**
@@ -126,17 +120,7 @@ public final class BlockManager {
      * @return A list of BlockData associated with the grave.
      */
     public List<BlockData> getBlockDataList(Grave grave) {
-        List<BlockData> blockDataList = new ArrayList<>();
-
-        for (Map.Entry<String, ChunkData> chunkDataEntry : plugin.getCacheManager().getChunkMap().entrySet()) {
-            for (BlockData blockData : new ArrayList<>(chunkDataEntry.getValue().getBlockDataMap().values())) {
-                if (grave.getUUID().equals(blockData.getGraveUUID())) {
-                    blockDataList.add(blockData);
-                }
-            }
-        }
-
-        return blockDataList;
+        return plugin.getCacheManager().getBlockDataList(grave.getUUID());
     }
 
     /**
@@ -148,12 +132,8 @@ public final class BlockManager {
     public List<Location> getBlockList(Grave grave) {
         List<Location> locationList = new ArrayList<>();
 
-        for (Map.Entry<String, ChunkData> chunkDataEntry : plugin.getCacheManager().getChunkMap().entrySet()) {
-            for (BlockData blockData : new ArrayList<>(chunkDataEntry.getValue().getBlockDataMap().values())) {
-                if (grave.getUUID().equals(blockData.getGraveUUID())) {
-                    locationList.add(blockData.getLocation());
-                }
-            }
+        for (BlockData blockData : plugin.getCacheManager().getBlockDataList(grave.getUUID())) {
+            locationList.add(blockData.getLocation());
         }
 
         return locationList;
@@ -165,14 +145,9 @@ public final class BlockManager {
      * @param grave The grave to remove the blocks for.
      */
     public void removeBlock(Grave grave) {
-        for (ChunkData chunkData : plugin.getCacheManager().getChunkMap().values()) {
-
-            if (chunkData.isLoaded()) {
-                for (BlockData blockData : new ArrayList<>(chunkData.getBlockDataMap().values())) {
-                    if (grave.getUUID().equals(blockData.getGraveUUID())) {
-                        removeBlock(blockData);
-                    }
-                }
+        for (BlockData blockData : plugin.getCacheManager().getBlockDataList(grave.getUUID())) {
+            if (LocationUtil.isChunkLoaded(blockData.getLocation())) {
+                removeBlock(blockData);
             }
         }
     }
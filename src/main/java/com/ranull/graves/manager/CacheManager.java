@@ -1,16 +1,25 @@
 package com.ranull.graves.manager;
 
+import com.ranull.graves.data.BlockData;
 import com.ranull.graves.data.ChunkData;
+import com.ranull.graves.data.EntityData;
 import com.ranull.graves.type.Grave;
 import com.ranull.graves.type.Graveyard;
 import org.bukkit.Location;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Holds the in-memory state of graves, graveyards, chunks and players.
+ * <p>
+ * Every structure is safe to read from any thread. Writes to the grave map are serialized on the map, so the grave
+ * map and its owner index always change together. Index lists are copy-on-write and never modified after they are
+ * published, so readers iterate an immutable snapshot without locking. The remaining maps are concurrent maps, and
+ * {@link ChunkIndex} and {@link ChunkData} guard themselves.
+ * </p>
+ */
 public final class CacheManager {
     /**
      * A map of grave UUIDs to their corresponding {@link Grave} objects.
@@ -22,13 +31,55 @@ public final class CacheManager {
     private final Map<UUID, Grave> graveMap;
 
     /**
-     * A map of chunk identifiers to their corresponding {@link ChunkData} objects.
+     * A map of owner UUIDs to their graves that are not abandoned, ordered by creation time, oldest first.
      * <p>
-     * This {@link Map} associates each chunk identifier (as a {@link String}) with {@link ChunkData}, which holds
-     * information about the specific chunk.
+     * Maintained by {@link #graveMap} on every put and remove, so it always reflects the cached graves.
      * </p>
      */
-    private final Map<String, ChunkData> chunkMap;
+    private final Map<UUID, List<Grave>> ownerGraveMap;
+
+    /**
+     * The index of chunks to their corresponding {@link ChunkData} objects.
+     * <p>
+     * Chunks are keyed per world by their packed coordinates, so lookups from the movement and block listeners do not
+     * build a chunk string.
+     * </p>
+     */
+    private final ChunkIndex chunkIndex;
+
+    /**
+     * A map of grave UUIDs to the block data of their blocks.
+     * <p>
+     * Mirrors the block data held by {@link #chunkIndex}, so the blocks of one grave are found without walking
+     * every chunk.
+     * </p>
+     */
+    private final Map<UUID, List<BlockData>> graveBlockDataMap;
+
+    /**
+     * A map of grave UUIDs to the entity data of their holograms, furniture and corpses.
+     * <p>
+     * Mirrors the entity data held by {@link #chunkIndex}, so the entities of one grave are found without walking
+     * every chunk.
+     * </p>
+     */
+    private final Map<UUID, List<EntityData>> graveEntityDataMap;
+
+    /**
+     * Spatial index of grave death locations and grave block locations, valued by grave UUID.
+     * <p>
+     * Kept up to date by the grave map and the block index, so nearby graves are found without scanning every grave.
+     * </p>
+     */
+    private final SpatialIndex<UUID> graveSpatialIndex;
+
+    /**
+     * Queue of the alive and protection deadlines of the cached graves.
+     * <p>
+     * Kept up to date by the grave map, which registers itself as the time listener of every cached grave.
+     * </p>
+     */
+    private final GraveDeadlineQueue graveDeadlineQueue;
 
     /**
      * A map of entity UUIDs to their last known {@link Location}.
@@ -63,7 +114,7 @@ public final class CacheManager {
      * representing the block identifier.
      * </p>
      */
-    private final Map<String, Location> rightClickedBlocks = new HashMap<>();
+    private final Map<String, Location> rightClickedBlocks = new ConcurrentHashMap<>();
 
     /**
      * Constructs a new {@link CacheManager} with initialized maps.
@@ -73,21 +124,45 @@ public final class CacheManager {
      * </p>
      */
     public CacheManager() {
-        this.graveMap = new HashMap<>();
-        this.chunkMap = new HashMap<>();
-        this.lastLocationMap = new HashMap<>();
-        this.removedItemStackMap = new HashMap<>();
-        this.graveyardMap = new HashMap<>();
+        this.ownerGraveMap = new ConcurrentHashMap<>();
+        this.graveMap = new OwnerIndexedGraveMap();
+        this.chunkIndex = new ChunkIndex();
+        this.graveBlockDataMap = new ConcurrentHashMap<>();
+        this.graveEntityDataMap = new ConcurrentHashMap<>();
+        this.graveSpatialIndex = new SpatialIndex<>();
+        this.graveDeadlineQueue = new GraveDeadlineQueue();
+        this.lastLocationMap = new ConcurrentHashMap<>();
+        this.removedItemStackMap = new ConcurrentHashMap<>();
+        this.graveyardMap = new ConcurrentHashMap<>();
     }
 
     /**
      * Returns the map of grave UUIDs to their corresponding {@link Grave} objects.
+     * <p>
+     * Its views are read-only and weakly consistent, so they may be iterated while graves are added or removed.
+     * </p>
      * @return the map of graves
      */
     public Map<UUID, Grave> getGraveMap() {
         return graveMap;
     }
 
+    /**
+     * Returns a snapshot of the cached graves, unaffected by later changes.
+     * @return the list of graves
+     */
+    public List<Grave> getGraveSnapshot() {
+        return Collections.unmodifiableList(new ArrayList<>(graveMap.values()));
+    }
+
+    /**
+     * Returns the queue of the alive and protection deadlines of the cached graves.
+     * @return the deadline queue
+     */
+    public GraveDeadlineQueue getGraveDeadlineQueue() {
+        return graveDeadlineQueue;
+    }
+
     /**
      * Returns the map of graveyard names to their corresponding {@link Graveyard} objects.
      * @return the map of graveyards
@@ -133,11 +208,143 @@ public final class CacheManager {
     }
 
     /**
-     * Returns the map of chunk identifiers to their corresponding {@link ChunkData} objects.
-     * @return the map of chunk data
+     * Returns the index of chunks to their corresponding {@link ChunkData} objects.
+     * @return the chunk index
      */
+    public ChunkIndex getChunkIndex() {
+        return chunkIndex;
+    }
+
+    /**
+     * Returns the spatial index of grave death locations and grave block locations, valued by grave UUID.
+     * <p>
+     * A grave with several blocks appears once per block, plus once for its death location.
+     * </p>
+     * @return the spatial index
+     */
+    public SpatialIndex<UUID> getGraveSpatialIndex() {
+        return graveSpatialIndex;
+    }
+
+    /**
+     * Returns the block data of a grave.
+     * @param graveUUID the UUID of the grave
+     * @return a copy of the block data, empty if the grave has no blocks
+     */
+    public List<BlockData> getBlockDataList(UUID graveUUID) {
+        List<BlockData> blockDataList = graveBlockDataMap.get(graveUUID);
+
+        return blockDataList != null ? new ArrayList<>(blockDataList) : new ArrayList<>();
+    }
+
+    /**
+     * Returns the entity data of a grave.
+     * @param graveUUID the UUID of the grave
+     * @return a copy of the entity data, empty if the grave has no entities
+     */
+    public List<EntityData> getEntityDataList(UUID graveUUID) {
+        List<EntityData> entityDataList = graveEntityDataMap.get(graveUUID);
+
+        return entityDataList != null ? new ArrayList<>(entityDataList) : new ArrayList<>();
+    }
+
+    /**
+     * Adds block data to the grave index. Called whenever block data is added to a chunk.
+     * @param blockData the block data
+     */
+    public void indexBlockData(BlockData blockData) {
+        index(graveBlockDataMap, blockData.getGraveUUID(), blockData);
+
+        if (blockData.getGraveUUID() != null && blockData.getLocation() != null) {
+            graveSpatialIndex.add(blockData.getLocation(), blockData.getGraveUUID());
+        }
+    }
+
+    /**
+     * Removes block data from the grave index. Called whenever block data is removed from a chunk.
+     * @param blockData the block data
+     */
+    public void unindexBlockData(BlockData blockData) {
+        unindex(graveBlockDataMap, blockData.getGraveUUID(), blockData);
+
+        if (blockData.getGraveUUID() != null && blockData.getLocation() != null) {
+            graveSpatialIndex.remove(blockData.getLocation(), blockData.getGraveUUID());
+        }
+    }
+
+    /**
+     * Adds entity data to the grave index. Called whenever entity data is added to a chunk.
+     * @param entityData the entity data
+     */
+    public void indexEntityData(EntityData entityData) {
+        index(graveEntityDataMap, entityData.getUUIDGrave(), entityData);
+    }
+
+    /**
+     * Removes entity data from the grave index. Called whenever entity data is removed from a chunk.
+     * @param entityData the entity data
+     */
+    public void unindexEntityData(EntityData entityData) {
+        unindex(graveEntityDataMap, entityData.getUUIDGrave(), entityData);
+    }
+
+    /**
+     * Adds a value to a grave index, replacing the grave's list atomically.
+     * @param indexMap the index
+     * @param graveUUID the UUID of the grave
+     * @param value the value
+     * @param <T> the value type
+     */
+    private static <T> void index(Map<UUID, List<T>> indexMap, UUID graveUUID, T value) {
+        if (graveUUID != null) {
+            indexMap.compute(graveUUID, (uuid, valueList) -> {
+                List<T> copy = valueList != null ? new ArrayList<>(valueList) : new ArrayList<>(1);
+
+                copy.add(value);
+
+                return Collections.unmodifiableList(copy);
+            });
+        }
+    }
+
+    /**
+     * Removes a value from a grave index by identity, replacing the grave's list atomically and dropping the grave
+     * once it has no values left.
+     * @param indexMap the index
+     * @param graveUUID the UUID of the grave
+     * @param value the value
+     * @param <T> the value type
+     */
+    private static <T> void unindex(Map<UUID, List<T>> indexMap, UUID graveUUID, T value) {
+        if (graveUUID != null) {
+            indexMap.computeIfPresent(graveUUID, (uuid, valueList) -> {
+                List<T> copy = new ArrayList<>(valueList);
+
+                removeByIdentity(copy, value);
+
+                return !copy.isEmpty() ? Collections.unmodifiableList(copy) : null;
+            });
+        }
+    }
+
+    /**
+     * Returns a read-only map of chunk identifiers in the format "world|chunkX|chunkZ" to their {@link ChunkData}.
+     * <p>
+     * The map is a copy built from {@link #getChunkIndex()} and is kept for compatibility.
+     * </p>
+     * @return the map of chunks
+     * @deprecated use {@link #getChunkIndex()}
+     */
+    @Deprecated
     public Map<String, ChunkData> getChunkMap() {
-        return chunkMap;
+        Map<String, ChunkData> chunkMap = new HashMap<>();
+
+        for (ChunkData chunkData : chunkIndex.values()) {
+            chunkMap.put((chunkData.getWorld() != null ? chunkData.getWorld().getName() : null) + "|"
+                    + chunkData.getX() + "|" + chunkData.getZ(), chunkData);
+        }
+
+        return Collections.unmodifiableMap(chunkMap);
     }
 
     /**
@@ -157,24 +364,240 @@ public final class CacheManager {
     }
 
     /**
-     * Returns the oldest grave for a given player.
+     * Returns the oldest grave for a given player, abandoned graves excluded.
      * @param playerUUID The UUID of the player whose graves to consider.
      * @return The oldest grave for the specified player.
      */
     public Grave getOldestGrave(UUID playerUUID) {
-        long oldestTime = Long.MAX_VALUE;
-        Grave oldestGrave = null;
-
-        for (Grave cur : graveMap.values()) { // Iterate over all graves
-            if (cur.getOwnerUUID().equals(playerUUID)) { // Check if the grave belongs to the specified player
-                long curTime = cur.getTimeCreation();
-                if (curTime < oldestTime) {
-                    oldestTime = curTime;
-                    oldestGrave = cur;
-                }
+        List<Grave> graveList = ownerGraveMap.get(playerUUID);
+
+        return graveList != null && !graveList.isEmpty() ? graveList.get(0) : null;
+    }
+
+    /**
+     * Returns the graves of an owner, abandoned graves excluded, ordered by creation time, oldest first.
+     * @param ownerUUID the UUID of the owner
+     * @return a copy of the owner's graves
+     */
+    public List<Grave> getGraveList(UUID ownerUUID) {
+        List<Grave> graveList = ownerGraveMap.get(ownerUUID);
+
+        return graveList != null ? new ArrayList<>(graveList) : new ArrayList<>();
+    }
+
+    /**
+     * Returns the number of graves of an owner, abandoned graves excluded.
+     * @param ownerUUID the UUID of the owner
+     * @return the number of graves
+     */
+    public int getGraveCount(UUID ownerUUID) {
+        List<Grave> graveList = ownerGraveMap.get(ownerUUID);
+
+        return graveList != null ? graveList.size() : 0;
+    }
+
+    /**
+     * Updates the owner index after a cached grave was abandoned or changed owner.
+     * @param grave the grave
+     */
+    public void refreshOwnerIndex(Grave grave) {
+        synchronized (graveMap) {
+            if (graveMap.get(grave.getUUID()) == grave) {
+                unindexOwner(grave);
+                indexOwner(grave);
+            }
+        }
+    }
+
+    /**
+     * Adds a grave to the owner index, keeping the owner's graves ordered by creation time. Must be called while
+     * holding the grave map's lock.
+     * @param grave the grave
+     */
+    private void indexOwner(Grave grave) {
+        if (grave.getOwnerUUID() == null || grave.isAbandoned()) {
+            return;
+        }
+
+        List<Grave> graveList = ownerGraveMap.get(grave.getOwnerUUID());
+        List<Grave> copy = graveList != null ? new ArrayList<>(graveList) : new ArrayList<>(1);
+        int index = copy.size();
+
+        // Graves are mostly created in order, so search from the newest end.
+        while (index > 0 && copy.get(index - 1).getTimeCreation() > grave.getTimeCreation()) {
+            index--;
+        }
+
+        copy.add(index, grave);
+        ownerGraveMap.put(grave.getOwnerUUID(), Collections.unmodifiableList(copy));
+    }
+
+    /**
+     * Removes a grave from the owner index, wherever it was indexed. Must be called while holding the grave map's
+     * lock.
+     * @param grave the grave
+     */
+    private void unindexOwner(Grave grave) {
+        if (grave.getOwnerUUID() != null && unindexOwner(grave.getOwnerUUID(), grave)) {
+            return;
+        }
+
+        // The owner changed since the grave was indexed.
+        for (Map.Entry<UUID, List<Grave>> entry : ownerGraveMap.entrySet()) {
+            if (unindexOwner(entry.getKey(), grave)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes a grave from one owner's list in the owner index.
+     * @param ownerUUID the UUID of the owner
+     * @param grave the grave
+     * @return {@code true} if the grave was removed
+     */
+    private boolean unindexOwner(UUID ownerUUID, Grave grave) {
+        List<Grave> graveList = ownerGraveMap.get(ownerUUID);
+
+        if (graveList == null) {
+            return false;
+        }
+
+        List<Grave> copy = new ArrayList<>(graveList);
+
+        if (!removeByIdentity(copy, grave)) {
+            return false;
+        }
+
+        if (copy.isEmpty()) {
+            ownerGraveMap.remove(ownerUUID);
+        } else {
+            ownerGraveMap.put(ownerUUID, Collections.unmodifiableList(copy));
+        }
+
+        return true;
+    }
+
+    /**
+     * Adds the death location of a grave to the spatial index. Must be called while holding the grave map's lock.
+     * @param grave the grave
+     */
+    private void indexLocation(Grave grave) {
+        if (grave.getLocationDeath() != null) {
+            graveSpatialIndex.add(grave.getLocationDeath(), grave.getUUID());
+        }
+    }
+
+    /**
+     * Removes the death location of a grave from the spatial index. Must be called while holding the grave map's
+     * lock.
+     * @param grave the grave
+     */
+    private void unindexLocation(Grave grave) {
+        if (grave.getLocationDeath() != null) {
+            graveSpatialIndex.remove(grave.getLocationDeath(), grave.getUUID());
+        }
+    }
+
+    /**
+     * Removes a value from a list by identity.
+     * @param valueList the list
+     * @param value the value
+     * @param <T> the value type
+     * @return {@code true} if the value was removed
+     */
+    private static <T> boolean removeByIdentity(List<T> valueList, T value) {
+        for (int i = valueList.size() - 1; i >= 0; i--) {
+            if (valueList.get(i) == value) {
+                valueList.remove(i);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Grave map that keeps the owner index up to date on every change.
+     * <p>
+     * Changes must go through {@link #put(UUID, Grave)}, {@link #remove(Object)} or {@link #clear()}, which are
+     * serialized on the map; the entry, key and value views are read-only. Reads go straight to a concurrent map and
+     * never lock.
+     * </p>
+     */
+    private final class OwnerIndexedGraveMap extends AbstractMap<UUID, Grave> {
+        /**
+         * The backing map.
+         */
+        private final Map<UUID, Grave> delegate = new ConcurrentHashMap<>();
+
+        @Override
+        public synchronized Grave put(UUID uuid, Grave grave) {
+            Grave previous = delegate.put(uuid, grave);
+
+            if (previous != null) {
+                unindexOwner(previous);
+                unindexLocation(previous);
+                previous.setTimeListener(null);
+            }
+
+            indexOwner(grave);
+            indexLocation(grave);
+            grave.setTimeListener(graveDeadlineQueue::schedule);
+            graveDeadlineQueue.schedule(grave);
+
+            return previous;
+        }
+
+        @Override
+        public synchronized Grave remove(Object uuid) {
+            Grave previous = delegate.remove(uuid);
+
+            if (previous != null) {
+                unindexOwner(previous);
+                unindexLocation(previous);
+                previous.setTimeListener(null);
+                graveDeadlineQueue.unschedule(previous.getUUID());
             }
+
+            return previous;
         }
 
-        return oldestGrave;
+        @Override
+        public synchronized void clear() {
+            for (Grave grave : delegate.values()) {
+                unindexLocation(grave);
+                grave.setTimeListener(null);
+            }
+
+            delegate.clear();
+            ownerGraveMap.clear();
+            graveDeadlineQueue.clear();
+        }
+
+        @Override
+        public Grave get(Object uuid) {
+            return uuid != null ? delegate.get(uuid) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object uuid) {
+            return uuid != null && delegate.containsKey(uuid);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return delegate.isEmpty();
+        }
+
+        @Override
+        public Set<Entry<UUID, Grave>> entrySet() {
+            return Collections.unmodifiableMap(delegate).entrySet();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,497 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.data.BlockData;
+import com.ranull.graves.data.ChunkData;
+import com.ranull.graves.data.EntityData;
+import com.ranull.graves.data.HologramData;
+import com.ranull.graves.type.Grave;
+import com.ranull.graves.type.Graveyard;
+import com.ranull.graves.util.LocationUtil;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.BlockFace;
+import org.bukkit.entity.EntityType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Binary snapshot of the grave caches, used to warm-start without reading every table.
+ * <p>
+ * The snapshot is written to {@code plugins/GravesX/data/cache.snapshot} on a clean shutdown, after all queued writes
+ * have been saved, together with the database change sequence at that moment. On startup the file is memory-mapped
+ * and only used if the change sequence still matches, meaning nothing was written to the database since. The file is
+ * deleted once read, so a snapshot is never used twice.
+ * </p>
+ */
+public final class CacheSnapshot {
+    /**
+     * Magic number identifying a snapshot file ("GXSN").
+     */
+    private static final int MAGIC = 0x4758534E;
+
+    /**
+     * The current snapshot version.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Entity record marker for holograms.
+     */
+    private static final byte RECORD_HOLOGRAM = 1;
+
+    /**
+     * Entity record marker for other entities.
+     */
+    private static final byte RECORD_ENTITY = 0;
+
+    /**
+     * The main plugin instance associated with Graves.
+     */
+    private final Graves plugin;
+
+    /**
+     * The data manager.
+     */
+    private final DataManager dataManager;
+
+    /**
+     * The snapshot file.
+     */
+    private final File file;
+
+    /**
+     * Initializes a new instance of the {@code CacheSnapshot} class.
+     *
+     * @param plugin      the plugin instance.
+     * @param dataManager the data manager.
+     */
+    public CacheSnapshot(Graves plugin, DataManager dataManager) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        this.file = new File(new File(plugin.getDataFolder(), "data"), "cache.snapshot");
+    }
+
+    /**
+     * Writes the current caches to the snapshot file.
+     *
+     * @param changeSequence the database change sequence the caches reflect.
+     * @return true if the snapshot was written.
+     */
+    public boolean write(long changeSequence) {
+        long start = System.currentTimeMillis();
+        File temporaryFile = new File(file.getParentFile(), file.getName() + ".tmp");
+
+        if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+            plugin.getLogger().warning("Failed to create snapshot directory " + file.getParentFile());
+            return false;
+        }
+
+        try (DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(temporaryFile), 1 << 16))) {
+            dataOutputStream.writeInt(MAGIC);
+            dataOutputStream.writeInt(VERSION);
+            dataOutputStream.writeLong(changeSequence);
+            dataOutputStream.writeLong(System.currentTimeMillis());
+
+            List<Grave> graveList = new ArrayList<>(plugin.getCacheManager().getGraveMap().values());
+
+            dataOutputStream.writeInt(graveList.size());
+
+            for (Grave grave : graveList) {
+                writeGrave(dataOutputStream, grave);
+            }
+
+            List<Graveyard> graveyardList = new ArrayList<>(plugin.getCacheManager().getGraveyardsMap().values());
+
+            dataOutputStream.writeInt(graveyardList.size());
+
+            for (Graveyard graveyard : graveyardList) {
+                writeString(dataOutputStream, graveyard.getName());
+                writeString(dataOutputStream, graveyard.getWorld().getName());
+                writeString(dataOutputStream, graveyard.getType().name());
+                writeString(dataOutputStream, Graveyard.serializeLocations(graveyard.getGraveLocationMap()));
+            }
+
+            List<BlockData> blockDataList = new ArrayList<>();
+            List<EntityData> entityDataList = new ArrayList<>();
+
+            for (ChunkData chunkData : plugin.getCacheManager().getChunkIndex().values()) {
+                blockDataList.addAll(chunkData.getBlockDataList());
+                entityDataList.addAll(chunkData.getEntityDataMap().values());
+            }
+
+            dataOutputStream.writeInt(blockDataList.size());
+
+            for (BlockData blockData : blockDataList) {
+                writeString(dataOutputStream, LocationUtil.locationToString(blockData.getLocation()));
+                writeUUID(dataOutputStream, blockData.getGraveUUID());
+                writeString(dataOutputStream, blockData.getReplaceMaterial());
+                writeString(dataOutputStream, blockData.getReplaceData());
+            }
+
+            dataOutputStream.writeInt(entityDataList.size());
+
+            for (EntityData entityData : entityDataList) {
+                dataOutputStream.writeByte(entityData instanceof HologramData ? RECORD_HOLOGRAM : RECORD_ENTITY);
+                writeString(dataOutputStream, LocationUtil.locationToString(entityData.getLocation()));
+                writeUUID(dataOutputStream, entityData.getUUIDEntity());
+                writeUUID(dataOutputStream, entityData.getUUIDGrave());
+                writeString(dataOutputStream, entityData.getType().name());
+                dataOutputStream.writeInt(entityData instanceof HologramData ? ((HologramData) entityData).getLine() : 0);
+            }
+        } catch (IOException | RuntimeException exception) {
+            plugin.getLogger().warning("Failed to write cache snapshot: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+            temporaryFile.delete();
+            return false;
+        }
+
+        try {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            plugin.getLogger().warning("Failed to write cache snapshot: " + exception.getMessage());
+            temporaryFile.delete();
+            return false;
+        }
+
+        plugin.getLogger().info("Wrote cache snapshot in " + (System.currentTimeMillis() - start) + "ms.");
+
+        return true;
+    }
+
+    /**
+     * Deletes the snapshot file, for a database whose contents were replaced without the snapshot knowing.
+     */
+    public void delete() {
+        if (file.exists() && !file.delete()) {
+            plugin.getLogger().warning("Failed to delete cache snapshot " + file);
+        }
+    }
+
+    /**
+     * Reads the snapshot file if it matches the database change sequence. The file is deleted afterwards.
+     *
+     * @param changeSequence the current database change sequence.
+     * @param entityTypes    the entity types whose tables are enabled; other entity records are skipped.
+     * @return the action publishing the snapshot into the caches, or null if there is no valid snapshot.
+     */
+    public Runnable read(long changeSequence, Collection<EntityData.Type> entityTypes) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        long start = System.currentTimeMillis();
+        Runnable publish = null;
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel fileChannel = randomAccessFile.getChannel()) {
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                plugin.getLogger().info("Ignoring cache snapshot with an unknown format.");
+            } else if (buffer.getLong() != changeSequence) {
+                plugin.getLogger().info("Database changed since the cache snapshot was written, loading from database.");
+            } else {
+                buffer.getLong(); // Creation time
+                publish = readCaches(buffer, entityTypes);
+                plugin.getLogger().info("Read cache snapshot in " + (System.currentTimeMillis() - start) + "ms.");
+            }
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | NullPointerException exception) {
+            plugin.getLogger().warning("Failed to read cache snapshot, loading from database: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+            publish = null;
+        }
+
+        if (!file.delete()) {
+            plugin.getLogger().warning("Failed to delete cache snapshot " + file);
+        }
+
+        return publish;
+    }
+
+    /**
+     * Reads the cache sections of a snapshot.
+     *
+     * @param buffer      the mapped snapshot, positioned after the header.
+     * @param entityTypes the entity types whose tables are enabled.
+     * @return the action publishing the snapshot into the caches.
+     */
+    private Runnable readCaches(MappedByteBuffer buffer, Collection<EntityData.Type> entityTypes) {
+        List<Grave> graveList = new ArrayList<>();
+        List<Graveyard> graveyardList = new ArrayList<>();
+        List<BlockData> blockDataList = new ArrayList<>();
+        List<EntityData> entityDataList = new ArrayList<>();
+
+        for (int i = buffer.getInt(); i > 0; i--) {
+            graveList.add(readGrave(buffer));
+        }
+
+        for (int i = buffer.getInt(); i > 0; i--) {
+            String name = readString(buffer);
+            World world = plugin.getServer().getWorld(readString(buffer));
+            Graveyard.Type type = Graveyard.Type.valueOf(readString(buffer));
+            Map<Location, BlockFace> locationMap = Graveyard.deserializeLocations(readString(buffer));
+
+            if (world != null) {
+                Graveyard graveyard = new Graveyard(name, world, type);
+                Location spawnLocation = null;
+
+                for (Map.Entry<Location, BlockFace> entry : locationMap.entrySet()) {
+                    if (spawnLocation == null) {
+                        spawnLocation = entry.getKey();
+                    }
+
+                    graveyard.addGraveLocation(entry.getKey(), entry.getValue());
+                }
+
+                if (spawnLocation != null) {
+                    graveyard.setSpawnLocation(spawnLocation);
+                }
+
+                graveyardList.add(graveyard);
+            }
+        }
+
+        for (int i = buffer.getInt(); i > 0; i--) {
+            Location location = LocationUtil.stringToLocation(readString(buffer));
+            UUID graveUUID = readUUID(buffer);
+            String replaceMaterial = readString(buffer);
+            String replaceData = readString(buffer);
+
+            if (location != null) {
+                blockDataList.add(new BlockData(location, graveUUID, replaceMaterial, replaceData));
+            }
+        }
+
+        for (int i = buffer.getInt(); i > 0; i--) {
+            byte record = buffer.get();
+            Location location = LocationUtil.stringToLocation(readString(buffer));
+            UUID uuidEntity = readUUID(buffer);
+            UUID uuidGrave = readUUID(buffer);
+            EntityData.Type type = EntityData.Type.valueOf(readString(buffer));
+            int line = buffer.getInt();
+
+            if (location != null && (record == RECORD_HOLOGRAM || entityTypes.contains(type))) {
+                entityDataList.add(record == RECORD_HOLOGRAM
+                        ? new HologramData(location, uuidEntity, uuidGrave, line)
+                        : new EntityData(location, uuidEntity, uuidGrave, type));
+            }
+        }
+
+        plugin.getLogger().info("Read " + graveList.size() + " graves, " + graveyardList.size() + " graveyards, "
+                + blockDataList.size() + " blocks and " + entityDataList.size() + " entities from cache snapshot.");
+
+        return () -> {
+            for (Grave grave : graveList) {
+                plugin.getCacheManager().getGraveMap().put(grave.getUUID(), grave);
+            }
+
+            for (Graveyard graveyard : graveyardList) {
+                plugin.getCacheManager().getGraveyardsMap().put(graveyard.getName(), graveyard);
+            }
+
+            for (BlockData blockData : blockDataList) {
+                dataManager.cacheBlockData(blockData);
+            }
+
+            for (EntityData entityData : entityDataList) {
+                dataManager.cacheEntityData(entityData);
+            }
+        };
+    }
+
+    /**
+     * Writes a grave, storing its inventory and equipment in the storage format.
+     *
+     * @param dataOutputStream the output.
+     * @param grave            the grave.
+     * @throws IOException if an I/O error occurs.
+     */
+    private void writeGrave(DataOutputStream dataOutputStream, Grave grave) throws IOException {
+        // A spilled payload is read from the spill file as it is, rather than read back into the grave, which may
+        // fall back to the database.
+        Grave.Payload payload = grave.isSpilled()
+                ? dataManager.getGraveSpillStore().peek(grave.getUUID()) : null;
+
+        if (grave.isSpilled() && payload == null) {
+            throw new IOException("Spilled grave " + grave.getUUID() + " could not be read");
+        }
+
+        writeUUID(dataOutputStream, grave.getUUID());
+        writeString(dataOutputStream, grave.getOwnerType() != null ? grave.getOwnerType().name() : null);
+        writeString(dataOutputStream, grave.getOwnerName());
+        writeString(dataOutputStream, grave.getOwnerNameDisplay());
+        writeUUID(dataOutputStream, grave.getOwnerUUID());
+        writeString(dataOutputStream, payload != null ? payload.getOwnerTexture() : grave.getOwnerTexture());
+        writeString(dataOutputStream, payload != null
+                ? payload.getOwnerTextureSignature() : grave.getOwnerTextureSignature());
+        writeString(dataOutputStream, grave.getKillerType() != null ? grave.getKillerType().name() : null);
+        writeString(dataOutputStream, grave.getKillerName());
+        writeString(dataOutputStream, grave.getKillerNameDisplay());
+        writeUUID(dataOutputStream, grave.getKillerUUID());
+        writeString(dataOutputStream, grave.getLocationDeath() != null
+                ? LocationUtil.locationToString(grave.getLocationDeath()) : null);
+        dataOutputStream.writeFloat(grave.getYaw());
+        dataOutputStream.writeFloat(grave.getPitch());
+        if (payload != null) {
+            writeString(dataOutputStream, payload.getInventoryData());
+            writeString(dataOutputStream, payload.getEquipmentData());
+        } else {
+            writeString(dataOutputStream, grave.isInventoryLoaded()
+                    ? dataManager.getItemFormat().encodeInventory(grave.getLoadedInventory())
+                    : grave.getInventoryData());
+            writeString(dataOutputStream, grave.getEquipmentData() != null
+                    ? grave.getEquipmentData() : dataManager.getItemFormat().encodeEquipment(grave.getEquipmentMap()));
+        }
+
+        dataOutputStream.writeInt(grave.getExperience());
+        dataOutputStream.writeBoolean(grave.getProtection());
+        dataOutputStream.writeBoolean(grave.isAbandoned());
+        dataOutputStream.writeLong(grave.getTimeAlive());
+        dataOutputStream.writeLong(grave.getTimeProtection());
+        dataOutputStream.writeLong(grave.getTimeCreation());
+        writeString(dataOutputStream, grave.getPermissionList() != null
+                ? String.join("|", grave.getPermissionList()) : null);
+    }
+
+    /**
+     * Reads a grave written by {@link #writeGrave(DataOutputStream, Grave)}.
+     *
+     * @param buffer the mapped snapshot.
+     * @return the grave.
+     */
+    private Grave readGrave(MappedByteBuffer buffer) {
+        Grave grave = new Grave(readUUID(buffer));
+        String ownerType = readString(buffer);
+        String ownerName = readString(buffer);
+
+        grave.setOwnerType(ownerType != null ? EntityType.valueOf(ownerType) : null);
+        grave.setOwnerName(ownerName != null ? ownerName.replace(" ", "_") : null);
+        grave.setOwnerNameDisplay(readString(buffer));
+        grave.setOwnerUUID(readUUID(buffer));
+        grave.setOwnerTexture(readString(buffer));
+        grave.setOwnerTextureSignature(readString(buffer));
+
+        String killerType = readString(buffer);
+        String killerName = readString(buffer);
+        String killerNameDisplay = readString(buffer);
+
+        grave.setKillerType(killerType != null ? EntityType.valueOf(killerType) : null);
+        grave.setKillerName(killerName != null ? killerName.replace(" ", "_") : null);
+        grave.setKillerNameDisplay(killerNameDisplay != null ? killerNameDisplay.replace(" ", "_") : null);
+        grave.setKillerUUID(readUUID(buffer));
+
+        String locationDeath = readString(buffer);
+
+        grave.setLocationDeath(locationDeath != null ? LocationUtil.stringToLocation(locationDeath) : null);
+        grave.setYaw(buffer.getFloat());
+        grave.setPitch(buffer.getFloat());
+
+        String inventoryData = readString(buffer);
+        String equipmentData = readString(buffer);
+
+        grave.setLoader(dataManager.getGraveLoader());
+        grave.setInventoryData(inventoryData, dataManager.getItemFormat().countItems(inventoryData));
+
+        if (equipmentData != null) {
+            grave.setEquipmentData(equipmentData);
+        }
+
+        grave.setExperience(buffer.getInt());
+        grave.setProtection(buffer.get() != 0);
+        grave.setAbandoned(buffer.get() != 0);
+        grave.setTimeAlive(buffer.getLong());
+        grave.setTimeProtection(buffer.getLong());
+        grave.setTimeCreation(buffer.getLong());
+
+        String permissions = readString(buffer);
+
+        grave.setPermissionList(permissions != null && !permissions.isEmpty()
+                ? new ArrayList<>(Arrays.asList(permissions.split("\\|"))) : new ArrayList<>());
+
+        return grave;
+    }
+
+    /**
+     * Writes a nullable UTF-8 string prefixed with its length, -1 for null.
+     *
+     * @param dataOutputStream the output.
+     * @param string           the string.
+     * @throws IOException if an I/O error occurs.
+     */
+    private static void writeString(DataOutputStream dataOutputStream, String string) throws IOException {
+        if (string == null) {
+            dataOutputStream.writeInt(-1);
+        } else {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+            dataOutputStream.writeInt(bytes.length);
+            dataOutputStream.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param buffer the mapped snapshot.
+     * @return the string, or null.
+     */
+    private static String readString(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a nullable UUID.
+     *
+     * @param dataOutputStream the output.
+     * @param uuid             the UUID.
+     * @throws IOException if an I/O error occurs.
+     */
+    private static void writeUUID(DataOutputStream dataOutputStream, UUID uuid) throws IOException {
+        dataOutputStream.writeBoolean(uuid != null);
+
+        if (uuid != null) {
+            dataOutputStream.writeLong(uuid.getMostSignificantBits());
+            dataOutputStream.writeLong(uuid.getLeastSignificantBits());
+        }
+    }
+
+    /**
+     * Reads a UUID written by {@link #writeUUID(DataOutputStream, UUID)}.
+     *
+     * @param buffer the mapped snapshot.
+     * @return the UUID, or null.
+     */
+    private static UUID readUUID(MappedByteBuffer buffer) {
+        return buffer.get() != 0 ? new UUID(buffer.getLong(), buffer.getLong()) : null;
+    }
+}
@@ -0,0 +1,457 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.data.ChunkData;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Index of the cached {@link ChunkData}, one open-addressing table per world.
+ * <p>
+ * Chunks are keyed by their x and z coordinates packed into a primitive {@code long}, and worlds are kept in a small
+ * array that is scanned by reference, so {@link #get(World, int, int)} and {@link #contains(World, int, int)} do not
+ * allocate. Servers rarely have more than a handful of worlds, which keeps the scan cheaper than hashing a name.
+ * </p>
+ * <p>
+ * The index is safe to use from any thread. Writers take the write lock of a {@link StampedLock}; readers probe
+ * without locking and validate the stamp afterwards, falling back to the read lock only if a write overlapped. A
+ * resized table is published as a new object, so a reader never sees keys and values of different sizes.
+ * </p>
+ */
+public final class ChunkIndex {
+    /**
+     * Initial number of slots of a world table, must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Guards every table of the index.
+     */
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * The table of each indexed world, replaced as a whole when a world is added.
+     */
+    private volatile WorldTable[] worldTables = new WorldTable[0];
+
+    /**
+     * Packs chunk coordinates into a key.
+     *
+     * @param chunkX the chunk x-coordinate.
+     * @param chunkZ the chunk z-coordinate.
+     * @return the key.
+     */
+    public static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the chunk data of a chunk.
+     *
+     * @param world  the world.
+     * @param chunkX the chunk x-coordinate.
+     * @param chunkZ the chunk z-coordinate.
+     * @return the chunk data, or null if the chunk is not indexed.
+     */
+    public ChunkData get(World world, int chunkX, int chunkZ) {
+        long key = key(chunkX, chunkZ);
+        long stamp = lock.tryOptimisticRead();
+
+        if (stamp != 0L) {
+            ChunkData chunkData = find(world, key);
+
+            if (lock.validate(stamp)) {
+                return chunkData;
+            }
+        }
+
+        stamp = lock.readLock();
+
+        try {
+            return find(world, key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Checks if a chunk is indexed.
+     *
+     * @param world  the world.
+     * @param chunkX the chunk x-coordinate.
+     * @param chunkZ the chunk z-coordinate.
+     * @return true if the chunk is indexed.
+     */
+    public boolean contains(World world, int chunkX, int chunkZ) {
+        return get(world, chunkX, chunkZ) != null;
+    }
+
+    /**
+     * Gets the chunk data of a chunk, creating and indexing it if the chunk is not indexed yet.
+     *
+     * @param world  the world.
+     * @param chunkX the chunk x-coordinate.
+     * @param chunkZ the chunk z-coordinate.
+     * @return the chunk data.
+     */
+    public ChunkData getOrCreate(World world, int chunkX, int chunkZ) {
+        ChunkData chunkData = get(world, chunkX, chunkZ);
+
+        if (chunkData != null) {
+            return chunkData;
+        }
+
+        long stamp = lock.writeLock();
+
+        try {
+            chunkData = find(world, key(chunkX, chunkZ));
+
+            if (chunkData == null) {
+                chunkData = new ChunkData(world, chunkX, chunkZ);
+                getOrAddTable(world).put(key(chunkX, chunkZ), chunkData);
+            }
+
+            return chunkData;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Indexes chunk data under its world and coordinates.
+     *
+     * @param chunkData the chunk data.
+     * @return the chunk data previously indexed for the same chunk, or null.
+     */
+    public ChunkData put(ChunkData chunkData) {
+        long stamp = lock.writeLock();
+
+        try {
+            return getOrAddTable(chunkData.getWorld()).put(key(chunkData.getX(), chunkData.getZ()), chunkData);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes a chunk from the index.
+     *
+     * @param world  the world.
+     * @param chunkX the chunk x-coordinate.
+     * @param chunkZ the chunk z-coordinate.
+     * @return the removed chunk data, or null if the chunk was not indexed.
+     */
+    public ChunkData remove(World world, int chunkX, int chunkZ) {
+        long stamp = lock.writeLock();
+
+        try {
+            WorldTable worldTable = getTable(world);
+
+            return worldTable != null ? worldTable.remove(key(chunkX, chunkZ)) : null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets the number of indexed chunks.
+     *
+     * @return the number of chunks.
+     */
+    public int size() {
+        long stamp = lock.readLock();
+
+        try {
+            int size = 0;
+
+            for (WorldTable worldTable : worldTables) {
+                size += worldTable.size;
+            }
+
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets a snapshot of all indexed chunk data. The list is not affected by later changes to the index.
+     *
+     * @return the chunk data.
+     */
+    public List<ChunkData> values() {
+        long stamp = lock.readLock();
+
+        try {
+            List<ChunkData> chunkDataList = new ArrayList<>();
+
+            for (WorldTable worldTable : worldTables) {
+                for (ChunkData chunkData : worldTable.table.values) {
+                    if (chunkData != null) {
+                        chunkDataList.add(chunkData);
+                    }
+                }
+            }
+
+            return chunkDataList;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Removes every chunk from the index.
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+
+        try {
+            worldTables = new WorldTable[0];
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Looks up a key without locking. The result is only meaningful if the caller holds a lock or validates a stamp.
+     *
+     * @param world the world.
+     * @param key   the key.
+     * @return the chunk data, or null.
+     */
+    private ChunkData find(World world, long key) {
+        WorldTable worldTable = getTable(world);
+
+        return worldTable != null ? worldTable.get(key) : null;
+    }
+
+    /**
+     * Finds the table of a world. Worlds are matched by reference first and by name second, so a world that was
+     * unloaded and loaded again keeps its chunks.
+     *
+     * @param world the world, may be null.
+     * @return the table, or null if the world has no chunks indexed.
+     */
+    private WorldTable getTable(World world) {
+        WorldTable[] worldTables = this.worldTables;
+
+        for (WorldTable worldTable : worldTables) {
+            if (worldTable.world == world) {
+                return worldTable;
+            }
+        }
+
+        if (world != null) {
+            for (WorldTable worldTable : worldTables) {
+                if (worldTable.world != null && worldTable.world.getName().equals(world.getName())) {
+                    return worldTable;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds or adds the table of a world. Must be called with the write lock held.
+     *
+     * @param world the world, may be null.
+     * @return the table.
+     */
+    private WorldTable getOrAddTable(World world) {
+        WorldTable worldTable = getTable(world);
+
+        if (worldTable == null) {
+            WorldTable[] worldTables = Arrays.copyOf(this.worldTables, this.worldTables.length + 1);
+
+            worldTable = new WorldTable(world);
+            worldTables[worldTables.length - 1] = worldTable;
+            this.worldTables = worldTables;
+        }
+
+        return worldTable;
+    }
+
+    /**
+     * Open-addressing hash table of one world, from packed chunk keys to chunk data, using linear probing and
+     * backward-shift deletion so no tombstones are needed.
+     */
+    private static final class WorldTable {
+        /**
+         * The world of the table.
+         */
+        private final World world;
+
+        /**
+         * The current slots, replaced as a whole on resize.
+         */
+        private volatile Slots table = new Slots(INITIAL_CAPACITY);
+
+        /**
+         * The number of entries.
+         */
+        private int size;
+
+        /**
+         * Creates an empty table.
+         *
+         * @param world the world of the table.
+         */
+        private WorldTable(World world) {
+            this.world = world;
+        }
+
+        /**
+         * Gets the slot a key hashes to.
+         *
+         * @param key  the key.
+         * @param mask the table length minus one.
+         * @return the slot.
+         */
+        private static int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        /**
+         * Gets the value of a key. Probes at most one full round, so a racing writer cannot trap a lock-free reader.
+         *
+         * @param key the key.
+         * @return the value, or null.
+         */
+        private ChunkData get(long key) {
+            Slots table = this.table;
+            int mask = table.values.length - 1;
+            int i = slot(key, mask);
+
+            for (int probe = 0; probe <= mask && table.values[i] != null; probe++, i = (i + 1) & mask) {
+                if (table.keys[i] == key) {
+                    return table.values[i];
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Sets the value of a key.
+         *
+         * @param key   the key.
+         * @param value the value.
+         * @return the previous value, or null.
+         */
+        private ChunkData put(long key, ChunkData value) {
+            if ((size + 1) * 4 > table.values.length * 3) {
+                resize(table.values.length << 1);
+            }
+
+            Slots table = this.table;
+            int mask = table.values.length - 1;
+            int i = slot(key, mask);
+
+            for (; table.values[i] != null; i = (i + 1) & mask) {
+                if (table.keys[i] == key) {
+                    ChunkData previous = table.values[i];
+
+                    table.values[i] = value;
+
+                    return previous;
+                }
+            }
+
+            table.keys[i] = key;
+            table.values[i] = value;
+            size++;
+
+            return null;
+        }
+
+        /**
+         * Removes a key.
+         *
+         * @param key the key.
+         * @return the removed value, or null.
+         */
+        private ChunkData remove(long key) {
+            Slots table = this.table;
+            int mask = table.values.length - 1;
+
+            for (int hole = slot(key, mask); table.values[hole] != null; hole = (hole + 1) & mask) {
+                if (table.keys[hole] == key) {
+                    ChunkData previous = table.values[hole];
+
+                    // Move later entries of the probe run back if their home slot is not cyclically in (hole, i].
+                    for (int i = (hole + 1) & mask; table.values[i] != null; i = (i + 1) & mask) {
+                        if (((i - slot(table.keys[i], mask)) & mask) >= ((i - hole) & mask)) {
+                            table.keys[hole] = table.keys[i];
+                            table.values[hole] = table.values[i];
+                            hole = i;
+                        }
+                    }
+
+                    table.values[hole] = null;
+                    size--;
+
+                    return previous;
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Rehashes every entry into new slots and publishes them.
+         *
+         * @param length the new length, a power of two.
+         */
+        private void resize(int length) {
+            Slots oldTable = this.table;
+            Slots newTable = new Slots(length);
+            int mask = length - 1;
+
+            for (int j = 0; j < oldTable.values.length; j++) {
+                if (oldTable.values[j] != null) {
+                    int i = slot(oldTable.keys[j], mask);
+
+                    while (newTable.values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+
+                    newTable.keys[i] = oldTable.keys[j];
+                    newTable.values[i] = oldTable.values[j];
+                }
+            }
+
+            this.table = newTable;
+        }
+    }
+
+    /**
+     * Keys and values of a table, always of the same length.
+     */
+    private static final class Slots {
+        /**
+         * The keys, valid where {@link #values} is not null.
+         */
+        private final long[] keys;
+
+        /**
+         * The values, null marks an empty slot.
+         */
+        private final ChunkData[] values;
+
+        /**
+         * Creates empty slots.
+         *
+         * @param length the number of slots, a power of two.
+         */
+        private Slots(int length) {
+            this.keys = new long[length];
+            this.values = new ChunkData[length];
+        }
+    }
+}
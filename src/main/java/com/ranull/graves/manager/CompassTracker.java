@@ -0,0 +1,157 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Remembers which players carry a grave compass, so the move listener only looks for nearby graves for them.
+ * <p>
+ * The flag of a player is computed by scanning their inventory the first time it is asked for, and again after
+ * {@link #markDirty(Entity)} was called because their inventory may have changed. Reading a flag that is up to date
+ * does not allocate. The compass material and the key of the grave UUID are resolved once.
+ * </p>
+ * <p>
+ * The tracker is used from the main thread only.
+ * </p>
+ */
+public final class CompassTracker {
+    /**
+     * The plugin instance.
+     */
+    private final Graves plugin;
+
+    /**
+     * The material of the compasses removed near their grave.
+     */
+    private final Material compassMaterial;
+
+    /**
+     * The key of the grave UUID stored on a grave compass, or null if items cannot store data.
+     */
+    private final NamespacedKey graveKey;
+
+    /**
+     * The players known to carry a grave compass.
+     */
+    private final Set<UUID> carrierSet = new HashSet<>();
+
+    /**
+     * The players whose flag is up to date.
+     */
+    private final Set<UUID> knownSet = new HashSet<>();
+
+    /**
+     * Creates a compass tracker.
+     *
+     * @param plugin the plugin instance.
+     */
+    public CompassTracker(Graves plugin) {
+        this.plugin = plugin;
+        this.compassMaterial = plugin.getVersionManager().getMaterialForVersion("RECOVERY_COMPASS");
+        this.graveKey = plugin.getVersionManager().hasPersistentData() ? new NamespacedKey(plugin, "graveUUID") : null;
+    }
+
+    /**
+     * Checks if a player carries a grave compass, scanning their inventory if it may have changed.
+     *
+     * @param player the player.
+     * @return true if the player carries a grave compass.
+     */
+    public boolean carriesGraveCompass(Player player) {
+        UUID uuid = player.getUniqueId();
+
+        if (!knownSet.contains(uuid)) {
+            update(player);
+        }
+
+        return carrierSet.contains(uuid);
+    }
+
+    /**
+     * Marks the inventory of an entity as changed, so it is scanned again the next time its flag is read.
+     *
+     * @param entity the entity.
+     */
+    public void markDirty(Entity entity) {
+        knownSet.remove(entity.getUniqueId());
+    }
+
+    /**
+     * Forgets a player who left.
+     *
+     * @param entity the entity.
+     */
+    public void forget(Entity entity) {
+        knownSet.remove(entity.getUniqueId());
+        carrierSet.remove(entity.getUniqueId());
+    }
+
+    /**
+     * Checks if an item is a grave compass.
+     *
+     * @param itemStack the item, may be null.
+     * @return true if the item is a compass holding a grave UUID.
+     */
+    public boolean isGraveCompass(ItemStack itemStack) {
+        return getGraveUUID(itemStack) != null;
+    }
+
+    /**
+     * Gets the grave UUID stored on a grave compass.
+     *
+     * @param itemStack the item, may be null.
+     * @return the grave UUID, or null if the item is not a grave compass.
+     */
+    public UUID getGraveUUID(ItemStack itemStack) {
+        if (graveKey == null || itemStack == null || itemStack.getType() != compassMaterial
+                || !itemStack.hasItemMeta()) {
+            return null;
+        }
+
+        ItemMeta itemMeta = itemStack.getItemMeta();
+        String uuidString = itemMeta != null
+                ? itemMeta.getPersistentDataContainer().get(graveKey, PersistentDataType.STRING) : null;
+
+        try {
+            return uuidString != null ? UUID.fromString(uuidString) : null;
+        } catch (IllegalArgumentException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * Scans the inventory of a player and records whether it holds a grave compass.
+     *
+     * @param player the player.
+     */
+    private void update(Player player) {
+        boolean isCarrier = false;
+
+        if (graveKey != null) {
+            for (ItemStack itemStack : player.getInventory().getContents()) {
+                if (isGraveCompass(itemStack)) {
+                    isCarrier = true;
+                    break;
+                }
+            }
+        }
+
+        if (isCarrier) {
+            carrierSet.add(player.getUniqueId());
+        } else {
+            carrierSet.remove(player.getUniqueId());
+        }
+
+        knownSet.add(player.getUniqueId());
+    }
+}
@@ -0,0 +1,305 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.EntityType;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Resolves which configuration section a setting is read from, for a permission list and entity type.
+ * <p>
+ * A setting is read from the first permission section that contains it, then from the section of the entity type,
+ * and otherwise from the default section. The sections are looked up once per configuration, and each combination of
+ * permission list and entity type gets a profile that remembers the owning section of every setting it resolved, so
+ * a repeated lookup is a hash probe without building any path.
+ * </p>
+ * <p>
+ * The compiled state is dropped on {@link #invalidate()} and whenever the plugin configuration object is replaced,
+ * as happens on reload. The resolver is safe to use from any thread.
+ * </p>
+ */
+public final class ConfigResolver {
+    /**
+     * The number of entity types, used to size the profile array of a permission list.
+     */
+    private static final int ENTITY_TYPE_COUNT = EntityType.values().length;
+
+    /**
+     * The plugin instance.
+     */
+    private final Graves plugin;
+
+    /**
+     * The compiled state of the current configuration, or null if it must be rebuilt.
+     */
+    private volatile Compiled compiled;
+
+    /**
+     * The number of times the compiled state was built, used to detect settings built from an older configuration.
+     */
+    private long generation;
+
+    /**
+     * Creates a resolver.
+     *
+     * @param plugin the plugin instance.
+     */
+    public ConfigResolver(Graves plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Gets the section a setting is read from.
+     *
+     * @param config         the setting path.
+     * @param entityType     the entity type, may be null.
+     * @param permissionList the permission list in priority order, may be null.
+     * @return the section owning the setting, or the default section.
+     */
+    public ConfigurationSection resolve(String config, EntityType entityType, List<String> permissionList) {
+        return getCompiled().getProfile(entityType, permissionList).resolve(config);
+    }
+
+    /**
+     * Gets the generation of the current configuration. The generation changes every time the compiled state is
+     * rebuilt, so values derived from the configuration can be rebuilt when it differs.
+     *
+     * @return the generation.
+     */
+    public long getGeneration() {
+        return getCompiled().generation;
+    }
+
+    /**
+     * Drops the compiled state, so it is rebuilt from the configuration on next use.
+     */
+    public void invalidate() {
+        compiled = null;
+    }
+
+    /**
+     * Gets the compiled state of the current configuration, building it if needed.
+     *
+     * @return the compiled state.
+     */
+    private Compiled getCompiled() {
+        FileConfiguration fileConfiguration = plugin.getConfig();
+        Compiled compiled = this.compiled;
+
+        if (compiled == null || compiled.fileConfiguration != fileConfiguration) {
+            synchronized (this) {
+                compiled = this.compiled;
+
+                if (compiled == null || compiled.fileConfiguration != fileConfiguration) {
+                    compiled = new Compiled(fileConfiguration, plugin.getVersionManager().hasConfigContains(),
+                            ++generation);
+                    this.compiled = compiled;
+                    plugin.debugMessage("Compiled config resolver with " + compiled.permissionSectionMap.size()
+                            + " permission sections and " + compiled.entitySectionMap.size()
+                            + " entity sections.", 2);
+                }
+            }
+        }
+
+        return compiled;
+    }
+
+    /**
+     * The sections of one configuration and the profiles resolved against it.
+     */
+    private static final class Compiled {
+        /**
+         * The configuration the state was compiled from.
+         */
+        private final FileConfiguration fileConfiguration;
+
+        /**
+         * The generation of the compiled state.
+         */
+        private final long generation;
+
+        /**
+         * Whether sections can be checked without their defaults.
+         */
+        private final boolean hasConfigContains;
+
+        /**
+         * The section of each permission.
+         */
+        private final Map<String, ConfigurationSection> permissionSectionMap = new HashMap<>();
+
+        /**
+         * The section of each entity type.
+         */
+        private final Map<EntityType, ConfigurationSection> entitySectionMap = new EnumMap<>(EntityType.class);
+
+        /**
+         * The default section, may be null if the configuration has none.
+         */
+        private final ConfigurationSection defaultSection;
+
+        /**
+         * The profiles of each permission list, indexed by entity type ordinal plus one, or zero for no entity type.
+         */
+        private final Map<List<String>, AtomicReferenceArray<Profile>> profileMap = new ConcurrentHashMap<>();
+
+        /**
+         * Compiles the sections of a configuration.
+         *
+         * @param fileConfiguration the configuration.
+         * @param hasConfigContains whether sections can be checked without their defaults.
+         * @param generation        the generation of the compiled state.
+         */
+        private Compiled(FileConfiguration fileConfiguration, boolean hasConfigContains, long generation) {
+            this.fileConfiguration = fileConfiguration;
+            this.generation = generation;
+            this.hasConfigContains = hasConfigContains;
+            this.defaultSection = fileConfiguration.getConfigurationSection("settings.default.default");
+
+            ConfigurationSection permissionSection = fileConfiguration.getConfigurationSection("settings.permission");
+
+            if (permissionSection != null) {
+                for (String permission : permissionSection.getKeys(false)) {
+                    if (permissionSection.isConfigurationSection(permission)) {
+                        permissionSectionMap.put(permission, permissionSection.getConfigurationSection(permission));
+                    }
+                }
+            }
+
+            ConfigurationSection entitySection = fileConfiguration.getConfigurationSection("settings.entity");
+
+            if (entitySection != null) {
+                for (EntityType entityType : EntityType.values()) {
+                    if (entitySection.isConfigurationSection(entityType.name())) {
+                        entitySectionMap.put(entityType, entitySection.getConfigurationSection(entityType.name()));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Gets the profile of a permission list and entity type, creating it on first use.
+         *
+         * @param entityType     the entity type, may be null.
+         * @param permissionList the permission list, may be null.
+         * @return the profile.
+         */
+        private Profile getProfile(EntityType entityType, List<String> permissionList) {
+            List<String> key = permissionList != null ? permissionList : Collections.emptyList();
+            AtomicReferenceArray<Profile> profileArray = profileMap.get(key);
+
+            if (profileArray == null) {
+                // Copy the key, so a list changed by its owner later cannot corrupt the map.
+                profileArray = profileMap.computeIfAbsent(Collections.unmodifiableList(new ArrayList<>(key)),
+                        ignored -> new AtomicReferenceArray<>(ENTITY_TYPE_COUNT + 1));
+            }
+
+            int index = entityType != null ? entityType.ordinal() + 1 : 0;
+            Profile profile = profileArray.get(index);
+
+            if (profile == null) {
+                profileArray.compareAndSet(index, null, new Profile(this, entityType, key));
+                profile = profileArray.get(index);
+            }
+
+            return profile;
+        }
+
+        /**
+         * Checks if a section contains a setting.
+         *
+         * @param configurationSection the section.
+         * @param config               the setting path.
+         * @return true if the section contains the setting.
+         */
+        private boolean contains(ConfigurationSection configurationSection, String config) {
+            return hasConfigContains ? configurationSection.contains(config, true)
+                    : configurationSection.contains(config);
+        }
+    }
+
+    /**
+     * The candidate sections of one permission list and entity type, with the owning section of each resolved
+     * setting.
+     */
+    private static final class Profile {
+        /**
+         * The compiled state the profile belongs to.
+         */
+        private final Compiled compiled;
+
+        /**
+         * The sections checked for a setting, in priority order.
+         */
+        private final ConfigurationSection[] sections;
+
+        /**
+         * The owning section of each resolved setting.
+         */
+        private final Map<String, ConfigurationSection> sectionMap = new ConcurrentHashMap<>();
+
+        /**
+         * Creates a profile.
+         *
+         * @param compiled       the compiled state.
+         * @param entityType     the entity type, may be null.
+         * @param permissionList the permission list.
+         */
+        private Profile(Compiled compiled, EntityType entityType, List<String> permissionList) {
+            List<ConfigurationSection> sectionList = new ArrayList<>();
+
+            for (String permission : permissionList) {
+                ConfigurationSection configurationSection = compiled.permissionSectionMap.get(permission);
+
+                if (configurationSection == null && compiled.fileConfiguration
+                        .isConfigurationSection("settings.permission." + permission)) {
+                    // Permissions containing a dot name a nested section.
+                    configurationSection = compiled.fileConfiguration
+                            .getConfigurationSection("settings.permission." + permission);
+                }
+
+                if (configurationSection != null) {
+                    sectionList.add(configurationSection);
+                }
+            }
+
+            if (entityType != null && compiled.entitySectionMap.containsKey(entityType)) {
+                sectionList.add(compiled.entitySectionMap.get(entityType));
+            }
+
+            this.compiled = compiled;
+            this.sections = sectionList.toArray(new ConfigurationSection[0]);
+        }
+
+        /**
+         * Gets the section a setting is read from.
+         *
+         * @param config the setting path.
+         * @return the owning section, or the default section.
+         */
+        private ConfigurationSection resolve(String config) {
+            ConfigurationSection configurationSection = sectionMap.get(config);
+
+            if (configurationSection == null) {
+                configurationSection = compiled.defaultSection;
+
+                for (ConfigurationSection section : sections) {
+                    if (compiled.contains(section, config)) {
+                        configurationSection = section;
+                        break;
+                    }
+                }
+
+                if (configurationSection != null) {
+                    sectionMap.put(config, configurationSection);
+                }
+            }
+
+            return configurationSection;
+        }
+    }
+}
@@ -4,25 +4,33 @@ import com.ranull.graves.type.Graveyard;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import com.ranull.graves.Graves;
+import com.ranull.graves.codec.GraveItemFormat;
 import com.ranull.graves.data.*;
 import com.ranull.graves.type.Grave;
 import com.ranull.graves.util.*;
 import org.apache.commons.lang3.StringUtils;
 import org.bukkit.Location;
+import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.BlockFace;
 import org.bukkit.entity.EntityType;
 import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitRunnable;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.*;
 import java.sql.Date;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages data storage and retrieval for the Graves plugin.
@@ -53,6 +61,310 @@ public final class DataManager {
      */
     private HikariDataSource dataSource;
 
+    /**
+     * The write-behind queue used for all row mutations.
+     * <p>
+     * This {@link WriteBehindQueue} coalesces inserts, updates and deletes and flushes them as batched transactions
+     * on a dedicated writer thread.
+     * </p>
+     */
+    private final WriteBehindQueue writeBehindQueue;
+
+    /**
+     * The executor for database work outside the write-behind queue.
+     * <p>
+     * Created with the first data source so its thread count can follow the connection pool size.
+     * </p>
+     */
+    private DatabaseExecutor databaseExecutor;
+
+    /**
+     * The storage format used for grave inventories and equipment.
+     * <p>
+     * This {@link GraveItemFormat} writes the compact versioned format and reads the legacy format transparently.
+     * </p>
+     */
+    private final GraveItemFormat itemFormat;
+
+    /**
+     * The tracker for grave inventories changed by players.
+     * <p>
+     * This {@link GraveInventoryTracker} persists only the changed slots of a grave inventory once it has been quiet
+     * or is closed.
+     * </p>
+     */
+    private final GraveInventoryTracker graveInventoryTracker;
+
+    /**
+     * The spill file for the payload of graves that were moved off the heap.
+     * <p>
+     * This {@link GraveSpillStore} holds the inventory, equipment and owner textures of cold graves in unloaded
+     * chunks while the cache is over its memory budget.
+     * </p>
+     */
+    private final GraveSpillStore graveSpillStore;
+
+    /**
+     * The numeric location columns, in the order of {@link #locationParameters(Location)}.
+     */
+    private static final String LOCATION_COLUMNS = "world, x, y, z, chunk_x, chunk_z";
+
+    /**
+     * Condition matching a single position by its numeric location columns, so the chunk index can be used.
+     */
+    private static final String LOCATION_MATCH = "world = ? AND x = ? AND y = ? AND z = ? AND chunk_x = ? AND chunk_z = ?";
+
+    /**
+     * Runs tasks on the main thread, used to deliver query results.
+     */
+    private final Executor mainThreadExecutor = runnable -> {
+        if (plugin.getServer().isPrimaryThread()) {
+            runnable.run();
+        } else if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, runnable);
+        }
+    };
+
+    /**
+     * The meta key of the change sequence.
+     */
+    private static final String CHANGE_SEQUENCE = "change_sequence";
+
+    /**
+     * Whether a batch of cold graves is being written to the spill file. Only accessed on the main thread.
+     */
+    private boolean spillRunning;
+
+    /**
+     * The UUIDs of the spilled graves whose payload is being read back, so each is only read once at a time.
+     */
+    private final Set<UUID> unspillSet = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether the startup load has finished and the caches have been published.
+     */
+    private volatile boolean loaded;
+
+    /**
+     * The loader used by cached graves to decode their stored inventory and equipment on first access.
+     */
+    private final Grave.Loader graveLoader = new Grave.Loader() {
+        @Override
+        public Inventory loadInventory(Grave grave, String inventoryData) throws IOException {
+            plugin.debugMessage("Loading inventory of grave " + grave.getUUID(), 2);
+
+            try {
+                return itemFormat.decodeInventory(grave, inventoryData, getGraveTitle(grave));
+            } catch (IOException exception) {
+                logUndecodable(grave, "inventory", exception);
+
+                throw exception;
+            }
+        }
+
+        @Override
+        public Map<EquipmentSlot, ItemStack> loadEquipment(Grave grave, String equipmentData) throws IOException {
+            try {
+                return itemFormat.decodeEquipment(equipmentData);
+            } catch (IOException exception) {
+                logUndecodable(grave, "equipment", exception);
+
+                throw exception;
+            }
+        }
+
+        @Override
+        public Inventory createPlaceholder(Grave grave) {
+            return plugin.getServer().createInventory(grave, 9, getGraveTitle(grave));
+        }
+
+        @Override
+        public void requestSpilled(Grave grave) {
+            UUID uuid = grave.getUUID();
+
+            if (!unspillSet.add(uuid)) {
+                return;
+            }
+
+            // Keyed by the grave UUID, so the read runs in order with other database tasks for the same grave.
+            boolean accepted = databaseExecutor != null && databaseExecutor.execute(uuid, () -> {
+                Grave.Payload payload = null;
+
+                try {
+                    payload = readSpilled(uuid);
+                } finally {
+                    Grave.Payload readPayload = payload;
+
+                    if (plugin.isEnabled()) {
+                        plugin.getServer().getScheduler().runTask(plugin, () -> applySpilled(grave, readPayload));
+                    } else {
+                        unspillSet.remove(uuid);
+                    }
+                }
+            });
+
+            if (!accepted) {
+                unspillSet.remove(uuid);
+            }
+        }
+    };
+
+    /**
+     * Reads the payload of a spilled grave from the spill file, or from the database if the spill file cannot be
+     * read. Must not be called on the main thread.
+     *
+     * @param uuid the grave UUID.
+     * @return the payload, or null if it could not be read.
+     */
+    private Grave.Payload readSpilled(UUID uuid) {
+        plugin.debugMessage("Reading back spilled grave " + uuid, 2);
+
+        Grave.Payload payload = graveSpillStore.read(uuid);
+
+        if (payload == null) {
+            // The spill file only mirrors stored rows, so the row is read again rather than losing the payload.
+            plugin.getLogger().warning("Spilled grave " + uuid + " could not be read back, reading it from the "
+                    + "database instead.");
+            payload = readGravePayload(uuid);
+        }
+
+        return payload;
+    }
+
+    /**
+     * Applies a payload read back to its spilled grave and renders the menus showing it. A payload that could not be
+     * read leaves the grave spilled, so it is requested again on next access.
+     *
+     * @param grave   the grave.
+     * @param payload the payload, or null if it could not be read.
+     */
+    private void applySpilled(Grave grave, Grave.Payload payload) {
+        unspillSet.remove(grave.getUUID());
+
+        if (payload != null && grave.applySpilled(payload)) {
+            markMenusDirty(grave);
+        }
+    }
+
+    /**
+     * Gets the title of the inventory of a grave.
+     *
+     * @param grave the grave.
+     * @return the title.
+     */
+    private String getGraveTitle(Grave grave) {
+        return StringUtil.parseString(plugin.getConfig("gui.grave.title", grave.getOwnerType(),
+                        grave.getPermissionList())
+                .getString("gui.grave.title"), grave.getLocationDeath(), grave, plugin);
+    }
+
+    /**
+     * Reads the stored inventory, equipment and owner textures of a grave from the database, with its changed slots
+     * applied to the inventory.
+     *
+     * @param uuid the grave UUID.
+     * @return the payload, or null if the grave row cannot be read.
+     */
+    private Grave.Payload readGravePayload(UUID uuid) {
+        try (Connection connection = getConnection()) {
+            if (connection == null) {
+                return null;
+            }
+
+            String inventoryData;
+            String equipmentData;
+            String ownerTexture;
+            String ownerTextureSignature;
+
+            try (PreparedStatement statement = connection.prepareStatement("SELECT inventory, equipment, "
+                    + "owner_texture, owner_texture_signature FROM grave WHERE uuid = ?")) {
+                bindParameters(statement, new Object[]{ uuid });
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        plugin.getLogger().severe("Grave " + uuid + " was not found in the database.");
+
+                        return null;
+                    }
+
+                    inventoryData = resultSet.getString("inventory");
+                    equipmentData = resultSet.getString("equipment");
+                    ownerTexture = resultSet.getString("owner_texture");
+                    ownerTextureSignature = resultSet.getString("owner_texture_signature");
+                }
+            }
+
+            Map<Integer, String> slotMap = new LinkedHashMap<>();
+
+            if (tableExists("grave_slot")) {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT slot, item FROM grave_slot WHERE uuid_grave = ?")) {
+                    bindParameters(statement, new Object[]{ uuid });
+
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            slotMap.put(resultSet.getInt("slot"), resultSet.getString("item"));
+                        }
+                    }
+                }
+            }
+
+            if (!slotMap.isEmpty()) {
+                inventoryData = applySlots(inventoryData, slotMap);
+            }
+
+            return new Grave.Payload(inventoryData, equipmentData, ownerTexture, ownerTextureSignature);
+        } catch (SQLException | IOException exception) {
+            plugin.getLogger().severe("Failed to read grave " + uuid + " from the database: "
+                    + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+
+        return null;
+    }
+
+    /**
+     * Applies changed slots to a stored inventory, the same way they are applied on startup.
+     *
+     * @param inventoryData the stored inventory.
+     * @param slotMap       the stored items of the changed slots, keyed by slot.
+     * @return the stored inventory with the slots applied.
+     * @throws IOException if the inventory or a slot cannot be decoded.
+     */
+    private String applySlots(String inventoryData, Map<Integer, String> slotMap) throws IOException {
+        ItemStack[] storedItemStacks = itemFormat.decodeItems(inventoryData);
+        ItemStack[] itemStacks = Arrays.copyOf(storedItemStacks, Math.max(storedItemStacks.length,
+                InventoryUtil.getInventorySize(storedItemStacks.length)));
+
+        for (Map.Entry<Integer, String> entry : slotMap.entrySet()) {
+            if (entry.getKey() >= 0 && entry.getKey() < itemStacks.length) {
+                itemStacks[entry.getKey()] = entry.getValue() != null ? itemFormat.decodeItem(entry.getValue()) : null;
+            }
+        }
+
+        String appliedData = itemFormat.encodeItems(itemStacks);
+
+        if (appliedData == null) {
+            throw new IOException("Changed slots could not be encoded");
+        }
+
+        return appliedData;
+    }
+
+    /**
+     * Logs that the stored data of a grave cannot be decoded and is kept as it is.
+     *
+     * @param grave     the grave.
+     * @param data      the kind of stored data.
+     * @param exception the decode failure.
+     */
+    private void logUndecodable(Grave grave, String data, IOException exception) {
+        plugin.getLogger().severe("Failed to decode the " + data + " of grave " + grave.getUUID() + ": "
+                + exception.getMessage() + ". The grave is kept as it is and can't be opened or removed "
+                + "automatically until it is loaded on a server that can decode it.");
+        plugin.logStackTrace(exception);
+    }
+
     /**
      * Initializes the DataManager with the specified plugin instance and sets up the database connection.
      *
@@ -60,6 +372,24 @@ public final class DataManager {
      */
     public DataManager(Graves plugin) {
         this.plugin = plugin;
+        this.writeBehindQueue = new WriteBehindQueue(plugin, this);
+        this.itemFormat = new GraveItemFormat(plugin);
+        this.graveInventoryTracker = new GraveInventoryTracker(plugin, this);
+        this.graveSpillStore = new GraveSpillStore(plugin);
+
+        long releaseInterval = plugin.getConfig().getLong("settings.storage.inventory-release.interval", 60L) * 20L;
+
+        if (plugin.getConfig().getBoolean("settings.storage.inventory-release.enabled", true) && releaseInterval > 0) {
+            plugin.getServer().getScheduler().runTaskTimer(plugin, this::releaseColdInventories,
+                    releaseInterval, releaseInterval);
+        }
+
+        long spillInterval = plugin.getConfig().getLong("settings.storage.memory-budget.interval", 60L) * 20L;
+
+        if (plugin.getConfig().getBoolean("settings.storage.memory-budget.enabled", true) && spillInterval > 0) {
+            plugin.getServer().getScheduler().runTaskTimer(plugin, this::spillColdGraves,
+                    spillInterval, spillInterval);
+        }
 
         String typeStr = plugin.getConfig().getString("settings.storage.type", "SQLITE");
         try {
@@ -196,19 +526,16 @@ public final class DataManager {
      * Loads data from the database asynchronously.
      */
     private void load() {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+        databaseExecutor.execute("startup", () -> {
             try {
                 loadTables();
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
 
-            loadGraveMap();
-            loadBlockMap();
-            loadGraveyardsMap();
-            loadEntityMap("armorstand", EntityData.Type.ARMOR_STAND);
-            loadEntityMap("itemframe", EntityData.Type.ITEM_FRAME);
-            loadHologramMap();
+            Map<String, EntityData.Type> entityTableMap = new LinkedHashMap<>();
+            entityTableMap.put("armorstand", EntityData.Type.ARMOR_STAND);
+            entityTableMap.put("itemframe", EntityData.Type.ITEM_FRAME);
 
             Map<String, EntityData.Type> integrationMap = new HashMap<>();
             integrationMap.put("furniturelib", EntityData.Type.FURNITURELIB);
@@ -219,98 +546,666 @@ public final class DataManager {
             integrationMap.put("citizensnpc", EntityData.Type.CITIZENSNPC);
 
             for (Map.Entry<String, EntityData.Type> entry : integrationMap.entrySet()) {
-                String integration = entry.getKey();
-                EntityData.Type type = entry.getValue();
-
-                if (isIntegrationEnabled(integration)) {
-                    loadEntityDataMap(integration, type);
-                    if (integration.equals("playernpc")) {
-                        plugin.getIntegrationManager().getPlayerNPC().createCorpses();
-                    } else if (integration.equals("citizensnpc")) {
-                        plugin.getIntegrationManager().getCitizensNPC().createCorpses();
-                    }
+                if (isIntegrationEnabled(entry.getKey())) {
+                    entityTableMap.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            if (plugin.getConfig().getBoolean("settings.storage.snapshot.enabled", true)) {
+                long changeSequence = getChangeSequence();
+                Runnable publish = changeSequence >= 0
+                        ? new CacheSnapshot(plugin, this).read(changeSequence, entityTableMap.values()) : null;
+
+                if (publish != null) {
+                    plugin.getServer().getScheduler().runTask(plugin, () -> {
+                        publish.run();
+                        onLoaded();
+                    });
+
+                    return;
                 }
             }
+
+            loadFromDatabase(entityTableMap, 1);
         });
     }
 
     /**
-     * Checks if the integration is enabled.
-     * @param integration The name of the integration.
-     * @return true if enabled, false otherwise.
+     * Reads every grave table from the database and publishes them, retrying a few times if a table cannot be read.
+     * Must not be called from the main thread.
+     *
+     * @param entityTableMap the entity tables to read, keyed by table name.
+     * @param attempt        the number of this attempt, starting at 1.
      */
-    private boolean isIntegrationEnabled(String integration) {
-        switch (integration) {
-            case "furniturelib":
-                return plugin.getIntegrationManager().hasFurnitureLib();
-            case "furnitureengine":
-                return plugin.getIntegrationManager().hasFurnitureEngine();
-            case "itemsadder":
-                return plugin.getIntegrationManager().hasItemsAdder();
-            case "oraxen":
-                return plugin.getIntegrationManager().hasOraxen();
-            case "playernpc":
-                return plugin.getIntegrationManager().hasPlayerNPC();
-            case "citizensnpc":
-                return plugin.getIntegrationManager().hasCitizensNPC();
-            default:
-                return false;
-        }
+    private void loadFromDatabase(Map<String, EntityData.Type> entityTableMap, int attempt) {
+        // Leave a couple of connections free for writes while loading.
+        int threads = Math.min(plugin.getConfig().getInt("settings.storage.loader.threads", 4),
+                Math.max(1, dataSource.getMaximumPoolSize() - 2));
+
+        new StartupLoader(plugin, this).load(threads, entityTableMap, this::onLoaded,
+                () -> onLoadFailed(entityTableMap, attempt));
     }
 
     /**
-     * Loads database tables.
+     * Called when the startup load could not read every table. Nothing was published, so graves stay disabled
+     * until a later attempt succeeds.
      *
-     * @throws SQLException if an SQL error occurs.
+     * @param entityTableMap the entity tables to read, keyed by table name.
+     * @param attempt        the number of the failed attempt.
      */
-    private void loadTables() throws SQLException {
-        setupGraveTable();
-        setupBlockTable();
-        setupHologramTable();
-        setupGraveyardsTable();
-        setupEntityTables();
+    private void onLoadFailed(Map<String, EntityData.Type> entityTableMap, int attempt) {
+        int retries = Math.max(0, plugin.getConfig().getInt("settings.storage.loader.retries", 3));
+
+        if (attempt <= retries && plugin.isEnabled()) {
+            plugin.getLogger().warning("Grave data could not be loaded, retrying in 5 seconds (attempt "
+                    + (attempt + 1) + " of " + (retries + 1) + ").");
+            plugin.getServer().getScheduler().runTaskLaterAsynchronously(plugin, () -> databaseExecutor
+                    .execute("startup", () -> loadFromDatabase(entityTableMap, attempt + 1)), 100L);
+        } else {
+            plugin.getLogger().severe("Grave data could not be loaded. Graves stay disabled until the database "
+                    + "problem is fixed and the server is restarted.");
+        }
     }
 
     /**
-     * Sets up entity tables.
+     * Called on the main thread once the caches have been published, either from the database or from a snapshot.
+     */
+    private void onLoaded() {
+        loaded = true;
+
+        if (isIntegrationEnabled("playernpc")) {
+            plugin.getIntegrationManager().getPlayerNPC().createCorpses();
+        }
+
+        if (isIntegrationEnabled("citizensnpc")) {
+            plugin.getIntegrationManager().getCitizensNPC().createCorpses();
+        }
+
+        if (plugin.getConfig().getBoolean("settings.storage.item-codec.reencode", true)) {
+            databaseExecutor.execute(this::reencodeLegacyGraves);
+        }
+    }
+
+    /**
+     * Checks if the startup load has finished and the caches have been published. Gameplay features that depend on
+     * grave data should wait for this.
      *
-     * @throws SQLException if an SQL error occurs.
+     * @return true if the data is loaded.
      */
-    private void setupEntityTables() throws SQLException {
-        Map<String, Boolean> integrationMap = new HashMap<>();
-        integrationMap.put("armorstand", true);
-        integrationMap.put("itemframe", true);
-        integrationMap.put("furniturelib", plugin.getIntegrationManager().hasFurnitureLib());
-        integrationMap.put("furnitureengine", plugin.getIntegrationManager().hasFurnitureEngine());
-        integrationMap.put("itemsadder", plugin.getIntegrationManager().hasItemsAdder());
-        integrationMap.put("oraxen", plugin.getIntegrationManager().hasOraxen());
-        integrationMap.put("playernpc", plugin.getIntegrationManager().hasPlayerNPC());
-        integrationMap.put("citizensnpc", plugin.getIntegrationManager().hasCitizensNPC());
+    public boolean isLoaded() {
+        return loaded;
+    }
 
-        for (Map.Entry<String, Boolean> entry : integrationMap.entrySet()) {
-            if (entry.getValue()) {
-                setupEntityTable(entry.getKey());
+    /**
+     * Re-encodes graves still stored in the legacy item format.
+     * <p>
+     * Legacy rows are found off the main thread, then re-encoded from the cached graves a few at a time on the main
+     * thread, so the written value always reflects the current in-memory inventory.
+     * </p>
+     */
+    private void reencodeLegacyGraves() {
+        String query = "SELECT uuid FROM grave WHERE (inventory IS NOT NULL AND inventory NOT LIKE '"
+                + GraveItemFormat.PREFIX + "%') OR (equipment IS NOT NULL AND equipment NOT LIKE '"
+                + GraveItemFormat.PREFIX + "%')";
+        Deque<UUID> uuidQueue = new ArrayDeque<>();
+
+        try (Connection connection = getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                uuidQueue.add(UUID.fromString(resultSet.getString("uuid")));
             }
+        } catch (SQLException | NullPointerException | IllegalArgumentException exception) {
+            plugin.getLogger().severe("Failed to find graves in the legacy item format: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+            return;
+        }
+
+        if (uuidQueue.isEmpty()) {
+            return;
         }
+
+        int total = uuidQueue.size();
+        int batchSize = Math.max(1, plugin.getConfig().getInt("settings.storage.item-codec.reencode-batch-size", 20));
+
+        plugin.getLogger().info("Re-encoding " + total + " graves stored in the legacy item format...");
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < batchSize && !uuidQueue.isEmpty(); i++) {
+                    Grave grave = plugin.getCacheManager().getGraveMap().get(uuidQueue.poll());
+
+                    // A spilled grave has no payload on the heap to re-encode, so its row is left for the next start.
+                    if (grave != null && !grave.isSpilled()) {
+                        reencodeGrave(grave);
+                    }
+                }
+
+                if (uuidQueue.isEmpty()) {
+                    plugin.getLogger().info("Re-encoded " + total + " graves to the compact item format.");
+                    cancel();
+                }
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
     }
 
     /**
-     * Reloads the data manager with the current type.
+     * Re-encodes the inventory and equipment of a grave, without decoding them into the grave if they are not loaded.
+     *
+     * @param grave the grave.
      */
-    public void reload() {
-        reload(type);
+    private void reencodeGrave(Grave grave) {
+        try {
+            if (grave.isInventoryLoaded()) {
+                updateGrave(grave, "inventory", itemFormat.encodeInventory(grave.getInventory()));
+            } else if (grave.getInventoryData() != null) {
+                String inventoryData = itemFormat.encodeItems(itemFormat.decodeItems(grave.getInventoryData()));
+
+                updateGrave(grave, "inventory", inventoryData);
+                grave.setInventoryData(inventoryData, itemFormat.countItems(inventoryData));
+            }
+
+            if (grave.getEquipmentData() != null) {
+                String equipmentData = itemFormat.encodeEquipment(itemFormat
+                        .decodeEquipment(grave.getEquipmentData()));
+
+                updateGrave(grave, "equipment", equipmentData);
+                grave.setEquipmentData(equipmentData);
+            } else {
+                updateGrave(grave, "equipment", itemFormat.encodeEquipment(grave.getEquipmentMap()));
+            }
+        } catch (IOException exception) {
+            // The stored value is left untouched, so it can still be decoded once the cause is fixed.
+            grave.setUndecodable();
+            logUndecodable(grave, "stored items", exception);
+        }
     }
 
     /**
-     * Reloads the data manager with the specified type.
-     *
-     * @param type the type of database.
+     * Releases the decoded inventories of graves that have not been accessed recently, when heap usage is above the
+     * configured threshold. Released inventories are kept in their encoded form and decoded again on next access.
      */
-    public void reload(Type type) {
-        switch (type) {
-            case SQLITE:
-                plugin.getLogger().warning("Database Option SQLITE is set for removal in a future release. Use H2 Database option instead for better reliance.");
-                loadType(Type.SQLITE);
+    private void releaseColdInventories() {
+        Runtime runtime = Runtime.getRuntime();
+        double usage = (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+
+        if (usage < plugin.getConfig().getDouble("settings.storage.inventory-release.memory-threshold", 0.8)) {
+            return;
+        }
+
+        long coldTime = System.currentTimeMillis()
+                - plugin.getConfig().getLong("settings.storage.inventory-release.cold-time", 300L) * 1000L;
+        int released = 0;
+
+        for (Grave grave : new ArrayList<>(plugin.getCacheManager().getGraveMap().values())) {
+            Inventory inventory = grave.getLoadedInventory();
+
+            if (inventory != null && grave.getInventoryAccessTime() < coldTime && inventory.getViewers().isEmpty()
+                    && !graveInventoryTracker.isDirty(grave.getUUID())) {
+                String inventoryData = itemFormat.encodeInventory(inventory);
+
+                if (inventoryData != null) {
+                    grave.setLoader(graveLoader);
+                    grave.setInventoryData(inventoryData, itemFormat.countItems(inventoryData));
+                    released++;
+                }
+            }
+        }
+
+        if (released > 0) {
+            plugin.debugMessage("Released " + released + " cold grave inventories at "
+                    + Math.round(usage * 100) + "% heap usage.", 1);
+        }
+    }
+
+    /**
+     * Moves the payload of cold graves in unloaded chunks to the spill file while more graves than the configured
+     * budget keep their payload on the heap. The graves unused for the longest time are spilled first.
+     * <p>
+     * The payloads are copied on the main thread and encoded and written on the database executor. The graves are only
+     * marked as spilled back on the main thread, and only if they were not used or changed in the meantime.
+     * </p>
+     */
+    private void spillColdGraves() {
+        if (spillRunning) {
+            return;
+        }
+
+        List<Grave> graveList = new ArrayList<>(plugin.getCacheManager().getGraveMap().values());
+        int resident = graveList.size() - graveSpillStore.size();
+        int overBudget = resident - Math.max(0, plugin.getConfig()
+                .getInt("settings.storage.memory-budget.max-resident", 2000));
+
+        if (overBudget <= 0) {
+            return;
+        }
+
+        long coldTime = System.currentTimeMillis()
+                - plugin.getConfig().getLong("settings.storage.memory-budget.cold-time", 600L) * 1000L;
+        int limit = Math.min(overBudget, Math.max(1, plugin.getConfig()
+                .getInt("settings.storage.memory-budget.batch-size", 200)));
+        List<Grave> candidateList = new ArrayList<>();
+
+        // Only methods that do not mark the inventory as accessed are used, or the candidates would turn hot.
+        for (Grave grave : graveList) {
+            if (!grave.isSpilled() && grave.getInventoryAccessTime() < coldTime && isUnloaded(grave)
+                    && !graveInventoryTracker.isDirty(grave.getUUID()) && hasNoViewers(grave)) {
+                candidateList.add(grave);
+            }
+        }
+
+        candidateList.sort(Comparator.comparingLong(Grave::getInventoryAccessTime));
+
+        List<SpillCandidate> spillCandidateList = new ArrayList<>();
+
+        for (Grave grave : candidateList.subList(0, Math.min(limit, candidateList.size()))) {
+            SpillCandidate spillCandidate = new SpillCandidate(grave);
+
+            if (spillCandidate.inventoryItemStacks != null || spillCandidate.inventoryData != null) {
+                spillCandidateList.add(spillCandidate);
+            }
+        }
+
+        if (spillCandidateList.isEmpty()) {
+            return;
+        }
+
+        spillRunning = true;
+
+        boolean accepted = databaseExecutor != null && databaseExecutor.execute(() -> {
+            List<SpillCandidate> writtenList = new ArrayList<>();
+
+            try {
+                for (SpillCandidate spillCandidate : spillCandidateList) {
+                    if (!plugin.isEnabled()) {
+                        break;
+                    }
+
+                    if (spillCandidate.write()) {
+                        writtenList.add(spillCandidate);
+                    }
+                }
+            } finally {
+                if (plugin.isEnabled()) {
+                    plugin.getServer().getScheduler().runTask(plugin, () -> commitSpill(writtenList));
+                } else {
+                    spillRunning = false;
+                }
+            }
+        });
+
+        if (!accepted) {
+            spillRunning = false;
+        }
+    }
+
+    /**
+     * Marks the graves whose payload was written to the spill file as spilled, discarding the payloads of graves that
+     * were used or changed while they were written.
+     *
+     * @param writtenList the written candidates.
+     */
+    private void commitSpill(List<SpillCandidate> writtenList) {
+        int spilled = 0;
+
+        for (SpillCandidate spillCandidate : writtenList) {
+            Grave grave = spillCandidate.grave;
+
+            if (plugin.getCacheManager().getGraveMap().get(grave.getUUID()) == grave && spillCandidate.isUnchanged()
+                    && isUnloaded(grave) && !graveInventoryTracker.isDirty(grave.getUUID()) && hasNoViewers(grave)) {
+                grave.setLoader(graveLoader);
+                grave.setSpilled(spillCandidate.itemAmount);
+                spilled++;
+            } else {
+                graveSpillStore.discard(grave.getUUID());
+            }
+        }
+
+        spillRunning = false;
+
+        if (spilled > 0) {
+            plugin.debugMessage("Spilled " + spilled + " cold graves, " + graveSpillStore.size()
+                    + " graves are spilled.", 1);
+        }
+    }
+
+    /**
+     * Checks if nobody has the inventory of a grave open, without decoding it or marking it as accessed.
+     *
+     * @param grave the grave.
+     * @return true if the inventory is not decoded or has no viewers.
+     */
+    private static boolean hasNoViewers(Grave grave) {
+        Inventory inventory = grave.getLoadedInventory();
+
+        return inventory == null || inventory.getViewers().isEmpty();
+    }
+
+    /**
+     * Checks if the death location and every block of a grave are in unloaded chunks.
+     *
+     * @param grave the grave.
+     * @return true if no part of the grave is loaded.
+     */
+    private boolean isUnloaded(Grave grave) {
+        if (grave.getLocationDeath() != null && LocationUtil.isChunkLoaded(grave.getLocationDeath())) {
+            return false;
+        }
+
+        for (BlockData blockData : plugin.getCacheManager().getBlockDataList(grave.getUUID())) {
+            if (LocationUtil.isChunkLoaded(blockData.getLocation())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks if the integration is enabled.
+     * @param integration The name of the integration.
+     * @return true if enabled, false otherwise.
+     */
+    private boolean isIntegrationEnabled(String integration) {
+        switch (integration) {
+            case "furniturelib":
+                return plugin.getIntegrationManager().hasFurnitureLib();
+            case "furnitureengine":
+                return plugin.getIntegrationManager().hasFurnitureEngine();
+            case "itemsadder":
+                return plugin.getIntegrationManager().hasItemsAdder();
+            case "oraxen":
+                return plugin.getIntegrationManager().hasOraxen();
+            case "playernpc":
+                return plugin.getIntegrationManager().hasPlayerNPC();
+            case "citizensnpc":
+                return plugin.getIntegrationManager().hasCitizensNPC();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Loads database tables.
+     *
+     * @throws SQLException if an SQL error occurs.
+     */
+    private void loadTables() throws SQLException {
+        setupMetaTable();
+        setupGraveTable();
+        setupGraveSlotTable();
+        setupBlockTable();
+        setupHologramTable();
+        setupGraveyardsTable();
+        setupEntityTables();
+        setupLocationIndexes();
+    }
+
+    /**
+     * Sets up entity tables.
+     *
+     * @throws SQLException if an SQL error occurs.
+     */
+    private void setupEntityTables() throws SQLException {
+        for (String table : getEntityTables()) {
+            setupEntityTable(table);
+        }
+    }
+
+    /**
+     * Gets the entity tables in use, those of disabled integrations excluded.
+     *
+     * @return the entity table names.
+     */
+    private List<String> getEntityTables() {
+        Map<String, Boolean> integrationMap = new LinkedHashMap<>();
+        integrationMap.put("armorstand", true);
+        integrationMap.put("itemframe", true);
+        integrationMap.put("furniturelib", plugin.getIntegrationManager().hasFurnitureLib());
+        integrationMap.put("furnitureengine", plugin.getIntegrationManager().hasFurnitureEngine());
+        integrationMap.put("itemsadder", plugin.getIntegrationManager().hasItemsAdder());
+        integrationMap.put("oraxen", plugin.getIntegrationManager().hasOraxen());
+        integrationMap.put("playernpc", plugin.getIntegrationManager().hasPlayerNPC());
+        integrationMap.put("citizensnpc", plugin.getIntegrationManager().hasCitizensNPC());
+
+        List<String> tableList = new ArrayList<>();
+
+        for (Map.Entry<String, Boolean> entry : integrationMap.entrySet()) {
+            if (entry.getValue()) {
+                tableList.add(entry.getKey());
+            }
+        }
+
+        return tableList;
+    }
+
+    /**
+     * Adds numeric location columns and secondary indexes to the grave, block, hologram and entity tables, then
+     * fills the location columns of existing rows from their location strings.
+     * <p>
+     * Location strings stay the source of truth, the numeric columns {@code world}, {@code x}, {@code y},
+     * {@code z}, {@code chunk_x} and {@code chunk_z} exist so lookups by position or chunk can use an index.
+     * </p>
+     *
+     * @throws SQLException if an SQL error occurs.
+     */
+    private void setupLocationIndexes() throws SQLException {
+        Map<String, String> locationTableMap = new LinkedHashMap<>();
+        locationTableMap.put("grave", "location_death");
+        locationTableMap.put("block", "location");
+        locationTableMap.put("hologram", "location");
+
+        for (String table : getEntityTables()) {
+            locationTableMap.put(table, "location");
+        }
+
+        for (Map.Entry<String, String> entry : locationTableMap.entrySet()) {
+            String table = entry.getKey();
+
+            addColumnIfNotExists(table, "world", "VARCHAR(255)");
+            addColumnIfNotExists(table, "x", "INT");
+            addColumnIfNotExists(table, "y", "INT");
+            addColumnIfNotExists(table, "z", "INT");
+            addColumnIfNotExists(table, "chunk_x", "INT");
+            addColumnIfNotExists(table, "chunk_z", "INT");
+            createIndexIfNotExists(table, "idx_" + table + "_chunk", "world, chunk_x, chunk_z");
+
+            if (!table.equals("grave")) {
+                createIndexIfNotExists(table, "idx_" + table + "_uuid_grave", "uuid_grave");
+            }
+
+            backfillLocationColumns(table, entry.getValue());
+        }
+
+        createIndexIfNotExists("grave", "idx_grave_owner_uuid", "owner_uuid");
+    }
+
+    /**
+     * Creates an index if it does not exist.
+     *
+     * @param tableName the table name.
+     * @param indexName the index name, unique across the database.
+     * @param columns   the comma separated indexed columns.
+     * @throws SQLException if an SQL error occurs.
+     */
+    private void createIndexIfNotExists(String tableName, String indexName, String columns) throws SQLException {
+        String query;
+
+        switch (type) {
+            case MYSQL:
+            case MARIADB:
+                // MySQL has no IF NOT EXISTS for indexes, the duplicate key name error is ignored.
+                query = "CREATE INDEX " + indexName + " ON " + tableName + " (" + columns + ");";
+                break;
+            case SQLITE:
+            case POSTGRESQL:
+            case H2:
+                query = "CREATE INDEX IF NOT EXISTS " + indexName + " ON " + tableName + " (" + columns + ");";
+                break;
+            case MSSQL:
+                query = "IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = '" + indexName + "') " +
+                        "BEGIN " +
+                        "CREATE INDEX " + indexName + " ON " + tableName + " (" + columns + ");" +
+                        "END;";
+                break;
+            default:
+                plugin.getLogger().severe("Unsupported database type: " + type);
+                return;
+        }
+
+        executeUpdate(query, new Object[0]);
+    }
+
+    /**
+     * Fills the numeric location columns of rows written before they existed.
+     *
+     * @param tableName      the table name.
+     * @param locationColumn the column holding the location string.
+     */
+    private void backfillLocationColumns(String tableName, String locationColumn) {
+        String selectQuery = "SELECT DISTINCT " + locationColumn + " FROM " + tableName
+                + " WHERE world IS NULL AND " + locationColumn + " IS NOT NULL";
+        String updateQuery = "UPDATE " + tableName + " SET world = ?, x = ?, y = ?, z = ?, chunk_x = ?, chunk_z = ?"
+                + " WHERE " + locationColumn + " = ? AND world IS NULL";
+        List<String> locationList = new ArrayList<>();
+
+        try (Connection connection = getConnection()) {
+            if (connection == null) {
+                return;
+            }
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(selectQuery)) {
+                while (resultSet.next()) {
+                    locationList.add(resultSet.getString(1));
+                }
+            }
+
+            if (locationList.isEmpty()) {
+                return;
+            }
+
+            long start = System.currentTimeMillis();
+            boolean autoCommit = connection.getAutoCommit();
+            int updated = 0;
+
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(updateQuery)) {
+                for (String location : locationList) {
+                    Object[] locationParameters = locationParameters(location);
+
+                    if (locationParameters == null) {
+                        continue;
+                    }
+
+                    Object[] parameters = Arrays.copyOf(locationParameters, locationParameters.length + 1);
+                    parameters[locationParameters.length] = location;
+
+                    bindParameters(statement, parameters);
+                    statement.addBatch();
+
+                    if (++updated % 500 == 0) {
+                        statement.executeBatch();
+                    }
+                }
+
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException exception) {
+                connection.rollback();
+                throw exception;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+            plugin.getLogger().info("Filled location columns of " + updated + " location(s) in " + tableName
+                    + " in " + (System.currentTimeMillis() - start) + "ms.");
+        } catch (SQLException exception) {
+            plugin.getLogger().severe("Error occurred while filling location columns of " + tableName + ": "
+                    + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+    }
+
+    /**
+     * Gets the values of the numeric location columns for a location.
+     *
+     * @param location the location.
+     * @return the world, x, y, z, chunk x and chunk z, or null if the location has no world.
+     */
+    private static Object[] locationParameters(Location location) {
+        if (location == null || location.getWorld() == null) {
+            return null;
+        }
+
+        return new Object[]{
+                location.getWorld().getName(),
+                location.getBlockX(),
+                location.getBlockY(),
+                location.getBlockZ(),
+                location.getBlockX() >> 4,
+                location.getBlockZ() >> 4
+        };
+    }
+
+    /**
+     * Gets the values of the numeric location columns for a location string in the format "world|x|y|z".
+     *
+     * @param location the location string.
+     * @return the world, x, y, z, chunk x and chunk z, or null if the string is malformed.
+     */
+    private static Object[] locationParameters(String location) {
+        String[] strings = location.split("\\|");
+
+        if (strings.length < 4) {
+            return null;
+        }
+
+        try {
+            int x = Integer.parseInt(strings[1]);
+            int y = Integer.parseInt(strings[2]);
+            int z = Integer.parseInt(strings[3]);
+
+            return new Object[]{strings[0], x, y, z, x >> 4, z >> 4};
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Appends the numeric location columns of a location to statement parameters.
+     *
+     * @param parameters the parameters.
+     * @param location   the location.
+     * @return the parameters followed by the location column values.
+     */
+    private static Object[] withLocationParameters(Object[] parameters, Location location) {
+        Object[] locationParameters = locationParameters(location);
+        Object[] result = Arrays.copyOf(parameters, parameters.length + locationParameters.length);
+
+        System.arraycopy(locationParameters, 0, result, parameters.length, locationParameters.length);
+
+        return result;
+    }
+
+    /**
+     * Reloads the data manager with the current type.
+     */
+    public void reload() {
+        reload(type);
+    }
+
+    /**
+     * Reloads the data manager with the specified type.
+     *
+     * @param type the type of database.
+     */
+    public void reload(Type type) {
+        switch (type) {
+            case SQLITE:
+                plugin.getLogger().warning("Database Option SQLITE is set for removal in a future release. Use H2 Database option instead for better reliance.");
+                loadType(Type.SQLITE);
                 load();
                 keepConnectionAlive(); // If we don't enable this, connection will close or time out :/
                 break;
@@ -381,6 +1276,18 @@ public final class DataManager {
         }
 
         dataSource = new HikariDataSource(config);
+
+        if (databaseExecutor == null) {
+            int threads = plugin.getConfig().getInt("settings.storage.executor.threads", 0);
+
+            if (threads <= 0) {
+                // SQLite locks the whole file for every write, so more threads would only wait on each other. Other
+                // databases leave one connection for the write-behind writer.
+                threads = type == Type.SQLITE ? 2 : Math.max(1, dataSource.getMaximumPoolSize() - 1);
+            }
+
+            databaseExecutor = new DatabaseExecutor(plugin, threads);
+        }
         checkAndUnlockDatabase(); // Check and unlock the database if needed
 
         if (type == Type.MYSQL) {
@@ -685,7 +1592,19 @@ public final class DataManager {
      * @return true if chunk data exists, false otherwise.
      */
     public boolean hasChunkData(Location location) {
-        return plugin.getCacheManager().getChunkMap().containsKey(LocationUtil.chunkToString(location));
+        return hasChunkData(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    /**
+     * Checks if chunk data exists for a specified chunk.
+     *
+     * @param world  the world of the chunk.
+     * @param chunkX the chunk x-coordinate.
+     * @param chunkZ the chunk z-coordinate.
+     * @return true if chunk data exists, false otherwise.
+     */
+    public boolean hasChunkData(World world, int chunkX, int chunkZ) {
+        return world != null && plugin.getCacheManager().getChunkIndex().contains(world, chunkX, chunkZ);
     }
 
     /**
@@ -695,16 +1614,19 @@ public final class DataManager {
      * @return the chunk data.
      */
     public ChunkData getChunkData(Location location) {
-        String chunkString = LocationUtil.chunkToString(location);
-        ChunkData chunkData;
+        return getChunkData(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
 
-        if (plugin.getCacheManager().getChunkMap().containsKey(chunkString)) {
-            chunkData = plugin.getCacheManager().getChunkMap().get(chunkString);
-        } else {
-            chunkData = new ChunkData(location);
-            plugin.getCacheManager().getChunkMap().put(chunkString, chunkData);
-        }
-        return chunkData;
+    /**
+     * Retrieves chunk data for a specified chunk, creating it if needed.
+     *
+     * @param world  the world of the chunk.
+     * @param chunkX the chunk x-coordinate.
+     * @param chunkZ the chunk z-coordinate.
+     * @return the chunk data.
+     */
+    public ChunkData getChunkData(World world, int chunkX, int chunkZ) {
+        return plugin.getCacheManager().getChunkIndex().getOrCreate(world, chunkX, chunkZ);
     }
 
     /**
@@ -713,7 +1635,7 @@ public final class DataManager {
      * @param chunkData the chunk data to remove.
      */
     public void removeChunkData(ChunkData chunkData) {
-        plugin.getCacheManager().getChunkMap().remove(LocationUtil.chunkToString(chunkData.getLocation()));
+        plugin.getCacheManager().getChunkIndex().remove(chunkData.getWorld(), chunkData.getX(), chunkData.getZ());
     }
 
     /**
@@ -1015,6 +1937,108 @@ public final class DataManager {
         addColumnIfNotExists(name, "permissions", "TEXT");
     }
 
+    /**
+     * Sets up the grave slot table in the database.
+     * <p>
+     * Each row holds a single inventory slot of a grave that was changed after the grave was created, overriding the
+     * same slot of the {@code inventory} column of the grave table.
+     * </p>
+     *
+     * @throws SQLException if an SQL error occurs.
+     */
+    public void setupGraveSlotTable() throws SQLException {
+        String name = "grave_slot";
+
+        if (!tableExists(name)) {
+            String createTableQuery = "CREATE TABLE " + name + " (" +
+                    "uuid_grave VARCHAR(255) NOT NULL,\n" +
+                    "slot INT NOT NULL,\n" +
+                    "item TEXT,\n" +
+                    "PRIMARY KEY (uuid_grave, slot));";
+            executeUpdate(createTableQuery, new Object[0]);
+        }
+    }
+
+    /**
+     * Sets up the meta table holding the change sequence. Unlike the other tables this is done synchronously,
+     * since the change sequence is read straight after to validate the cache snapshot.
+     */
+    private void setupMetaTable() {
+        try (Connection connection = getConnection()) {
+            if (connection == null) {
+                return;
+            }
+
+            if (!tableExists("grave_meta")) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("CREATE TABLE grave_meta (" +
+                            "meta_key VARCHAR(64) NOT NULL PRIMARY KEY,\n" +
+                            "meta_value BIGINT NOT NULL);");
+                }
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT meta_value FROM grave_meta WHERE meta_key = ?")) {
+                statement.setString(1, CHANGE_SEQUENCE);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return;
+                    }
+                }
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO grave_meta (meta_key, meta_value) VALUES (?, 0)")) {
+                statement.setString(1, CHANGE_SEQUENCE);
+                statement.executeUpdate();
+            }
+        } catch (SQLException exception) {
+            plugin.getLogger().severe("Error occurred while setting up grave_meta table: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+    }
+
+    /**
+     * Gets the database change sequence, which is increased by every committed write.
+     *
+     * @return the change sequence, or -1 if it could not be read.
+     */
+    public long getChangeSequence() {
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection != null
+                     ? connection.prepareStatement("SELECT meta_value FROM grave_meta WHERE meta_key = ?") : null) {
+            if (statement != null) {
+                statement.setString(1, CHANGE_SEQUENCE);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return resultSet.getLong(1);
+                    }
+                }
+            }
+        } catch (SQLException exception) {
+            plugin.debugMessage("Failed to read change sequence: " + exception.getMessage(), 1);
+        }
+
+        return -1;
+    }
+
+    /**
+     * Increases the database change sequence using the given connection, so it takes part in the caller's
+     * transaction.
+     *
+     * @param connection the connection to use.
+     * @throws SQLException if a database access error occurs.
+     */
+    void incrementChangeSequence(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE grave_meta SET meta_value = meta_value + 1 WHERE meta_key = ?")) {
+            statement.setString(1, CHANGE_SEQUENCE);
+            statement.executeUpdate();
+        }
+    }
+
     /**
      * Sets up the block table in the database.
      *
@@ -1156,148 +2180,11 @@ public final class DataManager {
             plugin.getLogger().severe("Failed to create entity table: " + e.getMessage());
             throw e; // rethrowing the exception
         }
-
-        // Ensure all columns exist with appropriate types
-        addColumnIfNotExists(name, "location", "VARCHAR(255)");
-        addColumnIfNotExists(name, "uuid_entity", "VARCHAR(255)");
-        addColumnIfNotExists(name, "uuid_grave", "VARCHAR(255)");
-    }
-
-    /**
-     * Loads the grave map from the database.
-     */
-    public void loadGraveMap() {
-        plugin.getCacheManager().getGraveMap().clear();
-        plugin.getLogger().info("Loading grave maps...");
-        String query = "SELECT * FROM grave;";
-        int graveCount = 0;
-
-        try (Connection connection = getConnection();
-             Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(query)) {
-
-            while (resultSet.next()) {
-                Grave grave = resultSetToGrave(resultSet);
-                if (grave != null) {
-                    plugin.getCacheManager().getGraveMap().put(grave.getUUID(), grave);
-                    graveCount++;
-                } else {
-                    plugin.getLogger().severe("Failed to load grave from result set at row " + resultSet.getRow());
-                }
-            }
-            if (graveCount == 0) {
-                plugin.getLogger().info("Found 0 grave maps to load into cache.");
-            } else {
-                plugin.getLogger().info("Loaded " + graveCount + " grave maps into cache.");
-            }
-        } catch (SQLException exception) {
-            String sqlState = exception.getSQLState();
-            String message = exception.getMessage().toLowerCase();
-            // Ignore errors related to existing tables or columns
-            if ("42701".equals(sqlState)
-                    || "42P07".equals(sqlState)
-                    || "42S01".equals(sqlState)
-                    || "42S04".equals(sqlState)
-                    || "X0Y32".equals(sqlState)
-                    || "42000".equals(sqlState)
-                    || (message.contains("duplicate column name") && "SQLITE_ERROR".equals(sqlState))) {
-                plugin.getLogger().info("Found 0 grave maps to load into cache.");
-            } else {
-                plugin.getLogger().severe("Error occurred while loading Grave Map: " + exception.getMessage());
-                plugin.logStackTrace(exception);
-            }
-        } catch (NullPointerException exception) {
-            plugin.getLogger().severe("A null pointer exception occurred while loading Grave Map: " + exception.getMessage());
-            plugin.logStackTrace(exception);
-        }
-    }
-
-    /**
-     * Loads graveyards from the database into the provided map.
-     */
-    public void loadGraveyardsMap() {
-        String query = "SELECT * FROM graveyards";  // Select only required columns
-        plugin.getLogger().info("Loading graveyards from the database...");
-
-        try (Connection connection = getConnection();
-             PreparedStatement statement = connection.prepareStatement(query);
-             ResultSet resultSet = statement.executeQuery()) {
-
-            while (resultSet.next()) {
-                String name = resultSet.getString("name");
-                String world = resultSet.getString("world");
-                String type = resultSet.getString("type");
-                String serializedLocations = resultSet.getString("serializedLocations");
-
-                // Ensure the world is not null before attempting to use it
-                World serverWorld = plugin.getServer().getWorld(world);
-                if (serverWorld == null) {
-                    plugin.getLogger().warning("World not found for graveyard '" + name + "': " + world);
-                    continue;
-                }
-
-                plugin.getLogger().info("Loading graveyard: " + name);
-
-                Graveyard.Type graveyardType;
-                try {
-                    graveyardType = Graveyard.Type.valueOf(type.toUpperCase());
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Unknown graveyard type for '" + name + "': " + type);
-                    continue;
-                }
-
-                // Create the graveyard object
-                Graveyard graveyard = new Graveyard(name, serverWorld, graveyardType);
-
-                // Deserialize grave locations
-                Map<Location, BlockFace> locations = Graveyard.deserializeLocations(serializedLocations);
-
-                Location spawnLocation = null;
-
-                // Loop through the grave locations
-                for (Map.Entry<Location, BlockFace> entry : locations.entrySet()) {
-                    Location graveLocation = entry.getKey();
-                    BlockFace graveFacing = entry.getValue();
-
-                    // Set the first grave location as the spawn location (or apply custom logic)
-                    if (spawnLocation == null) {
-                        spawnLocation = graveLocation;
-                    }
-
-                    // Add the grave location to the graveyard
-                    graveyard.addGraveLocation(graveLocation, graveFacing);
-                }
-
-                // Set the spawn location if available
-                if (spawnLocation != null) {
-                    graveyard.setSpawnLocation(spawnLocation);
-                } else {
-                    plugin.getLogger().warning("No valid spawn location found for graveyard '" + name + "'.");
-                }
-
-                // Add to the cache
-                plugin.getCacheManager().getGraveyardsMap().put(name, graveyard);
-                plugin.getLogger().info("Graveyard '" + name + "' loaded with spawn location.");
-            }
-
-            plugin.getLogger().info("All graveyards loaded.");
-        } catch (SQLException e) {
-            String sqlState = e.getSQLState();
-            String message = e.getMessage().toLowerCase();
-            // Ignore errors related to existing tables or columns
-            if ("42701".equals(sqlState)
-                    || "42P07".equals(sqlState)
-                    || "42S01".equals(sqlState)
-                    || "42S04".equals(sqlState)
-                    || "X0Y32".equals(sqlState)
-                    || "42000".equals(sqlState)
-                    || (message.contains("duplicate column name") && "SQLITE_ERROR".equals(sqlState))) {
-                plugin.getLogger().info("All graveyards loaded.");
-            } else {
-                plugin.getLogger().severe("Failed to load graveyards: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        }
+
+        // Ensure all columns exist with appropriate types
+        addColumnIfNotExists(name, "location", "VARCHAR(255)");
+        addColumnIfNotExists(name, "uuid_entity", "VARCHAR(255)");
+        addColumnIfNotExists(name, "uuid_grave", "VARCHAR(255)");
     }
 
     /**
@@ -1317,245 +2204,50 @@ public final class DataManager {
                 graveyard.getWorld().getName()
         };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to update graveyard location data: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
-    }
-
-    /**
-     * Loads the block map from the database.
-     */
-    public void loadBlockMap() {
-        String query = "SELECT * FROM block;";
-
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getLogger().info("Loading Block Map cache...");
-            int blockCount = 0;
-
-            try (Connection connection = getConnection();
-                 PreparedStatement statement = connection != null ? connection.prepareStatement(query) : null;
-                 ResultSet resultSet = statement != null ? statement.executeQuery() : null) {
-
-                if (statement == null || resultSet == null) {
-                    plugin.getLogger().severe("Failed to create statement or result set.");
-                    return;
-                }
-
-                while (resultSet.next()) {
-                    // Retrieve and convert data
-                    Location location = LocationUtil.stringToLocation(resultSet.getString("location"));
-                    UUID uuidGrave = UUID.fromString(resultSet.getString("uuid_grave"));
-                    String replaceMaterial = resultSet.getString("replace_material");
-                    String replaceData = resultSet.getString("replace_data");
-
-                    // Ensure required fields are valid
-                    if (replaceMaterial != null && replaceData != null) {
-                        getChunkData(location).addBlockData(new BlockData(location, uuidGrave, replaceMaterial, replaceData));
-                        blockCount++;
-                    } else {
-                        plugin.getLogger().warning("Data is missing or invalid in result set for location: " + location);
-                    }
-                }
-
-                if (blockCount == 0) {
-                    plugin.getLogger().info("Loaded 0 Blocks into Block Map Cache.");
-                } else {
-                    plugin.getLogger().info("Loaded " + blockCount + " Blocks into the Block Map Cache.");
-                }
-            } catch (SQLException exception) {
-                String sqlState = exception.getSQLState();
-                String message = exception.getMessage().toLowerCase();
-                if ("42701".equals(sqlState)
-                        || "42P07".equals(sqlState)
-                        || "42S01".equals(sqlState)
-                        || "42S04".equals(sqlState)
-                        || "X0Y32".equals(sqlState)
-                        || "42000".equals(sqlState)
-                        || (message.contains("duplicate column name") && "SQLITE_ERROR".equals(sqlState))) {
-                    plugin.getLogger().info("Loaded 0 Blocks into Block Map Cache.");
-                } else {
-                    plugin.getLogger().severe("Error occurred while loading Block Map: " + exception.getMessage());
-                    plugin.logStackTrace(exception);
-                }
-            }
-        });
+        writeBehindQueue.update(graveyardRowKey(graveyard), "serializedLocations", query, parameters);
     }
 
     /**
-     * Loads an entity map from the database.
+     * Adds block data to its chunk and to the grave index, without writing it to the database.
      *
-     * @param table the table name.
-     * @param type  the type of entity data.
+     * @param blockData the block data to cache.
      */
-    private void loadEntityMap(String table, EntityData.Type type) {
-        String query = "SELECT * FROM " + table + ";";
-
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getLogger().info("Loading Entity Map Cache for " + table + "...");
-            int entityCount = 0;
-
-            try (Connection connection = getConnection();
-                 PreparedStatement statement = connection.prepareStatement(query);
-                 ResultSet resultSet = statement.executeQuery()) {
-
-                while (resultSet.next()) {
-                    Location location = null;
+    public void cacheBlockData(BlockData blockData) {
+        BlockData previous = getChunkData(blockData.getLocation()).addBlockData(blockData);
 
-                    // Handle possible null values for location and chunk
-                    String locationString = resultSet.getString("location");
-
-                    if (locationString != null) {
-                        location = LocationUtil.stringToLocation(locationString);
-                    }
-
-                    if (location != null) {
-                        // Ensure UUIDs are not null and valid
-                        String uuidEntityString = resultSet.getString("uuid_entity");
-                        String uuidGraveString = resultSet.getString("uuid_grave");
-
-                        if (uuidEntityString != null && uuidGraveString != null) {
-                            UUID uuidEntity = UUID.fromString(uuidEntityString);
-                            UUID uuidGrave = UUID.fromString(uuidGraveString);
-
-                            getChunkData(location).addEntityData(new EntityData(location, uuidEntity, uuidGrave, type));
-                            entityCount++;
-                        } else {
-                            plugin.getLogger().warning("Missing UUIDs in result set for location: " + location);
-                        }
-                    } else {
-                        plugin.getLogger().warning("Invalid location data in result set.");
-                    }
-                }
+        if (previous != null) {
+            plugin.getCacheManager().unindexBlockData(previous);
+        }
 
-                if (entityCount == 0) {
-                    plugin.getLogger().info("Loaded 0 entities into Entity Map Cache for " + table + ".");
-                } else {
-                    plugin.getLogger().info("Loaded " + entityCount + " entities into Entity Map Cache for " + table + ".");
-                }
-            } catch (SQLException exception) {
-                plugin.getLogger().severe("Error occurred while loading Entity Map: " + exception.getMessage());
-                plugin.logStackTrace(exception);
-            }
-        });
+        plugin.getCacheManager().indexBlockData(blockData);
     }
 
     /**
-     * Loads the hologram map from the database.
+     * Adds entity data to its chunk and to the grave index, without writing it to the database.
+     *
+     * @param entityData the entity data to cache.
      */
-    public void loadHologramMap() {
-        String query = "SELECT * FROM hologram;";
-
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getLogger().info("Loading Holograms into Hologram Map Cache...");
-            int hologramCount = 0;
-
-            try (Connection connection = getConnection();
-                 PreparedStatement statement = connection.prepareStatement(query);
-                 ResultSet resultSet = statement.executeQuery()) {
-
-                while (resultSet.next()) {
-                    Location location = null;
-
-                    // Handle possible null values for location
-                    String locationString = resultSet.getString("location");
-
-                    if (locationString != null) {
-                        location = LocationUtil.stringToLocation(locationString);
-                    }
-
-                    if (location != null) {
-                        // Ensure UUIDs are not null and valid
-                        String uuidEntityString = resultSet.getString("uuid_entity");
-                        String uuidGraveString = resultSet.getString("uuid_grave");
+    public void cacheEntityData(EntityData entityData) {
+        EntityData previous = getChunkData(entityData.getLocation()).addEntityData(entityData);
 
-                        if (uuidEntityString != null && uuidGraveString != null) {
-                            UUID uuidEntity = UUID.fromString(uuidEntityString);
-                            UUID uuidGrave = UUID.fromString(uuidGraveString);
-                            int line = resultSet.getInt("line");
-
-                            getChunkData(location).addEntityData(new HologramData(location, uuidEntity, uuidGrave, line));
-                            hologramCount++;  // Increment hologram count
-                        } else {
-                            plugin.getLogger().warning("Missing UUIDs in result set for location: " + location);
-                        }
-                    } else {
-                        plugin.getLogger().warning("Invalid location data in result set.");
-                    }
-                }
-                if (hologramCount == 0) {
-                    plugin.getLogger().info("Loaded 0 Holograms into Hologram Map Cache.");
-                } else {
-                    plugin.getLogger().info("Loaded " + hologramCount + " Holograms into Hologram Map Cache.");
-                }
+        if (previous != null) {
+            plugin.getCacheManager().unindexEntityData(previous);
+        }
 
-            } catch (SQLException exception) {
-                plugin.getLogger().severe("Error occurred while loading Hologram Map: " + exception.getMessage());
-                plugin.logStackTrace(exception);
-            }
-        });
+        plugin.getCacheManager().indexEntityData(entityData);
     }
 
     /**
-     * Loads entity data from the database.
+     * Removes entity data from its chunk and from the grave index, without deleting it from the database.
      *
-     * @param table the table name.
-     * @param type  the type of entity data.
+     * @param entityData the entity data to remove.
      */
-    private void loadEntityDataMap(String table, EntityData.Type type) {
-        String query = "SELECT * FROM " + table + ";";
-
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getLogger().info("Loading Entity Data Map Cache for " + table + "...");
-            int entityCount = 0;
-
-            try (Connection connection = getConnection();
-                 PreparedStatement statement = connection.prepareStatement(query);
-                 ResultSet resultSet = statement.executeQuery()) {
-
-                while (resultSet.next()) {
-                    Location location = null;
-
-                    // Retrieve and convert location or chunk data
-                    String locationString = resultSet.getString("location");
-
-                    if (locationString != null) {
-                        location = LocationUtil.stringToLocation(locationString);
-                    } else {
-                        plugin.getLogger().warning("Invalid location for result set entry");
-                        continue; // Continue processing remaining entries
-                    }
+    private void uncacheEntityData(EntityData entityData) {
+        EntityData removed = getChunkData(entityData.getLocation()).removeEntityData(entityData);
 
-                    // Retrieve and validate UUIDs
-                    String uuidEntityString = resultSet.getString("uuid_entity");
-                    String uuidGraveString = resultSet.getString("uuid_grave");
-
-                    if (uuidEntityString != null && uuidGraveString != null) {
-                        UUID uuidEntity = UUID.fromString(uuidEntityString);
-                        UUID uuidGrave = UUID.fromString(uuidGraveString);
-
-                        // Add entity data to the chunk data map
-                        getChunkData(location).addEntityData(new EntityData(location, uuidEntity, uuidGrave, type));
-                        entityCount++;  // Increment entity count
-                    } else {
-                        plugin.getLogger().warning("Missing UUIDs for location: " + location);
-                    }
-                }
-
-                if (entityCount == 0) {
-                    plugin.getLogger().info("Loaded 0 entities into Entity Data Map Cache for " + table + ".");
-                } else {
-                    plugin.getLogger().info("Loaded " + entityCount + " entities into Entity Data Map Cache for " + table + ".");
-                }
-            } catch (SQLException exception) {
-                plugin.getLogger().severe("Error occurred while loading Entity Data Map: " + exception.getMessage());
-                plugin.logStackTrace(exception);
-            }
-        });
+        if (removed != null) {
+            plugin.getCacheManager().unindexEntityData(removed);
+        }
     }
 
     /**
@@ -1564,9 +2256,10 @@ public final class DataManager {
      * @param blockData the block data to add.
      */
     public void addBlockData(BlockData blockData) {
-        getChunkData(blockData.getLocation()).addBlockData(blockData);
+        cacheBlockData(blockData);
 
-        String query = "INSERT INTO block (location, uuid_grave, replace_material, replace_data) VALUES (?, ?, ?, ?)";
+        String query = "INSERT INTO block (location, uuid_grave, replace_material, replace_data, "
+                + LOCATION_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         Object[] parameters = new Object[4];
 
         // Set location
@@ -1581,14 +2274,8 @@ public final class DataManager {
         // Set replace_data
         parameters[3] = blockData.getReplaceData();
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException exception) {
-                plugin.getLogger().severe("Failed to add block data: " + exception.getMessage());
-                plugin.logStackTrace(exception);
-            }
-        });
+        writeBehindQueue.insert("block|" + parameters[0], query,
+                withLocationParameters(parameters, blockData.getLocation()));
     }
 
     /**
@@ -1597,19 +2284,17 @@ public final class DataManager {
      * @param location the location of the block data to remove.
      */
     public void removeBlockData(Location location) {
-        getChunkData(location).removeBlockData(location);
+        BlockData blockData = getChunkData(location).removeBlockData(location.getBlockX(), location.getBlockY(),
+                location.getBlockZ());
 
-        String query = "DELETE FROM block WHERE location = ?";
-        Object[] parameters = { LocationUtil.locationToString(location) };
+        if (blockData != null) {
+            plugin.getCacheManager().unindexBlockData(blockData);
+        }
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException exception) {
-                plugin.getLogger().severe("Failed to remove block data: " + exception.getMessage());
-                plugin.logStackTrace(exception);
-            }
-        });
+        String query = "DELETE FROM block WHERE " + LOCATION_MATCH;
+
+        writeBehindQueue.delete("block|" + LocationUtil.locationToString(location), query,
+                locationParameters(location));
     }
 
     /**
@@ -1618,9 +2303,10 @@ public final class DataManager {
      * @param hologramData the hologram data to add.
      */
     public void addHologramData(HologramData hologramData) {
-        getChunkData(hologramData.getLocation()).addEntityData(hologramData);
+        cacheEntityData(hologramData);
 
-        String query = "INSERT INTO hologram (uuid_entity, uuid_grave, line, location) VALUES (?, ?, ?, ?)";
+        String query = "INSERT INTO hologram (uuid_entity, uuid_grave, line, location, " + LOCATION_COLUMNS
+                + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         Object[] parameters = {
                 hologramData.getUUIDEntity().toString(),
                 hologramData.getUUIDGrave().toString(),
@@ -1628,14 +2314,8 @@ public final class DataManager {
                 LocationUtil.locationToString(hologramData.getLocation())
         };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException exception) {
-                plugin.getLogger().severe("Failed to add hologram data: " + exception.getMessage());
-                plugin.logStackTrace(exception);
-            }
-        });
+        writeBehindQueue.insert("hologram|" + hologramData.getUUIDEntity(), query,
+                withLocationParameters(parameters, hologramData.getLocation()));
     }
 
     /**
@@ -1644,23 +2324,13 @@ public final class DataManager {
      * @param entityDataList the list of entity data to remove.
      */
     public void removeHologramData(List<EntityData> entityDataList) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            String sql = "DELETE FROM hologram WHERE uuid_entity = ?";
-            try (Connection connection = getConnection();
-                 PreparedStatement statement = connection != null ? connection.prepareStatement(sql) : null) {
-                if (statement != null) {
-                    for (EntityData hologramData : entityDataList) {
-                        getChunkData(hologramData.getLocation()).removeEntityData(hologramData);
-                        statement.setString(1, String.valueOf(hologramData.getUUIDEntity()));
-                        statement.addBatch();
-                    }
-                    executeBatch(statement);
-                }
-            } catch (SQLException exception) {
-                plugin.getLogger().severe("Error occurred while removing hologram data: " + exception.getMessage());
-                plugin.logStackTrace(exception);
-            }
-        });
+        String query = "DELETE FROM hologram WHERE uuid_entity = ?";
+
+        for (EntityData hologramData : entityDataList) {
+            uncacheEntityData(hologramData);
+            writeBehindQueue.delete("hologram|" + hologramData.getUUIDEntity(), query,
+                    new Object[]{ String.valueOf(hologramData.getUUIDEntity()) });
+        }
     }
 
     /**
@@ -1669,10 +2339,11 @@ public final class DataManager {
      * @param entityData the entity data to add.
      */
     public void addEntityData(EntityData entityData) {
-        getChunkData(entityData.getLocation()).addEntityData(entityData);
+        cacheEntityData(entityData);
 
         String table = entityDataTypeTable(entityData.getType());
-        String query = "INSERT INTO " + table + " (location, uuid_entity, uuid_grave) VALUES (?, ?, ?)";
+        String query = "INSERT INTO " + table + " (location, uuid_entity, uuid_grave, " + LOCATION_COLUMNS
+                + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         String location = LocationUtil.locationToString(entityData.getLocation());
         Object[] parameters = {
@@ -1681,14 +2352,8 @@ public final class DataManager {
                 entityData.getUUIDGrave()
         };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to add entity data: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
+        writeBehindQueue.insert(table + "|" + entityData.getUUIDEntity(), query,
+                withLocationParameters(parameters, entityData.getLocation()));
     }
 
     /**
@@ -1706,24 +2371,14 @@ public final class DataManager {
      * @param entityDataList the list of entity data to remove.
      */
     public void removeEntityData(List<EntityData> entityDataList) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (Connection connection = getConnection();
-                 Statement statement = connection != null ? connection.createStatement() : null) {
-                if (statement != null) {
-                    for (EntityData entityData : entityDataList) {
-                        getChunkData(entityData.getLocation()).removeEntityData(entityData);
-                        String table = entityDataTypeTable(entityData.getType());
-                        String query = "DELETE FROM " + table + " WHERE uuid_entity = ?";
-                        Object[] parameters = { entityData.getUUIDEntity() };
-                        executeUpdate(query, parameters);
-                        plugin.debugMessage("Removing " + table + " for grave " + entityData.getUUIDGrave(), 1);
-                    }
-                }
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to remove entity data: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
+        for (EntityData entityData : entityDataList) {
+            uncacheEntityData(entityData);
+            String table = entityDataTypeTable(entityData.getType());
+            String query = "DELETE FROM " + table + " WHERE uuid_entity = ?";
+            Object[] parameters = { entityData.getUUIDEntity() };
+            writeBehindQueue.delete(table + "|" + entityData.getUUIDEntity(), query, parameters);
+            plugin.debugMessage("Removing " + table + " for grave " + entityData.getUUIDGrave(), 1);
+        }
     }
 
     /**
@@ -1735,174 +2390,229 @@ public final class DataManager {
         String serializedLocations = Graveyard.serializeLocations(graveyard.getGraveLocationMap());
         plugin.getLogger().info("Saving serialized locations: " + serializedLocations);
 
-        if (graveyardExists(graveyard.getName())) {
-            updateGraveyard(graveyard, serializedLocations);
-        } else {
-            insertGraveyard(graveyard, serializedLocations);
-        }
+        plugin.getCacheManager().getGraveyardsMap().put(graveyard.getName(), graveyard);
+
+        // Replacing the row in the same queued transaction saves a lookup to choose between insert and update.
+        writeBehindQueue.delete(graveyardRowKey(graveyard), "DELETE FROM graveyards WHERE name = ?",
+                new Object[]{graveyard.getName()});
+        insertGraveyard(graveyard, serializedLocations);
     }
 
     /**
-     * Checks if a graveyard with the specified name exists in the database.
+     * Checks if a graveyard with the specified name exists. Graveyards are cached on load and on save, so this
+     * does not query the database.
      *
      * @param name the name of the graveyard.
      * @return true if the graveyard exists, false otherwise.
      */
     public boolean graveyardExists(String name) {
-        String query = "SELECT COUNT(*) FROM graveyards WHERE name = ?";
-
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement statement = connection != null ? connection.prepareStatement(query) : null) {
-
-            statement.setString(1, name);
-
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getInt(1) > 0;
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to check existence of graveyard: " + e.getMessage());
-            plugin.logStackTrace(e);
-        }
-
-        return false;
+        return plugin.getCacheManager().getGraveyardsMap().containsKey(name);
     }
 
     /**
-     * Updates a graveyard in the database.
+     * Inserts a graveyard into the database.
      *
-     * @param graveyard           the graveyard to update.
-     * @param serializedLocations the new serialized locations for the graveyard.
+     * @param graveyard           the graveyard to insert.
+     * @param serializedLocations the serialized locations for the graveyard.
      */
-    private void updateGraveyard(Graveyard graveyard, String serializedLocations) {
-        String query = "UPDATE graveyards SET world = ?, type = ?, serializedLocations = ? WHERE name = ?";
+    private void insertGraveyard(Graveyard graveyard, String serializedLocations) {
+        String query = "INSERT INTO graveyards (name, world, type, serializedLocations) VALUES (?, ?, ?, ?)";
 
         Object[] parameters = {
+                graveyard.getName(),
                 graveyard.getWorld().getName(),
                 graveyard.getType().toString(),
-                serializedLocations,
-                graveyard.getName()
+                serializedLocations
         };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to update graveyard: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
+        writeBehindQueue.insert(graveyardRowKey(graveyard), query, parameters);
     }
 
     /**
-     * Inserts a graveyard into the database.
+     * Retrieves a cached graveyard by its name.
      *
-     * @param graveyard           the graveyard to insert.
-     * @param serializedLocations the serialized locations for the graveyard.
+     * @param graveyardName The name of the graveyard.
+     * @return The Graveyard object if found, otherwise null.
      */
-    private void insertGraveyard(Graveyard graveyard, String serializedLocations) {
-        String query = "INSERT INTO graveyards (name, world, type, serializedLocations) VALUES (?, ?, ?, ?)";
+    public Graveyard getGraveyardByName(String graveyardName) {
+        return plugin.getCacheManager().getGraveyardsMap().get(graveyardName);
+    }
+
+    /**
+     * Retrieves a graveyard by its name from the database. The graveyard is built on the main thread, since it
+     * resolves its world.
+     *
+     * @param graveyardName The name of the graveyard.
+     * @return a future completing on the main thread with the graveyard, or null if not found.
+     */
+    public CompletableFuture<Graveyard> getGraveyardByNameAsync(String graveyardName) {
+        String query = "SELECT name, world, type, serializedLocations FROM graveyards WHERE name = ?";
+
+        return queryFirst("graveyards|" + graveyardName, query, new Object[]{graveyardName},
+                resultSet -> new String[]{
+                        resultSet.getString("name"),
+                        resultSet.getString("world"),
+                        resultSet.getString("type"),
+                        resultSet.getString("serializedLocations")
+                }).thenApplyAsync(row -> row != null ? toGraveyard(row[0], row[1], row[2], row[3]) : null,
+                mainThreadExecutor);
+    }
+
+    /**
+     * Builds a graveyard from its stored columns.
+     *
+     * @param name                the graveyard name.
+     * @param world               the world name.
+     * @param type                the graveyard type.
+     * @param serializedLocations the serialized grave locations.
+     * @return the graveyard, or null if its world is not loaded.
+     */
+    private Graveyard toGraveyard(String name, String world, String type, String serializedLocations) {
+        World serverWorld = plugin.getServer().getWorld(world);
+
+        if (serverWorld == null) {
+            plugin.getLogger().warning("World not found for graveyard '" + name + "': " + world);
+            return null;
+        }
+
+        Graveyard graveyard = new Graveyard(name, serverWorld, Graveyard.Type.valueOf(type.toUpperCase()));
+
+        for (Map.Entry<Location, BlockFace> entry : Graveyard.deserializeLocations(serializedLocations).entrySet()) {
+            graveyard.addGraveLocation(entry.getKey(), entry.getValue());
+        }
+
+        return graveyard;
+    }
+
+    /**
+     * Deletes a graveyard from the database.
+     *
+     * @param graveyard The graveyard to delete.
+     */
+    public void deleteGraveyard(Graveyard graveyard) {
+        plugin.getCacheManager().getGraveyardsMap().remove(graveyard.getName(), graveyard);
+
+        String query = "DELETE FROM graveyards WHERE name = ? AND world = ?";
 
         Object[] parameters = {
                 graveyard.getName(),
-                graveyard.getWorld().getName(),
-                graveyard.getType().toString(),
-                serializedLocations
+                graveyard.getWorld().getName()
         };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to insert graveyard: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
+        writeBehindQueue.delete(graveyardRowKey(graveyard), query, parameters);
+    }
+
+    /**
+     * Gets the write-behind queue used for row mutations.
+     *
+     * @return the write-behind queue.
+     */
+    public WriteBehindQueue getWriteBehindQueue() {
+        return writeBehindQueue;
+    }
+
+    /**
+     * Gets the executor for database work outside the write-behind queue.
+     *
+     * @return the database executor.
+     */
+    public DatabaseExecutor getDatabaseExecutor() {
+        return databaseExecutor;
+    }
+
+    /**
+     * Gets the spill file for the payload of graves that were moved off the heap.
+     *
+     * @return the spill store.
+     */
+    public GraveSpillStore getGraveSpillStore() {
+        return graveSpillStore;
+    }
+
+    /**
+     * Gets the loader used by cached graves to decode their stored inventory and equipment.
+     *
+     * @return the grave loader.
+     */
+    public Grave.Loader getGraveLoader() {
+        return graveLoader;
+    }
+
+    /**
+     * Gets the storage format used for grave inventories and equipment.
+     *
+     * @return the item format.
+     */
+    public GraveItemFormat getItemFormat() {
+        return itemFormat;
+    }
+
+    /**
+     * Gets the tracker for grave inventories changed by players.
+     *
+     * @return the grave inventory tracker.
+     */
+    public GraveInventoryTracker getGraveInventoryTracker() {
+        return graveInventoryTracker;
+    }
+
+    /**
+     * Returns the write-behind row key for a graveyard.
+     *
+     * @param graveyard the graveyard.
+     * @return the row key.
+     */
+    private String graveyardRowKey(Graveyard graveyard) {
+        return "graveyards|" + graveyard.getName() + "|" + graveyard.getWorld().getName();
     }
 
     /**
-     * Retrieves a graveyard by its name.
+     * Checks if a cached grave died at the block of the given location.
      *
-     * @param graveyardName The name of the graveyard.
-     * @return The Graveyard object if found, otherwise null.
+     * @param location the location to check.
+     * @return true if a grave has its death location at that block.
      */
-    public Graveyard getGraveyardByName(String graveyardName) {
-        String query = "SELECT * FROM graveyards WHERE name = ?";
-
-        try (Connection connection = getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
-
-            statement.setString(1, graveyardName);
-
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    String name = resultSet.getString("name");
-                    String world = resultSet.getString("world");
-                    String type = resultSet.getString("type");
-                    String serializedLocations = resultSet.getString("serializedLocations");
-
-                    World serverWorld = plugin.getServer().getWorld(world);
-                    if (serverWorld == null) {
-                        plugin.getLogger().warning("World not found for graveyard '" + name + "': " + world);
-                        return null;
-                    }
+    public boolean hasGraveAtLocation(Location location) {
+        if (location == null || location.getWorld() == null) {
+            return false;
+        }
 
-                    Graveyard.Type graveyardType = Graveyard.Type.valueOf(type.toUpperCase());
-                    Graveyard graveyard = new Graveyard(name, serverWorld, graveyardType);
+        Location blockCenter = new Location(location.getWorld(), location.getBlockX() + 0.5,
+                location.getBlockY() + 0.5, location.getBlockZ() + 0.5);
 
-                    // Deserialize locations
-                    Map<Location, BlockFace> locations = Graveyard.deserializeLocations(serializedLocations);
-                    for (Map.Entry<Location, BlockFace> entry : locations.entrySet()) {
-                        graveyard.addGraveLocation(entry.getKey(), entry.getValue());
-                    }
+        // Every point inside the block is within one block of its center, so only that cell of the index is searched.
+        for (SpatialIndex.Match<UUID> match : plugin.getCacheManager().getGraveSpatialIndex()
+                .getWithinRadius(blockCenter, 1, null)) {
+            Grave grave = plugin.getCacheManager().getGraveMap().get(match.getValue());
+            Location locationDeath = grave != null ? grave.getLocationDeath() : null;
 
-                    return graveyard;
-                }
+            // The index also holds grave blocks, so only the death location of the grave counts.
+            if (locationDeath != null && location.getWorld().equals(locationDeath.getWorld())
+                    && locationDeath.getBlockX() == location.getBlockX()
+                    && locationDeath.getBlockY() == location.getBlockY()
+                    && locationDeath.getBlockZ() == location.getBlockZ()) {
+                return true;
             }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to retrieve graveyard: " + e.getMessage());
         }
-        return null;
+
+        return false;
     }
 
     /**
-     * Deletes a graveyard from the database.
+     * Checks in the database if a grave died at the block of the given location.
      *
-     * @param graveyard The graveyard to delete.
+     * @param location the location to check.
+     * @return a future completing with true if a grave has its death location at that block.
      */
-    public void deleteGraveyard(Graveyard graveyard) {
-        String query = "DELETE FROM graveyards WHERE name = ? AND world = ?";
-
-        Object[] parameters = {
-                graveyard.getName(),
-                graveyard.getWorld().getName()
-        };
-
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to delete graveyard: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
-    }
+    public CompletableFuture<Boolean> hasGraveAtLocationAsync(Location location) {
+        Object[] parameters = locationParameters(location);
 
-    public boolean hasGraveAtLocation(Location location) {
-        String query = "SELECT COUNT(*) FROM grave WHERE location_death = ?";
-        try (Connection connection = getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, LocationUtil.locationToString(location));
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getInt(1) > 0;
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to check if grave exists at location: " + e.getMessage());
+        if (parameters == null) {
+            return CompletableFuture.completedFuture(false);
         }
-        return false;
+
+        return queryFirst(null, "SELECT COUNT(*) FROM grave WHERE " + LOCATION_MATCH, parameters,
+                resultSet -> resultSet.getInt(1) > 0).thenApply(Boolean.TRUE::equals);
     }
 
     /**
@@ -1943,8 +2653,16 @@ public final class DataManager {
      */
     public void addGrave(Grave grave) {
         plugin.getCacheManager().getGraveMap().put(grave.getUUID(), grave);
+        markMenusDirty(grave);
 
         String query = "INSERT INTO grave (uuid, owner_type, owner_name, owner_name_display, owner_uuid, owner_texture, owner_texture_signature, killer_type, killer_name, killer_name_display, killer_uuid, location_death, yaw, pitch, inventory, equipment, experience, protection, is_abandoned, time_alive, time_protection, time_creation, permissions) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        boolean hasLocation = locationParameters(grave.getLocationDeath()) != null;
+
+        // Graves without a death location leave the location columns empty.
+        if (hasLocation) {
+            query = query.replace(", permissions)", ", permissions, " + LOCATION_COLUMNS + ")")
+                    .replace("?)", "?, ?, ?, ?, ?, ?, ?)");
+        }
 
         // Prepare parameters
         Object[] parameters = {
@@ -1962,10 +2680,8 @@ public final class DataManager {
                 grave.getLocationDeath() != null ? LocationUtil.locationToString(grave.getLocationDeath()) : null,
                 grave.getYaw(),
                 grave.getPitch(),
-                InventoryUtil.inventoryToString(grave.getInventory()),
-                Base64Util.objectToBase64(grave.getEquipmentMap().entrySet().stream()
-                        .filter(entry -> entry.getValue() != null)
-                        .collect(Collectors.toMap(entry -> entry.getKey().name(), Map.Entry::getValue))),
+                itemFormat.encodeInventory(grave.getInventory()),
+                itemFormat.encodeEquipment(grave.getEquipmentMap()),
                 grave.getExperience(),
                 grave.getProtection() ? 1 : 0,
                 grave.isAbandoned() ? 1 : 0,
@@ -1975,14 +2691,19 @@ public final class DataManager {
                 grave.getPermissionList() != null && !grave.getPermissionList().isEmpty() ? StringUtils.join(grave.getPermissionList(), "|") : null
         };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to add grave: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
+        writeBehindQueue.insert("grave|" + grave.getUUID(), query,
+                hasLocation ? withLocationParameters(parameters, grave.getLocationDeath()) : parameters);
+    }
+
+    /**
+     * Marks the open grave lists and grave menus showing a grave for rendering.
+     *
+     * @param grave the grave that changed.
+     */
+    private void markMenusDirty(Grave grave) {
+        if (plugin.getGUIManager() != null) { // Not created yet while the data manager starts up
+            plugin.getGUIManager().getMenuRegistry().markDirty(grave);
+        }
     }
 
     /**
@@ -1995,22 +2716,21 @@ public final class DataManager {
     }
 
     public void removeGrave(UUID uuid) {
-        plugin.getCacheManager().getGraveMap().remove(uuid);
+        Grave grave = plugin.getCacheManager().getGraveMap().remove(uuid);
+
+        if (grave != null) {
+            markMenusDirty(grave);
+        }
+
+        graveInventoryTracker.discard(uuid);
+        graveSpillStore.discard(uuid);
+        clearGraveSlots(uuid);
 
         String deleteQuery = "DELETE FROM grave WHERE uuid = ?";
         Object[] deleteParams = { uuid };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                plugin.debugMessage("Attempting to remove grave for UUID: " + uuid, 1);
-
-                executeUpdate(deleteQuery, deleteParams);
-                plugin.debugMessage("Grave successfully removed for UUID: " + uuid, 1);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to remove grave: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
+        plugin.debugMessage("Queueing removal of grave for UUID: " + uuid, 1);
+        writeBehindQueue.delete("grave|" + uuid, deleteQuery, deleteParams);
     }
 
     /**
@@ -2024,14 +2744,8 @@ public final class DataManager {
         String query = "UPDATE grave SET " + column + " = ? WHERE uuid = ?";
         Object[] parameters = { integer, grave.getUUID() };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to update grave: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
+        writeBehindQueue.update("grave|" + grave.getUUID(), column, query, parameters);
+        markMenusDirty(grave);
     }
 
     /**
@@ -2045,14 +2759,42 @@ public final class DataManager {
         String query = "UPDATE grave SET " + column + " = ? WHERE uuid = ?";
         Object[] parameters = { string, grave.getUUID() };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to update grave: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
+        writeBehindQueue.update("grave|" + grave.getUUID(), column, query, parameters);
+        markMenusDirty(grave);
+
+        if (column.equals("inventory")) {
+            // The whole inventory was rewritten, changed slots no longer apply.
+            graveInventoryTracker.discard(grave.getUUID());
+            clearGraveSlots(grave.getUUID());
+        }
+    }
+
+    /**
+     * Writes a single inventory slot of a grave without rewriting the whole inventory.
+     *
+     * @param grave     the grave.
+     * @param slot      the slot index.
+     * @param itemStack the item in the slot, or null if the slot is empty.
+     */
+    public void updateGraveSlot(Grave grave, int slot, ItemStack itemStack) {
+        String rowKey = "grave_slot|" + grave.getUUID() + "|" + slot;
+        String item = itemStack != null && itemStack.getType() != Material.AIR
+                ? itemFormat.encodeItem(itemStack) : null;
+
+        writeBehindQueue.delete(rowKey, "DELETE FROM grave_slot WHERE uuid_grave = ? AND slot = ?",
+                new Object[]{ grave.getUUID(), slot });
+        writeBehindQueue.insert(rowKey, "INSERT INTO grave_slot (uuid_grave, slot, item) VALUES (?, ?, ?)",
+                new Object[]{ grave.getUUID(), slot, item });
+    }
+
+    /**
+     * Removes all changed slots of a grave.
+     *
+     * @param uuid the grave UUID.
+     */
+    private void clearGraveSlots(UUID uuid) {
+        writeBehindQueue.delete("grave_slot|" + uuid, "DELETE FROM grave_slot WHERE uuid_grave = ?",
+                new Object[]{ uuid });
     }
 
     /**
@@ -2091,16 +2833,14 @@ public final class DataManager {
             grave.setTimeCreation(resultSet.getLong("time_creation"));
             grave.setPermissionList(resultSet.getString("permissions") != null
                     ? new ArrayList<>(Arrays.asList(resultSet.getString("permissions").split("\\|"))) : new ArrayList<>());
-            grave.setInventory(InventoryUtil.stringToInventory(grave, resultSet.getString("inventory"),
-                    StringUtil.parseString(plugin.getConfig("gui.grave.title", grave.getOwnerType(),
-                                    grave.getPermissionList())
-                            .getString("gui.grave.title"), grave.getLocationDeath(), grave, plugin), plugin));
+            // Inventory and equipment are decoded on first access.
+            String inventoryData = resultSet.getString("inventory");
+
+            grave.setLoader(graveLoader);
+            grave.setInventoryData(inventoryData, itemFormat.countItems(inventoryData));
 
             if (resultSet.getString("equipment") != null) {
-                @SuppressWarnings("unchecked")
-                Map<EquipmentSlot, ItemStack> equipmentMap = (Map<EquipmentSlot, ItemStack>) Base64Util
-                        .base64ToObject(resultSet.getString("equipment"));
-                grave.setEquipmentMap(equipmentMap != null ? equipmentMap : new HashMap<>());
+                grave.setEquipmentData(resultSet.getString("equipment"));
             }
 
             return grave;
@@ -2125,7 +2865,7 @@ public final class DataManager {
      *
      * @return the database connection.
      */
-    private Connection getConnection() {
+    Connection getConnection() {
         try {
             return dataSource.getConnection();
         } catch (SQLException exception) {
@@ -2203,6 +2943,28 @@ public final class DataManager {
      * Closes the database connection.
      */
     public void closeConnection() {
+        graveInventoryTracker.flushAll();
+
+        if (databaseExecutor != null) {
+            databaseExecutor.shutdown(plugin.getConfig().getLong("settings.storage.write-behind.shutdown-timeout", 10000L));
+        }
+
+        boolean drained = writeBehindQueue.shutdown(plugin.getConfig()
+                .getLong("settings.storage.write-behind.shutdown-timeout", 10000L));
+
+        // The caches only match the database at this change sequence if the load published every table and every
+        // queued write was committed.
+        if (drained && loaded && writeBehindQueue.getFailedCount() == 0
+                && plugin.getConfig().getBoolean("settings.storage.snapshot.enabled", true)) {
+            long changeSequence = getChangeSequence();
+
+            if (changeSequence >= 0) {
+                new CacheSnapshot(plugin, this).write(changeSequence);
+            }
+        }
+
+        graveSpillStore.close();
+
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
         }
@@ -2250,52 +3012,11 @@ public final class DataManager {
      * @throws SQLException if a database access error occurs.
      */
     private void executeUpdate(String sql, Object[] parameters) throws SQLException {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+        Runnable update = () -> {
             try (Connection connection = getConnection();
                  PreparedStatement statement = connection.prepareStatement(sql)) {
 
-                if (parameters != null) {
-                    for (int i = 0; i < parameters.length; i++) {
-                        Object parameter = parameters[i];
-                        if (parameter == null) {
-                            // Use specific SQL types for null values
-                            statement.setNull(i + 1, Types.VARCHAR); // Adjust based on expected parameter type
-                        } else if (parameter instanceof String) {
-                            statement.setString(i + 1, (String) parameter);
-                        } else if (parameter instanceof Integer) {
-                            statement.setInt(i + 1, (Integer) parameter);
-                        } else if (parameter instanceof Long) {
-                            statement.setLong(i + 1, (Long) parameter);
-                        } else if (parameter instanceof Double) {
-                            statement.setDouble(i + 1, (Double) parameter);
-                        } else if (parameter instanceof Float) {
-                            statement.setFloat(i + 1, (Float) parameter);
-                        } else if (parameter instanceof Boolean) {
-                            statement.setBoolean(i + 1, (Boolean) parameter); // Use setBoolean for MSSQL
-                        } else if (parameter instanceof UUID) {
-                            statement.setObject(i + 1, parameter.toString(), Types.VARCHAR);
-                        } else if (parameter instanceof byte[]) {
-                            statement.setBytes(i + 1, (byte[]) parameter);
-                        } else if (parameter instanceof Date) {
-                            statement.setDate(i + 1, (Date) parameter);
-                        } else if (parameter instanceof Timestamp) {
-                            statement.setTimestamp(i + 1, (Timestamp) parameter);
-                        } else if (parameter instanceof LocalDate) {
-                            statement.setObject(i + 1, parameter, Types.DATE);
-                        } else if (parameter instanceof LocalDateTime) {
-                            statement.setObject(i + 1, parameter, Types.TIMESTAMP);
-                        } else if (parameter instanceof Clob) {
-                            statement.setClob(i + 1, (Clob) parameter);
-                        } else if (parameter instanceof Blob) {
-                            statement.setBlob(i + 1, (Blob) parameter);
-                        } else if (parameter instanceof EntityType) {
-                            statement.setString(i + 1, ((EntityType) parameter).name());
-                        } else {
-                            statement.setObject(i + 1, parameter);
-                        }
-                    }
-                }
-
+                bindParameters(statement, parameters);
                 statement.executeUpdate();
             } catch (SQLException exception) {
                 String sqlState = exception.getSQLState();
@@ -2316,87 +3037,148 @@ public final class DataManager {
                     plugin.logStackTrace(exception);
                 }
             }
-        });
+        };
+
+        // Schema setup already runs off the main thread, where statements must run in order.
+        if (plugin.getServer().isPrimaryThread()) {
+            databaseExecutor.execute("schema", update);
+        } else {
+            update.run();
+        }
     }
 
     /**
-     * Executes a query SQL statement.
+     * Binds parameters to a prepared statement based on their type.
      *
-     * @param sql the SQL statement.
-     * @return the ResultSet of the query.
+     * @param statement  the prepared statement.
+     * @param parameters the parameters for the SQL statement.
+     * @throws SQLException if a database access error occurs.
      */
-    private ResultSet executeQuery(String sql) throws SQLException {
-        ResultSet resultSet = null;
-        Statement statement = null;
-        try (Connection connection = getConnection()) {
-            if (connection != null) {
-                statement = connection.createStatement();
-                resultSet = statement.executeQuery(sql);
-            }
-        } catch (SQLException exception) {
-            plugin.logStackTrace(exception);
-        } finally {
-            if (resultSet != null) {
-                try {
-                    resultSet.close();
-                } catch (SQLException exception) {
-                    plugin.logStackTrace(exception);
-                }
-            }
-            if (statement != null) {
-                try {
-                    statement.close();
-                } catch (SQLException exception) {
-                    plugin.logStackTrace(exception);
+    void bindParameters(PreparedStatement statement, Object[] parameters) throws SQLException {
+        if (parameters != null) {
+            for (int i = 0; i < parameters.length; i++) {
+                Object parameter = parameters[i];
+                if (parameter == null) {
+                    // Use specific SQL types for null values
+                    statement.setNull(i + 1, Types.VARCHAR); // Adjust based on expected parameter type
+                } else if (parameter instanceof String) {
+                    statement.setString(i + 1, (String) parameter);
+                } else if (parameter instanceof Integer) {
+                    statement.setInt(i + 1, (Integer) parameter);
+                } else if (parameter instanceof Long) {
+                    statement.setLong(i + 1, (Long) parameter);
+                } else if (parameter instanceof Double) {
+                    statement.setDouble(i + 1, (Double) parameter);
+                } else if (parameter instanceof Float) {
+                    statement.setFloat(i + 1, (Float) parameter);
+                } else if (parameter instanceof Boolean) {
+                    statement.setBoolean(i + 1, (Boolean) parameter); // Use setBoolean for MSSQL
+                } else if (parameter instanceof UUID) {
+                    statement.setObject(i + 1, parameter.toString(), Types.VARCHAR);
+                } else if (parameter instanceof byte[]) {
+                    statement.setBytes(i + 1, (byte[]) parameter);
+                } else if (parameter instanceof Date) {
+                    statement.setDate(i + 1, (Date) parameter);
+                } else if (parameter instanceof Timestamp) {
+                    statement.setTimestamp(i + 1, (Timestamp) parameter);
+                } else if (parameter instanceof LocalDate) {
+                    statement.setObject(i + 1, parameter, Types.DATE);
+                } else if (parameter instanceof LocalDateTime) {
+                    statement.setObject(i + 1, parameter, Types.TIMESTAMP);
+                } else if (parameter instanceof Clob) {
+                    statement.setClob(i + 1, (Clob) parameter);
+                } else if (parameter instanceof Blob) {
+                    statement.setBlob(i + 1, (Blob) parameter);
+                } else if (parameter instanceof EntityType) {
+                    statement.setString(i + 1, ((EntityType) parameter).name());
+                } else {
+                    statement.setObject(i + 1, parameter);
                 }
             }
         }
-        return resultSet;
     }
 
     /**
-     * Executes a query SQL statement with parameters.
+     * Runs a query on the database executor and maps every row.
+     * <p>
+     * Queries with the same key run in submission order. The future completes on a database thread, use
+     * {@link #getMainThreadExecutor()} with the {@code *Async} methods of the future to continue on the main thread.
+     * It completes exceptionally with a {@link java.util.concurrent.TimeoutException} if the query does not finish
+     * within {@code settings.storage.executor.query-timeout} milliseconds.
+     * </p>
      *
-     * @param sql the SQL statement with placeholders (e.g., ? for parameters).
-     * @param params the parameters to be set in the prepared statement.
-     * @return the ResultSet of the query.
-     * @throws SQLException if an SQL error occurs.
-     */
-    private ResultSet executeQuery(String sql, Object[] params) throws SQLException {
-        AtomicReference<ResultSet> resultSet = new AtomicReference<>();
-        AtomicReference<PreparedStatement> preparedStatement = new AtomicReference<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+     * @param key        the ordering key, or null.
+     * @param sql        the SQL statement with placeholders.
+     * @param parameters the parameters.
+     * @param rowMapper  the mapper called for each row.
+     * @param <T>        the row type.
+     * @return a future completing with the mapped rows.
+     */
+    public <T> CompletableFuture<List<T>> query(Object key, String sql, Object[] parameters, RowMapper<T> rowMapper) {
+        CompletableFuture<List<T>> future = new CompletableFuture<>();
+        long timeout = Math.max(1L, plugin.getConfig().getLong("settings.storage.executor.query-timeout", 5000L));
+
+        boolean accepted = databaseExecutor != null && databaseExecutor.execute(key, () -> {
+            if (future.isDone()) {
+                return; // Timed out while queued.
+            }
+
             try (Connection connection = getConnection()) {
-                if (connection != null) {
-                    preparedStatement.set(connection.prepareStatement(sql));
+                if (connection == null) {
+                    throw new SQLException("No database connection.");
+                }
 
-                    // Set the parameters in the PreparedStatement
-                    for (int i = 0; i < params.length; i++) {
-                        preparedStatement.get().setObject(i + 1, params[i]);
-                    }
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.setQueryTimeout((int) Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(timeout)));
+                    bindParameters(statement, parameters);
 
-                    resultSet.set(preparedStatement.get().executeQuery());
-                }
-            } catch (SQLException exception) {
-                plugin.logStackTrace(exception);
-            } finally {
-                if (resultSet.get() != null) {
-                    try {
-                        resultSet.get().close();
-                    } catch (SQLException exception) {
-                        plugin.logStackTrace(exception);
-                    }
-                }
-                if (preparedStatement.get() != null) {
-                    try {
-                        preparedStatement.get().close();
-                    } catch (SQLException exception) {
-                        plugin.logStackTrace(exception);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        List<T> resultList = new ArrayList<>();
+
+                        while (resultSet.next()) {
+                            resultList.add(rowMapper.map(resultSet));
+                        }
+
+                        future.complete(resultList);
                     }
                 }
+            } catch (SQLException | RuntimeException exception) {
+                plugin.debugMessage("Query failed: " + sql + " (" + exception.getMessage() + ")", 1);
+                future.completeExceptionally(exception);
             }
         });
-        return resultSet.get();
+
+        if (!accepted) {
+            future.completeExceptionally(new RejectedExecutionException("Database executor rejected query: " + sql));
+        }
+
+        return future.orTimeout(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs a query on the database executor and maps the first row.
+     *
+     * @param key        the ordering key, or null.
+     * @param sql        the SQL statement with placeholders.
+     * @param parameters the parameters.
+     * @param rowMapper  the mapper called for the first row.
+     * @param <T>        the row type.
+     * @return a future completing with the mapped first row, or null if there are no rows.
+     * @see #query(Object, String, Object[], RowMapper)
+     */
+    public <T> CompletableFuture<T> queryFirst(Object key, String sql, Object[] parameters, RowMapper<T> rowMapper) {
+        return query(key, sql, parameters, rowMapper).thenApply(resultList -> !resultList.isEmpty()
+                ? resultList.get(0) : null);
+    }
+
+    /**
+     * Gets an executor running tasks on the main thread, directly if already on it. Tasks submitted while the
+     * plugin is disabled are dropped.
+     *
+     * @return the main thread executor.
+     */
+    public Executor getMainThreadExecutor() {
+        return mainThreadExecutor;
     }
 
     /**
@@ -2462,7 +3244,8 @@ public final class DataManager {
      * Migrates data from SQLite to the target database (MySQL, MariaDB, PostgreSQL, H2, or MSSQL).
      */
     private void migrate() {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+        // Keyed with the startup load so the migration finishes before the tables are read.
+        databaseExecutor.execute("startup", () -> {
             File dataFolder = new File(plugin.getDataFolder(), "data");
             File sqliteFile = new File(dataFolder, "data.db");
 
@@ -2479,7 +3262,6 @@ public final class DataManager {
             config.setConnectionTimeout(30000); // 30 seconds
             config.setIdleTimeout(600000); // 10 minutes
             config.setMaxLifetime(1800000); // 30 minutes
-            config.setMaximumPoolSize(50);
             config.addDataSourceProperty("dataSource.journalMode", journalMode);
             config.addDataSourceProperty("dataSource.synchronous", synchronous);
             config.setConnectionInitSql("PRAGMA busy_timeout = 30000; PRAGMA journal_mode=" + journalMode + "; PRAGMA synchronous=" + synchronous + ";");
@@ -2487,16 +3269,27 @@ public final class DataManager {
             config.addDataSourceProperty("autoReconnect", "true");
             config.setDriverClassName("org.sqlite.JDBC");
 
-            // Use a try-with-resources to ensure that HikariDataSource is closed after use
-            try (HikariDataSource dataSourceMigrate = new HikariDataSource(config);
-                 Connection sqliteConnection = dataSourceMigrate.getConnection()) {
+            // Leave a couple of target connections free, one copy thread per table at most.
+            int threads = Math.min(plugin.getConfig().getInt("settings.storage.migration.threads", 2),
+                    Math.max(1, dataSource.getMaximumPoolSize() - 2));
+
+            config.setMaximumPoolSize(threads + 1);
 
-                DatabaseMetaData metaData = sqliteConnection.getMetaData();
-                try (ResultSet tables = metaData.getTables(null, null, "%", new String[]{"TABLE"})) {
-                    boolean migrationSuccess = true;
+            // Use a try-with-resources to ensure that HikariDataSource is closed after use
+            try (HikariDataSource dataSourceMigrate = new HikariDataSource(config)) {
+                Map<String, List<String>> tableMap = new LinkedHashMap<>();
+                boolean migrationSuccess = true;
 
+                try (Connection sqliteConnection = dataSourceMigrate.getConnection();
+                     ResultSet tables = sqliteConnection.getMetaData().getTables(null, null, "%", new String[]{"TABLE"})) {
                     while (tables.next()) {
                         String tableName = tables.getString("TABLE_NAME");
+
+                        // The meta table holds per-database state, such as the change sequence.
+                        if (tableName.startsWith("sqlite_") || tableName.equals("grave_meta")) {
+                            continue;
+                        }
+
                         StringBuilder createTableQuery = new StringBuilder();
                         List<String> columns = new ArrayList<>();
 
@@ -2534,53 +3327,48 @@ public final class DataManager {
                                 adjustGraveTableForTargetDB();
                             }
 
-                            String insertQueryTemplate = "INSERT INTO " + tableName + " (" + String.join(", ", columns) + ") VALUES (" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
-                            try (PreparedStatement insertStatement = getConnection().prepareStatement(insertQueryTemplate)) {
-                                while (tableData.next()) {
-                                    for (int i = 1; i <= tableMetaData.getColumnCount(); i++) {
-                                        String columnName = tableMetaData.getColumnName(i);
-                                        if (columns.contains(columnName)) {
-                                            String data = tableData.getString(i);
-                                            if (data != null) {
-                                                data = data.replace("'", "''");
-                                            }
-                                            insertStatement.setString(columns.indexOf(columnName) + 1, data != null ? data : null);
-                                        }
-                                    }
-                                    plugin.getLogger().info("Inserting data with query: " + insertQueryTemplate);
-                                    insertStatement.executeUpdate();
-                                }
-                            } catch (SQLException e) {
-                                plugin.getLogger().severe("Error inserting data into table " + tableName + ": " + e.getMessage());
-                                plugin.getLogger().severe("Failed query template: " + insertQueryTemplate);
-                                migrationSuccess = false;
-                            }
+                            tableMap.put(tableName, columns);
                         } catch (SQLException e) {
                             plugin.getLogger().severe("Error migrating table " + tableName + ": " + e.getMessage());
                             plugin.getLogger().severe("Failed query: " + createTableQuery);
                             migrationSuccess = false;
                         }
                     }
-
-                    if (migrationSuccess) {
-                        File renamedFile = new File(dataFolder, "data.old.db");
-                        if (sqliteFile.renameTo(renamedFile)) {
-                            plugin.getLogger().info("SQLite database successfully renamed to data.old.db");
-                        } else {
-                            plugin.getLogger().severe("Failed to rename SQLite database to data.old.db");
-                        }
-                    }
                 } catch (SQLException e) {
                     plugin.getLogger().severe("Error retrieving tables from SQLite: " + e.getMessage());
+                    return;
                 }
 
-                try {
-                    sqliteConnection.close();
-                } catch (SQLException e) {
-                    plugin.getLogger().severe("Error closing SQLite connection: " + e.getMessage());
+                // Checkpoints are kept in the target's meta table.
+                setupMetaTable();
+
+                DatabaseMigrator databaseMigrator = new DatabaseMigrator(plugin.getLogger(), threads,
+                        plugin.getConfig().getInt("settings.storage.migration.batch-size", 1000));
+
+                migrationSuccess &= databaseMigrator.migrate(dataSourceMigrate::getConnection, () -> {
+                    Connection connection = getConnection();
+
+                    if (connection == null) {
+                        throw new SQLException("No database connection.");
+                    }
+
+                    return connection;
+                }, tableMap);
+
+                if (migrationSuccess) {
+                    // The snapshot was validated against the SQLite change sequence, which the target does not share.
+                    new CacheSnapshot(plugin, this).delete();
+
+                    File renamedFile = new File(dataFolder, "data.old.db");
+                    if (sqliteFile.renameTo(renamedFile)) {
+                        plugin.getLogger().info("SQLite database successfully renamed to data.old.db");
+                    } else {
+                        plugin.getLogger().severe("Failed to rename SQLite database to data.old.db");
+                    }
                 }
-            } catch (SQLException e) {
+            } catch (RuntimeException e) {
                 plugin.getLogger().severe("Error migrating SQLite to target DB: " + e.getMessage());
+                plugin.logStackTrace(e);
             }
         });
     }
@@ -2935,4 +3723,153 @@ public final class DataManager {
             plugin.logStackTrace(e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The payload of a grave copied on the main thread, to be encoded and written to the spill file asynchronously.
+     */
+    private final class SpillCandidate {
+        /**
+         * The grave.
+         */
+        private final Grave grave;
+
+        /**
+         * The access time of the inventory when the payload was copied.
+         */
+        private final long inventoryAccessTime;
+
+        /**
+         * The decoded inventory when the payload was copied, or null if it was stored.
+         */
+        private final Inventory inventory;
+
+        /**
+         * A copy of the decoded inventory contents, or null if the inventory was stored.
+         */
+        private final ItemStack[] inventoryItemStacks;
+
+        /**
+         * The stored inventory, or null if the inventory was decoded.
+         */
+        private final String inventoryData;
+
+        /**
+         * The stored equipment, or null if the equipment was decoded.
+         */
+        private final String equipmentData;
+
+        /**
+         * A copy of the decoded equipment, or null if the equipment was stored.
+         */
+        private final Map<EquipmentSlot, ItemStack> equipmentMap;
+
+        /**
+         * The owner texture.
+         */
+        private final String ownerTexture;
+
+        /**
+         * The owner texture signature.
+         */
+        private final String ownerTextureSignature;
+
+        /**
+         * The number of items in the inventory, or -1 if unknown.
+         */
+        private final int itemAmount;
+
+        /**
+         * Copies the payload of a grave. Must be called on the main thread.
+         *
+         * @param grave the grave.
+         */
+        private SpillCandidate(Grave grave) {
+            this.grave = grave;
+            this.inventoryAccessTime = grave.getInventoryAccessTime();
+            this.inventory = grave.getLoadedInventory();
+
+            if (inventory != null) {
+                ItemStack[] contents = inventory.getContents();
+                int counter = 0;
+
+                this.inventoryItemStacks = new ItemStack[contents.length];
+                this.inventoryData = null;
+
+                for (int slot = 0; slot < contents.length; slot++) {
+                    if (contents[slot] != null) {
+                        inventoryItemStacks[slot] = contents[slot].clone();
+                        counter++;
+                    }
+                }
+
+                this.itemAmount = counter;
+            } else {
+                this.inventoryItemStacks = null;
+                this.inventoryData = grave.getInventoryData();
+                this.itemAmount = itemFormat.countItems(inventoryData);
+            }
+
+            this.equipmentData = grave.getEquipmentData();
+
+            if (equipmentData == null && grave.getEquipmentMap() != null) {
+                this.equipmentMap = new HashMap<>();
+
+                for (Map.Entry<EquipmentSlot, ItemStack> entry : grave.getEquipmentMap().entrySet()) {
+                    equipmentMap.put(entry.getKey(), entry.getValue() != null ? entry.getValue().clone() : null);
+                }
+            } else {
+                this.equipmentMap = null;
+            }
+
+            this.ownerTexture = grave.getOwnerTexture();
+            this.ownerTextureSignature = grave.getOwnerTextureSignature();
+        }
+
+        /**
+         * Encodes the payload and writes it to the spill file.
+         *
+         * @return true if the payload was written.
+         */
+        private boolean write() {
+            String inventoryData = inventoryItemStacks != null
+                    ? itemFormat.encodeItems(inventoryItemStacks) : this.inventoryData;
+            String equipmentData = this.equipmentData != null
+                    ? this.equipmentData : itemFormat.encodeEquipment(equipmentMap);
+
+            return inventoryData != null && graveSpillStore.write(grave.getUUID(),
+                    new Grave.Payload(inventoryData, equipmentData, ownerTexture, ownerTextureSignature));
+        }
+
+        /**
+         * Checks if the grave was not used and its payload not replaced since it was copied. Must be called on the
+         * main thread.
+         *
+         * @return true if the written payload is still the payload of the grave.
+         */
+        private boolean isUnchanged() {
+            return !grave.isSpilled() && grave.getInventoryAccessTime() == inventoryAccessTime
+                    && grave.getLoadedInventory() == inventory
+                    && (inventory != null || grave.getInventoryData() == inventoryData)
+                    && grave.getEquipmentData() == equipmentData
+                    && Objects.equals(grave.getOwnerTexture(), ownerTexture)
+                    && Objects.equals(grave.getOwnerTextureSignature(), ownerTextureSignature);
+        }
+    }
+
+    /**
+     * Maps the current row of a result set.
+     *
+     * @param <T> the row type.
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        /**
+         * Maps the current row. Must not advance the result set.
+         *
+         * @param resultSet the result set positioned on the row.
+         * @return the mapped row.
+         * @throws SQLException if a database access error occurs.
+         */
+        T map(ResultSet resultSet) throws SQLException;
+    }
+}
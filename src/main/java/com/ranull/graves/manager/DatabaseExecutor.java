@@ -0,0 +1,408 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor owned by GravesX for database work that does not go through the {@link WriteBehindQueue}.
+ * <p>
+ * Work is spread over a fixed number of lanes, each with its own thread and bounded queue. Tasks submitted with a key
+ * always land on the same lane, so operations on the same grave or table run in submission order. Unkeyed tasks are
+ * spread round-robin. When a lane is full the configured {@link OverflowPolicy} decides what happens to the task.
+ * </p>
+ */
+public final class DatabaseExecutor {
+    /**
+     * Number of recent task latencies kept for percentile calculation.
+     */
+    private static final int LATENCY_SAMPLES = 1024;
+
+    /**
+     * The main plugin instance associated with Graves.
+     */
+    private final Graves plugin;
+
+    /**
+     * The lanes executing tasks.
+     */
+    private final Lane[] lanes;
+
+    /**
+     * What to do with a task when its lane is full.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * Milliseconds a caller waits for capacity with {@link OverflowPolicy#BLOCK}.
+     */
+    private final long blockTimeout;
+
+    /**
+     * Round-robin counter for unkeyed tasks.
+     */
+    private final AtomicInteger nextLane = new AtomicInteger();
+
+    /**
+     * Number of tasks currently running.
+     */
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    /**
+     * Total number of rejected tasks.
+     */
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * Total number of completed tasks.
+     */
+    private final AtomicLong completedCount = new AtomicLong();
+
+    /**
+     * Ring buffer of recent submit-to-completion latencies in nanoseconds.
+     */
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+
+    /**
+     * Number of latencies recorded so far, used as the ring buffer cursor.
+     */
+    private final AtomicLong latencyCount = new AtomicLong();
+
+    /**
+     * Whether the executor has been shut down.
+     */
+    private volatile boolean shutdown = false;
+
+    /**
+     * Initializes the executor and starts its lane threads.
+     *
+     * @param plugin  the plugin instance.
+     * @param threads the number of lanes, each backed by one thread.
+     */
+    public DatabaseExecutor(Graves plugin, int threads) {
+        this.plugin = plugin;
+        this.lanes = new Lane[Math.max(1, threads)];
+        this.overflowPolicy = OverflowPolicy.parse(plugin.getConfig()
+                .getString("settings.storage.executor.overflow-policy", "BLOCK"));
+        this.blockTimeout = Math.max(0L, plugin.getConfig().getLong("settings.storage.executor.block-timeout", 1000L));
+
+        int capacity = Math.max(1, plugin.getConfig().getInt("settings.storage.executor.queue-size", 1000)
+                / lanes.length);
+
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i + 1, capacity);
+        }
+
+        plugin.debugMessage("Started database executor with " + lanes.length + " thread(s), " + capacity
+                + " queued task(s) per thread and overflow policy " + overflowPolicy + ".", 1);
+    }
+
+    /**
+     * Runs a task on any lane.
+     *
+     * @param task the task.
+     * @return true if the task was accepted, false if it was rejected.
+     */
+    public boolean execute(Runnable task) {
+        return execute(lanes[Math.floorMod(nextLane.getAndIncrement(), lanes.length)], task);
+    }
+
+    /**
+     * Runs a task after every task previously submitted with the same key.
+     *
+     * @param key  the ordering key, such as a grave UUID or table name.
+     * @param task the task.
+     * @return true if the task was accepted, false if it was rejected.
+     */
+    public boolean execute(Object key, Runnable task) {
+        if (key == null) {
+            return execute(task);
+        }
+
+        return execute(lanes[Math.floorMod(key.hashCode(), lanes.length)], task);
+    }
+
+    /**
+     * Queues a task on a lane, applying the overflow policy if the lane is full.
+     *
+     * @param lane the lane.
+     * @param task the task.
+     * @return true if the task was accepted, false if it was rejected.
+     */
+    private boolean execute(Lane lane, Runnable task) {
+        if (shutdown) {
+            return reject("executor is shut down");
+        }
+
+        Task queuedTask = new Task(task);
+
+        if (lane.queue.offer(queuedTask)) {
+            return true;
+        }
+
+        switch (overflowPolicy) {
+            case CALLER_RUNS:
+                // Gives up ordering with tasks still queued on the lane, in exchange for never losing work.
+                run(queuedTask);
+                return true;
+            case BLOCK:
+                try {
+                    if (lane.queue.offer(queuedTask, blockTimeout, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+
+                return reject("queue stayed full for " + blockTimeout + "ms");
+            case REJECT:
+            default:
+                return reject("queue is full");
+        }
+    }
+
+    /**
+     * Counts and logs a rejected task.
+     *
+     * @param reason the reason.
+     * @return always false.
+     */
+    private boolean reject(String reason) {
+        rejectedCount.incrementAndGet();
+        plugin.getLogger().warning("Rejected database task: " + reason + ".");
+
+        return false;
+    }
+
+    /**
+     * Runs a task, recording its latency.
+     *
+     * @param task the task.
+     */
+    private void run(Task task) {
+        activeCount.incrementAndGet();
+
+        try {
+            task.runnable.run();
+        } catch (Throwable throwable) {
+            plugin.getLogger().severe("Error occurred while running database task: " + throwable.getMessage());
+            plugin.logStackTrace(throwable instanceof Exception ? (Exception) throwable : new Exception(throwable));
+        } finally {
+            activeCount.decrementAndGet();
+            completedCount.incrementAndGet();
+            latencies[(int) (latencyCount.getAndIncrement() % LATENCY_SAMPLES)] = System.nanoTime() - task.submitTime;
+        }
+    }
+
+    /**
+     * Stops accepting tasks and waits for queued tasks to finish.
+     *
+     * @param timeout the maximum time to wait in milliseconds.
+     * @return true if every lane finished within the deadline.
+     */
+    public boolean shutdown(long timeout) {
+        shutdown = true;
+
+        long deadline = System.currentTimeMillis() + timeout;
+        boolean finished = true;
+
+        for (Lane lane : lanes) {
+            try {
+                lane.thread.join(Math.max(1L, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (lane.thread.isAlive()) {
+                finished = false;
+            }
+        }
+
+        if (!finished) {
+            plugin.getLogger().warning("Database executor did not finish within " + timeout + "ms, "
+                    + getQueuedCount() + " task(s) were dropped.");
+        }
+
+        return finished;
+    }
+
+    /**
+     * Gets the number of threads.
+     *
+     * @return the number of threads.
+     */
+    public int getThreadCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Gets the number of tasks waiting to run.
+     *
+     * @return the number of queued tasks.
+     */
+    public int getQueuedCount() {
+        int queued = 0;
+
+        for (Lane lane : lanes) {
+            queued += lane.queue.size();
+        }
+
+        return queued;
+    }
+
+    /**
+     * Gets the number of tasks currently running.
+     *
+     * @return the number of active tasks.
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * Gets the total number of rejected tasks.
+     *
+     * @return the number of rejected tasks.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Gets the total number of completed tasks.
+     *
+     * @return the number of completed tasks.
+     */
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    /**
+     * Gets a percentile of the submit-to-completion latency over recent tasks.
+     *
+     * @param percentile the percentile between 0.0 and 1.0, such as 0.99.
+     * @return the latency in milliseconds, or 0 if no task has completed yet.
+     */
+    public double getLatencyPercentile(double percentile) {
+        int count = (int) Math.min(latencyCount.get(), LATENCY_SAMPLES);
+
+        if (count == 0) {
+            return 0;
+        }
+
+        long[] sorted = Arrays.copyOf(latencies, count);
+
+        Arrays.sort(sorted);
+
+        int index = (int) Math.ceil(Math.max(0.0, Math.min(1.0, percentile)) * count) - 1;
+
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * What happens to a task when its lane is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait up to the block timeout for capacity, then reject.
+         */
+        BLOCK,
+        /**
+         * Run the task on the submitting thread.
+         */
+        CALLER_RUNS,
+        /**
+         * Reject the task immediately.
+         */
+        REJECT;
+
+        /**
+         * Parses a policy name, defaulting to {@link #BLOCK}.
+         *
+         * @param name the policy name.
+         * @return the policy.
+         */
+        private static OverflowPolicy parse(String name) {
+            try {
+                return valueOf(name.toUpperCase().replace("-", "_"));
+            } catch (IllegalArgumentException | NullPointerException exception) {
+                return BLOCK;
+            }
+        }
+    }
+
+    /**
+     * A queued task and the time it was submitted.
+     */
+    private static final class Task {
+        /**
+         * The task.
+         */
+        private final Runnable runnable;
+
+        /**
+         * The submit time in nanoseconds.
+         */
+        private final long submitTime;
+
+        /**
+         * Creates a queued task.
+         *
+         * @param runnable the task.
+         */
+        private Task(Runnable runnable) {
+            this.runnable = runnable;
+            this.submitTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * A single thread with its own bounded queue.
+     */
+    private final class Lane {
+        /**
+         * The queued tasks.
+         */
+        private final BlockingQueue<Task> queue;
+
+        /**
+         * The lane thread.
+         */
+        private final Thread thread;
+
+        /**
+         * Creates and starts a lane.
+         *
+         * @param id       the lane number, used in the thread name.
+         * @param capacity the queue capacity.
+         */
+        private Lane(int id, int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this::run, "GravesX Database #" + id);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        /**
+         * Runs queued tasks until shut down and drained.
+         */
+        private void run() {
+            while (!shutdown || !queue.isEmpty()) {
+                try {
+                    Task task = queue.poll(100L, TimeUnit.MILLISECONDS);
+
+                    if (task != null) {
+                        DatabaseExecutor.this.run(task);
+                    }
+                } catch (InterruptedException exception) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.ranull.graves.manager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Copies tables from an SQLite database into the configured database.
+ * <p>
+ * Rows are read in rowid order and written with JDBC batches, one transaction per chunk. Each transaction also stores
+ * the last copied rowid of its table in the {@code grave_meta} table of the target, so an interrupted migration
+ * resumes after the last committed chunk without copying a row twice. Tables are copied in parallel, and progress is
+ * logged with the rate in rows per second and the estimated time left. A completed migration increases the change
+ * sequence of the target, so a cache snapshot written before the migration is not used.
+ * </p>
+ * <p>
+ * The migrator only depends on JDBC connections, so it can be run against any pair of databases, such as SQLite to
+ * H2, without a server.
+ * </p>
+ */
+public final class DatabaseMigrator {
+    /**
+     * Prefix of the checkpoint keys in the meta table.
+     */
+    private static final String CHECKPOINT_PREFIX = "migration:";
+
+    /**
+     * The meta key of the change sequence, which cache snapshots are validated against.
+     */
+    private static final String CHANGE_SEQUENCE = "change_sequence";
+
+    /**
+     * Minimum milliseconds between progress messages.
+     */
+    private static final long REPORT_INTERVAL = 5000L;
+
+    /**
+     * The logger for progress and errors.
+     */
+    private final Logger logger;
+
+    /**
+     * Maximum number of tables copied at the same time.
+     */
+    private final int threads;
+
+    /**
+     * Number of rows written per transaction.
+     */
+    private final int batchSize;
+
+    /**
+     * Rows copied during this run.
+     */
+    private final AtomicLong copiedRows = new AtomicLong();
+
+    /**
+     * Rows left to copy when this run started.
+     */
+    private long totalRows;
+
+    /**
+     * Start time of this run in milliseconds.
+     */
+    private long startTime;
+
+    /**
+     * Time of the last progress message in milliseconds.
+     */
+    private long lastReport;
+
+    /**
+     * Initializes a new instance of the {@code DatabaseMigrator} class.
+     *
+     * @param logger    the logger for progress and errors.
+     * @param threads   the maximum number of tables copied at the same time.
+     * @param batchSize the number of rows written per transaction.
+     */
+    public DatabaseMigrator(Logger logger, int threads, int batchSize) {
+        this.logger = logger;
+        this.threads = Math.max(1, threads);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Copies tables from the source to the target. The tables must already exist in the target, together with a
+     * {@code grave_meta (meta_key, meta_value)} table for checkpoints.
+     *
+     * @param source   the source database.
+     * @param target   the target database.
+     * @param tableMap the tables to copy and the columns of each.
+     * @return true if every table was copied completely.
+     */
+    public boolean migrate(ConnectionSource source, ConnectionSource target, Map<String, List<String>> tableMap) {
+        Map<String, Long> checkpointMap = new LinkedHashMap<>();
+
+        startTime = System.currentTimeMillis();
+        lastReport = startTime;
+
+        for (String table : tableMap.keySet()) {
+            long checkpoint = readCheckpoint(target, table);
+
+            checkpointMap.put(table, checkpoint);
+            totalRows += countRows(source, table, checkpoint);
+
+            if (checkpoint > 0) {
+                logger.info("Resuming migration of table " + table + " after row " + checkpoint + ".");
+            }
+        }
+
+        logger.info("Migrating " + totalRows + " rows from " + tableMap.size() + " tables using " + threads
+                + " thread(s).");
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, tableMap.size())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "GravesX Migration #" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Map<String, Future<Boolean>> futureMap = new LinkedHashMap<>();
+
+        for (Map.Entry<String, List<String>> entry : tableMap.entrySet()) {
+            futureMap.put(entry.getKey(), executorService.submit(() -> copyTable(source, target, entry.getKey(),
+                    entry.getValue(), checkpointMap.get(entry.getKey()))));
+        }
+
+        boolean success = true;
+
+        for (Map.Entry<String, Future<Boolean>> entry : futureMap.entrySet()) {
+            try {
+                success &= entry.getValue().get();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                success = false;
+            } catch (ExecutionException exception) {
+                logger.severe("Error migrating table " + entry.getKey() + ": " + exception.getCause());
+                success = false;
+            }
+        }
+
+        executorService.shutdownNow();
+
+        if (success) {
+            clearCheckpoints(target);
+            logger.info("Migrated " + copiedRows.get() + " rows in "
+                    + (System.currentTimeMillis() - startTime) / 1000 + "s.");
+        } else {
+            logger.severe("Migration did not complete, it will resume from the last checkpoint on the next start.");
+        }
+
+        return success;
+    }
+
+    /**
+     * Copies a table in chunks, committing a checkpoint with each chunk.
+     *
+     * @param source     the source database.
+     * @param target     the target database.
+     * @param table      the table name.
+     * @param columns    the columns to copy.
+     * @param checkpoint the last rowid already copied.
+     * @return true if the table was copied completely.
+     */
+    private boolean copyTable(ConnectionSource source, ConnectionSource target, String table, List<String> columns,
+                              long checkpoint) {
+        String columnList = String.join(", ", columns);
+        String selectQuery = "SELECT rowid, " + columnList + " FROM " + table + " WHERE rowid > ? ORDER BY rowid";
+        String insertQuery = "INSERT INTO " + table + " (" + columnList + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        long lastRowId = checkpoint;
+
+        try (Connection sourceConnection = source.getConnection();
+             Connection targetConnection = target.getConnection();
+             PreparedStatement selectStatement = sourceConnection.prepareStatement(selectQuery)) {
+            boolean autoCommit = targetConnection.getAutoCommit();
+
+            targetConnection.setAutoCommit(false);
+            selectStatement.setFetchSize(batchSize);
+            selectStatement.setLong(1, checkpoint);
+
+            try (ResultSet resultSet = selectStatement.executeQuery();
+                 PreparedStatement insertStatement = targetConnection.prepareStatement(insertQuery)) {
+                int pending = 0;
+
+                while (resultSet.next()) {
+                    lastRowId = resultSet.getLong(1);
+
+                    for (int i = 0; i < columns.size(); i++) {
+                        insertStatement.setString(i + 1, resultSet.getString(i + 2));
+                    }
+
+                    insertStatement.addBatch();
+
+                    if (++pending >= batchSize) {
+                        commitChunk(targetConnection, insertStatement, table, lastRowId, pending);
+                        pending = 0;
+                    }
+                }
+
+                if (pending > 0) {
+                    commitChunk(targetConnection, insertStatement, table, lastRowId, pending);
+                }
+            } catch (SQLException exception) {
+                targetConnection.rollback();
+                throw exception;
+            } finally {
+                targetConnection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException exception) {
+            logger.severe("Error migrating table " + table + " after row " + lastRowId + ": "
+                    + exception.getMessage());
+            return false;
+        }
+
+        logger.info("Finished migrating table " + table + ".");
+
+        return true;
+    }
+
+    /**
+     * Writes a chunk and its checkpoint in one transaction.
+     *
+     * @param connection      the target connection.
+     * @param insertStatement the insert statement holding the batch.
+     * @param table           the table name.
+     * @param lastRowId       the last rowid in the batch.
+     * @param rows            the number of rows in the batch.
+     * @throws SQLException if a database access error occurs.
+     */
+    private void commitChunk(Connection connection, PreparedStatement insertStatement, String table, long lastRowId,
+                             int rows) throws SQLException {
+        insertStatement.executeBatch();
+        writeCheckpoint(connection, table, lastRowId);
+        connection.commit();
+        copiedRows.addAndGet(rows);
+        reportProgress();
+    }
+
+    /**
+     * Logs the overall progress, at most once per report interval.
+     */
+    private synchronized void reportProgress() {
+        long now = System.currentTimeMillis();
+
+        if (now - lastReport < REPORT_INTERVAL) {
+            return;
+        }
+
+        lastReport = now;
+
+        long copied = copiedRows.get();
+        double rate = copied / Math.max(0.001, (now - startTime) / 1000.0);
+        long eta = rate > 0 ? (long) ((totalRows - copied) / rate) : -1;
+
+        logger.info("Migrated " + copied + "/" + totalRows + " rows (" + (long) rate + " rows/s, ETA "
+                + (eta >= 0 ? eta + "s" : "unknown") + ").");
+    }
+
+    /**
+     * Counts the rows of a table after a checkpoint.
+     *
+     * @param source     the source database.
+     * @param table      the table name.
+     * @param checkpoint the last rowid already copied.
+     * @return the number of rows left.
+     */
+    private long countRows(ConnectionSource source, String table, long checkpoint) {
+        try (Connection connection = source.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM " + table
+                     + " WHERE rowid > ?")) {
+            statement.setLong(1, checkpoint);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        } catch (SQLException exception) {
+            logger.warning("Failed to count rows of table " + table + ": " + exception.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Reads the checkpoint of a table.
+     *
+     * @param target the target database.
+     * @param table  the table name.
+     * @return the last rowid already copied, or 0.
+     */
+    private long readCheckpoint(ConnectionSource target, String table) {
+        try (Connection connection = target.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT meta_value FROM grave_meta WHERE meta_key = ?")) {
+            statement.setString(1, CHECKPOINT_PREFIX + table);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        } catch (SQLException exception) {
+            return 0;
+        }
+    }
+
+    /**
+     * Writes the checkpoint of a table as part of the current transaction.
+     *
+     * @param connection the target connection.
+     * @param table      the table name.
+     * @param lastRowId  the last rowid copied.
+     * @throws SQLException if a database access error occurs.
+     */
+    private void writeCheckpoint(Connection connection, String table, long lastRowId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE grave_meta SET meta_value = ? WHERE meta_key = ?")) {
+            statement.setLong(1, lastRowId);
+            statement.setString(2, CHECKPOINT_PREFIX + table);
+
+            if (statement.executeUpdate() > 0) {
+                return;
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO grave_meta (meta_key, meta_value) VALUES (?, ?)")) {
+            statement.setString(1, CHECKPOINT_PREFIX + table);
+            statement.setLong(2, lastRowId);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Removes all checkpoints after a completed migration and increases the change sequence, in one transaction.
+     *
+     * @param target the target database.
+     */
+    private void clearCheckpoints(ConnectionSource target) {
+        try (Connection connection = target.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement deleteStatement = connection.prepareStatement(
+                    "DELETE FROM grave_meta WHERE meta_key LIKE ?");
+                 PreparedStatement sequenceStatement = connection.prepareStatement(
+                         "UPDATE grave_meta SET meta_value = meta_value + 1 WHERE meta_key = ?")) {
+                deleteStatement.setString(1, CHECKPOINT_PREFIX + "%");
+                deleteStatement.executeUpdate();
+                sequenceStatement.setString(1, CHANGE_SEQUENCE);
+                sequenceStatement.executeUpdate();
+                connection.commit();
+            } catch (SQLException exception) {
+                connection.rollback();
+
+                throw exception;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException exception) {
+            logger.warning("Failed to clear migration checkpoints: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Supplies database connections.
+     */
+    @FunctionalInterface
+    public interface ConnectionSource {
+        /**
+         * Opens a connection.
+         *
+         * @return the connection.
+         * @throws SQLException if a connection cannot be opened.
+         */
+        Connection getConnection() throws SQLException;
+    }
+}
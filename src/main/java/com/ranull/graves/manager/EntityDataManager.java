@@ -4,6 +4,7 @@ import com.ranull.graves.Graves;
 import com.ranull.graves.data.ChunkData;
 import com.ranull.graves.data.EntityData;
 import com.ranull.graves.type.Grave;
+import com.ranull.graves.util.LocationUtil;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 
@@ -122,15 +123,9 @@ public class EntityDataManager {
     public List<EntityData> getLoadedEntityDataList(Grave grave) {
         List<EntityData> entityDataList = new ArrayList<>();
 
-        for (Map.Entry<String, ChunkData> chunkDataEntry : plugin.getCacheManager().getChunkMap().entrySet()) {
-            ChunkData chunkData = chunkDataEntry.getValue();
-
-            if (chunkData.isLoaded()) {
-                for (EntityData entityData : new ArrayList<>(chunkData.getEntityDataMap().values())) {
-                    if (entityData != null && grave.getUUID().equals(entityData.getUUIDGrave())) {
-                        entityDataList.add(entityData);
-                    }
-                }
+        for (EntityData entityData : plugin.getCacheManager().getEntityDataList(grave.getUUID())) {
+            if (LocationUtil.isChunkLoaded(entityData.getLocation())) {
+                entityDataList.add(entityData);
             }
         }
 
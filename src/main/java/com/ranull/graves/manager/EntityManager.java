@@ -5,6 +5,7 @@ import com.ranull.graves.data.EntityData;
 import com.ranull.graves.event.*;
 import com.ranull.graves.integration.MiniMessage;
 import com.ranull.graves.type.Grave;
+import com.ranull.graves.type.GraveSettings;
 import com.ranull.graves.util.*;
 import org.bukkit.*;
 import org.bukkit.block.BlockFace;
@@ -42,6 +43,14 @@ public final class EntityManager extends EntityDataManager {
      */
     private final Graves plugin;
 
+    /**
+     * The tracker of which players carry a grave compass.
+     * <p>
+     * This {@link CompassTracker} lets the move listener skip players without a grave compass.
+     * </p>
+     */
+    private final CompassTracker compassTracker;
+
     /**
      * Initializes the EntityManager with the specified plugin instance.
      *
@@ -50,6 +59,16 @@ public final class EntityManager extends EntityDataManager {
     public EntityManager(Graves plugin) {
         super(plugin);
         this.plugin = plugin;
+        this.compassTracker = new CompassTracker(plugin);
+    }
+
+    /**
+     * Gets the tracker of which players carry a grave compass.
+     *
+     * @return the compass tracker.
+     */
+    public CompassTracker getCompassTracker() {
+        return compassTracker;
     }
 
     /**
@@ -78,6 +97,9 @@ public final class EntityManager extends EntityDataManager {
         plugin.getServer().getPluginManager().callEvent(graveCompassAddEvent);
 
         if (!graveCompassAddEvent.isCancelled()) {
+            // The compass is about to be given to the player
+            compassTracker.markDirty(player);
+
             if (plugin.getVersionManager().hasPersistentData()) {
                 Material material = Material.COMPASS;
 
@@ -499,7 +521,7 @@ public final class EntityManager extends EntityDataManager {
      * @param grave  the grave associated with the sound.
      */
     public void playPlayerSound(String string, Entity entity, Grave grave) {
-        playPlayerSound(string, entity, entity.getLocation(), grave.getPermissionList(), 1, 1);
+        playPlayerSound(string, entity, entity.getLocation(), grave);
     }
 
     /**
@@ -511,7 +533,18 @@ public final class EntityManager extends EntityDataManager {
      * @param grave    the grave associated with the sound.
      */
     public void playPlayerSound(String string, Entity entity, Location location, Grave grave) {
-        playPlayerSound(string, entity, location, grave.getPermissionList(), 1, 1);
+        GraveSettings graveSettings = plugin.getGraveManager().getGraveSettings(grave);
+
+        // The cached sounds are resolved for the owner type, so only use them when it matches the entity.
+        if (entity instanceof Player && entity.getType() == grave.getOwnerType() && graveSettings.hasSound(string)) {
+            Sound sound = graveSettings.getSound(string);
+
+            if (sound != null) {
+                ((Player) entity).playSound(location, sound, 1, 1);
+            }
+        } else {
+            playPlayerSound(string, entity, location, grave.getPermissionList(), 1, 1);
+        }
     }
 
     /**
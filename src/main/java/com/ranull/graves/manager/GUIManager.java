@@ -1,7 +1,6 @@
 package com.ranull.graves.manager;
 
 import com.ranull.graves.Graves;
-import com.ranull.graves.compatibility.CompatibilityInventoryView;
 import com.ranull.graves.integration.MiniMessage;
 import com.ranull.graves.inventory.GraveList;
 import com.ranull.graves.inventory.GraveMenu;
@@ -12,7 +11,6 @@ import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
-import org.bukkit.inventory.InventoryView;
 
 import java.util.List;
 import java.util.UUID;
@@ -23,6 +21,11 @@ import java.util.UUID;
 public final class GUIManager {
     private final Graves plugin;
 
+    /**
+     * The grave lists and grave menus players have open.
+     */
+    private final MenuRegistry menuRegistry;
+
     /**
      * Initializes a new instance of the GUIManager class.
      *
@@ -30,6 +33,16 @@ public final class GUIManager {
      */
     public GUIManager(Graves plugin) {
         this.plugin = plugin;
+        this.menuRegistry = new MenuRegistry(plugin);
+    }
+
+    /**
+     * Gets the registry of open grave lists and grave menus.
+     *
+     * @return The menu registry.
+     */
+    public MenuRegistry getMenuRegistry() {
+        return menuRegistry;
     }
 
     /**
@@ -72,26 +85,92 @@ public final class GUIManager {
     }
 
     /**
-     * Refreshes the menus for all online players.
+     * Renders every open grave list and grave menu again.
      */
-    @SuppressWarnings("ConstantConditions")
     public void refreshMenus() {
         if (plugin.isEnabled()) {
-            for (Player player : plugin.getServer().getOnlinePlayers()) {
-                InventoryView openInventory = player.getOpenInventory();
-                if (openInventory != null) { // Mohist might return null even when Bukkit shouldn't.
-                    Inventory topInventory = CompatibilityInventoryView.getTopInventory(openInventory);
-
-                    if (topInventory.getHolder() instanceof GraveList) {
-                        setGraveListItems(topInventory, ((GraveList) topInventory.getHolder()).getUUID());
-                    } else if (topInventory.getHolder() instanceof GraveMenu) {
-                        setGraveMenuItems(topInventory, ((GraveMenu) topInventory.getHolder()).getGrave());
-                    }
+            for (Inventory inventory : menuRegistry.getInventoryList()) {
+                renderView(inventory);
+            }
+        }
+    }
+
+    /**
+     * Renders an open grave list or grave menu again. A grave list is rebuilt from the current graves of its owner.
+     *
+     * @param inventory The inventory of the view.
+     */
+    public void renderView(Inventory inventory) {
+        if (inventory.getHolder() instanceof GraveList) {
+            GraveList graveList = (GraveList) inventory.getHolder();
+            List<Grave> playerGraveList = plugin.getGraveManager().getGraveList(graveList.getUUID());
+
+            setGraveListItems(inventory, playerGraveList);
+            graveList.setGraveList(playerGraveList);
+        } else if (inventory.getHolder() instanceof GraveMenu) {
+            setGraveMenuItems(inventory, ((GraveMenu) inventory.getHolder()).getGrave());
+        }
+    }
+
+    /**
+     * Updates the items of an open grave list or grave menu that show a countdown, leaving every other slot as it is.
+     *
+     * @param inventory The inventory of the view.
+     */
+    public void updateCountdowns(Inventory inventory) {
+        if (inventory.getHolder() instanceof GraveList) {
+            GraveList graveList = (GraveList) inventory.getHolder();
+
+            for (int slot = 0; slot < graveList.size() && slot < inventory.getSize(); slot++) {
+                Grave grave = graveList.getGrave(slot);
+
+                if (hasCountdown("gui.menu.list", grave)) {
+                    inventory.setItem(slot, plugin.getItemStackManager().createGraveListItemStack(slot + 1, grave));
+                }
+            }
+        } else if (inventory.getHolder() instanceof GraveMenu) {
+            Grave grave = ((GraveMenu) inventory.getHolder()).getGrave();
+
+            for (int slot = 0; slot < inventory.getSize(); slot++) {
+                if (inventory.getItem(slot) != null && hasCountdown("gui.menu.grave.slot." + slot, grave)) {
+                    inventory.setItem(slot, plugin.getItemStackManager().createGraveMenuItemStack(slot, grave));
                 }
             }
         }
     }
 
+    /**
+     * Checks if the name or lore of a menu item shows a countdown.
+     *
+     * @param path  The config path of the item.
+     * @param grave The grave shown by the item.
+     * @return True if the item uses a time placeholder that changes every second.
+     */
+    private boolean hasCountdown(String path, Grave grave) {
+        if (isCountdown(plugin.getConfig(path + ".name", grave).getString(path + ".name"))) {
+            return true;
+        }
+
+        for (String string : plugin.getConfig(path + ".lore", grave).getStringList(path + ".lore")) {
+            if (isCountdown(string)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if a string uses a time placeholder that changes every second.
+     *
+     * @param string The string, may be null.
+     * @return True if the string shows a countdown.
+     */
+    private static boolean isCountdown(String string) {
+        return string != null && (string.contains("%time_alive_remaining")
+                || string.contains("%time_protection_remaining") || string.contains("%time_lived"));
+    }
+
     /**
      * Opens the grave list for an entity based on a UUID with a sound option.
      *
@@ -125,6 +204,7 @@ public final class GUIManager {
                 setGraveListItems(inventory, playerGraveList);
                 graveList.setInventory(inventory);
                 player.openInventory(graveList.getInventory());
+                menuRegistry.register(inventory);
 
                 if (sound) {
                     plugin.getEntityManager().playPlayerSound("sound.menu-open", player, permissionList);
@@ -197,6 +277,7 @@ public final class GUIManager {
             setGraveMenuItems(inventory, grave);
             graveMenu.setInventory(inventory);
             player.openInventory(graveMenu.getInventory());
+            menuRegistry.register(inventory);
 
             if (sound) {
                 plugin.getEntityManager().playPlayerSound("sound.menu-open", player, grave);
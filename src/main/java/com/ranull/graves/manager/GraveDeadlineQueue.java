@@ -0,0 +1,252 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.type.Grave;
+
+import java.util.*;
+
+/**
+ * Queue of the alive and protection deadlines of the cached graves, ordered by the time they are due.
+ * <p>
+ * Each grave has at most one current deadline of each {@link Type}. Rescheduling a grave records its new deadlines
+ * and pushes them onto a priority queue; entries that no longer match the current deadline are skipped lazily when
+ * they reach the head of the queue, so a change never has to search the queue. The queue is compacted once stale
+ * entries outnumber the current ones.
+ * </p>
+ * <p>
+ * The queue is safe to use from any thread.
+ * </p>
+ */
+public final class GraveDeadlineQueue {
+    /**
+     * The entries ordered by deadline, including stale ones.
+     */
+    private final PriorityQueue<Deadline> deadlineQueue = new PriorityQueue<>();
+
+    /**
+     * The current alive deadline of each scheduled grave, in milliseconds.
+     */
+    private final Map<UUID, Long> aliveDeadlineMap = new HashMap<>();
+
+    /**
+     * The current protection deadline of each scheduled grave, in milliseconds.
+     */
+    private final Map<UUID, Long> protectionDeadlineMap = new HashMap<>();
+
+    /**
+     * Gets the time a grave times out.
+     *
+     * @param grave the grave.
+     * @return the deadline in milliseconds, or -1 if the grave does not time out.
+     */
+    public static long getAliveDeadline(Grave grave) {
+        return grave.getTimeAlive() >= 0 ? grave.getTimeCreation() + grave.getTimeAlive() : -1;
+    }
+
+    /**
+     * Gets the time the protection of a grave expires.
+     *
+     * @param grave the grave.
+     * @return the deadline in milliseconds, or -1 if the grave is not protected or the protection does not expire.
+     */
+    public static long getProtectionDeadline(Grave grave) {
+        return grave.getProtection() && grave.getTimeProtection() >= 0
+                ? grave.getTimeCreation() + grave.getTimeProtection() : -1;
+    }
+
+    /**
+     * Records the current deadlines of a grave, replacing any earlier ones.
+     *
+     * @param grave the grave.
+     */
+    public synchronized void schedule(Grave grave) {
+        UUID graveUUID = grave.getUUID();
+
+        if (graveUUID != null) {
+            schedule(aliveDeadlineMap, graveUUID, Type.ALIVE, getAliveDeadline(grave));
+            schedule(protectionDeadlineMap, graveUUID, Type.PROTECTION, getProtectionDeadline(grave));
+        }
+    }
+
+    /**
+     * Removes the deadlines of a grave.
+     *
+     * @param graveUUID the grave UUID.
+     */
+    public synchronized void unschedule(UUID graveUUID) {
+        aliveDeadlineMap.remove(graveUUID);
+        protectionDeadlineMap.remove(graveUUID);
+    }
+
+    /**
+     * Removes every deadline.
+     */
+    public synchronized void clear() {
+        deadlineQueue.clear();
+        aliveDeadlineMap.clear();
+        protectionDeadlineMap.clear();
+    }
+
+    /**
+     * Removes and returns the deadlines that are due. A returned deadline is no longer scheduled; the caller
+     * reschedules the grave if it is still cached after handling it.
+     *
+     * @param time the current time in milliseconds.
+     * @return the due deadlines, in order.
+     */
+    public synchronized List<Deadline> pollDue(long time) {
+        List<Deadline> dueList = new ArrayList<>();
+
+        while (!deadlineQueue.isEmpty() && deadlineQueue.peek().time <= time) {
+            Deadline deadline = deadlineQueue.poll();
+            Map<UUID, Long> deadlineMap = getDeadlineMap(deadline.type);
+            Long current = deadlineMap.get(deadline.graveUUID);
+
+            if (current != null && current == deadline.time) {
+                deadlineMap.remove(deadline.graveUUID);
+                dueList.add(deadline);
+            }
+        }
+
+        return dueList;
+    }
+
+    /**
+     * Gets the number of scheduled deadlines.
+     *
+     * @return the number of deadlines.
+     */
+    public synchronized int size() {
+        return aliveDeadlineMap.size() + protectionDeadlineMap.size();
+    }
+
+    /**
+     * Records a single deadline of a grave. Must be called while holding the lock.
+     *
+     * @param deadlineMap the deadline map of the type.
+     * @param graveUUID   the grave UUID.
+     * @param type        the type.
+     * @param time        the deadline in milliseconds, or -1 for none.
+     */
+    private void schedule(Map<UUID, Long> deadlineMap, UUID graveUUID, Type type, long time) {
+        if (time < 0) {
+            deadlineMap.remove(graveUUID);
+
+            return;
+        }
+
+        Long previous = deadlineMap.put(graveUUID, time);
+
+        if (previous == null || previous != time) {
+            deadlineQueue.add(new Deadline(time, graveUUID, type));
+
+            if (deadlineQueue.size() > (aliveDeadlineMap.size() + protectionDeadlineMap.size()) * 2 + 64) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the queue from the current deadlines, dropping stale entries. Must be called while holding the lock.
+     */
+    private void compact() {
+        deadlineQueue.clear();
+
+        for (Map.Entry<UUID, Long> entry : aliveDeadlineMap.entrySet()) {
+            deadlineQueue.add(new Deadline(entry.getValue(), entry.getKey(), Type.ALIVE));
+        }
+
+        for (Map.Entry<UUID, Long> entry : protectionDeadlineMap.entrySet()) {
+            deadlineQueue.add(new Deadline(entry.getValue(), entry.getKey(), Type.PROTECTION));
+        }
+    }
+
+    /**
+     * Gets the deadline map of a type.
+     *
+     * @param type the type.
+     * @return the deadline map.
+     */
+    private Map<UUID, Long> getDeadlineMap(Type type) {
+        return type == Type.ALIVE ? aliveDeadlineMap : protectionDeadlineMap;
+    }
+
+    /**
+     * The kind of deadline.
+     */
+    public enum Type {
+        /**
+         * The grave times out.
+         */
+        ALIVE,
+
+        /**
+         * The protection of the grave expires.
+         */
+        PROTECTION
+    }
+
+    /**
+     * A deadline of a grave.
+     */
+    public static final class Deadline implements Comparable<Deadline> {
+        /**
+         * The time the deadline is due, in milliseconds.
+         */
+        private final long time;
+
+        /**
+         * The grave UUID.
+         */
+        private final UUID graveUUID;
+
+        /**
+         * The type.
+         */
+        private final Type type;
+
+        /**
+         * Creates a deadline.
+         *
+         * @param time      the time the deadline is due, in milliseconds.
+         * @param graveUUID the grave UUID.
+         * @param type      the type.
+         */
+        private Deadline(long time, UUID graveUUID, Type type) {
+            this.time = time;
+            this.graveUUID = graveUUID;
+            this.type = type;
+        }
+
+        /**
+         * Gets the time the deadline is due.
+         *
+         * @return the time in milliseconds.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * Gets the grave UUID.
+         *
+         * @return the grave UUID.
+         */
+        public UUID getGraveUUID() {
+            return graveUUID;
+        }
+
+        /**
+         * Gets the type.
+         *
+         * @return the type.
+         */
+        public Type getType() {
+            return type;
+        }
+
+        @Override
+        public int compareTo(Deadline deadline) {
+            return Long.compare(time, deadline.time);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.type.Grave;
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks grave inventories that were changed by players and persists only the changed slots.
+ * <p>
+ * When a grave inventory is first touched, a snapshot of its contents is taken. Once the inventory has been quiet
+ * for the configured period, or when it is closed, the current contents are compared against the snapshot and only
+ * the slots that differ are written through {@link DataManager#updateGraveSlot(Grave, int, ItemStack)}.
+ * </p>
+ */
+public final class GraveInventoryTracker {
+    /**
+     * The main plugin instance associated with Graves.
+     */
+    private final Graves plugin;
+
+    /**
+     * The data manager used to persist changed slots.
+     */
+    private final DataManager dataManager;
+
+    /**
+     * Dirty graves keyed by grave UUID.
+     */
+    private final Map<UUID, DirtyGrave> dirtyMap;
+
+    /**
+     * How long, in milliseconds, an inventory must be untouched before it is flushed.
+     */
+    private final long quietPeriod;
+
+    /**
+     * Initializes a new instance of the {@code GraveInventoryTracker} class.
+     *
+     * @param plugin      the plugin instance.
+     * @param dataManager the data manager used to persist changed slots.
+     */
+    public GraveInventoryTracker(Graves plugin, DataManager dataManager) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        this.dirtyMap = new ConcurrentHashMap<>();
+        this.quietPeriod = Math.max(0L, plugin.getConfig().getLong("settings.storage.inventory-save-delay", 40L)) * 50L;
+
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::flushQuiet, 10L, 10L);
+    }
+
+    /**
+     * Marks a grave inventory as changed. Must be called before the change is applied, for example from an
+     * inventory click or drag listener, so the snapshot reflects the persisted contents.
+     *
+     * @param grave the grave whose inventory is about to change.
+     */
+    public void markDirty(Grave grave) {
+        DirtyGrave dirtyGrave = dirtyMap.computeIfAbsent(grave.getUUID(), uuid -> new DirtyGrave(grave));
+
+        dirtyGrave.lastChange = System.currentTimeMillis();
+    }
+
+    /**
+     * Persists the changed slots of a grave immediately.
+     *
+     * @param grave the grave to flush.
+     */
+    public void flush(Grave grave) {
+        DirtyGrave dirtyGrave = dirtyMap.remove(grave.getUUID());
+
+        if (dirtyGrave != null) {
+            write(dirtyGrave);
+        }
+    }
+
+    /**
+     * Persists the changed slots of every dirty grave immediately.
+     */
+    public void flushAll() {
+        for (UUID uuid : new ArrayList<>(dirtyMap.keySet())) {
+            DirtyGrave dirtyGrave = dirtyMap.remove(uuid);
+
+            if (dirtyGrave != null) {
+                write(dirtyGrave);
+            }
+        }
+    }
+
+    /**
+     * Forgets any pending changes of a grave, used when the grave is removed or fully rewritten.
+     *
+     * @param uuid the grave UUID.
+     */
+    public void discard(UUID uuid) {
+        dirtyMap.remove(uuid);
+    }
+
+    /**
+     * Checks if a grave has unsaved inventory changes.
+     *
+     * @param uuid the grave UUID.
+     * @return true if the grave is dirty.
+     */
+    public boolean isDirty(UUID uuid) {
+        return dirtyMap.containsKey(uuid);
+    }
+
+    /**
+     * Gets the number of graves with unsaved inventory changes.
+     *
+     * @return the number of dirty graves.
+     */
+    public int getDirtyCount() {
+        return dirtyMap.size();
+    }
+
+    /**
+     * Flushes graves that have not been changed for the quiet period.
+     */
+    private void flushQuiet() {
+        if (dirtyMap.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<DirtyGrave> quietList = new ArrayList<>();
+
+        for (Map.Entry<UUID, DirtyGrave> entry : dirtyMap.entrySet()) {
+            if (now - entry.getValue().lastChange >= quietPeriod && dirtyMap.remove(entry.getKey(), entry.getValue())) {
+                quietList.add(entry.getValue());
+            }
+        }
+
+        for (DirtyGrave dirtyGrave : quietList) {
+            write(dirtyGrave);
+        }
+    }
+
+    /**
+     * Writes the slots that differ from the snapshot.
+     *
+     * @param dirtyGrave the dirty grave.
+     */
+    private void write(DirtyGrave dirtyGrave) {
+        Grave grave = dirtyGrave.grave;
+        Inventory inventory = grave.getInventory();
+
+        if (inventory == null || grave.isUndecodable()
+                || !plugin.getCacheManager().getGraveMap().containsKey(grave.getUUID())) {
+            return;
+        }
+
+        ItemStack[] contents = inventory.getContents();
+        int size = Math.max(contents.length, dirtyGrave.snapshot.length);
+        int changed = 0;
+
+        for (int slot = 0; slot < size; slot++) {
+            ItemStack current = slot < contents.length ? contents[slot] : null;
+            ItemStack previous = slot < dirtyGrave.snapshot.length ? dirtyGrave.snapshot[slot] : null;
+
+            if (!isSame(previous, current)) {
+                dataManager.updateGraveSlot(grave, slot, current);
+                changed++;
+            }
+        }
+
+        plugin.debugMessage("Persisted " + changed + " changed slot(s) for grave " + grave.getUUID(), 2);
+    }
+
+    /**
+     * Checks if two slot contents are the same, treating null and air as empty.
+     *
+     * @param first  the first item stack.
+     * @param second the second item stack.
+     * @return true if both slots hold the same item and amount.
+     */
+    private static boolean isSame(ItemStack first, ItemStack second) {
+        boolean firstEmpty = first == null || first.getType() == Material.AIR;
+        boolean secondEmpty = second == null || second.getType() == Material.AIR;
+
+        if (firstEmpty || secondEmpty) {
+            return firstEmpty == secondEmpty;
+        }
+
+        return first.getAmount() == second.getAmount() && first.isSimilar(second);
+    }
+
+    /**
+     * A grave with unsaved inventory changes.
+     */
+    private static final class DirtyGrave {
+        /**
+         * The grave.
+         */
+        private final Grave grave;
+
+        /**
+         * The inventory contents as last persisted.
+         */
+        private final ItemStack[] snapshot;
+
+        /**
+         * The time of the last change in milliseconds.
+         */
+        private volatile long lastChange;
+
+        /**
+         * Creates a dirty grave, taking a snapshot of the current inventory contents.
+         *
+         * @param grave the grave.
+         */
+        private DirtyGrave(Grave grave) {
+            this.grave = grave;
+
+            ItemStack[] contents = grave.getInventory() != null
+                    ? grave.getInventory().getContents() : new ItemStack[0];
+
+            this.snapshot = new ItemStack[contents.length];
+
+            for (int i = 0; i < contents.length; i++) {
+                this.snapshot[i] = contents[i] != null ? contents[i].clone() : null;
+            }
+        }
+    }
+}
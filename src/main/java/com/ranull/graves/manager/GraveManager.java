@@ -14,7 +14,7 @@ import com.ranull.graves.integration.MiniMessage;
 import com.ranull.graves.inventory.GraveList;
 import com.ranull.graves.inventory.GraveMenu;
 import com.ranull.graves.type.Grave;
-import com.ranull.graves.util.ColorUtil;
+import com.ranull.graves.type.GraveSettings;
 import com.ranull.graves.util.InventoryUtil;
 import com.ranull.graves.util.MaterialUtil;
 import com.ranull.graves.util.StringUtil;
@@ -61,6 +61,23 @@ public final class GraveManager {
     private final ConcurrentHashMap<String, BukkitTask> tasks = new ConcurrentHashMap<>();
 
 
+    /**
+     * The scheduler that spreads the recurring grave work over ticks.
+     * <p>
+     * This {@link TickScheduler} runs expiry, hologram refresh, particles and menu refresh as independent jobs,
+     * each under the per-tick budget and at its own period.
+     * </p>
+     */
+    private final TickScheduler tickScheduler;
+
+    /**
+     * The renderer that shows grave particles to nearby players.
+     * <p>
+     * This {@link ParticleRenderer} is stepped one player at a time by the particle job.
+     * </p>
+     */
+    private final ParticleRenderer particleRenderer;
+
     /**
      * Initializes the GraveManager with the specified plugin instance.
      *
@@ -68,62 +85,92 @@ public final class GraveManager {
      */
     public GraveManager(Graves plugin) {
         this.plugin = plugin;
-        startGraveTimer();
+        this.tickScheduler = new TickScheduler(plugin);
+        this.particleRenderer = new ParticleRenderer(plugin);
+        registerJobs();
     }
 
     /**
-     * Starts the grave timer task that periodically checks and updates graves.
+     * Registers the recurring grave jobs with the tick scheduler.
      */
-    private void startGraveTimer() {
-        plugin.getServer().getScheduler().runTaskTimer(plugin, this::checkAndUpdateGraves, 20L, 20L); // 10 ticks = 0.5 seconds
+    private void registerJobs() {
+        tickScheduler.register("expiry", "settings.scheduler.period.expiry", 20L, new ExpiryJob());
+        tickScheduler.register("hologram", "settings.scheduler.period.hologram", 20L, new ChunkJob() {
+            @Override
+            void process(ChunkData chunkData) {
+                processEntityData(chunkData, entityDataRemoveList);
+                processBlockData(chunkData, blockDataRemoveList);
+            }
+        });
+        tickScheduler.register("particle", "settings.scheduler.period.particle", 20L, new ListJob<Player>() {
+            @Override
+            List<Player> list() {
+                return new ArrayList<>(plugin.getServer().getOnlinePlayers());
+            }
+
+            @Override
+            void process(Player player) {
+                if (player.isOnline()) {
+                    particleRenderer.render(player);
+                }
+            }
+        });
+        tickScheduler.register("menu", "settings.scheduler.period.menu", 20L, new ListJob<Inventory>() {
+            @Override
+            List<Inventory> list() {
+                return plugin.getGUIManager().getMenuRegistry().getInventoryList();
+            }
+
+            @Override
+            void process(Inventory inventory) {
+                if (inventory.getViewers().isEmpty()) {
+                    plugin.getGUIManager().getMenuRegistry().unregister(inventory);
+                } else {
+                    plugin.getGUIManager().updateCountdowns(inventory);
+                }
+            }
+        });
     }
 
     /**
-     * Checks and updates graves, entities, and blocks, removing expired elements and triggering necessary events.
+     * Gets the renderer that shows grave particles to nearby players.
+     *
+     * @return the particle renderer.
      */
-    private void checkAndUpdateGraves() {
-        List<Grave> graveRemoveList = new ArrayList<>();
-        List<EntityData> entityDataRemoveList = new ArrayList<>();
-        List<BlockData> blockDataRemoveList = new ArrayList<>();
-
-        // Process Graves
-        processGraves(graveRemoveList);
-
-        // Process Chunks
-        processChunks(entityDataRemoveList, blockDataRemoveList);
-
-        // Remove expired graves, entities, and blocks
-        removeExpiredElements(graveRemoveList, entityDataRemoveList, blockDataRemoveList);
+    public ParticleRenderer getParticleRenderer() {
+        return particleRenderer;
     }
 
     /**
-     * Processes all graves to check their remaining time and protection status.
+     * Processes a due alive or protection deadline of a grave.
+     * <p>
+     * A grave that is still due after being handled, because nothing removed it or changed its times, is rescheduled
+     * and checked again on the next pass.
+     * </p>
      *
+     * @param deadline        the due deadline.
      * @param graveRemoveList the list to which graves to be removed will be added.
      */
-    private void processGraves(List<Grave> graveRemoveList) {
-        for (Grave grave : new ArrayList<>(plugin.getCacheManager().getGraveMap().values())) {
-
-            long remainingTime = grave.getTimeAliveRemaining();
+    private void processDeadline(GraveDeadlineQueue.Deadline deadline, List<Grave> graveRemoveList) {
+        Grave grave = plugin.getCacheManager().getGraveMap().get(deadline.getGraveUUID());
 
-            // If the remaining time is -1, do not activate the event
-            if (remainingTime == -1) {
-                plugin.debugMessage("Grave " + grave.getUUID() + " has infinite time remaining, skipping timeout handling.", 2);
-                return;
-            }
+        if (grave == null) {
+            return;
+        }
 
-            // Log the current state of the grave
-            plugin.debugMessage("Checking grave: " + grave.getUUID() + " with remaining time: " + remainingTime, 2);
+        plugin.debugMessage("Grave " + grave.getUUID() + " reached its " + deadline.getType().name()
+                .toLowerCase() + " deadline", 2);
 
-            // Check if the grave should be removed
-            if (remainingTime == 0) {
+        if (deadline.getType() == GraveDeadlineQueue.Type.ALIVE) {
+            if (grave.getTimeAliveRemaining() == 0) {
                 handleGraveTimeout(grave, graveRemoveList);
             }
+        } else if (grave.getProtection() && grave.getTimeProtectionRemaining() == 0) {
+            toggleGraveProtection(grave);
+        }
 
-            // Handle grave protection timeout
-            if (grave.getProtection() && grave.getTimeProtectionRemaining() == 0) {
-                toggleGraveProtection(grave);
-            }
+        if (!graveRemoveList.contains(grave) && plugin.getCacheManager().getGraveMap().get(grave.getUUID()) == grave) {
+            plugin.getCacheManager().getGraveDeadlineQueue().schedule(grave);
         }
     }
 
@@ -142,6 +189,22 @@ public final class GraveManager {
             return;
         }
 
+        if (grave.isUndecodable()) {
+            if (grave.isSpilled()) {
+                // The payload is being read back, the deadline stays due and is handled on a later pass.
+                plugin.debugMessage("Grave " + grave.getUUID() + " timed out while its items are loading, "
+                        + "retrying on the next pass.", 2);
+                return;
+            }
+
+            plugin.getLogger().warning("Grave " + grave.getUUID() + " timed out but its items could not be decoded, "
+                    + "keeping it until it can be.");
+            // Persisted, so the grave does not time out again on every start.
+            grave.setTimeAliveRemaining(-1);
+            plugin.getDataManager().updateGrave(grave, "time_alive", -1);
+            return;
+        }
+
         GraveTimeoutEvent graveTimeoutEvent = new GraveTimeoutEvent(grave);
         plugin.getServer().getPluginManager().callEvent(graveTimeoutEvent);
 
@@ -221,67 +284,20 @@ public final class GraveManager {
         return Arrays.stream(chunk.getEntities()).anyMatch(entity -> entity instanceof Player);
     }
 
-    /**
-     * Processes all chunks to handle entities and blocks within them.
-     *
-     * @param entityDataRemoveList the list to which entity data to be removed will be added.
-     * @param blockDataRemoveList the list to which block data to be removed will be added.
-     */
-    private void processChunks(List<EntityData> entityDataRemoveList, List<BlockData> blockDataRemoveList) {
-        for (ChunkData chunkData : plugin.getCacheManager().getChunkMap().values()) {
-            if (!chunkData.isLoaded()) {
-                continue;
-            }
-
-            Location location = new Location(chunkData.getWorld(), chunkData.getX() << 4, 0, chunkData.getZ() << 4);
-
-            // Process Entity Data
-            processEntityData(chunkData, entityDataRemoveList, location);
-
-            // Process Block Data
-            processBlockData(chunkData, blockDataRemoveList);
-        }
-    }
-
-    /**
-     * Removes expired graves, entities, and blocks from the system.
-     *
-     * @param graveRemoveList the list of graves to be removed.
-     * @param entityDataRemoveList the list of entity data to be removed.
-     * @param blockDataRemoveList the list of block data to be removed.
-     */
-    private void removeExpiredElements(List<Grave> graveRemoveList, List<EntityData> entityDataRemoveList, List<BlockData> blockDataRemoveList) {
-        if (plugin.isEnabled()) {
-            for (Grave grave : graveRemoveList) {
-                plugin.debugMessage("Removing grave: " + grave.getUUID(), 2);
-                removeGrave(grave);
-            }
-            for (EntityData entityData : entityDataRemoveList) {
-                if (entityData != null) { // Null check before calling removeEntityData
-                    removeEntityData(entityData);
-                } else {
-                    plugin.debugMessage("Attempted to remove null EntityData", 2);
-                }
-            }
-            for (BlockData blockData : blockDataRemoveList) {
-                plugin.getBlockManager().removeBlock(blockData);
-            }
-            graveRemoveList.clear();
-            entityDataRemoveList.clear();
-            blockDataRemoveList.clear();
-            plugin.getGUIManager().refreshMenus();
-        }
-    }
-
     /**
      * Processes the entity data within the given chunk.
+     * <p>
+     * Orphaned entity data is always collected, while holograms are only refreshed if a player is in range of the
+     * chunk.
+     * </p>
      *
      * @param chunkData          the data of the chunk being processed.
      * @param entityDataRemoveList the list to which entity data to be removed will be added.
-     * @param location           the location representing the chunk coordinates.
      */
-    private void processEntityData(ChunkData chunkData, List<EntityData> entityDataRemoveList, Location location) {
+    private void processEntityData(ChunkData chunkData, List<EntityData> entityDataRemoveList) {
         try {
+            Boolean hasViewer = null;
+
             for (EntityData entityData : new ArrayList<>(chunkData.getEntityDataMap().values())) {
                 if (entityData == null) {
                     plugin.debugMessage("Encountered null EntityData while processing chunk at coordinates: ("
@@ -291,7 +307,11 @@ public final class GraveManager {
 
                 if (entityData.getUUIDGrave() != null && plugin.getCacheManager().getGraveMap().containsKey(entityData.getUUIDGrave())) {
                     if (plugin.isEnabled() && entityData instanceof HologramData) {
-                        processHologramData((HologramData) entityData, location, entityDataRemoveList);
+                        if (hasViewer == null) {
+                            hasViewer = plugin.getHologramManager().getHologramRenderer().hasViewer(chunkData);
+                        }
+
+                        processHologramData((HologramData) entityData, hasViewer, entityDataRemoveList);
                     }
                 } else {
                     entityDataRemoveList.add(entityData);
@@ -306,52 +326,36 @@ public final class GraveManager {
      * Processes hologram data within the chunk.
      *
      * @param hologramData       the hologram data to be processed.
-     * @param location           the location representing the chunk coordinates.
+     * @param hasViewer          whether a player is in range to see the hologram.
      * @param entityDataRemoveList the list to which hologram data to be removed will be added.
      */
-    private void processHologramData(HologramData hologramData, Location location, List<EntityData> entityDataRemoveList) {
-        try {
-            Grave grave = plugin.getCacheManager().getGraveMap().get(hologramData.getUUIDGrave());
+    private void processHologramData(HologramData hologramData, boolean hasViewer, List<EntityData> entityDataRemoveList) {
+        Grave grave = plugin.getCacheManager().getGraveMap().get(hologramData.getUUIDGrave());
 
-            if (grave != null) {
-                List<String> lineList = plugin.getConfig("hologram.line", grave).getStringList("hologram.line");
-                Collections.reverse(lineList);
-
-                for (Entity entity : hologramData.getLocation().getChunk().getEntities()) {
-                    if (entity.getUniqueId().equals(hologramData.getUUIDEntity())) {
-                        if (hologramData.getLine() < lineList.size()) {
-                            if (plugin.getIntegrationManager().hasMiniMessage()) {
-                                String newHologramLine = StringUtil.parseString(lineList.get(hologramData.getLine()), location, grave, plugin);
-                                entity.setCustomName(MiniMessage.parseString(newHologramLine));
-                            } else {
-                                entity.setCustomName(StringUtil.parseString(lineList.get(hologramData.getLine()), location, grave, plugin));
-                            }
-                        } else {
-                            entityDataRemoveList.add(hologramData);
-                        }
-                    }
-                }
+        if (grave != null) {
+            List<String> lineList = getGraveSettings(grave).getHologramLineList();
+
+            if (hologramData.getLine() >= lineList.size()) {
+                entityDataRemoveList.add(hologramData);
+            } else if (hasViewer) {
+                plugin.getHologramManager().getHologramRenderer().render(hologramData, grave,
+                        lineList.get(hologramData.getLine()));
             }
-        } catch (ArrayIndexOutOfBoundsException ignored) {
-            // ignored
         }
     }
 
     /**
-     * Processes the block data within the given chunk.
+     * Collects the block data within the given chunk that no longer belongs to a grave.
      *
      * @param chunkData          the data of the chunk being processed.
      * @param blockDataRemoveList the list to which block data to be removed will be added.
      */
     private void processBlockData(ChunkData chunkData, List<BlockData> blockDataRemoveList) {
         try {
-            for (BlockData blockData : new ArrayList<>(chunkData.getBlockDataMap().values())) {
-                if (blockData.getLocation().getWorld() != null) {
-                    if (plugin.getCacheManager().getGraveMap().containsKey(blockData.getGraveUUID())) {
-                        graveParticle(blockData.getLocation(), plugin.getCacheManager().getGraveMap().get(blockData.getGraveUUID()));
-                    } else {
-                        blockDataRemoveList.add(blockData);
-                    }
+            for (BlockData blockData : chunkData.getBlockDataList()) {
+                if (blockData.getLocation().getWorld() != null
+                        && !plugin.getCacheManager().getGraveMap().containsKey(blockData.getGraveUUID())) {
+                    blockDataRemoveList.add(blockData);
                 }
             }
         } catch (ArrayIndexOutOfBoundsException ignored) {
@@ -422,6 +426,7 @@ public final class GraveManager {
      */
     public void abandonGrave(Grave grave) {
         grave.setAbandoned(true);
+        plugin.getCacheManager().refreshOwnerIndex(grave);
         grave.setExperience(0);
         grave.setTimeProtection(0);
         grave.setTimeAlive(-1);
@@ -443,70 +448,65 @@ public final class GraveManager {
      * @param grave    the grave to spawn particles for.
      */
     public void graveParticle(Location location, Grave grave) {
+        GraveSettings graveSettings = getGraveSettings(grave);
+
         if (plugin.getVersionManager().hasParticle()
                 && location.getWorld() != null
-                && plugin.getConfig("particle.enabled", grave).getBoolean("particle.enabled")) {
-            Particle particle = Particle.valueOf(plugin.getVersionManager().getParticleForVersion("REDSTONE").toString());
-            String particleType = plugin.getConfig("particle.type", grave).getString("particle.type");
-
-            if (particleType != null && !particleType.equals("")) {
-                try {
-                    particle = Particle.valueOf(plugin.getConfig("particle.type", grave)
-                            .getString("particle.type"));
-                } catch (IllegalArgumentException ignored) {
-                    plugin.debugMessage(particleType + " is not a Particle ENUM", 1);
+                && graveSettings.isParticleEnabled()
+                && graveSettings.getParticle() != null) {
+            Particle particle = graveSettings.getParticle();
+            int count = graveSettings.getParticleCount();
+            Object data = graveSettings.getParticleData();
+            location = location.clone().add(graveSettings.getParticleOffsetX() + 0.5,
+                    graveSettings.getParticleOffsetY() + 0.5, graveSettings.getParticleOffsetZ() + 0.5);
+
+            try {
+                if (data != null) {
+                    location.getWorld().spawnParticle(particle, location, count, data);
+                } else {
+                    location.getWorld().spawnParticle(particle, location, count);
                 }
-            }
-
-            int count = plugin.getConfig("particle.count", grave).getInt("particle.count");
-            double offsetX = plugin.getConfig("particle.offset.x", grave).getDouble("particle.offset.x");
-            double offsetY = plugin.getConfig("particle.offset.y", grave).getDouble("particle.offset.y");
-            double offsetZ = plugin.getConfig("particle.offset.z", grave).getDouble("particle.offset.z");
-            location = location.clone().add(offsetX + 0.5, offsetY + 0.5, offsetZ + 0.5);
-
-            if (location.getWorld() != null) {
-                switch (particle.name()) {
-                    case "DUST":
-                    case "REDSTONE":
-                        int sizeInt = plugin.getConfig("particle.dust-size", grave).getInt("particle.dust-size");
-                        float size = (float) sizeInt; // Convert to float
-                        Color color = ColorUtil.getColor(plugin.getConfig("particle.dust-color", grave)
-                                .getString("particle.dust-color", "RED"));
-
-                        if (color == null) {
-                            color = Color.RED;
-                        }
-                        try {
-                            location.getWorld().spawnParticle(particle, location, count,
-                                    new Particle.DustOptions(color, size));
-                        } catch (IllegalArgumentException e) {
-                            location.getWorld().spawnParticle(particle, location, count, 1);
-                        }
-                        break;
-                    case "SHRIEK":
-                        location.getWorld().spawnParticle(particle, location, count, 1);
-                        break;
-                    default:
-                        try {
-                            location.getWorld().spawnParticle(particle, location, count);
-                        } catch (IllegalArgumentException e) {
-                            // May not work for all forks and versions, but will try again
-                            location.getWorld().spawnParticle(particle, location, count, 0, 0, 0, 0);
-                        }
-                        break;
+            } catch (IllegalArgumentException e) {
+                // May not work for all forks and versions, but will try again
+                if (data != null) {
+                    location.getWorld().spawnParticle(particle, location, count, 1);
+                } else {
+                    location.getWorld().spawnParticle(particle, location, count, 0, 0, 0, 0);
                 }
             }
         }
     }
 
+    /**
+     * Gets the settings of a grave, building them if the grave has none yet or they were built from a configuration
+     * that has since been reloaded.
+     *
+     * @param grave the grave.
+     * @return the settings.
+     */
+    public GraveSettings getGraveSettings(Grave grave) {
+        long generation = plugin.getConfigResolver().getGeneration();
+        GraveSettings graveSettings = grave.getSettings();
+
+        if (graveSettings == null || graveSettings.getGeneration() != generation) {
+            graveSettings = new GraveSettings(plugin, grave, generation);
+            grave.setSettings(graveSettings);
+        }
+
+        return graveSettings;
+    }
+
     /**
      * Removes the oldest grave.
      */
 
     public void removeOldestGrave(LivingEntity livingEntity) {
-        Grave toDel = plugin.getCacheManager().getOldestGrave(livingEntity.getUniqueId());
-        if (toDel != null) {
-            removeGrave(toDel);
+        // Graves whose items could not be decoded are skipped, their items only exist in the stored data
+        for (Grave toDel : plugin.getCacheManager().getGraveList(livingEntity.getUniqueId())) {
+            if (!toDel.isUndecodable()) {
+                removeGrave(toDel);
+                return;
+            }
         }
     }
 
@@ -771,8 +771,7 @@ public final class GraveManager {
                     .getString("gui.grave.title"), livingEntity, grave.getLocationDeath(), grave, plugin);
         }
 
-        Grave.StorageMode storageMode = getStorageMode(plugin.getConfig("storage.mode", grave)
-                .getString("storage.mode"));
+        Grave.StorageMode storageMode = getGraveSettings(grave).getStorageMode();
 
         return plugin.getGraveManager().createGraveInventory(grave, grave.getLocationDeath(), filterGraveItemStackList,
                 title, storageMode);
@@ -1040,15 +1039,7 @@ public final class GraveManager {
      * @return the list of graves.
      */
     public List<Grave> getGraveList(UUID uuid) {
-        List<Grave> graveList = new ArrayList<>();
-
-        plugin.getCacheManager().getGraveMap().forEach((key, value) -> {
-            if (!value.isAbandoned() && value.getOwnerUUID() != null && value.getOwnerUUID().equals(uuid)) {
-                graveList.add(value);
-            }
-        });
-
-        return graveList;
+        return plugin.getCacheManager().getGraveList(uuid);
     }
 
     /**
@@ -1058,7 +1049,7 @@ public final class GraveManager {
      * @return the number of graves.
      */
     public int getGraveCount(Entity entity) {
-        return getGraveList(entity).size();
+        return plugin.getCacheManager().getGraveCount(entity.getUniqueId());
     }
 
     /**
@@ -1088,6 +1079,14 @@ public final class GraveManager {
 
             plugin.getEntityManager().swingMainHand(player);
 
+            if (grave.isUndecodable()) {
+                plugin.getEntityManager().sendMessage(grave.isSpilled() ? "message.grave-loading"
+                        : "message.grave-undecodable", player, location, grave);
+                plugin.getEntityManager().playWorldSound("sound.protection", location, grave);
+
+                return false;
+            }
+
             if (plugin.getEntityManager().canOpenGrave(player, grave)) {
                 cleanupCompasses(player, grave);
 
@@ -1152,28 +1151,19 @@ public final class GraveManager {
      * @return the list of locations.
      */
     public List<Location> getGraveLocationList(Location baseLocation, Grave grave) {
-        List<Location> locationList = new ArrayList<>(plugin.getBlockManager().getBlockList(grave));
-        Map<Double, Location> locationMap = new HashMap<>();
-        List<Location> otherWorldLocationList = new ArrayList<>();
+        List<Location> locationList = plugin.getBlockManager().getBlockList(grave);
 
         if (baseLocation.getWorld() != null) {
             if (!locationList.contains(grave.getLocationDeath())) {
                 locationList.add(grave.getLocationDeath());
             }
 
-            for (Location location : locationList) {
-                if (location != null) {
-                    if (location.getWorld() != null && baseLocation.getWorld().equals(location.getWorld())) {
-                        locationMap.put(location.distanceSquared(baseLocation), location);
-                    } else {
-                        otherWorldLocationList.add(location);
-                    }
-                }
-            }
-
-            locationList = new ArrayList<>(new TreeMap<>(locationMap).values());
+            locationList.removeIf(Objects::isNull);
 
-            locationList.addAll(otherWorldLocationList);
+            // A grave has only a handful of points, so sorting them beats a spatial query filtered to one grave.
+            locationList.sort(Comparator.comparingDouble(location -> location.getWorld() != null
+                    && baseLocation.getWorld().equals(location.getWorld())
+                    ? location.distanceSquared(baseLocation) : Double.POSITIVE_INFINITY));
         }
 
         return locationList;
@@ -1201,10 +1191,12 @@ public final class GraveManager {
      * @param grave    the grave to be looted.
      */
     public void autoLootGrave(Entity entity, Location location, Grave grave) {
-        if (entity instanceof Player) {
+        if (entity instanceof Player && grave.isUndecodable()) {
+            plugin.getEntityManager().sendMessage(grave.isSpilled() ? "message.grave-loading"
+                    : "message.grave-undecodable", entity, location, grave);
+        } else if (entity instanceof Player) {
             Player player = (Player) entity;
-            Grave.StorageMode storageMode = getStorageMode(plugin.getConfig("storage.mode", grave)
-                    .getString("storage.mode"));
+            Grave.StorageMode storageMode = getGraveSettings(grave).getStorageMode();
 
             if (storageMode == Grave.StorageMode.EXACT) {
                 List<ItemStack> itemStackListLeftOver = new ArrayList<>();
@@ -1253,7 +1245,7 @@ public final class GraveManager {
 
             player.updateInventory();
             plugin.getDataManager().updateGrave(grave, "inventory",
-                    InventoryUtil.inventoryToString(grave.getInventory()));
+                    plugin.getDataManager().getItemFormat().encodeInventory(grave.getInventory()));
             plugin.getEntityManager().runCommands("event.command.open", player, location, grave);
 
             if (grave.getItemAmount() <= 0) {
@@ -1472,4 +1464,217 @@ public final class GraveManager {
 
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Job that handles the due alive and protection deadlines of graves.
+     */
+    private final class ExpiryJob implements TickScheduler.Job {
+        /**
+         * The deadlines due when the pass started.
+         */
+        private List<GraveDeadlineQueue.Deadline> deadlineList = Collections.emptyList();
+
+        /**
+         * The index of the next deadline, or of the deadline being processed.
+         */
+        private int cursor;
+
+        @Override
+        public boolean begin() {
+            if (!plugin.getDataManager().isLoaded()) {
+                return false; // Wait for the startup load to publish the caches
+            }
+
+            deadlineList = plugin.getCacheManager().getGraveDeadlineQueue().pollDue(System.currentTimeMillis());
+            cursor = 0;
+
+            return !deadlineList.isEmpty();
+        }
+
+        @Override
+        public boolean step() {
+            if (cursor >= deadlineList.size()) {
+                return false;
+            }
+
+            List<Grave> graveRemoveList = new ArrayList<>();
+
+            // The cursor only moves past a deadline once it was processed, so abort() puts a failed one back.
+            processDeadline(deadlineList.get(cursor), graveRemoveList);
+            cursor++;
+
+            for (Grave grave : graveRemoveList) {
+                if (plugin.isEnabled()) {
+                    plugin.debugMessage("Removing grave: " + grave.getUUID(), 2);
+                    removeGrave(grave);
+                }
+            }
+
+            return cursor < deadlineList.size();
+        }
+
+        @Override
+        public void end() {
+            deadlineList = Collections.emptyList();
+        }
+
+        @Override
+        public void abort() {
+            // The due deadlines were polled from the queue, so the ones not handled yet are put back.
+            for (GraveDeadlineQueue.Deadline deadline : deadlineList.subList(Math.min(cursor, deadlineList.size()),
+                    deadlineList.size())) {
+                Grave grave = plugin.getCacheManager().getGraveMap().get(deadline.getGraveUUID());
+
+                if (grave != null) {
+                    plugin.getCacheManager().getGraveDeadlineQueue().schedule(grave);
+                }
+            }
+
+            end();
+        }
+    }
+
+    /**
+     * Job that walks the loaded chunks holding grave data, one chunk per step, and removes the data found orphaned at
+     * the end of the pass.
+     */
+    private abstract class ChunkJob implements TickScheduler.Job {
+        /**
+         * The entity data found orphaned during the pass.
+         */
+        final List<EntityData> entityDataRemoveList = new ArrayList<>();
+
+        /**
+         * The block data found orphaned during the pass.
+         */
+        final List<BlockData> blockDataRemoveList = new ArrayList<>();
+
+        /**
+         * The chunks indexed when the pass started.
+         */
+        private List<ChunkData> chunkDataList = Collections.emptyList();
+
+        /**
+         * The index of the next chunk.
+         */
+        private int cursor;
+
+        /**
+         * Processes one loaded chunk.
+         *
+         * @param chunkData the chunk data.
+         */
+        abstract void process(ChunkData chunkData);
+
+        @Override
+        public boolean begin() {
+            if (!plugin.getDataManager().isLoaded()) {
+                return false;
+            }
+
+            chunkDataList = plugin.getCacheManager().getChunkIndex().values();
+            cursor = 0;
+
+            return !chunkDataList.isEmpty();
+        }
+
+        @Override
+        public boolean step() {
+            if (cursor < chunkDataList.size()) {
+                ChunkData chunkData = chunkDataList.get(cursor++);
+
+                if (chunkData.isLoaded()) {
+                    process(chunkData);
+                }
+            }
+
+            return cursor < chunkDataList.size();
+        }
+
+        @Override
+        public void end() {
+            if (plugin.isEnabled()) {
+                for (EntityData entityData : entityDataRemoveList) {
+                    if (entityData != null) { // Null check before calling removeEntityData
+                        removeEntityData(entityData);
+                    } else {
+                        plugin.debugMessage("Attempted to remove null EntityData", 2);
+                    }
+                }
+
+                for (BlockData blockData : blockDataRemoveList) {
+                    plugin.getBlockManager().removeBlock(blockData);
+                }
+            }
+
+            entityDataRemoveList.clear();
+            blockDataRemoveList.clear();
+            chunkDataList = Collections.emptyList();
+        }
+
+        @Override
+        public void abort() {
+            // The next pass finds the orphaned data again, and may be failing on it in end().
+            entityDataRemoveList.clear();
+            blockDataRemoveList.clear();
+            chunkDataList = Collections.emptyList();
+        }
+    }
+
+    /**
+     * Job that walks a snapshot of a list, one element per step.
+     *
+     * @param <T> the type of element.
+     */
+    private abstract class ListJob<T> implements TickScheduler.Job {
+        /**
+         * The elements listed when the pass started.
+         */
+        private List<T> list = Collections.emptyList();
+
+        /**
+         * The index of the next element.
+         */
+        private int cursor;
+
+        /**
+         * Lists the elements of a new pass.
+         *
+         * @return the elements.
+         */
+        abstract List<T> list();
+
+        /**
+         * Processes one element.
+         *
+         * @param element the element.
+         */
+        abstract void process(T element);
+
+        @Override
+        public boolean begin() {
+            if (!plugin.getDataManager().isLoaded()) {
+                return false;
+            }
+
+            list = list();
+            cursor = 0;
+
+            return !list.isEmpty();
+        }
+
+        @Override
+        public boolean step() {
+            if (cursor < list.size()) {
+                process(list.get(cursor++));
+            }
+
+            return cursor < list.size();
+        }
+
+        @Override
+        public void end() {
+            list = Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.type.Grave;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Local spill file holding the payload of graves that were moved off the heap.
+ * <p>
+ * Payloads are appended to the file and located by an in-memory map of offsets. Reading a payload back removes it
+ * from the store; the space it took is reclaimed by rewriting the file once dead bytes outnumber live ones. The file
+ * only mirrors data that is also stored in the database, so it is deleted when the store is opened and closed.
+ * </p>
+ * <p>
+ * The store is safe to use from any thread.
+ * </p>
+ */
+public final class GraveSpillStore {
+    /**
+     * The plugin instance.
+     */
+    private final Graves plugin;
+
+    /**
+     * The spill file.
+     */
+    private final File file;
+
+    /**
+     * The offset and length of each spilled payload in the file.
+     */
+    private final Map<UUID, long[]> spillMap = new HashMap<>();
+
+    /**
+     * The open file channel, or null if the file is not open.
+     */
+    private FileChannel fileChannel;
+
+    /**
+     * The number of bytes of the file taken by payloads that are still spilled.
+     */
+    private long liveBytes;
+
+    /**
+     * Creates a spill store.
+     *
+     * @param plugin the plugin instance.
+     */
+    public GraveSpillStore(Graves plugin) {
+        this.plugin = plugin;
+        this.file = new File(new File(plugin.getDataFolder(), "data"), "graves.spill");
+
+        if (file.exists() && !file.delete()) {
+            plugin.getLogger().warning("Failed to delete spill file " + file.getPath() + ".");
+        }
+    }
+
+    /**
+     * Writes the payload of a grave to the spill file, replacing any earlier payload of the grave.
+     *
+     * @param graveUUID the grave UUID.
+     * @param payload   the payload.
+     * @return true if the payload was written.
+     */
+    public synchronized boolean write(UUID graveUUID, Grave.Payload payload) {
+        try {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+            try (DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
+                writeString(dataOutputStream, payload.getInventoryData());
+                writeString(dataOutputStream, payload.getEquipmentData());
+                writeString(dataOutputStream, payload.getOwnerTexture());
+                writeString(dataOutputStream, payload.getOwnerTextureSignature());
+            }
+
+            discard(graveUUID);
+
+            FileChannel fileChannel = open();
+            long offset = fileChannel.size();
+            ByteBuffer byteBuffer = ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
+
+            while (byteBuffer.hasRemaining()) {
+                fileChannel.write(byteBuffer, offset + byteBuffer.position());
+            }
+
+            spillMap.put(graveUUID, new long[]{offset, byteBuffer.limit()});
+            liveBytes += byteBuffer.limit();
+
+            return true;
+        } catch (IOException exception) {
+            plugin.getLogger().severe("Failed to spill grave " + graveUUID + ": " + exception.getMessage());
+            plugin.logStackTrace(exception);
+
+            return false;
+        }
+    }
+
+    /**
+     * Reads the payload of a grave and removes it from the store.
+     *
+     * @param graveUUID the grave UUID.
+     * @return the payload, or null if the grave is not spilled or could not be read.
+     */
+    public synchronized Grave.Payload read(UUID graveUUID) {
+        long[] entry = spillMap.remove(graveUUID);
+
+        if (entry == null) {
+            return null;
+        }
+
+        liveBytes -= entry[1];
+
+        try {
+            return readEntry(graveUUID, entry);
+        } finally {
+            compactIfSparse();
+        }
+    }
+
+    /**
+     * Reads the payload of a grave and leaves it in the store.
+     *
+     * @param graveUUID the grave UUID.
+     * @return the payload, or null if the grave is not spilled or could not be read.
+     */
+    public synchronized Grave.Payload peek(UUID graveUUID) {
+        long[] entry = spillMap.get(graveUUID);
+
+        return entry != null ? readEntry(graveUUID, entry) : null;
+    }
+
+    /**
+     * Reads a payload from the spill file.
+     *
+     * @param graveUUID the grave UUID.
+     * @param entry     the offset and length of the payload.
+     * @return the payload, or null if it could not be read.
+     */
+    private Grave.Payload readEntry(UUID graveUUID, long[] entry) {
+        try {
+            ByteBuffer byteBuffer = ByteBuffer.allocate((int) entry[1]);
+
+            while (byteBuffer.hasRemaining()) {
+                if (open().read(byteBuffer, entry[0] + byteBuffer.position()) < 0) {
+                    throw new EOFException("Spill file ended early");
+                }
+            }
+
+            try (DataInputStream dataInputStream = new DataInputStream(
+                    new ByteArrayInputStream(byteBuffer.array()))) {
+                return new Grave.Payload(readString(dataInputStream), readString(dataInputStream),
+                        readString(dataInputStream), readString(dataInputStream));
+            }
+        } catch (IOException exception) {
+            plugin.getLogger().severe("Failed to read spilled grave " + graveUUID + ": " + exception.getMessage());
+            plugin.logStackTrace(exception);
+
+            return null;
+        }
+    }
+
+    /**
+     * Drops the payload of a grave without reading it.
+     *
+     * @param graveUUID the grave UUID.
+     */
+    public synchronized void discard(UUID graveUUID) {
+        long[] entry = spillMap.remove(graveUUID);
+
+        if (entry != null) {
+            liveBytes -= entry[1];
+            compactIfSparse();
+        }
+    }
+
+    /**
+     * Gets the number of spilled graves.
+     *
+     * @return the number of graves.
+     */
+    public synchronized int size() {
+        return spillMap.size();
+    }
+
+    /**
+     * Gets the number of bytes taken by spilled payloads.
+     *
+     * @return the number of bytes.
+     */
+    public synchronized long getLiveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * Gets the size of the spill file, including space not yet reclaimed.
+     *
+     * @return the size in bytes.
+     */
+    public synchronized long getFileSize() {
+        try {
+            return fileChannel != null ? fileChannel.size() : 0;
+        } catch (IOException exception) {
+            return 0;
+        }
+    }
+
+    /**
+     * Closes and deletes the spill file and forgets every spilled payload.
+     */
+    public synchronized void close() {
+        spillMap.clear();
+        liveBytes = 0;
+
+        if (fileChannel != null) {
+            try {
+                fileChannel.close();
+            } catch (IOException exception) {
+                plugin.logStackTrace(exception);
+            }
+
+            fileChannel = null;
+        }
+
+        if (file.exists() && !file.delete()) {
+            plugin.getLogger().warning("Failed to delete spill file " + file.getPath() + ".");
+        }
+    }
+
+    /**
+     * Opens the spill file if it is not open yet.
+     *
+     * @return the file channel.
+     * @throws IOException if the file could not be opened.
+     */
+    private FileChannel open() throws IOException {
+        if (fileChannel == null) {
+            file.getParentFile().mkdirs();
+            fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+
+        return fileChannel;
+    }
+
+    /**
+     * Rewrites the spill file without dead payloads once they take more space than the live ones.
+     */
+    private void compactIfSparse() {
+        long fileSize = getFileSize();
+
+        if (fileSize < 1 << 20 || fileSize - liveBytes <= liveBytes) {
+            return;
+        }
+
+        File temporaryFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        Map<UUID, Long> offsetMap = new HashMap<>();
+
+        try (FileChannel temporaryChannel = FileChannel.open(temporaryFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long offset = 0;
+
+            for (Map.Entry<UUID, long[]> entry : spillMap.entrySet()) {
+                long[] position = entry.getValue();
+
+                for (long copied = 0; copied < position[1]; ) {
+                    copied += fileChannel.transferTo(position[0] + copied, position[1] - copied, temporaryChannel);
+                }
+
+                offsetMap.put(entry.getKey(), offset);
+                offset += position[1];
+            }
+
+            temporaryChannel.force(false);
+            fileChannel.close();
+            fileChannel = null;
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+            for (Map.Entry<UUID, Long> entry : offsetMap.entrySet()) {
+                spillMap.get(entry.getKey())[0] = entry.getValue();
+            }
+
+            plugin.debugMessage("Compacted spill file to " + liveBytes + " bytes.", 2);
+        } catch (IOException exception) {
+            plugin.getLogger().severe("Failed to compact spill file: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+
+        try {
+            open();
+        } catch (IOException exception) {
+            plugin.getLogger().severe("Failed to reopen spill file: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+    }
+
+    /**
+     * Writes a nullable string.
+     *
+     * @param dataOutputStream the output stream.
+     * @param string           the string, may be null.
+     * @throws IOException if the string could not be written.
+     */
+    private static void writeString(DataOutputStream dataOutputStream, String string) throws IOException {
+        if (string == null) {
+            dataOutputStream.writeInt(-1);
+        } else {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+            dataOutputStream.writeInt(bytes.length);
+            dataOutputStream.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a nullable string.
+     *
+     * @param dataInputStream the input stream.
+     * @return the string, or null.
+     * @throws IOException if the string could not be read.
+     */
+    private static String readString(DataInputStream dataInputStream) throws IOException {
+        int length = dataInputStream.readInt();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+
+        dataInputStream.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
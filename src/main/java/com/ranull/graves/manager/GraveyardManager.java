@@ -3,7 +3,6 @@ package com.ranull.graves.manager;
 import com.ranull.graves.Graves;
 import com.ranull.graves.type.Graveyard;
 import com.ranull.graves.util.BlockFaceUtil;
-import com.ranull.graves.util.LocationUtil;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -19,11 +18,13 @@ public final class GraveyardManager {
     private final Graves plugin;
     private final Map<String, Graveyard> graveyardMap;
     private final Map<UUID, Graveyard> modifyingGraveyardMap;
+    private final SpatialIndex<Graveyard> graveyardSpatialIndex;
 
     public GraveyardManager(Graves plugin) {
         this.plugin = plugin;
         this.graveyardMap = new HashMap<>();
         this.modifyingGraveyardMap = new HashMap<>();
+        this.graveyardSpatialIndex = new SpatialIndex<>();
     }
 
     public void unload() throws InvocationTargetException {
@@ -43,7 +44,17 @@ public final class GraveyardManager {
     public Graveyard createGraveyard(Location location, String name, World world, Graveyard.Type type) {
         Graveyard graveyard = new Graveyard(name, world, type);
         graveyard.setSpawnLocation(location);
-        graveyardMap.put(graveyard.getKey(), graveyard);
+
+        Graveyard previous = graveyardMap.put(graveyard.getKey(), graveyard);
+
+        if (previous != null && previous.getSpawnLocation() != null) {
+            graveyardSpatialIndex.remove(previous.getSpawnLocation(), previous);
+        }
+
+        if (location != null) {
+            graveyardSpatialIndex.add(location, graveyard);
+        }
+
         return graveyard;
     }
 
@@ -149,6 +160,10 @@ public final class GraveyardManager {
     public void deleteGraveyard(Player player, Graveyard graveyard) {
         modifyingGraveyardMap.remove(player.getUniqueId());
 
+        if (graveyardMap.remove(graveyard.getKey(), graveyard) && graveyard.getSpawnLocation() != null) {
+            graveyardSpatialIndex.remove(graveyard.getSpawnLocation(), graveyard);
+        }
+
         player.sendMessage(ChatColor.RED + "☠" + ChatColor.DARK_GRAY + " » " + ChatColor.RED + "Deleted graveyard " + graveyard.getName());
 
         plugin.getDataManager().deleteGraveyard(graveyard);
@@ -168,33 +183,27 @@ public final class GraveyardManager {
     }
 
     public Graveyard getClosestGraveyard(Location location, Entity entity) {
-        Map<Location, Graveyard> locationGraveyardMap = new HashMap<>();
-
-        for (Graveyard graveyard : graveyardMap.values()) {
-            if (graveyard.getSpawnLocation() != null) {
-                switch (graveyard.getType()) {
-                    case WORLDGUARD:
-                        if (graveyard.isPublic() || (!(entity instanceof Player)
-                                || (plugin.getIntegrationManager().getWorldGuard() != null
-                                && plugin.getIntegrationManager().getWorldGuard()
-                                .isMember(graveyard.getName(), (Player) entity)))) {
-                            locationGraveyardMap.put(graveyard.getSpawnLocation(), graveyard);
-                        }
-                        break;
-                    case TOWNY:
-                        if (graveyard.isPublic() || (!(entity instanceof Player)
-                                || (plugin.getIntegrationManager().hasTowny()
-                                && plugin.getIntegrationManager().getTowny()
-                                .isResident(graveyard.getName(), (Player) entity)))) {
-                            locationGraveyardMap.put(graveyard.getSpawnLocation(), graveyard);
-                        }
-                        break;
-                }
-            }
-        }
+        List<SpatialIndex.Match<Graveyard>> matchList = graveyardSpatialIndex.getNearest(location, 1,
+                graveyard -> canUseGraveyard(graveyard, entity));
+
+        return !matchList.isEmpty() ? matchList.get(0).getValue() : null;
+    }
 
-        return !locationGraveyardMap.isEmpty() ? locationGraveyardMap.get(LocationUtil
-                .getClosestLocation(location, new ArrayList<>(locationGraveyardMap.keySet()))) : null;
+    private boolean canUseGraveyard(Graveyard graveyard, Entity entity) {
+        switch (graveyard.getType()) {
+            case WORLDGUARD:
+                return graveyard.isPublic() || (!(entity instanceof Player)
+                        || (plugin.getIntegrationManager().getWorldGuard() != null
+                        && plugin.getIntegrationManager().getWorldGuard()
+                        .isMember(graveyard.getName(), (Player) entity)));
+            case TOWNY:
+                return graveyard.isPublic() || (!(entity instanceof Player)
+                        || (plugin.getIntegrationManager().hasTowny()
+                        && plugin.getIntegrationManager().getTowny()
+                        .isResident(graveyard.getName(), (Player) entity)));
+            default:
+                return false;
+        }
     }
 
     private void previewLocation(Player player, Location location, BlockFace blockFace) {
@@ -3,10 +3,9 @@ package com.ranull.graves.manager;
 import com.ranull.graves.Graves;
 import com.ranull.graves.data.EntityData;
 import com.ranull.graves.data.HologramData;
-import com.ranull.graves.integration.MiniMessage;
 import com.ranull.graves.type.Grave;
+import com.ranull.graves.type.GraveSettings;
 import com.ranull.graves.util.LocationUtil;
-import com.ranull.graves.util.StringUtil;
 import org.bukkit.Location;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Entity;
@@ -30,6 +29,14 @@ public final class HologramManager extends EntityDataManager {
      */
     private final Graves plugin;
 
+    /**
+     * The renderer that refreshes hologram text.
+     * <p>
+     * This {@link HologramRenderer} remembers the text of every hologram line so unchanged lines are not sent again.
+     * </p>
+     */
+    private final HologramRenderer hologramRenderer;
+
     /**
      * Initializes a new instance of the HologramManager class.
      *
@@ -38,6 +45,16 @@ public final class HologramManager extends EntityDataManager {
     public HologramManager(Graves plugin) {
         super(plugin);
         this.plugin = plugin;
+        this.hologramRenderer = new HologramRenderer(plugin);
+    }
+
+    /**
+     * Gets the renderer that refreshes hologram text.
+     *
+     * @return The hologram renderer.
+     */
+    public HologramRenderer getHologramRenderer() {
+        return hologramRenderer;
     }
 
     /**
@@ -47,22 +64,17 @@ public final class HologramManager extends EntityDataManager {
      * @param grave    The grave associated with the hologram.
      */
     public void createHologram(Location location, Grave grave) {
-        if (!plugin.getVersionManager().is_v1_7()
-                && plugin.getConfig("hologram.enabled", grave).getBoolean("hologram.enabled")) {
-            double offsetX = plugin.getConfig("hologram.offset.x", grave).getDouble("hologram.offset.x");
-            double offsetY = plugin.getConfig("hologram.offset.y", grave).getDouble("hologram.offset.y");
-            double offsetZ = plugin.getConfig("hologram.offset.z", grave).getDouble("hologram.offset.z");
-            boolean marker = plugin.getConfig("hologram.marker", grave).getBoolean("hologram.marker");
-            location = LocationUtil.roundLocation(location)
-                    .add(offsetX + 0.5, offsetY + (marker ? 0.49 : -0.49), offsetZ + 0.5);
-            List<String> lineList = plugin.getConfig("hologram.line", grave)
-                    .getStringList("hologram.line");
-            double lineHeight = plugin.getConfig("hologram.height-line", grave)
-                    .getDouble("hologram.height-line");
+        GraveSettings graveSettings = plugin.getGraveManager().getGraveSettings(grave);
+
+        if (!plugin.getVersionManager().is_v1_7() && graveSettings.isHologramEnabled()) {
+            boolean marker = graveSettings.isHologramMarker();
+            location = LocationUtil.roundLocation(location).add(graveSettings.getHologramOffsetX() + 0.5,
+                    graveSettings.getHologramOffsetY() + (marker ? 0.49 : -0.49),
+                    graveSettings.getHologramOffsetZ() + 0.5);
+            List<String> lineList = graveSettings.getHologramLineList();
+            double lineHeight = graveSettings.getHologramLineHeight();
             int lineNumber = 0;
 
-            Collections.reverse(lineList);
-
             for (String line : lineList) {
                 location.add(0, lineHeight, 0);
 
@@ -73,13 +85,10 @@ public final class HologramManager extends EntityDataManager {
                     armorStand.setCustomNameVisible(true);
                     armorStand.setSmall(true);
 
-                    // Use MiniMessage if available to format the custom name
-                    if (plugin.getIntegrationManager().hasMiniMessage()) {
-                        String newLine = StringUtil.parseString(line, location, grave, plugin);
-                        armorStand.setCustomName(MiniMessage.parseString(newLine));
-                    } else {
-                        armorStand.setCustomName(StringUtil.parseString(line, location, grave, plugin));
-                    }
+                    String text = hologramRenderer.parseLine(line, location, grave);
+
+                    armorStand.setCustomName(text);
+                    hologramRenderer.remember(armorStand.getUniqueId(), line, text);
 
                     if (!plugin.getVersionManager().is_v1_7()) {
                         try {
@@ -158,6 +167,7 @@ public final class HologramManager extends EntityDataManager {
                 entity.remove();
             }
 
+            hologramRenderer.forget(entry.getKey().getUUIDEntity());
             entityDataList.add(entry.getKey());
         }
 
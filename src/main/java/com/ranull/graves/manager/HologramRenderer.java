@@ -0,0 +1,279 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.data.ChunkData;
+import com.ranull.graves.data.HologramData;
+import com.ranull.graves.integration.MiniMessage;
+import com.ranull.graves.type.Grave;
+import com.ranull.graves.util.StringUtil;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders the text of grave holograms and only updates an armor stand when its text changed.
+ * <p>
+ * The last rendered text of every hologram line is remembered together with the line it was rendered from. A line
+ * that only uses placeholders which cannot change while the grave exists is rendered once and then left alone; other
+ * lines are rendered again on every refresh but only sent to the armor stand when the result differs, since setting
+ * a custom name sends a metadata packet to every player tracking it. Holograms with no player in range are skipped.
+ * </p>
+ * <p>
+ * The renderer is used from the main thread only.
+ * </p>
+ */
+public final class HologramRenderer {
+    /**
+     * Matches a placeholder.
+     */
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("%[A-Za-z0-9_]+%");
+
+    /**
+     * Placeholders whose value is fixed for the lifetime of a grave and its hologram. The owner names are not, as
+     * abandoning a grave renames its owner.
+     */
+    private static final String[] STATIC_PLACEHOLDERS = {
+            "%world%", "%world_formatted%", "%x%", "%y%", "%z%", "%uuid%", "%owner_type%", "%owner_uuid%",
+            "%killer_name%", "%killer_name_display%", "%killer_type%", "%killer_uuid%", "%time_creation%",
+            "%time_creation_formatted%", "%plugin_name%", "%plugin_version%", "%spigot_id%"
+    };
+
+    /**
+     * The plugin instance.
+     */
+    private final Graves plugin;
+
+    /**
+     * The last rendered line of each hologram entity.
+     */
+    private final Map<UUID, RenderedLine> renderedLineMap = new HashMap<>();
+
+    /**
+     * Whether each hologram line is static, keyed by the unparsed line.
+     */
+    private final Map<String, Boolean> staticLineMap = new HashMap<>();
+
+    /**
+     * Whether entities can be looked up by UUID, false on versions without {@code Server#getEntity(UUID)}.
+     */
+    private boolean hasEntityLookup = true;
+
+    /**
+     * Creates a hologram renderer.
+     *
+     * @param plugin the plugin instance.
+     */
+    public HologramRenderer(Graves plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Checks if a player is close enough to a chunk to see the holograms in it.
+     *
+     * @param chunkData the chunk data.
+     * @return true if a player is within the hologram range of the chunk.
+     */
+    public boolean hasViewer(ChunkData chunkData) {
+        World world = chunkData.getWorld();
+
+        if (world == null) {
+            return false;
+        }
+
+        // Entities are tracked within a square, so compare each axis against the range plus half a chunk.
+        double range = plugin.getConfig().getInt("settings.scheduler.hologram-range", 64) + 8;
+        double centerX = (chunkData.getX() << 4) + 8;
+        double centerZ = (chunkData.getZ() << 4) + 8;
+
+        for (Player player : world.getPlayers()) {
+            Location location = player.getLocation();
+
+            if (Math.abs(location.getX() - centerX) <= range && Math.abs(location.getZ() - centerZ) <= range) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Refreshes the text of a hologram line.
+     *
+     * @param hologramData the hologram data.
+     * @param grave        the grave of the hologram.
+     * @param line         the unparsed line, as configured.
+     */
+    public void render(HologramData hologramData, Grave grave, String line) {
+        RenderedLine renderedLine = renderedLineMap.get(hologramData.getUUIDEntity());
+
+        if (renderedLine != null && renderedLine.isStatic && line.equals(renderedLine.line)) {
+            return;
+        }
+
+        String text = parseLine(line, hologramData.getLocation(), grave);
+
+        if (renderedLine != null && line.equals(renderedLine.line) && text.equals(renderedLine.text)) {
+            return;
+        }
+
+        Entity entity = getEntity(hologramData);
+
+        if (entity == null) {
+            renderedLineMap.remove(hologramData.getUUIDEntity());
+
+            return;
+        }
+
+        entity.setCustomName(text);
+        remember(hologramData.getUUIDEntity(), line, text);
+    }
+
+    /**
+     * Parses a hologram line into the text shown on the armor stand.
+     *
+     * @param line     the unparsed line.
+     * @param location the location of the hologram.
+     * @param grave    the grave.
+     * @return the text.
+     */
+    public String parseLine(String line, Location location, Grave grave) {
+        String text = StringUtil.parseString(line, location, grave, plugin);
+
+        return plugin.getIntegrationManager().hasMiniMessage() ? MiniMessage.parseString(text) : text;
+    }
+
+    /**
+     * Records the text an armor stand was given, so it is not sent again while unchanged.
+     *
+     * @param uuidEntity the UUID of the armor stand.
+     * @param line       the unparsed line.
+     * @param text       the text shown.
+     */
+    public void remember(UUID uuidEntity, String line, String text) {
+        renderedLineMap.put(uuidEntity, new RenderedLine(line, text, isStatic(line)));
+    }
+
+    /**
+     * Forgets the text of a hologram that was removed.
+     *
+     * @param uuidEntity the UUID of the armor stand.
+     */
+    public void forget(UUID uuidEntity) {
+        renderedLineMap.remove(uuidEntity);
+    }
+
+    /**
+     * Forgets every rendered text and static line, so holograms are rendered again on their next refresh.
+     */
+    public void clear() {
+        renderedLineMap.clear();
+        staticLineMap.clear();
+    }
+
+    /**
+     * Checks if a line only uses placeholders that cannot change while the grave exists. Lines using PlaceholderAPI
+     * or any placeholder that is not known to be fixed are never static.
+     *
+     * @param line the unparsed line.
+     * @return true if the line is static.
+     */
+    private boolean isStatic(String line) {
+        Boolean isStatic = staticLineMap.get(line);
+
+        if (isStatic == null) {
+            Matcher matcher = PLACEHOLDER_PATTERN.matcher(line);
+
+            isStatic = true;
+
+            while (isStatic && matcher.find()) {
+                isStatic = isStaticPlaceholder(matcher.group());
+            }
+
+            staticLineMap.put(line, isStatic);
+        }
+
+        return isStatic;
+    }
+
+    /**
+     * Checks if a placeholder is fixed for the lifetime of a grave.
+     *
+     * @param placeholder the placeholder, including the percent signs.
+     * @return true if the placeholder is static.
+     */
+    private static boolean isStaticPlaceholder(String placeholder) {
+        for (String staticPlaceholder : STATIC_PLACEHOLDERS) {
+            if (staticPlaceholder.equals(placeholder)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the armor stand of a hologram line by its UUID, falling back to searching its chunk on old versions.
+     *
+     * @param hologramData the hologram data.
+     * @return the entity, or null if it is not loaded.
+     */
+    private Entity getEntity(HologramData hologramData) {
+        if (hasEntityLookup) {
+            try {
+                Entity entity = plugin.getServer().getEntity(hologramData.getUUIDEntity());
+
+                return entity != null && entity.isValid() ? entity : null;
+            } catch (NoSuchMethodError ignored) {
+                hasEntityLookup = false;
+            }
+        }
+
+        for (Entity entity : hologramData.getLocation().getChunk().getEntities()) {
+            if (entity.getUniqueId().equals(hologramData.getUUIDEntity())) {
+                return entity;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * The last text an armor stand was given.
+     */
+    private static final class RenderedLine {
+        /**
+         * The unparsed line the text was rendered from.
+         */
+        private final String line;
+
+        /**
+         * The text.
+         */
+        private final String text;
+
+        /**
+         * Whether the line is static.
+         */
+        private final boolean isStatic;
+
+        /**
+         * Creates a rendered line.
+         *
+         * @param line     the unparsed line.
+         * @param text     the text.
+         * @param isStatic whether the line is static.
+         */
+        private RenderedLine(String line, String text, boolean isStatic) {
+            this.line = line;
+            this.text = text;
+            this.isStatic = isStatic;
+        }
+    }
+}
@@ -167,7 +167,7 @@ public final class ImportManager {
                 String title = StringUtil.parseString(plugin.getConfig("gui.grave.title", grave)
                         .getString("gui.grave.title"), grave.getLocationDeath(), grave, plugin);
                 Grave.StorageMode storageMode = plugin.getGraveManager()
-                        .getStorageMode(plugin.getConfig("storage.mode", grave).getString("storage.mode"));
+                        .getGraveSettings(grave).getStorageMode();
 
                 Inventory inventory = plugin.getGraveManager().createGraveInventory(grave, grave.getLocationDeath(),
                         itemStackList, title, storageMode);
@@ -1,6 +1,7 @@
 package com.ranull.graves.manager;
 
 import com.ranull.graves.Graves;
+import com.ranull.graves.data.ChunkData;
 import com.ranull.graves.type.Grave;
 import com.ranull.graves.util.LocationUtil;
 import com.ranull.graves.util.MaterialUtil;
@@ -47,18 +48,41 @@ public final class LocationManager {
         plugin.getCacheManager().getLastLocationMap().put(entity.getUniqueId(), location);
     }
 
+    /**
+     * Sets the last solid location of an entity, reusing the location stored for it so frequent updates do not
+     * allocate.
+     *
+     * @param entity The entity.
+     * @param world  The world.
+     * @param x      The x-coordinate.
+     * @param y      The y-coordinate.
+     * @param z      The z-coordinate.
+     */
+    public void setLastSolidLocation(Entity entity, World world, double x, double y, double z) {
+        Location location = plugin.getCacheManager().getLastLocationMap().get(entity.getUniqueId());
+
+        if (location != null) {
+            location.setWorld(world);
+            location.setX(x);
+            location.setY(y);
+            location.setZ(z);
+        } else {
+            setLastSolidLocation(entity, new Location(world, x, y, z));
+        }
+    }
+
     /**
      * Gets the last solid location of an entity.
      *
      * @param entity The entity.
-     * @return The last solid location.
+     * @return A copy of the last solid location.
      */
     public Location getLastSolidLocation(Entity entity) {
         Location location = plugin.getCacheManager().getLastLocationMap().get(entity.getUniqueId());
 
         return location != null && location.getWorld() != null
                 && location.getWorld().equals(entity.getWorld())
-                && location.getBlock().getRelative(BlockFace.DOWN).getType().isSolid() ? location : null;
+                && location.getBlock().getRelative(BlockFace.DOWN).getType().isSolid() ? location.clone() : null;
     }
 
     /**
@@ -439,8 +463,11 @@ public final class LocationManager {
      */
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
     public boolean hasGrave(Location location) {
-        return plugin.getDataManager().hasChunkData(location)
-                && plugin.getDataManager().getChunkData(location).getBlockDataMap().containsKey(location);
+        ChunkData chunkData = plugin.getCacheManager().getChunkIndex().get(location.getWorld(),
+                location.getBlockX() >> 4, location.getBlockZ() >> 4);
+
+        return chunkData != null
+                && chunkData.hasBlockData(location.getBlockX(), location.getBlockY(), location.getBlockZ());
     }
 
     /**
@@ -0,0 +1,212 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.inventory.GraveList;
+import com.ranull.graves.inventory.GraveMenu;
+import com.ranull.graves.type.Grave;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+
+import java.util.*;
+
+/**
+ * Registry of the grave lists and grave menus players have open, keyed by what they show.
+ * <p>
+ * Grave lists are registered under the UUID of the owner whose graves they list, and grave menus under the UUID of
+ * their grave. When a grave changes it is marked dirty, and on the next tick only the views showing it are rendered
+ * again; several changes in the same tick render each view once.
+ * </p>
+ * <p>
+ * The registry is safe to use from any thread. Views are always rendered on the main thread.
+ * </p>
+ */
+public final class MenuRegistry {
+    /**
+     * The plugin instance.
+     */
+    private final Graves plugin;
+
+    /**
+     * The open grave lists, keyed by the UUID of the owner they list.
+     */
+    private final Map<UUID, Set<Inventory>> graveListMap = new HashMap<>();
+
+    /**
+     * The open grave menus, keyed by the UUID of their grave.
+     */
+    private final Map<UUID, Set<Inventory>> graveMenuMap = new HashMap<>();
+
+    /**
+     * The owners whose grave lists must be rendered again.
+     */
+    private Set<UUID> dirtyOwnerSet = new HashSet<>();
+
+    /**
+     * The graves whose grave menus must be rendered again.
+     */
+    private Set<UUID> dirtyGraveSet = new HashSet<>();
+
+    /**
+     * Whether a task to render the dirty views is scheduled.
+     */
+    private boolean flushScheduled;
+
+    /**
+     * Creates a menu registry.
+     *
+     * @param plugin the plugin instance.
+     */
+    public MenuRegistry(Graves plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Registers an open grave list or grave menu. Other inventories are ignored.
+     *
+     * @param inventory the inventory.
+     */
+    public synchronized void register(Inventory inventory) {
+        UUID key = getKey(inventory.getHolder());
+
+        if (key != null) {
+            getViewMap(inventory.getHolder()).computeIfAbsent(key, ignored -> new HashSet<>()).add(inventory);
+        }
+    }
+
+    /**
+     * Removes a grave list or grave menu that was closed.
+     *
+     * @param inventory the inventory.
+     */
+    public synchronized void unregister(Inventory inventory) {
+        UUID key = getKey(inventory.getHolder());
+
+        if (key != null) {
+            Map<UUID, Set<Inventory>> viewMap = getViewMap(inventory.getHolder());
+            Set<Inventory> inventorySet = viewMap.get(key);
+
+            if (inventorySet != null && inventorySet.remove(inventory) && inventorySet.isEmpty()) {
+                viewMap.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Marks a grave as changed, so the grave lists of its owner and its grave menus are rendered again on the next
+     * tick.
+     *
+     * @param grave the grave.
+     */
+    public synchronized void markDirty(Grave grave) {
+        boolean isShown = false;
+
+        if (grave.getOwnerUUID() != null && graveListMap.containsKey(grave.getOwnerUUID())) {
+            dirtyOwnerSet.add(grave.getOwnerUUID());
+            isShown = true;
+        }
+
+        if (grave.getUUID() != null && graveMenuMap.containsKey(grave.getUUID())) {
+            dirtyGraveSet.add(grave.getUUID());
+            isShown = true;
+        }
+
+        if (isShown && !flushScheduled && plugin.isEnabled()) {
+            flushScheduled = true;
+            plugin.getServer().getScheduler().runTask(plugin, this::flush);
+        }
+    }
+
+    /**
+     * Gets every registered view.
+     *
+     * @return a copy of the open inventories.
+     */
+    public synchronized List<Inventory> getInventoryList() {
+        List<Inventory> inventoryList = new ArrayList<>();
+
+        for (Set<Inventory> inventorySet : graveListMap.values()) {
+            inventoryList.addAll(inventorySet);
+        }
+
+        for (Set<Inventory> inventorySet : graveMenuMap.values()) {
+            inventoryList.addAll(inventorySet);
+        }
+
+        return inventoryList;
+    }
+
+    /**
+     * Gets the number of registered views.
+     *
+     * @return the number of open inventories.
+     */
+    public synchronized int size() {
+        int size = 0;
+
+        for (Set<Inventory> inventorySet : graveListMap.values()) {
+            size += inventorySet.size();
+        }
+
+        for (Set<Inventory> inventorySet : graveMenuMap.values()) {
+            size += inventorySet.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Renders the views of the graves marked dirty since the last flush.
+     */
+    private void flush() {
+        List<Inventory> inventoryList = new ArrayList<>();
+
+        synchronized (this) {
+            flushScheduled = false;
+
+            for (UUID ownerUUID : dirtyOwnerSet) {
+                inventoryList.addAll(graveListMap.getOrDefault(ownerUUID, Collections.emptySet()));
+            }
+
+            for (UUID graveUUID : dirtyGraveSet) {
+                inventoryList.addAll(graveMenuMap.getOrDefault(graveUUID, Collections.emptySet()));
+            }
+
+            dirtyOwnerSet = new HashSet<>();
+            dirtyGraveSet = new HashSet<>();
+        }
+
+        for (Inventory inventory : inventoryList) {
+            if (inventory.getViewers().isEmpty()) {
+                unregister(inventory);
+            } else {
+                plugin.getGUIManager().renderView(inventory);
+            }
+        }
+    }
+
+    /**
+     * Gets the key a view is registered under.
+     *
+     * @param inventoryHolder the holder of the inventory.
+     * @return the owner UUID of a grave list, the grave UUID of a grave menu, or null for other inventories.
+     */
+    private static UUID getKey(InventoryHolder inventoryHolder) {
+        if (inventoryHolder instanceof GraveList) {
+            return ((GraveList) inventoryHolder).getUUID();
+        } else if (inventoryHolder instanceof GraveMenu && ((GraveMenu) inventoryHolder).getGrave() != null) {
+            return ((GraveMenu) inventoryHolder).getGrave().getUUID();
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the map a view is registered in.
+     *
+     * @param inventoryHolder the holder of the inventory.
+     * @return the grave list map or the grave menu map.
+     */
+    private Map<UUID, Set<Inventory>> getViewMap(InventoryHolder inventoryHolder) {
+        return inventoryHolder instanceof GraveList ? graveListMap : graveMenuMap;
+    }
+}
@@ -0,0 +1,124 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.data.BlockData;
+import com.ranull.graves.type.Grave;
+import com.ranull.graves.type.GraveSettings;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.entity.Player;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Shows grave particles to the players near each grave.
+ * <p>
+ * Rendering is driven by players rather than graves: the graves within the view range of a player are looked up in
+ * the grave spatial index and their particles are sent to that player only. Graves in chunks that are loaded with no
+ * player nearby cost nothing, and the number of particles sent to a single player per pass is capped.
+ * </p>
+ */
+public final class ParticleRenderer {
+    /**
+     * The plugin instance.
+     */
+    private final Graves plugin;
+
+    /**
+     * Creates a particle renderer.
+     *
+     * @param plugin the plugin instance.
+     */
+    public ParticleRenderer(Graves plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Shows the particles of the graves near a player.
+     *
+     * @param player the player.
+     */
+    public void render(Player player) {
+        if (!plugin.getVersionManager().hasParticle() || !player.isOnline()) {
+            return;
+        }
+
+        Location location = player.getLocation();
+        double range = plugin.getConfig().getDouble("settings.scheduler.particle-range", 32);
+        double rangeSquared = range * range;
+        int limit = plugin.getConfig().getInt("settings.scheduler.particle-limit", 200);
+        int spawned = 0;
+        Set<UUID> graveUUIDSet = new HashSet<>();
+
+        for (SpatialIndex.Match<UUID> match : plugin.getCacheManager().getGraveSpatialIndex()
+                .getWithinRadius(location, range, null)) {
+            // A grave is indexed at its death location and at each of its blocks, so only visit it once.
+            if (!graveUUIDSet.add(match.getValue())) {
+                continue;
+            }
+
+            Grave grave = plugin.getCacheManager().getGraveMap().get(match.getValue());
+
+            if (grave == null) {
+                continue;
+            }
+
+            GraveSettings graveSettings = plugin.getGraveManager().getGraveSettings(grave);
+
+            if (!graveSettings.isParticleEnabled() || graveSettings.getParticle() == null) {
+                continue;
+            }
+
+            for (BlockData blockData : plugin.getCacheManager().getBlockDataList(grave.getUUID())) {
+                Location blockLocation = blockData.getLocation();
+
+                if (blockLocation.getWorld() == null || !blockLocation.getWorld().equals(location.getWorld())
+                        || blockLocation.distanceSquared(location) > rangeSquared) {
+                    continue;
+                }
+
+                if (spawned + graveSettings.getParticleCount() > limit) {
+                    plugin.debugMessage("Particle limit reached for " + player.getName() + ".", 3);
+
+                    return;
+                }
+
+                spawn(player, blockLocation, graveSettings);
+                spawned += graveSettings.getParticleCount();
+            }
+        }
+    }
+
+    /**
+     * Shows the particles of a grave block to a player.
+     *
+     * @param player        the player.
+     * @param location      the location of the grave block.
+     * @param graveSettings the settings of the grave.
+     */
+    private void spawn(Player player, Location location, GraveSettings graveSettings) {
+        Particle particle = graveSettings.getParticle();
+        int count = graveSettings.getParticleCount();
+        Object data = graveSettings.getParticleData();
+
+        location.add(graveSettings.getParticleOffsetX() + 0.5, graveSettings.getParticleOffsetY() + 0.5,
+                graveSettings.getParticleOffsetZ() + 0.5);
+
+        try {
+            if (data != null) {
+                player.spawnParticle(particle, location, count, data);
+            } else {
+                player.spawnParticle(particle, location, count);
+            }
+        } catch (IllegalArgumentException exception) {
+            // May not work for all forks and versions, but will try again
+            if (data != null) {
+                player.spawnParticle(particle, location, count, 1);
+            } else {
+                player.spawnParticle(particle, location, count, 0, 0, 0, 0);
+            }
+        }
+    }
+}
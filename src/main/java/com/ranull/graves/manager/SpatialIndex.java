@@ -0,0 +1,468 @@
+package com.ranull.graves.manager;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Per-world grid of points, answering nearest and radius queries without scanning every point.
+ * <p>
+ * Points are bucketed into square cells of {@link #CELL_SIZE} blocks on the x/z plane. Queries visit cells outward
+ * from the query point and stop once no unvisited cell can hold a closer point. When a query would visit more cells
+ * than the world has points, such as for a lone point far away, it scans the world's points directly instead, so a
+ * query never costs more than a scan.
+ * </p>
+ * <p>
+ * Methods are synchronized; results are copies and may be used freely by the caller.
+ * </p>
+ *
+ * @param <T> the type of value attached to each point.
+ */
+public final class SpatialIndex<T> {
+    /**
+     * Number of bits to shift a block coordinate by to get its cell coordinate.
+     */
+    private static final int CELL_SHIFT = 4;
+
+    /**
+     * Side length of a cell in blocks.
+     */
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+    /**
+     * The grid of each world, keyed by world name.
+     */
+    private final Map<String, Grid<T>> gridMap = new HashMap<>();
+
+    /**
+     * Adds a point. A value may be added at several points.
+     *
+     * @param location the location of the point.
+     * @param value    the value.
+     */
+    public synchronized void add(Location location, T value) {
+        World world = location.getWorld();
+
+        if (world != null) {
+            gridMap.computeIfAbsent(world.getName(), name -> new Grid<>()).add(new Point<>(location, value));
+        }
+    }
+
+    /**
+     * Removes a point added with {@link #add(Location, Object)}.
+     *
+     * @param location the location of the point.
+     * @param value    the value.
+     */
+    public synchronized void remove(Location location, T value) {
+        World world = location.getWorld();
+        Grid<T> grid = world != null ? gridMap.get(world.getName()) : null;
+
+        if (grid != null) {
+            grid.remove(location.getBlockX(), location.getBlockY(), location.getBlockZ(), value);
+
+            if (grid.size == 0) {
+                gridMap.remove(world.getName());
+            }
+        }
+    }
+
+    /**
+     * Removes every point.
+     */
+    public synchronized void clear() {
+        gridMap.clear();
+    }
+
+    /**
+     * Finds the points closest to a location in the same world, closest first.
+     *
+     * @param location the location.
+     * @param limit    the maximum number of points to return.
+     * @param filter   the values to consider, or null for all.
+     * @return the matches.
+     */
+    public synchronized List<Match<T>> getNearest(Location location, int limit, Predicate<T> filter) {
+        Grid<T> grid = location.getWorld() != null ? gridMap.get(location.getWorld().getName()) : null;
+        List<Match<T>> matchList = new ArrayList<>();
+
+        if (grid == null || limit <= 0) {
+            return matchList;
+        }
+
+        int cellX = location.getBlockX() >> CELL_SHIFT;
+        int cellZ = location.getBlockZ() >> CELL_SHIFT;
+        int maxRing = grid.getMaxRing(cellX, cellZ);
+        int visitedCells = 0;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            visitedCells += ring == 0 ? 1 : ring * 8;
+
+            if (visitedCells > grid.size) {
+                matchList.clear();
+                grid.collectAll(location, filter, matchList);
+                break;
+            }
+
+            grid.collectRing(cellX, cellZ, ring, location, filter, matchList);
+
+            if (matchList.size() >= limit) {
+                matchList.sort(Comparator.comparingDouble(Match::getDistanceSquared));
+
+                // Every point in the next ring is at least this far away on the x/z plane alone.
+                double reach = (double) ring * CELL_SIZE;
+
+                if (matchList.get(limit - 1).distanceSquared <= reach * reach) {
+                    break;
+                }
+            }
+        }
+
+        matchList.sort(Comparator.comparingDouble(Match::getDistanceSquared));
+
+        return matchList.size() > limit ? new ArrayList<>(matchList.subList(0, limit)) : matchList;
+    }
+
+    /**
+     * Finds the points within a radius of a location in the same world, closest first.
+     *
+     * @param location the location.
+     * @param radius   the radius in blocks.
+     * @param filter   the values to consider, or null for all.
+     * @return the matches.
+     */
+    public synchronized List<Match<T>> getWithinRadius(Location location, double radius, Predicate<T> filter) {
+        Grid<T> grid = location.getWorld() != null ? gridMap.get(location.getWorld().getName()) : null;
+        List<Match<T>> matchList = new ArrayList<>();
+
+        if (grid == null || radius < 0) {
+            return matchList;
+        }
+
+        int minCellX = (int) Math.floor(location.getX() - radius) >> CELL_SHIFT;
+        int maxCellX = (int) Math.floor(location.getX() + radius) >> CELL_SHIFT;
+        int minCellZ = (int) Math.floor(location.getZ() - radius) >> CELL_SHIFT;
+        int maxCellZ = (int) Math.floor(location.getZ() + radius) >> CELL_SHIFT;
+
+        if ((long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1) > grid.size) {
+            grid.collectAll(location, filter, matchList);
+        } else {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                    grid.collectCell(cellX, cellZ, location, filter, matchList);
+                }
+            }
+        }
+
+        double radiusSquared = radius * radius;
+
+        matchList.removeIf(match -> match.distanceSquared > radiusSquared);
+        matchList.sort(Comparator.comparingDouble(Match::getDistanceSquared));
+
+        return matchList;
+    }
+
+    /**
+     * A point found by a query.
+     *
+     * @param <T> the type of value.
+     */
+    public static final class Match<T> {
+        /**
+         * The point.
+         */
+        private final Point<T> point;
+
+        /**
+         * The squared distance from the query location.
+         */
+        private final double distanceSquared;
+
+        /**
+         * Creates a match.
+         *
+         * @param point           the point.
+         * @param distanceSquared the squared distance from the query location.
+         */
+        private Match(Point<T> point, double distanceSquared) {
+            this.point = point;
+            this.distanceSquared = distanceSquared;
+        }
+
+        /**
+         * Gets the value of the point.
+         *
+         * @return the value.
+         */
+        public T getValue() {
+            return point.value;
+        }
+
+        /**
+         * Gets the location of the point.
+         *
+         * @return a copy of the location.
+         */
+        public Location getLocation() {
+            return point.location.clone();
+        }
+
+        /**
+         * Gets the squared distance from the query location.
+         *
+         * @return the squared distance.
+         */
+        public double getDistanceSquared() {
+            return distanceSquared;
+        }
+    }
+
+    /**
+     * A point and its value.
+     *
+     * @param <T> the type of value.
+     */
+    private static final class Point<T> {
+        /**
+         * A private copy of the location.
+         */
+        private final Location location;
+
+        /**
+         * The block x-coordinate.
+         */
+        private final int x;
+
+        /**
+         * The block y-coordinate.
+         */
+        private final int y;
+
+        /**
+         * The block z-coordinate.
+         */
+        private final int z;
+
+        /**
+         * The value.
+         */
+        private final T value;
+
+        /**
+         * Creates a point.
+         *
+         * @param location the location.
+         * @param value    the value.
+         */
+        private Point(Location location, T value) {
+            this.location = location.clone();
+            this.x = location.getBlockX();
+            this.y = location.getBlockY();
+            this.z = location.getBlockZ();
+            this.value = value;
+        }
+
+        /**
+         * Gets the squared distance to a location.
+         *
+         * @param location the location.
+         * @return the squared distance.
+         */
+        private double distanceSquared(Location location) {
+            double dx = this.location.getX() - location.getX();
+            double dy = this.location.getY() - location.getY();
+            double dz = this.location.getZ() - location.getZ();
+
+            return dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    /**
+     * The cells of one world and the bounds of the occupied cells.
+     *
+     * @param <T> the type of value.
+     */
+    private static final class Grid<T> {
+        /**
+         * The points of each occupied cell, keyed by packed cell coordinates.
+         */
+        private final Map<Long, List<Point<T>>> cellMap = new HashMap<>();
+
+        /**
+         * The number of points.
+         */
+        private int size;
+
+        /**
+         * The lowest occupied cell x-coordinate.
+         */
+        private int minCellX = Integer.MAX_VALUE;
+
+        /**
+         * The highest occupied cell x-coordinate.
+         */
+        private int maxCellX = Integer.MIN_VALUE;
+
+        /**
+         * The lowest occupied cell z-coordinate.
+         */
+        private int minCellZ = Integer.MAX_VALUE;
+
+        /**
+         * The highest occupied cell z-coordinate.
+         */
+        private int maxCellZ = Integer.MIN_VALUE;
+
+        /**
+         * Packs cell coordinates into a key.
+         *
+         * @param cellX the cell x-coordinate.
+         * @param cellZ the cell z-coordinate.
+         * @return the key.
+         */
+        private static long key(int cellX, int cellZ) {
+            return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+        }
+
+        /**
+         * Adds a point.
+         *
+         * @param point the point.
+         */
+        private void add(Point<T> point) {
+            int cellX = point.x >> CELL_SHIFT;
+            int cellZ = point.z >> CELL_SHIFT;
+
+            cellMap.computeIfAbsent(key(cellX, cellZ), key -> new ArrayList<>(1)).add(point);
+            size++;
+            // Bounds only grow; they are an upper limit for the ring search, not an exact box.
+            minCellX = Math.min(minCellX, cellX);
+            maxCellX = Math.max(maxCellX, cellX);
+            minCellZ = Math.min(minCellZ, cellZ);
+            maxCellZ = Math.max(maxCellZ, cellZ);
+        }
+
+        /**
+         * Removes one point with the given block coordinates and value.
+         *
+         * @param x     the block x-coordinate.
+         * @param y     the block y-coordinate.
+         * @param z     the block z-coordinate.
+         * @param value the value.
+         */
+        private void remove(int x, int y, int z, T value) {
+            long key = key(x >> CELL_SHIFT, z >> CELL_SHIFT);
+            List<Point<T>> pointList = cellMap.get(key);
+
+            if (pointList == null) {
+                return;
+            }
+
+            for (Iterator<Point<T>> iterator = pointList.iterator(); iterator.hasNext(); ) {
+                Point<T> point = iterator.next();
+
+                if (point.x == x && point.y == y && point.z == z && Objects.equals(point.value, value)) {
+                    iterator.remove();
+                    size--;
+                    break;
+                }
+            }
+
+            if (pointList.isEmpty()) {
+                cellMap.remove(key);
+            }
+        }
+
+        /**
+         * Gets the largest ring around a cell that can hold a point.
+         *
+         * @param cellX the cell x-coordinate.
+         * @param cellZ the cell z-coordinate.
+         * @return the ring.
+         */
+        private int getMaxRing(int cellX, int cellZ) {
+            long ring = Math.max(Math.max((long) cellX - minCellX, (long) maxCellX - cellX),
+                    Math.max((long) cellZ - minCellZ, (long) maxCellZ - cellZ));
+
+            return (int) Math.max(0, Math.min(Integer.MAX_VALUE, ring));
+        }
+
+        /**
+         * Collects the points of every cell at a Chebyshev distance from a center cell.
+         *
+         * @param centerX   the center cell x-coordinate.
+         * @param centerZ   the center cell z-coordinate.
+         * @param ring      the distance in cells.
+         * @param location  the query location.
+         * @param filter    the values to consider, or null for all.
+         * @param matchList the list to add matches to.
+         */
+        private void collectRing(int centerX, int centerZ, int ring, Location location, Predicate<T> filter,
+                                 List<Match<T>> matchList) {
+            if (ring == 0) {
+                collectCell(centerX, centerZ, location, filter, matchList);
+                return;
+            }
+
+            for (int offset = -ring; offset <= ring; offset++) {
+                collectCell(centerX + offset, centerZ - ring, location, filter, matchList);
+                collectCell(centerX + offset, centerZ + ring, location, filter, matchList);
+            }
+
+            for (int offset = -ring + 1; offset <= ring - 1; offset++) {
+                collectCell(centerX - ring, centerZ + offset, location, filter, matchList);
+                collectCell(centerX + ring, centerZ + offset, location, filter, matchList);
+            }
+        }
+
+        /**
+         * Collects the points of a cell.
+         *
+         * @param cellX     the cell x-coordinate.
+         * @param cellZ     the cell z-coordinate.
+         * @param location  the query location.
+         * @param filter    the values to consider, or null for all.
+         * @param matchList the list to add matches to.
+         */
+        private void collectCell(int cellX, int cellZ, Location location, Predicate<T> filter,
+                                 List<Match<T>> matchList) {
+            List<Point<T>> pointList = cellMap.get(key(cellX, cellZ));
+
+            if (pointList != null) {
+                collect(pointList, location, filter, matchList);
+            }
+        }
+
+        /**
+         * Collects every point of the world.
+         *
+         * @param location  the query location.
+         * @param filter    the values to consider, or null for all.
+         * @param matchList the list to add matches to.
+         */
+        private void collectAll(Location location, Predicate<T> filter, List<Match<T>> matchList) {
+            for (List<Point<T>> pointList : cellMap.values()) {
+                collect(pointList, location, filter, matchList);
+            }
+        }
+
+        /**
+         * Adds the points of a list that pass the filter.
+         *
+         * @param pointList the points.
+         * @param location  the query location.
+         * @param filter    the values to consider, or null for all.
+         * @param matchList the list to add matches to.
+         */
+        private void collect(List<Point<T>> pointList, Location location, Predicate<T> filter,
+                             List<Match<T>> matchList) {
+            for (Point<T> point : pointList) {
+                if (filter == null || filter.test(point.value)) {
+                    matchList.add(new Match<>(point, point.distanceSquared(location)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.data.BlockData;
+import com.ranull.graves.data.EntityData;
+import com.ranull.graves.data.HologramData;
+import com.ranull.graves.type.Grave;
+import com.ranull.graves.type.Graveyard;
+import com.ranull.graves.util.LocationUtil;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.BlockFace;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads all grave tables at startup.
+ * <p>
+ * Independent tables are read concurrently on a bounded pool, each streaming its rows with a tuned fetch size and
+ * decoding them on its own thread into staged results. Nothing is written to the caches while reading; once every
+ * table has been read, the staged results are published into the caches together on the main thread. If any table
+ * fails to read, nothing is published, so the caches are never left holding part of the data.
+ * </p>
+ */
+public final class StartupLoader {
+    /**
+     * The main plugin instance associated with Graves.
+     */
+    private final Graves plugin;
+
+    /**
+     * The data manager that owns the connection pool.
+     */
+    private final DataManager dataManager;
+
+    /**
+     * The number of rows fetched per round trip.
+     */
+    private final int fetchSize;
+
+    /**
+     * Initializes a new instance of the {@code StartupLoader} class.
+     *
+     * @param plugin      the plugin instance.
+     * @param dataManager the data manager.
+     */
+    public StartupLoader(Graves plugin, DataManager dataManager) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        this.fetchSize = Math.max(1, plugin.getConfig().getInt("settings.storage.loader.fetch-size", 1000));
+    }
+
+    /**
+     * Reads every table concurrently and publishes the results on the main thread. Must not be called from the
+     * main thread.
+     *
+     * @param threads        the maximum number of tables read at once.
+     * @param entityTableMap the entity tables to read, keyed by table name.
+     * @param onPublished    called on the main thread after the caches have been published.
+     * @param onFailed       called on the loading thread if a table could not be read and nothing was published.
+     */
+    public void load(int threads, Map<String, EntityData.Type> entityTableMap, Runnable onPublished,
+                     Runnable onFailed) {
+        long start = System.currentTimeMillis();
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "GravesX Loader #" + threadCounter.incrementAndGet());
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        Map<String, Future<Runnable>> futureMap = new LinkedHashMap<>();
+
+        plugin.getLogger().info("Loading grave data using " + Math.max(1, threads) + " threads...");
+
+        // Graves are published first, the remaining tables reference them.
+        futureMap.put("grave", executorService.submit(this::readGraves));
+        futureMap.put("grave_slot", executorService.submit(this::readGraveSlots));
+        futureMap.put("graveyards", executorService.submit(this::readGraveyards));
+        futureMap.put("block", executorService.submit(this::readBlocks));
+        futureMap.put("hologram", executorService.submit(this::readHolograms));
+
+        for (Map.Entry<String, EntityData.Type> entry : entityTableMap.entrySet()) {
+            futureMap.put(entry.getKey(), executorService.submit(() -> readEntities(entry.getKey(), entry.getValue())));
+        }
+
+        List<Runnable> publishList = new ArrayList<>();
+        boolean failed = false;
+
+        for (Map.Entry<String, Future<Runnable>> entry : futureMap.entrySet()) {
+            try {
+                Runnable publish = entry.getValue().get();
+
+                if (publish != null) {
+                    publishList.add(publish);
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                failed = true;
+                break;
+            } catch (ExecutionException exception) {
+                plugin.getLogger().severe("Failed to load table " + entry.getKey() + ": "
+                        + exception.getCause().getMessage());
+                plugin.logStackTrace(exception.getCause());
+                failed = true;
+            }
+        }
+
+        executorService.shutdownNow();
+
+        if (failed) {
+            onFailed.run();
+
+            return;
+        }
+
+        long readTime = System.currentTimeMillis() - start;
+
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            long publishStart = System.currentTimeMillis();
+
+            for (Runnable publish : publishList) {
+                publish.run();
+            }
+
+            plugin.getLogger().info("Loaded grave data in " + readTime + "ms (published in "
+                    + (System.currentTimeMillis() - publishStart) + "ms).");
+            onPublished.run();
+        });
+    }
+
+    /**
+     * Reads the grave table.
+     *
+     * @return the publish action.
+     * @throws SQLException if an SQL error occurs.
+     */
+    private Runnable readGraves() throws SQLException {
+        List<Grave> graveList = new ArrayList<>();
+
+        read("grave", "SELECT * FROM grave", resultSet -> {
+            Grave grave = dataManager.resultSetToGrave(resultSet);
+
+            if (grave != null) {
+                graveList.add(grave);
+            } else {
+                plugin.getLogger().severe("Failed to load grave from result set at row " + resultSet.getRow());
+            }
+        });
+
+        return () -> {
+            for (Grave grave : graveList) {
+                plugin.getCacheManager().getGraveMap().put(grave.getUUID(), grave);
+            }
+        };
+    }
+
+    /**
+     * Reads changed grave slots.
+     *
+     * @return the publish action, or null if there are no changed slots.
+     * @throws SQLException if an SQL error occurs.
+     */
+    private Runnable readGraveSlots() throws SQLException {
+        if (!dataManager.tableExists("grave_slot")) {
+            return null;
+        }
+
+        Map<UUID, Map<Integer, ItemStack>> slotMap = new LinkedHashMap<>();
+        Set<UUID> undecodableSet = new HashSet<>();
+
+        read("grave_slot", "SELECT uuid_grave, slot, item FROM grave_slot", resultSet -> {
+            UUID uuid = UUID.fromString(resultSet.getString("uuid_grave"));
+            String item = resultSet.getString("item");
+
+            try {
+                slotMap.computeIfAbsent(uuid, ignored -> new LinkedHashMap<>()).put(resultSet.getInt("slot"),
+                        item != null ? dataManager.getItemFormat().decodeItem(item) : null);
+            } catch (IOException exception) {
+                plugin.getLogger().severe("Failed to decode slot " + resultSet.getInt("slot") + " of grave " + uuid
+                        + ": " + exception.getMessage() + ". The grave is kept as it is.");
+                plugin.logStackTrace(exception);
+                undecodableSet.add(uuid);
+            }
+        });
+
+        return () -> {
+            // A grave with a slot that cannot be decoded keeps its stored rows rather than losing that slot.
+            for (UUID uuid : undecodableSet) {
+                Grave grave = plugin.getCacheManager().getGraveMap().get(uuid);
+
+                if (grave != null) {
+                    grave.setUndecodable();
+                }
+            }
+
+            // Changed slots are applied to the decoded inventory, so these graves are loaded eagerly.
+            for (Map.Entry<UUID, Map<Integer, ItemStack>> entry : slotMap.entrySet()) {
+                Grave grave = plugin.getCacheManager().getGraveMap().get(entry.getKey());
+
+                if (grave != null && grave.getInventory() != null && !grave.isUndecodable()) {
+                    for (Map.Entry<Integer, ItemStack> slotEntry : entry.getValue().entrySet()) {
+                        if (slotEntry.getKey() >= 0 && slotEntry.getKey() < grave.getInventory().getSize()) {
+                            grave.getInventory().setItem(slotEntry.getKey(), slotEntry.getValue());
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Reads the graveyards table.
+     *
+     * @return the publish action.
+     * @throws SQLException if an SQL error occurs.
+     */
+    private Runnable readGraveyards() throws SQLException {
+        List<Graveyard> graveyardList = new ArrayList<>();
+
+        read("graveyards", "SELECT name, world, type, serializedLocations FROM graveyards", resultSet -> {
+            String name = resultSet.getString("name");
+            String world = resultSet.getString("world");
+            String type = resultSet.getString("type");
+            World serverWorld = plugin.getServer().getWorld(world);
+
+            if (serverWorld == null) {
+                plugin.getLogger().warning("World not found for graveyard '" + name + "': " + world);
+                return;
+            }
+
+            Graveyard.Type graveyardType;
+
+            try {
+                graveyardType = Graveyard.Type.valueOf(type.toUpperCase());
+            } catch (IllegalArgumentException exception) {
+                plugin.getLogger().warning("Unknown graveyard type for '" + name + "': " + type);
+                return;
+            }
+
+            Graveyard graveyard = new Graveyard(name, serverWorld, graveyardType);
+            Location spawnLocation = null;
+
+            for (Map.Entry<Location, BlockFace> entry : Graveyard
+                    .deserializeLocations(resultSet.getString("serializedLocations")).entrySet()) {
+                if (spawnLocation == null) {
+                    spawnLocation = entry.getKey();
+                }
+
+                graveyard.addGraveLocation(entry.getKey(), entry.getValue());
+            }
+
+            if (spawnLocation != null) {
+                graveyard.setSpawnLocation(spawnLocation);
+            } else {
+                plugin.getLogger().warning("No valid spawn location found for graveyard '" + name + "'.");
+            }
+
+            graveyardList.add(graveyard);
+        });
+
+        return () -> {
+            for (Graveyard graveyard : graveyardList) {
+                plugin.getCacheManager().getGraveyardsMap().put(graveyard.getName(), graveyard);
+            }
+        };
+    }
+
+    /**
+     * Reads the block table.
+     *
+     * @return the publish action.
+     * @throws SQLException if an SQL error occurs.
+     */
+    private Runnable readBlocks() throws SQLException {
+        List<BlockData> blockDataList = new ArrayList<>();
+
+        read("block", "SELECT location, uuid_grave, replace_material, replace_data FROM block", resultSet -> {
+            Location location = LocationUtil.stringToLocation(resultSet.getString("location"));
+            String replaceMaterial = resultSet.getString("replace_material");
+            String replaceData = resultSet.getString("replace_data");
+
+            if (location != null && replaceMaterial != null && replaceData != null) {
+                blockDataList.add(new BlockData(location, UUID.fromString(resultSet.getString("uuid_grave")),
+                        replaceMaterial, replaceData));
+            } else {
+                plugin.getLogger().warning("Data is missing or invalid in result set for location: " + location);
+            }
+        });
+
+        return () -> {
+            for (BlockData blockData : blockDataList) {
+                dataManager.cacheBlockData(blockData);
+            }
+        };
+    }
+
+    /**
+     * Reads the hologram table.
+     *
+     * @return the publish action.
+     * @throws SQLException if an SQL error occurs.
+     */
+    private Runnable readHolograms() throws SQLException {
+        List<EntityData> hologramDataList = new ArrayList<>();
+
+        read("hologram", "SELECT uuid_entity, uuid_grave, line, location FROM hologram", resultSet -> {
+            Location location = toLocation(resultSet.getString("location"));
+            String uuidEntity = resultSet.getString("uuid_entity");
+            String uuidGrave = resultSet.getString("uuid_grave");
+
+            if (location != null && uuidEntity != null && uuidGrave != null) {
+                hologramDataList.add(new HologramData(location, UUID.fromString(uuidEntity),
+                        UUID.fromString(uuidGrave), resultSet.getInt("line")));
+            } else {
+                plugin.getLogger().warning("Invalid hologram data in result set for location: " + location);
+            }
+        });
+
+        return () -> publishEntities(hologramDataList);
+    }
+
+    /**
+     * Reads an entity table.
+     *
+     * @param table the table name.
+     * @param type  the type of entity data.
+     * @return the publish action.
+     * @throws SQLException if an SQL error occurs.
+     */
+    private Runnable readEntities(String table, EntityData.Type type) throws SQLException {
+        List<EntityData> entityDataList = new ArrayList<>();
+
+        read(table, "SELECT location, uuid_entity, uuid_grave FROM " + table, resultSet -> {
+            Location location = toLocation(resultSet.getString("location"));
+            String uuidEntity = resultSet.getString("uuid_entity");
+            String uuidGrave = resultSet.getString("uuid_grave");
+
+            if (location != null && uuidEntity != null && uuidGrave != null) {
+                entityDataList.add(new EntityData(location, UUID.fromString(uuidEntity),
+                        UUID.fromString(uuidGrave), type));
+            } else {
+                plugin.getLogger().warning("Invalid " + table + " data in result set for location: " + location);
+            }
+        });
+
+        return () -> publishEntities(entityDataList);
+    }
+
+    /**
+     * Adds entity data to the chunk cache.
+     *
+     * @param entityDataList the entity data.
+     */
+    private void publishEntities(List<EntityData> entityDataList) {
+        for (EntityData entityData : entityDataList) {
+            dataManager.cacheEntityData(entityData);
+        }
+    }
+
+    /**
+     * Streams the rows of a query, logging the row count and time taken.
+     *
+     * @param table     the table name, used for logging.
+     * @param query     the query.
+     * @param rowReader the reader called for every row.
+     * @throws SQLException if an SQL error occurs.
+     */
+    private void read(String table, String query, RowReader rowReader) throws SQLException {
+        long start = System.currentTimeMillis();
+        int rowCount = 0;
+
+        try (Connection connection = dataManager.getConnection()) {
+            if (connection == null) {
+                throw new SQLException("No database connection available");
+            }
+
+            boolean autoCommit = connection.getAutoCommit();
+
+            // Some drivers only stream with a fetch size inside a transaction.
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(query,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        try {
+                            rowReader.read(resultSet);
+                            rowCount++;
+                        } catch (IllegalArgumentException | NullPointerException exception) {
+                            plugin.getLogger().warning("Skipping invalid row in " + table + ": "
+                                    + exception.getMessage());
+                        }
+                    }
+                }
+
+                connection.commit();
+            } catch (SQLException exception) {
+                connection.rollback();
+
+                if (!isMissingTable(exception)) {
+                    throw exception;
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+
+        plugin.getLogger().info("Loaded " + rowCount + " rows from " + table + " in "
+                + (System.currentTimeMillis() - start) + "ms.");
+    }
+
+    /**
+     * Converts a location string, returning null for null input.
+     *
+     * @param string the location string.
+     * @return the location, or null.
+     */
+    private static Location toLocation(String string) {
+        return string != null ? LocationUtil.stringToLocation(string) : null;
+    }
+
+    /**
+     * Checks if an exception only means the table does not exist yet, which is treated as an empty table.
+     *
+     * @param exception the exception.
+     * @return true if the exception can be ignored.
+     */
+    private static boolean isMissingTable(SQLException exception) {
+        String sqlState = exception.getSQLState();
+        String message = exception.getMessage() != null ? exception.getMessage().toLowerCase() : "";
+
+        return "42S02".equals(sqlState)
+                || "42P01".equals(sqlState)
+                || "42X05".equals(sqlState)
+                || "42102".equals(sqlState)
+                || message.contains("no such table");
+    }
+
+    /**
+     * Reads a single row of a result set.
+     */
+    @FunctionalInterface
+    private interface RowReader {
+        /**
+         * Reads the current row.
+         *
+         * @param resultSet the result set positioned on the row.
+         * @throws SQLException if an SQL error occurs.
+         */
+        void read(ResultSet resultSet) throws SQLException;
+    }
+}
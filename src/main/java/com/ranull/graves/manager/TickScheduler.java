@@ -0,0 +1,224 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs recurring main-thread jobs a little at a time, under a shared time budget per tick.
+ * <p>
+ * Each job starts a pass every period and is then stepped one unit of work at a time, resuming from its own cursor on
+ * the next tick once the budget is used up. A job that is in a pass is stepped at least once per tick, so it always
+ * makes progress, and the job that is served first rotates every tick so no job starves the others. A pass that
+ * takes longer than its period delays the next pass instead of overlapping it. A pass whose step throws is aborted,
+ * so the job can put back the work it took and release what it collected.
+ * </p>
+ */
+public final class TickScheduler {
+    /**
+     * The plugin instance.
+     */
+    private final Graves plugin;
+
+    /**
+     * The registered jobs.
+     */
+    private final List<ScheduledJob> scheduledJobList = new ArrayList<>();
+
+    /**
+     * The number of ticks the scheduler has run.
+     */
+    private long tick;
+
+    /**
+     * Creates a scheduler and starts running it every tick.
+     *
+     * @param plugin the plugin instance.
+     */
+    public TickScheduler(Graves plugin) {
+        this.plugin = plugin;
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::run, 1L, 1L);
+    }
+
+    /**
+     * Registers a job.
+     *
+     * @param name       the name of the job, used in debug messages.
+     * @param periodPath the config path of the period of the job, in ticks.
+     * @param period     the period used if the config path is not set.
+     * @param job        the job.
+     */
+    public void register(String name, String periodPath, long period, Job job) {
+        scheduledJobList.add(new ScheduledJob(name, periodPath, period, job));
+    }
+
+    /**
+     * Runs one tick of every job, within the configured budget.
+     */
+    private void run() {
+        tick++;
+
+        if (scheduledJobList.isEmpty() || !plugin.isEnabled()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + Math.max(0L, plugin.getConfig()
+                .getLong("settings.scheduler.budget", 2000L)) * 1000L;
+        int size = scheduledJobList.size();
+        int first = (int) (tick % size);
+
+        for (int i = 0; i < size; i++) {
+            ScheduledJob scheduledJob = scheduledJobList.get((first + i) % size);
+
+            try {
+                scheduledJob.run(deadline);
+            } catch (Exception exception) {
+                plugin.getLogger().severe("Grave job " + scheduledJob.name + " failed: " + exception.getMessage());
+                plugin.logStackTrace(exception);
+                scheduledJob.abort();
+            }
+        }
+    }
+
+    /**
+     * Work that is split into passes made of small steps.
+     */
+    public interface Job {
+        /**
+         * Starts a new pass, typically by taking a snapshot of the work and resetting the cursor.
+         *
+         * @return true if the pass has work to step through.
+         */
+        boolean begin();
+
+        /**
+         * Performs the next step of the current pass.
+         *
+         * @return true if the pass has more steps.
+         */
+        boolean step();
+
+        /**
+         * Finishes the current pass after its last step.
+         */
+        default void end() {
+        }
+
+        /**
+         * Abandons the current pass after a step failed. By default the pass is finished as if it had ended.
+         */
+        default void abort() {
+            end();
+        }
+    }
+
+    /**
+     * A registered job with its schedule.
+     */
+    private final class ScheduledJob {
+        /**
+         * The name of the job.
+         */
+        private final String name;
+
+        /**
+         * The config path of the period.
+         */
+        private final String periodPath;
+
+        /**
+         * The default period, in ticks.
+         */
+        private final long period;
+
+        /**
+         * The job.
+         */
+        private final Job job;
+
+        /**
+         * The tick at which the next pass may start.
+         */
+        private long nextTick;
+
+        /**
+         * The tick at which the current pass started.
+         */
+        private long startTick;
+
+        /**
+         * Whether a pass is in progress.
+         */
+        private boolean running;
+
+        /**
+         * Creates a scheduled job.
+         *
+         * @param name       the name of the job.
+         * @param periodPath the config path of the period.
+         * @param period     the default period, in ticks.
+         * @param job        the job.
+         */
+        private ScheduledJob(String name, String periodPath, long period, Job job) {
+            this.name = name;
+            this.periodPath = periodPath;
+            this.period = period;
+            this.job = job;
+            this.nextTick = period;
+        }
+
+        /**
+         * Abandons the current pass after it failed, so the job releases its state before the next pass.
+         */
+        private void abort() {
+            if (!running) {
+                return;
+            }
+
+            running = false;
+
+            try {
+                job.abort();
+            } catch (Exception exception) {
+                plugin.getLogger().severe("Grave job " + name + " failed to abort: " + exception.getMessage());
+                plugin.logStackTrace(exception);
+            }
+        }
+
+        /**
+         * Starts a pass if one is due and steps the current pass until it ends or the deadline passes.
+         *
+         * @param deadline the deadline of the tick, in {@link System#nanoTime()} units.
+         */
+        private void run(long deadline) {
+            if (!running) {
+                if (tick < nextTick) {
+                    return;
+                }
+
+                startTick = tick;
+                nextTick = tick + Math.max(1L, plugin.getConfig().getLong(periodPath, period));
+                running = job.begin();
+
+                if (!running) {
+                    return;
+                }
+            }
+
+            do {
+                if (!job.step()) {
+                    job.end();
+                    running = false;
+
+                    if (tick - startTick > 1) {
+                        plugin.debugMessage("Grave job " + name + " spread its pass over " + (tick - startTick + 1)
+                                + " ticks.", 2);
+                    }
+
+                    return;
+                }
+            } while (System.nanoTime() < deadline);
+        }
+    }
+}
@@ -0,0 +1,566 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind pipeline for database mutations issued by the {@link DataManager}.
+ * <p>
+ * Operations are coalesced per row and column key in a single bounded queue and flushed by a dedicated writer
+ * thread as JDBC batches inside one transaction, instead of costing a scheduler hop, a pooled connection
+ * checkout and an autocommit round trip per row.
+ * </p>
+ * <p>
+ * Queueing never blocks, since callers are usually on the main thread. A queue that grows past its configured size
+ * wakes the writer at once and is reported, but keeps accepting writes. Writes queued after the queue was closed are
+ * still drained by the writer, and only written directly once the writer has finished, so writes to the same row are
+ * never reordered.
+ * </p>
+ */
+public final class WriteBehindQueue {
+    /**
+     * The main plugin instance associated with Graves.
+     */
+    private final Graves plugin;
+
+    /**
+     * The data manager providing connections and parameter binding.
+     */
+    private final DataManager dataManager;
+
+    /**
+     * Pending operations in submission order, keyed by row key and slot.
+     * <p>
+     * A later operation on the same key replaces the earlier one in place, so repeated updates of the same
+     * column only write the latest value.
+     * </p>
+     */
+    private LinkedHashMap<String, Operation> pending = new LinkedHashMap<>();
+
+    /**
+     * Pending operation keys grouped by row key, used to drop superseded operations when a row is deleted.
+     */
+    private Map<String, Set<String>> pendingRowMap = new HashMap<>();
+
+    /**
+     * Lock guarding the pending maps.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled when operations are queued or the queue is closing.
+     */
+    private final Condition notEmpty = lock.newCondition();
+
+    /**
+     * The dedicated writer thread.
+     */
+    private final Thread writerThread;
+
+    /**
+     * Number of pending operations above which the writer is woken at once and the overflow is reported.
+     */
+    private final int maxQueueSize;
+
+    /**
+     * Maximum number of operations written in a single transaction.
+     */
+    private final int batchSize;
+
+    /**
+     * Milliseconds the writer waits to collect operations before flushing.
+     */
+    private final long flushInterval;
+
+    /**
+     * Minimum milliseconds between warnings about a queue over its size.
+     */
+    private static final long OVERFLOW_REPORT_INTERVAL = 60000L;
+
+    /**
+     * Whether the queue has been closed.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Whether the writer thread has written its last batch. Guarded by the lock.
+     */
+    private boolean writerDone = false;
+
+    /**
+     * Time of the last warning about a queue over its size, in milliseconds.
+     */
+    private long lastOverflowReport = 0;
+
+    /**
+     * Number of operations currently being flushed by the writer thread.
+     */
+    private volatile int inFlight = 0;
+
+    /**
+     * Total number of operations written to the database.
+     */
+    private final AtomicLong flushedCount = new AtomicLong();
+
+    /**
+     * Total number of operations that could not be written to the database.
+     */
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * Total number of operations accepted while the queue was over its size.
+     */
+    private final AtomicLong overflowCount = new AtomicLong();
+
+    /**
+     * Total number of operations removed by coalescing.
+     */
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * Total number of flushes performed.
+     */
+    private final AtomicLong flushCount = new AtomicLong();
+
+    /**
+     * Sum of all flush latencies in nanoseconds.
+     */
+    private final AtomicLong flushNanosTotal = new AtomicLong();
+
+    /**
+     * Latency of the most recent flush in nanoseconds.
+     */
+    private volatile long lastFlushNanos = 0;
+
+    /**
+     * Initializes the write-behind queue and starts its writer thread.
+     *
+     * @param plugin      the Graves plugin instance.
+     * @param dataManager the data manager providing connections.
+     */
+    public WriteBehindQueue(Graves plugin, DataManager dataManager) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        this.maxQueueSize = Math.max(1, plugin.getConfig().getInt("settings.storage.write-behind.max-queue-size", 10000));
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("settings.storage.write-behind.batch-size", 500));
+        this.flushInterval = Math.max(1L, plugin.getConfig().getLong("settings.storage.write-behind.flush-interval", 50L));
+        this.writerThread = new Thread(this::run, "GravesX Write-Behind");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues an insert of a row.
+     *
+     * @param rowKey     the key identifying the row, for example {@code grave|<uuid>}.
+     * @param sql        the insert statement.
+     * @param parameters the statement parameters.
+     */
+    public void insert(String rowKey, String sql, Object[] parameters) {
+        enqueue(new Operation(rowKey, "*", sql, parameters));
+    }
+
+    /**
+     * Queues an update of a single column of a row. A pending update of the same column is replaced.
+     *
+     * @param rowKey     the key identifying the row.
+     * @param column     the column being updated.
+     * @param sql        the update statement.
+     * @param parameters the statement parameters.
+     */
+    public void update(String rowKey, String column, String sql, Object[] parameters) {
+        enqueue(new Operation(rowKey, column, sql, parameters));
+    }
+
+    /**
+     * Queues a delete of a row. Pending inserts and updates of the same row are dropped.
+     *
+     * @param rowKey     the key identifying the row.
+     * @param sql        the delete statement.
+     * @param parameters the statement parameters.
+     */
+    public void delete(String rowKey, String sql, Object[] parameters) {
+        lock.lock();
+        try {
+            Set<String> keySet = pendingRowMap.remove(rowKey);
+
+            if (keySet != null) {
+                for (String key : keySet) {
+                    if (pending.remove(key) != null) {
+                        coalescedCount.incrementAndGet();
+                    }
+                }
+            }
+
+            enqueue(new Operation(rowKey, "-", sql, parameters));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds an operation to the queue without waiting. Once the writer has finished, the operation is written
+     * directly instead.
+     *
+     * @param operation the operation to queue.
+     */
+    private void enqueue(Operation operation) {
+        lock.lock();
+        try {
+            if (writerDone) {
+                // The writer drained everything queued before it, so writing through keeps the order.
+                write(Collections.singletonList(operation));
+                return;
+            }
+
+            if (pending.size() >= maxQueueSize) {
+                notEmpty.signal();
+                overflowCount.incrementAndGet();
+
+                long now = System.currentTimeMillis();
+
+                if (now - lastOverflowReport >= OVERFLOW_REPORT_INTERVAL) {
+                    lastOverflowReport = now;
+                    plugin.getLogger().warning("Write-behind queue is over its size (" + pending.size()
+                            + " pending), the database is not keeping up with grave changes.");
+                }
+            }
+
+            String key = operation.getKey();
+
+            if (pending.put(key, operation) != null) {
+                coalescedCount.incrementAndGet();
+            } else {
+                pendingRowMap.computeIfAbsent(operation.rowKey, k -> new HashSet<>()).add(key);
+            }
+
+            if (pending.size() >= batchSize) {
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writer thread loop, flushing pending operations until the queue is closed and drained.
+     */
+    private void run() {
+        try {
+            drain();
+        } finally {
+            lock.lock();
+            try {
+                writerDone = true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Flushes pending operations until the queue is closed and drained.
+     */
+    private void drain() {
+        while (true) {
+            List<Operation> operationList;
+
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    if (closed) {
+                        return;
+                    }
+
+                    notEmpty.await(flushInterval, TimeUnit.MILLISECONDS);
+                }
+
+                if (pending.size() < batchSize && !closed) {
+                    // Give bursts a short window to coalesce before flushing.
+                    notEmpty.await(flushInterval, TimeUnit.MILLISECONDS);
+                }
+
+                if (pending.isEmpty()) {
+                    continue;
+                }
+
+                operationList = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+                pendingRowMap = new HashMap<>();
+                inFlight = operationList.size();
+            } catch (InterruptedException exception) {
+                if (closed) {
+                    continue;
+                }
+
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            for (int i = 0; i < operationList.size(); i += batchSize) {
+                write(operationList.subList(i, Math.min(i + batchSize, operationList.size())));
+            }
+
+            inFlight = 0;
+        }
+    }
+
+    /**
+     * Writes a list of operations in a single transaction, batching consecutive operations that share a statement.
+     * If the transaction fails, the operations are retried one by one so a single bad row does not lose the batch.
+     *
+     * @param operationList the operations to write.
+     */
+    private void write(List<Operation> operationList) {
+        long start = System.nanoTime();
+        boolean written = false;
+
+        try (Connection connection = dataManager.getConnection()) {
+            if (connection == null) {
+                plugin.getLogger().severe("Failed to flush " + operationList.size()
+                        + " queued writes: no database connection.");
+                failedCount.addAndGet(operationList.size());
+                return;
+            }
+
+            boolean autoCommit = connection.getAutoCommit();
+
+            try {
+                connection.setAutoCommit(false);
+                executeBatches(connection, operationList);
+                dataManager.incrementChangeSequence(connection);
+                connection.commit();
+                flushedCount.addAndGet(operationList.size());
+                written = true;
+            } catch (SQLException exception) {
+                plugin.getLogger().warning("Batched write of " + operationList.size()
+                        + " operations failed, retrying individually: " + exception.getMessage());
+
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackException) {
+                    plugin.logStackTrace(rollbackException);
+                }
+
+                connection.setAutoCommit(true);
+                writeIndividually(connection, operationList);
+                written = true;
+
+                try {
+                    dataManager.incrementChangeSequence(connection);
+                } catch (SQLException sequenceException) {
+                    plugin.logStackTrace(sequenceException);
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException exception) {
+            plugin.getLogger().severe("Error occurred while flushing queued writes: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+
+            if (!written) {
+                failedCount.addAndGet(operationList.size());
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        lastFlushNanos = elapsed;
+        flushNanosTotal.addAndGet(elapsed);
+        flushCount.incrementAndGet();
+        plugin.debugMessage("Flushed " + operationList.size() + " queued writes in "
+                + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms (" + getQueueDepth() + " pending).", 3);
+    }
+
+    /**
+     * Executes operations as JDBC batches, starting a new batch whenever the statement changes so the
+     * submission order is preserved.
+     *
+     * @param connection    the connection to use.
+     * @param operationList the operations to execute.
+     * @throws SQLException if a database access error occurs.
+     */
+    private void executeBatches(Connection connection, List<Operation> operationList) throws SQLException {
+        PreparedStatement statement = null;
+        String currentSql = null;
+
+        try {
+            for (Operation operation : operationList) {
+                if (!operation.sql.equals(currentSql)) {
+                    if (statement != null) {
+                        statement.executeBatch();
+                        statement.close();
+                    }
+
+                    statement = connection.prepareStatement(operation.sql);
+                    currentSql = operation.sql;
+                }
+
+                dataManager.bindParameters(statement, operation.parameters);
+                statement.addBatch();
+            }
+
+            if (statement != null) {
+                statement.executeBatch();
+            }
+        } finally {
+            if (statement != null) {
+                statement.close();
+            }
+        }
+    }
+
+    /**
+     * Executes operations one by one in autocommit mode, logging each failure.
+     *
+     * @param connection    the connection to use.
+     * @param operationList the operations to execute.
+     */
+    private void writeIndividually(Connection connection, List<Operation> operationList) {
+        for (Operation operation : operationList) {
+            try (PreparedStatement statement = connection.prepareStatement(operation.sql)) {
+                dataManager.bindParameters(statement, operation.parameters);
+                statement.executeUpdate();
+                flushedCount.incrementAndGet();
+            } catch (SQLException exception) {
+                failedCount.incrementAndGet();
+                plugin.getLogger().severe("Error executing queued SQL update: " + exception.getMessage());
+                plugin.getLogger().severe("Failed SQL statement: " + operation.sql);
+                plugin.logStackTrace(exception);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting queued writes and waits for pending operations to drain.
+     *
+     * @param timeout the maximum time to wait in milliseconds.
+     * @return true if the queue drained within the deadline, false otherwise.
+     */
+    public boolean shutdown(long timeout) {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            writerThread.join(Math.max(1L, timeout));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        int remaining = getQueueDepth();
+
+        if (writerThread.isAlive() || remaining > 0) {
+            plugin.getLogger().warning("Write-behind queue did not drain within " + timeout + "ms, "
+                    + remaining + " writes were not saved.");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the number of operations waiting to be written, including the batch currently being flushed.
+     *
+     * @return the queue depth.
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return pending.size() + inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the latency of the most recent flush.
+     *
+     * @return the latency in milliseconds.
+     */
+    public double getLastFlushLatency() {
+        return lastFlushNanos / 1_000_000D;
+    }
+
+    /**
+     * Gets the average flush latency since startup.
+     *
+     * @return the average latency in milliseconds.
+     */
+    public double getAverageFlushLatency() {
+        long count = flushCount.get();
+
+        return count > 0 ? (flushNanosTotal.get() / (double) count) / 1_000_000D : 0;
+    }
+
+    /**
+     * Gets the total number of operations written to the database.
+     *
+     * @return the flushed operation count.
+     */
+    public long getFlushedCount() {
+        return flushedCount.get();
+    }
+
+    /**
+     * Gets the total number of operations that could not be written to the database, either because no connection
+     * was available or because their statement failed.
+     *
+     * @return the failed operation count.
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Gets the total number of operations accepted while the queue was over its size.
+     *
+     * @return the overflow count.
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    /**
+     * Gets the total number of operations dropped or merged by coalescing.
+     *
+     * @return the coalesced operation count.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * A single queued database operation.
+     */
+    private static final class Operation {
+        private final String rowKey;
+        private final String slot;
+        private final String sql;
+        private final Object[] parameters;
+
+        private Operation(String rowKey, String slot, String sql, Object[] parameters) {
+            this.rowKey = rowKey;
+            this.slot = slot;
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+
+        private String getKey() {
+            return rowKey + "#" + slot;
+        }
+    }
+}
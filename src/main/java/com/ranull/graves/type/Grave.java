@@ -9,6 +9,8 @@ import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.*;
 
@@ -25,7 +27,83 @@ public class Grave implements InventoryHolder, Serializable {
     /**
      * Inventory associated with this instance. This field is marked as transient, meaning it will not be serialized.
      */
-    private transient Inventory inventory;
+    private transient volatile Inventory inventory;
+
+    /**
+     * The stored inventory, decoded into {@link #inventory} on first access.
+     */
+    private transient String inventoryData;
+
+    /**
+     * The number of items in the stored inventory, or -1 if unknown.
+     */
+    private transient int inventoryDataItemAmount = -1;
+
+    /**
+     * The stored equipment, decoded into {@link #equipmentMap} on first access.
+     */
+    private transient String equipmentData;
+
+    /**
+     * The inventory part of a spilled payload.
+     */
+    private static final int SPILLED_INVENTORY = 1;
+
+    /**
+     * The equipment part of a spilled payload.
+     */
+    private static final int SPILLED_EQUIPMENT = 2;
+
+    /**
+     * The owner texture part of a spilled payload.
+     */
+    private static final int SPILLED_TEXTURE = 4;
+
+    /**
+     * The owner texture signature part of a spilled payload.
+     */
+    private static final int SPILLED_TEXTURE_SIGNATURE = 8;
+
+    /**
+     * The loader used to decode stored inventory and equipment data.
+     */
+    private transient Loader loader;
+
+    /**
+     * The listener notified when the alive or protection time of the grave changes.
+     */
+    private transient volatile TimeListener timeListener;
+
+    /**
+     * The last time the inventory was accessed, in milliseconds.
+     */
+    private transient volatile long inventoryAccessTime;
+
+    /**
+     * Whether the inventory, equipment and owner textures were moved off the heap and are read back on next access.
+     */
+    private transient volatile boolean spilled;
+
+    /**
+     * The parts of the payload set while the grave was spilled, which the payload read back must not overwrite.
+     */
+    private transient int spilledOverrides;
+
+    /**
+     * Whether the stored inventory or equipment could not be decoded. The stored data is then kept as it is, and the
+     * grave is neither opened nor removed automatically until it is loaded again on a server that can decode it.
+     */
+    private transient volatile boolean undecodable;
+
+    /**
+     * The empty inventory returned in place of an inventory that could not be decoded.
+     */
+    private transient Inventory placeholderInventory;
+
+    /**
+     * The resolved settings of the grave, or null if they have not been built yet.
+     */
+    private transient volatile GraveSettings settings;
 
     /**
      * Map of equipment items, keyed by their respective equipment slots.
@@ -153,32 +231,268 @@ public class Grave implements InventoryHolder, Serializable {
     }
 
     /**
-     * Gets the inventory associated with this grave.
+     * Gets the inventory associated with this grave. If the stored inventory cannot be decoded, an empty placeholder
+     * is returned and the stored data is kept; check {@link #isUndecodable()} before treating the grave as empty.
      *
      * @return The inventory of the grave.
      */
     @NotNull
     @Override
     public Inventory getInventory() {
+        Inventory inventory = loadInventory();
+
+        inventoryAccessTime = System.currentTimeMillis();
+
         return inventory;
     }
 
+    /**
+     * Decodes the stored inventory if it has not been decoded yet, without marking the inventory as accessed.
+     *
+     * @return The inventory, or the placeholder if it cannot be decoded.
+     */
+    private Inventory loadInventory() {
+        unspill();
+
+        if (inventory == null && inventoryData != null && loader != null && !undecodable) {
+            synchronized (this) {
+                if (inventory == null && inventoryData != null && !undecodable) {
+                    try {
+                        inventory = loader.loadInventory(this, inventoryData);
+                        inventoryData = null;
+                        inventoryDataItemAmount = -1;
+                    } catch (IOException exception) {
+                        undecodable = true;
+                    }
+                }
+            }
+        }
+
+        return inventory != null || !(undecodable || spilled) ? inventory : getPlaceholderInventory();
+    }
+
+    /**
+     * Gets the empty inventory returned in place of an inventory that could not be decoded or read back.
+     *
+     * @return The placeholder inventory, or null without a loader.
+     */
+    private synchronized Inventory getPlaceholderInventory() {
+        if (placeholderInventory == null && loader != null) {
+            placeholderInventory = loader.createPlaceholder(this);
+        }
+
+        return placeholderInventory;
+    }
+
     /**
      * Sets the inventory for this grave.
      *
      * @param inventory The inventory to set.
      */
     public void setInventory(Inventory inventory) {
-        this.inventory = inventory;
+        unspill();
+
+        synchronized (this) {
+            this.inventory = inventory;
+            this.inventoryData = null;
+            this.inventoryDataItemAmount = -1;
+            this.spilledOverrides |= SPILLED_INVENTORY;
+        }
+
+        inventoryAccessTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Sets the stored inventory data, which is decoded on first access. Any decoded inventory is released.
+     *
+     * @param inventoryData The stored inventory data.
+     * @param itemAmount    The number of items in the stored inventory, or -1 if unknown.
+     */
+    public void setInventoryData(String inventoryData, int itemAmount) {
+        unspill();
+
+        synchronized (this) {
+            this.inventory = null;
+            this.inventoryData = inventoryData;
+            this.inventoryDataItemAmount = itemAmount;
+            this.spilledOverrides |= SPILLED_INVENTORY;
+        }
     }
 
     /**
-     * Gets the equipment map for this grave.
+     * Gets the stored inventory data if the inventory has not been decoded.
+     *
+     * @return The stored inventory data, or null if the inventory is loaded.
+     */
+    public String getInventoryData() {
+        unspill();
+
+        return inventoryData;
+    }
+
+    /**
+     * Gets the decoded inventory without decoding it or marking it as accessed.
+     *
+     * @return The inventory, or null if it is not decoded.
+     */
+    public Inventory getLoadedInventory() {
+        return inventory;
+    }
+
+    /**
+     * Checks if the inventory has been decoded.
+     *
+     * @return True if the inventory is loaded.
+     */
+    public boolean isInventoryLoaded() {
+        return inventory != null;
+    }
+
+    /**
+     * Checks if the stored inventory or equipment could not be decoded, or a spilled payload has not been read back.
+     * Such a grave must not be opened, looted or removed as empty, since its items only exist in the stored data. The
+     * stored inventory is decoded first if it has not been yet.
+     *
+     * @return True if the grave is undecodable.
+     */
+    public boolean isUndecodable() {
+        if (!undecodable) {
+            loadInventory();
+        }
+
+        return undecodable || spilled;
+    }
+
+    /**
+     * Marks the grave as undecodable, for stored data that failed to decode outside of this grave.
+     */
+    public void setUndecodable() {
+        this.undecodable = true;
+    }
+
+    /**
+     * Gets the last time the inventory was accessed.
+     *
+     * @return The access time in milliseconds.
+     */
+    public long getInventoryAccessTime() {
+        return inventoryAccessTime;
+    }
+
+    /**
+     * Gets the cached settings of the grave.
+     *
+     * @return The settings, or null if they have not been built yet.
+     */
+    public GraveSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Sets the cached settings of the grave.
+     *
+     * @param settings The settings.
+     */
+    public void setSettings(GraveSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Checks if the payload of the grave was moved off the heap.
+     *
+     * @return True if the grave is spilled.
+     */
+    public boolean isSpilled() {
+        return spilled;
+    }
+
+    /**
+     * Drops the inventory, equipment and owner textures from the heap after they were written elsewhere. They are
+     * read back through the loader on next access.
+     *
+     * @param itemAmount The number of items in the inventory, or -1 if unknown.
+     */
+    public synchronized void setSpilled(int itemAmount) {
+        this.inventory = null;
+        this.inventoryData = null;
+        this.inventoryDataItemAmount = itemAmount;
+        this.equipmentMap = null;
+        this.equipmentData = null;
+        this.ownerTexture = null;
+        this.ownerTextureSignature = null;
+        this.spilledOverrides = 0;
+        this.spilled = true;
+    }
+
+    /**
+     * Asks the loader to read the spilled payload back, if the grave is spilled. The payload is read off the calling
+     * thread, so until it is applied the grave keeps answering with its placeholder and is treated as undecodable.
+     */
+    private void unspill() {
+        Loader loader = this.loader;
+
+        if (spilled && loader != null) {
+            loader.requestSpilled(this);
+        }
+    }
+
+    /**
+     * Applies a spilled payload that was read back. Parts of the payload that were set while the grave was spilled
+     * are kept as they were set.
+     *
+     * @param payload The payload read back.
+     * @return True if the payload was applied, false if the grave is no longer spilled.
+     */
+    public synchronized boolean applySpilled(Payload payload) {
+        if (!spilled) {
+            return false;
+        }
+
+        if ((spilledOverrides & SPILLED_INVENTORY) == 0) {
+            inventoryData = payload.getInventoryData();
+        }
+
+        if ((spilledOverrides & SPILLED_EQUIPMENT) == 0) {
+            equipmentData = payload.getEquipmentData();
+        }
+
+        if ((spilledOverrides & SPILLED_TEXTURE) == 0) {
+            ownerTexture = payload.getOwnerTexture();
+        }
+
+        if ((spilledOverrides & SPILLED_TEXTURE_SIGNATURE) == 0) {
+            ownerTextureSignature = payload.getOwnerTextureSignature();
+        }
+
+        spilledOverrides = 0;
+        spilled = false;
+
+        return true;
+    }
+
+    /**
+     * Gets the equipment map for this grave. If the stored equipment cannot be decoded, an empty map is returned and
+     * the stored data is kept.
      *
      * @return The equipment map.
      */
     public Map<EquipmentSlot, ItemStack> getEquipmentMap() {
-        return equipmentMap;
+        unspill();
+
+        if (equipmentMap == null && equipmentData != null && loader != null && !undecodable) {
+            synchronized (this) {
+                if (equipmentMap == null && equipmentData != null && !undecodable) {
+                    try {
+                        equipmentMap = loader.loadEquipment(this, equipmentData);
+                        equipmentData = null;
+                    } catch (IOException exception) {
+                        undecodable = true;
+                    }
+                }
+            }
+        }
+
+        return equipmentMap != null || equipmentData == null ? equipmentMap : new HashMap<>();
     }
 
     /**
@@ -186,8 +500,63 @@ public class Grave implements InventoryHolder, Serializable {
      *
      * @param equipmentMap The equipment map to set.
      */
-    public void setEquipmentMap(Map<EquipmentSlot, ItemStack> equipmentMap) {
+    public synchronized void setEquipmentMap(Map<EquipmentSlot, ItemStack> equipmentMap) {
+        unspill();
         this.equipmentMap = equipmentMap;
+        this.equipmentData = null;
+        this.spilledOverrides |= SPILLED_EQUIPMENT;
+    }
+
+    /**
+     * Sets the stored equipment data, which is decoded on first access.
+     *
+     * @param equipmentData The stored equipment data.
+     */
+    public synchronized void setEquipmentData(String equipmentData) {
+        unspill();
+        this.equipmentMap = null;
+        this.equipmentData = equipmentData;
+        this.spilledOverrides |= SPILLED_EQUIPMENT;
+    }
+
+    /**
+     * Gets the stored equipment data if the equipment has not been decoded.
+     *
+     * @return The stored equipment data, or null if the equipment is loaded.
+     */
+    public String getEquipmentData() {
+        unspill();
+
+        return equipmentData;
+    }
+
+    /**
+     * Sets the loader used to decode stored inventory and equipment data.
+     *
+     * @param loader The loader.
+     */
+    public void setLoader(Loader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Sets the listener notified when the alive or protection time of the grave changes.
+     *
+     * @param timeListener The listener, or null to remove it.
+     */
+    public void setTimeListener(TimeListener timeListener) {
+        this.timeListener = timeListener;
+    }
+
+    /**
+     * Notifies the time listener, if any, that the alive or protection time changed.
+     */
+    private void notifyTimeChanged() {
+        TimeListener timeListener = this.timeListener;
+
+        if (timeListener != null) {
+            timeListener.onTimeChanged(this);
+        }
     }
 
     /**
@@ -196,6 +565,8 @@ public class Grave implements InventoryHolder, Serializable {
      * @return A list of item stacks.
      */
     public List<ItemStack> getInventoryItemStack() {
+        Inventory inventory = getInventory();
+
         return inventory != null ? Arrays.asList(inventory.getContents()) : new ArrayList<>();
     }
 
@@ -224,6 +595,7 @@ public class Grave implements InventoryHolder, Serializable {
      */
     public void setPermissionList(List<String> permissionList) {
         this.permissionList = permissionList;
+        this.settings = null;
     }
 
     /**
@@ -296,6 +668,7 @@ public class Grave implements InventoryHolder, Serializable {
      */
     public void setOwnerType(EntityType ownerType) {
         this.ownerType = ownerType;
+        this.settings = null;
     }
 
     /**
@@ -358,6 +731,8 @@ public class Grave implements InventoryHolder, Serializable {
      * @return The owner texture.
      */
     public String getOwnerTexture() {
+        unspill();
+
         return ownerTexture;
     }
 
@@ -366,8 +741,10 @@ public class Grave implements InventoryHolder, Serializable {
      *
      * @param ownerTexture The owner texture to set.
      */
-    public void setOwnerTexture(String ownerTexture) {
+    public synchronized void setOwnerTexture(String ownerTexture) {
+        unspill();
         this.ownerTexture = ownerTexture;
+        this.spilledOverrides |= SPILLED_TEXTURE;
     }
 
     /**
@@ -376,6 +753,8 @@ public class Grave implements InventoryHolder, Serializable {
      * @return The owner texture signature.
      */
     public String getOwnerTextureSignature() {
+        unspill();
+
         return ownerTextureSignature;
     }
 
@@ -384,8 +763,10 @@ public class Grave implements InventoryHolder, Serializable {
      *
      * @param ownerTextureSignature The owner texture signature to set.
      */
-    public void setOwnerTextureSignature(String ownerTextureSignature) {
+    public synchronized void setOwnerTextureSignature(String ownerTextureSignature) {
+        unspill();
         this.ownerTextureSignature = ownerTextureSignature;
+        this.spilledOverrides |= SPILLED_TEXTURE_SIGNATURE;
     }
 
     /**
@@ -494,6 +875,7 @@ public class Grave implements InventoryHolder, Serializable {
      */
     public void setProtection(boolean protection) {
         this.protection = protection;
+        notifyTimeChanged();
     }
 
     /**
@@ -512,6 +894,7 @@ public class Grave implements InventoryHolder, Serializable {
      */
     public void setTimeAlive(long aliveTime) {
         this.timeAlive = aliveTime;
+        notifyTimeChanged();
     }
 
     /**
@@ -530,6 +913,7 @@ public class Grave implements InventoryHolder, Serializable {
      */
     public void setTimeCreation(long timeCreation) {
         this.timeCreation = timeCreation;
+        notifyTimeChanged();
     }
 
     /**
@@ -548,6 +932,7 @@ public class Grave implements InventoryHolder, Serializable {
      */
     public void setTimeProtection(long timeProtection) {
         this.timeProtection = timeProtection;
+        notifyTimeChanged();
     }
 
     /**
@@ -558,6 +943,7 @@ public class Grave implements InventoryHolder, Serializable {
      */
     public void setTimeAliveRemaining(long timeAlive) {
         this.timeAlive = timeAlive;
+        notifyTimeChanged();
     }
 
     /**
@@ -627,6 +1013,11 @@ public class Grave implements InventoryHolder, Serializable {
      * @return The number of items.
      */
     public int getItemAmount() {
+        if (inventory == null && (inventoryData != null || spilled) && inventoryDataItemAmount >= 0) {
+            return inventoryDataItemAmount;
+        }
+
+        Inventory inventory = getInventory();
         int counter = 0;
 
         if (inventory != null) {
@@ -744,4 +1135,147 @@ public class Grave implements InventoryHolder, Serializable {
          */
         CHESTSORT
     }
-}
\ No newline at end of file
+
+    /**
+     * Decodes stored equipment before serializing, as the stored data is not serialized.
+     *
+     * @param objectOutputStream The output stream.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeObject(ObjectOutputStream objectOutputStream) throws IOException {
+        unspill();
+        getEquipmentMap();
+        objectOutputStream.defaultWriteObject();
+    }
+
+    /**
+     * Decodes stored grave data on first access.
+     */
+    public interface Loader {
+        /**
+         * Decodes a stored inventory.
+         *
+         * @param grave         The grave the inventory belongs to.
+         * @param inventoryData The stored inventory data.
+         * @return The inventory.
+         * @throws IOException If the stored inventory cannot be decoded.
+         */
+        Inventory loadInventory(Grave grave, String inventoryData) throws IOException;
+
+        /**
+         * Decodes stored equipment.
+         *
+         * @param grave         The grave the equipment belongs to.
+         * @param equipmentData The stored equipment data.
+         * @return The equipment map.
+         * @throws IOException If the stored equipment cannot be decoded.
+         */
+        Map<EquipmentSlot, ItemStack> loadEquipment(Grave grave, String equipmentData) throws IOException;
+
+        /**
+         * Creates the empty inventory returned in place of an inventory that could not be decoded.
+         *
+         * @param grave The grave.
+         * @return The placeholder inventory.
+         */
+        Inventory createPlaceholder(Grave grave);
+
+        /**
+         * Starts reading back the payload of a spilled grave without blocking the caller. The payload is handed to
+         * {@link Grave#applySpilled(Payload)} once read; a payload that cannot be read leaves the grave spilled, so it
+         * is requested again on next access rather than left empty.
+         *
+         * @param grave The spilled grave.
+         */
+        void requestSpilled(Grave grave);
+    }
+
+    /**
+     * The stored inventory, equipment and owner textures of a grave, as moved off the heap.
+     */
+    public static final class Payload {
+        /**
+         * The stored inventory data.
+         */
+        private final String inventoryData;
+
+        /**
+         * The stored equipment data.
+         */
+        private final String equipmentData;
+
+        /**
+         * The owner texture.
+         */
+        private final String ownerTexture;
+
+        /**
+         * The owner texture signature.
+         */
+        private final String ownerTextureSignature;
+
+        /**
+         * Creates a payload.
+         *
+         * @param inventoryData         The stored inventory data.
+         * @param equipmentData         The stored equipment data.
+         * @param ownerTexture          The owner texture.
+         * @param ownerTextureSignature The owner texture signature.
+         */
+        public Payload(String inventoryData, String equipmentData, String ownerTexture,
+                       String ownerTextureSignature) {
+            this.inventoryData = inventoryData;
+            this.equipmentData = equipmentData;
+            this.ownerTexture = ownerTexture;
+            this.ownerTextureSignature = ownerTextureSignature;
+        }
+
+        /**
+         * Gets the stored inventory data.
+         *
+         * @return The stored inventory data.
+         */
+        public String getInventoryData() {
+            return inventoryData;
+        }
+
+        /**
+         * Gets the stored equipment data.
+         *
+         * @return The stored equipment data.
+         */
+        public String getEquipmentData() {
+            return equipmentData;
+        }
+
+        /**
+         * Gets the owner texture.
+         *
+         * @return The owner texture.
+         */
+        public String getOwnerTexture() {
+            return ownerTexture;
+        }
+
+        /**
+         * Gets the owner texture signature.
+         *
+         * @return The owner texture signature.
+         */
+        public String getOwnerTextureSignature() {
+            return ownerTextureSignature;
+        }
+    }
+
+    /**
+     * Listens for changes to the alive or protection time of a grave.
+     */
+    public interface TimeListener {
+        /**
+         * Called after the alive time, protection time, protection status or creation time changed.
+         *
+         * @param grave The grave.
+         */
+        void onTimeChanged(Grave grave);
+    }
+}
@@ -0,0 +1,495 @@
+package com.ranull.graves.type;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.util.ColorUtil;
+import org.bukkit.Color;
+import org.bukkit.Particle;
+import org.bukkit.Sound;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of the settings of a grave, resolved from the configuration for the grave's permission list and
+ * owner type and parsed into typed values.
+ * <p>
+ * Built on first use after a grave is created or loaded, cached on the grave and rebuilt once the configuration was
+ * reloaded, so the tick loop and listeners read fields instead of resolving configuration paths.
+ * </p>
+ */
+public final class GraveSettings {
+    /**
+     * The configuration generation the settings were built from.
+     */
+    private final long generation;
+
+    /**
+     * Whether particles are shown.
+     */
+    private final boolean particleEnabled;
+
+    /**
+     * The particle, or null if particles are not supported.
+     */
+    private final Particle particle;
+
+    /**
+     * The number of particles.
+     */
+    private final int particleCount;
+
+    /**
+     * The particle offset on the x-axis.
+     */
+    private final double particleOffsetX;
+
+    /**
+     * The particle offset on the y-axis.
+     */
+    private final double particleOffsetY;
+
+    /**
+     * The particle offset on the z-axis.
+     */
+    private final double particleOffsetZ;
+
+    /**
+     * The size of dust particles.
+     */
+    private final float particleDustSize;
+
+    /**
+     * The color of dust particles.
+     */
+    private final Color particleDustColor;
+
+    /**
+     * The data passed along with the particle, such as the dust options, or null if it takes none.
+     */
+    private final Object particleData;
+
+    /**
+     * Whether holograms are created.
+     */
+    private final boolean hologramEnabled;
+
+    /**
+     * Whether holograms are markers.
+     */
+    private final boolean hologramMarker;
+
+    /**
+     * The hologram offset on the x-axis.
+     */
+    private final double hologramOffsetX;
+
+    /**
+     * The hologram offset on the y-axis.
+     */
+    private final double hologramOffsetY;
+
+    /**
+     * The hologram offset on the z-axis.
+     */
+    private final double hologramOffsetZ;
+
+    /**
+     * The height between hologram lines.
+     */
+    private final double hologramLineHeight;
+
+    /**
+     * The hologram lines, ordered by hologram line number, which counts from the bottom line up.
+     */
+    private final List<String> hologramLineList;
+
+    /**
+     * The storage mode of the grave inventory.
+     */
+    private final Grave.StorageMode storageMode;
+
+    /**
+     * The radius around the grave protected from building, or 0 for none.
+     */
+    private final int protectionRadius;
+
+    /**
+     * Whether the protection radius also protects from explosions.
+     */
+    private final boolean explodeProtection;
+
+    /**
+     * Whether explosions can break the grave.
+     */
+    private final boolean explode;
+
+    /**
+     * Whether the grave drops its items when exploded.
+     */
+    private final boolean dropExplode;
+
+    /**
+     * Whether a zombie spawns when the grave is exploded.
+     */
+    private final boolean zombieExplode;
+
+    /**
+     * The sound of each sound setting known to the default configuration, keyed by its path such as
+     * {@code sound.open}. Settings that are empty or name an unknown sound map to null.
+     */
+    private final Map<String, Sound> soundMap;
+
+    /**
+     * Builds the settings of a grave.
+     *
+     * @param plugin     The plugin instance.
+     * @param grave      The grave.
+     * @param generation The configuration generation the settings are built from.
+     */
+    public GraveSettings(Graves plugin, Grave grave, long generation) {
+        this.generation = generation;
+
+        this.particleEnabled = plugin.getConfig("particle.enabled", grave).getBoolean("particle.enabled");
+        this.particle = plugin.getVersionManager().hasParticle() ? parseParticle(plugin, grave) : null;
+        this.particleCount = plugin.getConfig("particle.count", grave).getInt("particle.count");
+        this.particleOffsetX = plugin.getConfig("particle.offset.x", grave).getDouble("particle.offset.x");
+        this.particleOffsetY = plugin.getConfig("particle.offset.y", grave).getDouble("particle.offset.y");
+        this.particleOffsetZ = plugin.getConfig("particle.offset.z", grave).getDouble("particle.offset.z");
+        this.particleDustSize = plugin.getConfig("particle.dust-size", grave).getInt("particle.dust-size");
+
+        Color color = ColorUtil.getColor(plugin.getConfig("particle.dust-color", grave)
+                .getString("particle.dust-color", "RED"));
+
+        this.particleDustColor = color != null ? color : Color.RED;
+        this.particleData = particle != null ? parseParticleData(particle, particleDustColor, particleDustSize) : null;
+
+        this.hologramEnabled = plugin.getConfig("hologram.enabled", grave).getBoolean("hologram.enabled");
+        this.hologramMarker = plugin.getConfig("hologram.marker", grave).getBoolean("hologram.marker");
+        this.hologramOffsetX = plugin.getConfig("hologram.offset.x", grave).getDouble("hologram.offset.x");
+        this.hologramOffsetY = plugin.getConfig("hologram.offset.y", grave).getDouble("hologram.offset.y");
+        this.hologramOffsetZ = plugin.getConfig("hologram.offset.z", grave).getDouble("hologram.offset.z");
+        this.hologramLineHeight = plugin.getConfig("hologram.height-line", grave).getDouble("hologram.height-line");
+
+        List<String> lineList = new ArrayList<>(plugin.getConfig("hologram.line", grave)
+                .getStringList("hologram.line"));
+
+        Collections.reverse(lineList);
+        this.hologramLineList = Collections.unmodifiableList(lineList);
+
+        this.storageMode = plugin.getGraveManager().getStorageMode(plugin.getConfig("storage.mode", grave)
+                .getString("storage.mode"));
+        this.protectionRadius = plugin.getConfig("grave.protection-radius", grave).getInt("grave.protection-radius");
+        this.explodeProtection = plugin.getConfig("grave.explode-protection", grave)
+                .getBoolean("grave.explode-protection");
+        this.explode = plugin.getConfig("grave.explode", grave).getBoolean("grave.explode");
+        this.dropExplode = plugin.getConfig("drop.explode", grave).getBoolean("drop.explode");
+        this.zombieExplode = plugin.getConfig("zombie.explode", grave).getBoolean("zombie.explode");
+        this.soundMap = parseSounds(plugin, grave);
+    }
+
+    /**
+     * Parses the configured particle, falling back to redstone dust.
+     *
+     * @param plugin The plugin instance.
+     * @param grave  The grave.
+     * @return The particle.
+     */
+    private static Particle parseParticle(Graves plugin, Grave grave) {
+        Particle particle = Particle.valueOf(plugin.getVersionManager().getParticleForVersion("REDSTONE").toString());
+        String particleType = plugin.getConfig("particle.type", grave).getString("particle.type");
+
+        if (particleType != null && !particleType.equals("")) {
+            try {
+                particle = Particle.valueOf(particleType);
+            } catch (IllegalArgumentException ignored) {
+                plugin.debugMessage(particleType + " is not a Particle ENUM", 1);
+            }
+        }
+
+        return particle;
+    }
+
+    /**
+     * Builds the data a particle is spawned with.
+     *
+     * @param particle  The particle.
+     * @param dustColor The color of dust particles.
+     * @param dustSize  The size of dust particles.
+     * @return The data, or null if the particle takes none.
+     */
+    private static Object parseParticleData(Particle particle, Color dustColor, float dustSize) {
+        switch (particle.name()) {
+            case "DUST":
+            case "REDSTONE":
+                try {
+                    return new Particle.DustOptions(dustColor, dustSize);
+                } catch (NoClassDefFoundError | IllegalArgumentException ignored) {
+                    return null; // Dust options are not supported before 1.13
+                }
+            case "SHRIEK":
+                return 1;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Parses every sound setting known to the default configuration.
+     *
+     * @param plugin The plugin instance.
+     * @param grave  The grave.
+     * @return The sounds keyed by path, null for settings that are empty or unknown.
+     */
+    private static Map<String, Sound> parseSounds(Graves plugin, Grave grave) {
+        Map<String, Sound> soundMap = new HashMap<>();
+        ConfigurationSection soundSection = plugin.getConfig().getConfigurationSection("settings.default.default.sound");
+
+        if (soundSection != null) {
+            for (String key : soundSection.getKeys(false)) {
+                String path = "sound." + key;
+                String string = plugin.getConfig(path, grave).getString(path);
+
+                Sound sound = null;
+
+                if (string != null && !string.equals("")) {
+                    try {
+                        sound = Sound.valueOf(string.toUpperCase());
+                    } catch (IllegalArgumentException exception) {
+                        plugin.debugMessage(string.toUpperCase() + " is not a Sound ENUM", 1);
+                    }
+                }
+
+                soundMap.put(path, sound);
+            }
+        }
+
+        return Collections.unmodifiableMap(soundMap);
+    }
+
+    /**
+     * Gets the configuration generation the settings were built from.
+     *
+     * @return The generation.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Checks if particles are shown.
+     *
+     * @return True if particles are shown.
+     */
+    public boolean isParticleEnabled() {
+        return particleEnabled;
+    }
+
+    /**
+     * Gets the particle.
+     *
+     * @return The particle, or null if particles are not supported.
+     */
+    public Particle getParticle() {
+        return particle;
+    }
+
+    /**
+     * Gets the number of particles.
+     *
+     * @return The particle count.
+     */
+    public int getParticleCount() {
+        return particleCount;
+    }
+
+    /**
+     * Gets the particle offset on the x-axis.
+     *
+     * @return The offset.
+     */
+    public double getParticleOffsetX() {
+        return particleOffsetX;
+    }
+
+    /**
+     * Gets the particle offset on the y-axis.
+     *
+     * @return The offset.
+     */
+    public double getParticleOffsetY() {
+        return particleOffsetY;
+    }
+
+    /**
+     * Gets the particle offset on the z-axis.
+     *
+     * @return The offset.
+     */
+    public double getParticleOffsetZ() {
+        return particleOffsetZ;
+    }
+
+    /**
+     * Gets the size of dust particles.
+     *
+     * @return The dust size.
+     */
+    public float getParticleDustSize() {
+        return particleDustSize;
+    }
+
+    /**
+     * Gets the color of dust particles.
+     *
+     * @return The dust color.
+     */
+    public Color getParticleDustColor() {
+        return particleDustColor;
+    }
+
+    /**
+     * Gets the data passed along with the particle.
+     *
+     * @return The dust options or shriek delay, or null if the particle takes no data.
+     */
+    public Object getParticleData() {
+        return particleData;
+    }
+
+    /**
+     * Checks if holograms are created.
+     *
+     * @return True if holograms are created.
+     */
+    public boolean isHologramEnabled() {
+        return hologramEnabled;
+    }
+
+    /**
+     * Checks if holograms are markers.
+     *
+     * @return True if holograms are markers.
+     */
+    public boolean isHologramMarker() {
+        return hologramMarker;
+    }
+
+    /**
+     * Gets the hologram offset on the x-axis.
+     *
+     * @return The offset.
+     */
+    public double getHologramOffsetX() {
+        return hologramOffsetX;
+    }
+
+    /**
+     * Gets the hologram offset on the y-axis.
+     *
+     * @return The offset.
+     */
+    public double getHologramOffsetY() {
+        return hologramOffsetY;
+    }
+
+    /**
+     * Gets the hologram offset on the z-axis.
+     *
+     * @return The offset.
+     */
+    public double getHologramOffsetZ() {
+        return hologramOffsetZ;
+    }
+
+    /**
+     * Gets the height between hologram lines.
+     *
+     * @return The line height.
+     */
+    public double getHologramLineHeight() {
+        return hologramLineHeight;
+    }
+
+    /**
+     * Gets the hologram lines, ordered by hologram line number, which counts from the bottom line up.
+     *
+     * @return The unmodifiable line list.
+     */
+    public List<String> getHologramLineList() {
+        return hologramLineList;
+    }
+
+    /**
+     * Gets the storage mode of the grave inventory.
+     *
+     * @return The storage mode.
+     */
+    public Grave.StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    /**
+     * Gets the radius around the grave protected from building.
+     *
+     * @return The radius, or 0 for none.
+     */
+    public int getProtectionRadius() {
+        return protectionRadius;
+    }
+
+    /**
+     * Checks if the protection radius also protects from explosions.
+     *
+     * @return True if explosions are blocked in the protection radius.
+     */
+    public boolean isExplodeProtection() {
+        return explodeProtection;
+    }
+
+    /**
+     * Checks if explosions can break the grave.
+     *
+     * @return True if the grave can be exploded.
+     */
+    public boolean isExplode() {
+        return explode;
+    }
+
+    /**
+     * Checks if the grave drops its items when exploded.
+     *
+     * @return True if items are dropped.
+     */
+    public boolean isDropExplode() {
+        return dropExplode;
+    }
+
+    /**
+     * Checks if a zombie spawns when the grave is exploded.
+     *
+     * @return True if a zombie spawns.
+     */
+    public boolean isZombieExplode() {
+        return zombieExplode;
+    }
+
+    /**
+     * Gets the sound of a sound setting.
+     *
+     * @param path The setting path, such as {@code sound.open}.
+     * @return The sound, or null if it is empty, unknown or not cached.
+     */
+    public Sound getSound(String path) {
+        return soundMap.get(path);
+    }
+
+    /**
+     * Checks if a sound setting is cached.
+     *
+     * @param path The setting path.
+     * @return True if the setting is cached, even if it has no sound.
+     */
+    public boolean hasSound(String path) {
+        return soundMap.containsKey(path);
+    }
+}
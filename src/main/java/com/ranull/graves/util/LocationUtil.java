@@ -32,6 +32,17 @@ public final class LocationUtil {
                 + "|" + location.getBlockY() + "|" + location.getBlockZ() : null;
     }
 
+    /**
+     * Checks if the chunk containing a location is loaded, without loading it.
+     *
+     * @param location The location within the chunk.
+     * @return True if the chunk is loaded, false otherwise.
+     */
+    public static boolean isChunkLoaded(Location location) {
+        return location.getWorld() != null
+                && location.getWorld().isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
     /**
      * Converts a chunk's location to a string representation.
      *
@@ -1,6 +1,7 @@
 package com.ranull.graves.util;
 
 import com.ranull.graves.Graves;
+import com.ranull.graves.manager.DatabaseExecutor;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
@@ -188,6 +189,19 @@ public final class ServerUtil {
                 stringList.add(plugin.getDescription().getName() + " Database Version: Unknown");
             }
         }
+        if (plugin.getDataManager().getDatabaseExecutor() != null) {
+            DatabaseExecutor databaseExecutor = plugin.getDataManager().getDatabaseExecutor();
+
+            stringList.add(plugin.getDescription().getName() + " Database Executor: threads="
+                    + databaseExecutor.getThreadCount() + ", queued=" + databaseExecutor.getQueuedCount()
+                    + ", active=" + databaseExecutor.getActiveCount() + ", rejected="
+                    + databaseExecutor.getRejectedCount() + ", completed=" + databaseExecutor.getCompletedCount()
+                    + ", p99=" + String.format("%.2f", databaseExecutor.getLatencyPercentile(0.99)) + "ms");
+        }
+        stringList.add(plugin.getDescription().getName() + " Write-Behind Queue: pending="
+                + plugin.getDataManager().getWriteBehindQueue().getQueueDepth() + ", flushed="
+                + plugin.getDataManager().getWriteBehindQueue().getFlushedCount() + ", coalesced="
+                + plugin.getDataManager().getWriteBehindQueue().getCoalescedCount());
         if (plugin.getIntegrationManager().hasLuckPermsHandler()) {
             stringList.add(plugin.getDescription().getName() + " Permissions Provider: LuckPerms");
         } else if (plugin.getIntegrationManager().hasVaultPermProvider()) {
@@ -0,0 +1,178 @@
+package com.ranull.graves.data;
+
+import org.bukkit.Location;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests the block data table of {@link ChunkData} with writers and lock-free readers running at the same time.
+ */
+class ChunkDataTest {
+    /**
+     * The number of writer threads, each owning its own layers of the chunk.
+     */
+    private static final int WRITERS = 4;
+
+    /**
+     * The number of reader threads.
+     */
+    private static final int READERS = 4;
+
+    /**
+     * The number of layers each writer works on.
+     */
+    private static final int LAYERS = 4;
+
+    /**
+     * The number of operations of each writer.
+     */
+    private static final int OPERATIONS = 20_000;
+
+    @Test
+    void addAndRemoveBlockData() {
+        ChunkData chunkData = new ChunkData(null, 2, -3);
+        BlockData blockData = createBlockData(33, 64, -47);
+
+        assertNull(chunkData.addBlockData(blockData));
+        assertSame(blockData, chunkData.getBlockData(33, 64, -47));
+        assertTrue(chunkData.hasData());
+        assertSame(blockData, chunkData.addBlockData(createBlockData(33, 64, -47)));
+        assertNotNull(chunkData.removeBlockData(33, 64, -47));
+        assertNull(chunkData.getBlockData(33, 64, -47));
+        assertFalse(chunkData.hasData());
+    }
+
+    @Test
+    @Timeout(60)
+    void concurrentWritersAndReadersKeepTheBlockDataConsistent() throws Exception {
+        ChunkData chunkData = new ChunkData(null, 0, 0);
+        List<Map<Integer, BlockData>> expectedMapList = new ArrayList<>();
+        ExecutorService executorService = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch writerLatch = new CountDownLatch(WRITERS);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Future<?>> futureList = new ArrayList<>();
+
+        for (int writer = 0; writer < WRITERS; writer++) {
+            Map<Integer, BlockData> expectedMap = new HashMap<>();
+            int firstLayer = writer * LAYERS;
+
+            expectedMapList.add(expectedMap);
+            futureList.add(executorService.submit(() -> {
+                try {
+                    Random random = new Random(firstLayer);
+
+                    startLatch.await();
+
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        int x = random.nextInt(16);
+                        int y = firstLayer + random.nextInt(LAYERS);
+                        int z = random.nextInt(16);
+                        int key = ChunkData.blockKey(x, y, z);
+
+                        if (random.nextBoolean()) {
+                            BlockData blockData = createBlockData(x, y, z);
+
+                            assertSame(expectedMap.put(key, blockData), chunkData.addBlockData(blockData));
+                        } else {
+                            assertSame(expectedMap.remove(key), chunkData.removeBlockData(x, y, z));
+                        }
+                    }
+                } catch (Throwable throwable) {
+                    failure.compareAndSet(null, throwable);
+                } finally {
+                    writerLatch.countDown();
+                }
+
+                return null;
+            }));
+        }
+
+        for (int reader = 0; reader < READERS; reader++) {
+            int seed = WRITERS + reader;
+
+            futureList.add(executorService.submit(() -> {
+                try {
+                    Random random = new Random(seed);
+
+                    startLatch.await();
+
+                    while (writerLatch.getCount() > 0) {
+                        int x = random.nextInt(16);
+                        int y = random.nextInt(WRITERS * LAYERS);
+                        int z = random.nextInt(16);
+                        BlockData blockData = chunkData.getBlockData(x, y, z);
+
+                        if (blockData != null) {
+                            Location location = blockData.getLocation();
+
+                            assertEquals(x, location.getBlockX());
+                            assertEquals(y, location.getBlockY());
+                            assertEquals(z, location.getBlockZ());
+                        }
+
+                        if (random.nextInt(100) == 0) {
+                            Set<Integer> keySet = new HashSet<>();
+
+                            for (BlockData value : chunkData.getBlockDataList()) {
+                                Location location = value.getLocation();
+
+                                assertTrue(keySet.add(ChunkData.blockKey(location.getBlockX(), location.getBlockY(),
+                                        location.getBlockZ())), "A block was listed twice");
+                            }
+                        }
+                    }
+                } catch (Throwable throwable) {
+                    failure.compareAndSet(null, throwable);
+                }
+
+                return null;
+            }));
+        }
+
+        startLatch.countDown();
+
+        for (Future<?> future : futureList) {
+            future.get();
+        }
+
+        executorService.shutdown();
+
+        if (failure.get() != null) {
+            fail(failure.get());
+        }
+
+        int size = 0;
+
+        for (Map<Integer, BlockData> expectedMap : expectedMapList) {
+            for (BlockData blockData : expectedMap.values()) {
+                Location location = blockData.getLocation();
+
+                assertSame(blockData, chunkData.getBlockData(location.getBlockX(), location.getBlockY(),
+                        location.getBlockZ()));
+            }
+
+            size += expectedMap.size();
+        }
+
+        assertEquals(size, chunkData.getBlockDataList().size());
+    }
+
+    /**
+     * Creates block data at a block position in a world that is not loaded.
+     *
+     * @param x the block x-coordinate.
+     * @param y the block y-coordinate.
+     * @param z the block z-coordinate.
+     * @return the block data.
+     */
+    private static BlockData createBlockData(int x, int y, int z) {
+        return new BlockData(new Location(null, x, y, z), UUID.randomUUID(), "AIR", null);
+    }
+}
@@ -0,0 +1,223 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.type.Grave;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests the grave map of {@link CacheManager} and the owner index it maintains.
+ */
+class CacheManagerTest {
+    /**
+     * The number of writer threads, each owning its own graves.
+     */
+    private static final int WRITERS = 4;
+
+    /**
+     * The number of reader threads.
+     */
+    private static final int READERS = 4;
+
+    /**
+     * The number of owners the graves are spread over, shared by every writer.
+     */
+    private static final int OWNERS = 8;
+
+    /**
+     * The number of graves of each writer.
+     */
+    private static final int GRAVES = 256;
+
+    /**
+     * The number of operations of each writer.
+     */
+    private static final int OPERATIONS = 50_000;
+
+    @Test
+    void ownerIndexFollowsPutAndRemove() {
+        CacheManager cacheManager = new CacheManager();
+        UUID ownerUUID = UUID.randomUUID();
+        Grave newerGrave = createGrave(UUID.randomUUID(), ownerUUID, 2000L, false);
+        Grave olderGrave = createGrave(UUID.randomUUID(), ownerUUID, 1000L, false);
+        Grave abandonedGrave = createGrave(UUID.randomUUID(), ownerUUID, 500L, true);
+
+        cacheManager.getGraveMap().put(newerGrave.getUUID(), newerGrave);
+        cacheManager.getGraveMap().put(olderGrave.getUUID(), olderGrave);
+        cacheManager.getGraveMap().put(abandonedGrave.getUUID(), abandonedGrave);
+
+        assertEquals(Arrays.asList(olderGrave, newerGrave), cacheManager.getGraveList(ownerUUID));
+        assertSame(olderGrave, cacheManager.getOldestGrave(ownerUUID));
+        assertEquals(2, cacheManager.getGraveCount(ownerUUID));
+
+        cacheManager.getGraveMap().remove(olderGrave.getUUID());
+
+        assertEquals(Collections.singletonList(newerGrave), cacheManager.getGraveList(ownerUUID));
+
+        newerGrave.setAbandoned(true);
+        cacheManager.refreshOwnerIndex(newerGrave);
+
+        assertEquals(0, cacheManager.getGraveCount(ownerUUID));
+        assertNull(cacheManager.getOldestGrave(ownerUUID));
+    }
+
+    @Test
+    @Timeout(60)
+    void concurrentWritersAndReadersKeepTheOwnerIndexConsistent() throws Exception {
+        CacheManager cacheManager = new CacheManager();
+        Map<UUID, Grave> graveMap = cacheManager.getGraveMap();
+        List<UUID> ownerUUIDList = new ArrayList<>();
+        ExecutorService executorService = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch writerLatch = new CountDownLatch(WRITERS);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Future<?>> futureList = new ArrayList<>();
+
+        for (int owner = 0; owner < OWNERS; owner++) {
+            ownerUUIDList.add(UUID.randomUUID());
+        }
+
+        for (int writer = 0; writer < WRITERS; writer++) {
+            int seed = writer;
+
+            futureList.add(executorService.submit(() -> {
+                try {
+                    Random random = new Random(seed);
+                    List<UUID> graveUUIDList = new ArrayList<>();
+
+                    for (int i = 0; i < GRAVES; i++) {
+                        graveUUIDList.add(UUID.randomUUID());
+                    }
+
+                    startLatch.await();
+
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        UUID graveUUID = graveUUIDList.get(random.nextInt(GRAVES));
+
+                        if (random.nextInt(3) > 0) {
+                            // Replacing a grave under the same UUID may move it to another owner.
+                            Grave grave = createGrave(graveUUID, ownerUUIDList.get(random.nextInt(OWNERS)),
+                                    random.nextInt(1_000_000), random.nextInt(10) == 0);
+
+                            graveMap.put(graveUUID, grave);
+                        } else {
+                            graveMap.remove(graveUUID);
+                        }
+                    }
+                } catch (Throwable throwable) {
+                    failure.compareAndSet(null, throwable);
+                } finally {
+                    writerLatch.countDown();
+                }
+
+                return null;
+            }));
+        }
+
+        for (int reader = 0; reader < READERS; reader++) {
+            int seed = WRITERS + reader;
+
+            futureList.add(executorService.submit(() -> {
+                try {
+                    Random random = new Random(seed);
+
+                    startLatch.await();
+
+                    while (writerLatch.getCount() > 0) {
+                        UUID ownerUUID = ownerUUIDList.get(random.nextInt(OWNERS));
+                        List<Grave> graveList = cacheManager.getGraveList(ownerUUID);
+
+                        for (int i = 0; i < graveList.size(); i++) {
+                            Grave grave = graveList.get(i);
+
+                            assertEquals(ownerUUID, grave.getOwnerUUID());
+                            assertFalse(grave.isAbandoned());
+
+                            if (i > 0) {
+                                assertTrue(graveList.get(i - 1).getTimeCreation() <= grave.getTimeCreation(),
+                                        "The graves of an owner are out of order");
+                            }
+                        }
+
+                        for (Grave grave : graveMap.values()) {
+                            assertNotNull(grave);
+                        }
+                    }
+                } catch (Throwable throwable) {
+                    failure.compareAndSet(null, throwable);
+                }
+
+                return null;
+            }));
+        }
+
+        startLatch.countDown();
+
+        for (Future<?> future : futureList) {
+            future.get();
+        }
+
+        executorService.shutdown();
+
+        if (failure.get() != null) {
+            fail(failure.get());
+        }
+
+        int indexed = 0;
+
+        for (UUID ownerUUID : ownerUUIDList) {
+            List<Grave> expectedList = new ArrayList<>();
+
+            for (Grave grave : graveMap.values()) {
+                if (ownerUUID.equals(grave.getOwnerUUID()) && !grave.isAbandoned()) {
+                    expectedList.add(grave);
+                }
+            }
+
+            List<Grave> graveList = cacheManager.getGraveList(ownerUUID);
+            Set<Grave> graveSet = Collections.newSetFromMap(new IdentityHashMap<>());
+
+            graveSet.addAll(graveList);
+
+            assertEquals(expectedList.size(), graveList.size());
+            assertEquals(graveList.size(), graveSet.size(), "A grave was indexed twice");
+
+            for (Grave grave : expectedList) {
+                assertTrue(graveSet.contains(grave), "A cached grave is missing from the owner index");
+            }
+
+            assertEquals(graveList.size(), cacheManager.getGraveCount(ownerUUID));
+            indexed += graveList.size();
+        }
+
+        long unabandoned = graveMap.values().stream().filter(grave -> !grave.isAbandoned()).count();
+
+        assertEquals(unabandoned, indexed);
+        assertEquals(graveMap.size(), cacheManager.getGraveSnapshot().size());
+    }
+
+    /**
+     * Creates a grave with an owner and a creation time.
+     *
+     * @param uuid         the grave UUID.
+     * @param ownerUUID    the owner UUID.
+     * @param timeCreation the creation time.
+     * @param abandoned    whether the grave is abandoned.
+     * @return the grave.
+     */
+    private static Grave createGrave(UUID uuid, UUID ownerUUID, long timeCreation, boolean abandoned) {
+        Grave grave = new Grave(uuid);
+
+        grave.setOwnerUUID(ownerUUID);
+        grave.setTimeCreation(timeCreation);
+        grave.setTimeAlive(-1);
+        grave.setAbandoned(abandoned);
+
+        return grave;
+    }
+}
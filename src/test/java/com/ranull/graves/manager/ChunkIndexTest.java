@@ -0,0 +1,158 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.data.ChunkData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests {@link ChunkIndex} with writers and lock-free readers running at the same time.
+ */
+class ChunkIndexTest {
+    /**
+     * The number of writer threads, each owning its own range of chunks.
+     */
+    private static final int WRITERS = 4;
+
+    /**
+     * The number of reader threads.
+     */
+    private static final int READERS = 4;
+
+    /**
+     * The number of chunks each writer works on. Large enough to make the tables resize several times.
+     */
+    private static final int CHUNKS = 2048;
+
+    /**
+     * The number of operations of each writer.
+     */
+    private static final int OPERATIONS = 100_000;
+
+    @Test
+    void putRemoveAndGetWithoutLocking() {
+        ChunkIndex chunkIndex = new ChunkIndex();
+
+        assertNull(chunkIndex.get(null, 0, 0));
+        assertNull(chunkIndex.put(new ChunkData(null, 0, 0)));
+        assertNotNull(chunkIndex.get(null, 0, 0));
+        assertTrue(chunkIndex.contains(null, 0, 0));
+        assertSame(chunkIndex.get(null, 0, 0), chunkIndex.getOrCreate(null, 0, 0));
+        assertNotNull(chunkIndex.remove(null, 0, 0));
+        assertNull(chunkIndex.remove(null, 0, 0));
+        assertEquals(0, chunkIndex.size());
+    }
+
+    @Test
+    @Timeout(60)
+    void concurrentWritersAndReadersKeepTheIndexConsistent() throws Exception {
+        ChunkIndex chunkIndex = new ChunkIndex();
+        List<Map<Long, ChunkData>> expectedMapList = new ArrayList<>();
+        ExecutorService executorService = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch writerLatch = new CountDownLatch(WRITERS);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Future<?>> futureList = new ArrayList<>();
+
+        for (int writer = 0; writer < WRITERS; writer++) {
+            Map<Long, ChunkData> expectedMap = new HashMap<>();
+            int chunkX = writer;
+
+            expectedMapList.add(expectedMap);
+            futureList.add(executorService.submit(() -> {
+                try {
+                    Random random = new Random(chunkX);
+
+                    startLatch.await();
+
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        // Negative coordinates exercise the packing of the z-coordinate.
+                        int chunkZ = random.nextInt(CHUNKS) - CHUNKS / 2;
+                        long key = ChunkIndex.key(chunkX, chunkZ);
+
+                        if (random.nextBoolean()) {
+                            ChunkData chunkData = new ChunkData(null, chunkX, chunkZ);
+
+                            assertSame(expectedMap.put(key, chunkData), chunkIndex.put(chunkData));
+                        } else {
+                            assertSame(expectedMap.remove(key), chunkIndex.remove(null, chunkX, chunkZ));
+                        }
+                    }
+                } catch (Throwable throwable) {
+                    failure.compareAndSet(null, throwable);
+                } finally {
+                    writerLatch.countDown();
+                }
+
+                return null;
+            }));
+        }
+
+        for (int reader = 0; reader < READERS; reader++) {
+            int seed = WRITERS + reader;
+
+            futureList.add(executorService.submit(() -> {
+                try {
+                    Random random = new Random(seed);
+
+                    startLatch.await();
+
+                    while (writerLatch.getCount() > 0) {
+                        int chunkX = random.nextInt(WRITERS);
+                        int chunkZ = random.nextInt(CHUNKS) - CHUNKS / 2;
+                        ChunkData chunkData = chunkIndex.get(null, chunkX, chunkZ);
+
+                        if (chunkData != null) {
+                            assertEquals(chunkX, chunkData.getX());
+                            assertEquals(chunkZ, chunkData.getZ());
+                        }
+
+                        if (random.nextInt(1000) == 0) {
+                            Set<ChunkData> chunkDataSet = Collections.newSetFromMap(new IdentityHashMap<>());
+
+                            for (ChunkData value : chunkIndex.values()) {
+                                assertNotNull(value);
+                                assertTrue(chunkDataSet.add(value), "A chunk was listed twice");
+                            }
+                        }
+                    }
+                } catch (Throwable throwable) {
+                    failure.compareAndSet(null, throwable);
+                }
+
+                return null;
+            }));
+        }
+
+        startLatch.countDown();
+
+        for (Future<?> future : futureList) {
+            future.get();
+        }
+
+        executorService.shutdown();
+
+        if (failure.get() != null) {
+            fail(failure.get());
+        }
+
+        int size = 0;
+
+        for (int writer = 0; writer < WRITERS; writer++) {
+            for (int chunkZ = -CHUNKS / 2; chunkZ < CHUNKS / 2; chunkZ++) {
+                assertSame(expectedMapList.get(writer).get(ChunkIndex.key(writer, chunkZ)),
+                        chunkIndex.get(null, writer, chunkZ));
+            }
+
+            size += expectedMapList.get(writer).size();
+        }
+
+        assertEquals(size, chunkIndex.size());
+        assertEquals(size, chunkIndex.values().size());
+    }
+}
@@ -0,0 +1,303 @@
+package com.ranull.graves.manager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrates an SQLite database into an in-memory H2 database, interrupting the migration part way through a table.
+ */
+class DatabaseMigratorTest {
+    /**
+     * The number of rows inserted into the source grave table, before some are deleted.
+     */
+    private static final int ROWS = 1000;
+
+    /**
+     * The number of rows written per transaction.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    /**
+     * The number of chunks of the grave table committed before the interruption.
+     */
+    private static final int COMMITTED_CHUNKS = 3;
+
+    /**
+     * The logger of the migrator.
+     */
+    private static final Logger LOGGER = Logger.getLogger(DatabaseMigratorTest.class.getName());
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void resumesFromTheCheckpointWithoutCopyingARowTwice() throws SQLException {
+        String sourceUrl = "jdbc:sqlite:" + tempDir.resolve("graves.db");
+        String targetUrl = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        Map<String, List<String>> tableMap = new LinkedHashMap<>();
+        Set<String> sourceGraveSet = createSource(sourceUrl);
+        Set<String> sourceSlotSet = readColumn(sourceUrl, "SELECT uuid_grave || ':' || slot FROM grave_slot");
+
+        createTarget(targetUrl);
+        tableMap.put("grave", Arrays.asList("uuid", "owner_name"));
+        tableMap.put("grave_slot", Arrays.asList("uuid_grave", "slot", "item"));
+
+        // The first run fails while writing the chunk after the committed ones.
+        AtomicInteger batchCount = new AtomicInteger();
+        DatabaseMigrator.ConnectionSource failingTarget = () -> interruptGraveInserts(
+                DriverManager.getConnection(targetUrl), batchCount);
+
+        assertFalse(new DatabaseMigrator(LOGGER, 1, BATCH_SIZE).migrate(() -> DriverManager.getConnection(sourceUrl),
+                failingTarget, tableMap));
+
+        long checkpoint = readCheckpoint(targetUrl, "grave");
+        List<Long> rowIdList = readRowIds(sourceUrl);
+
+        assertEquals((long) rowIdList.get(COMMITTED_CHUNKS * BATCH_SIZE - 1), checkpoint,
+                "The checkpoint is not the last row of the last committed chunk");
+        assertEquals(COMMITTED_CHUNKS * BATCH_SIZE, countRows(targetUrl, "grave"),
+                "The interrupted chunk was not rolled back");
+        assertEquals(0, readMeta(targetUrl, "change_sequence"), "An interrupted migration changed the sequence");
+
+        // The second run resumes after the checkpoint.
+        assertTrue(new DatabaseMigrator(LOGGER, 2, BATCH_SIZE).migrate(() -> DriverManager.getConnection(sourceUrl),
+                () -> DriverManager.getConnection(targetUrl), tableMap));
+
+        List<String> targetGraveList = readColumnList(targetUrl, "SELECT uuid FROM grave");
+        List<String> targetSlotList = readColumnList(targetUrl, "SELECT uuid_grave || ':' || slot FROM grave_slot");
+
+        assertEquals(sourceGraveSet.size(), targetGraveList.size(), "A grave was copied twice or not at all");
+        assertEquals(sourceGraveSet, new HashSet<>(targetGraveList));
+        assertEquals(sourceSlotSet.size(), targetSlotList.size(), "A slot was copied twice or not at all");
+        assertEquals(sourceSlotSet, new HashSet<>(targetSlotList));
+        assertEquals(0, readColumn(targetUrl, "SELECT meta_key FROM grave_meta WHERE meta_key LIKE 'migration:%'")
+                .size(), "The checkpoints were not cleared");
+        assertEquals(1, readMeta(targetUrl, "change_sequence"), "The change sequence was not increased");
+    }
+
+    /**
+     * Creates the source tables and fills them. Some graves are deleted, so the rowids have gaps.
+     *
+     * @param url the source URL.
+     * @return the UUIDs of the graves left in the source.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static Set<String> createSource(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE grave (uuid VARCHAR(255) UNIQUE, owner_name TEXT)");
+            statement.executeUpdate("CREATE TABLE grave_slot (uuid_grave VARCHAR(255) NOT NULL, slot INT NOT NULL, "
+                    + "item TEXT, PRIMARY KEY (uuid_grave, slot))");
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement graveStatement = connection.prepareStatement(
+                    "INSERT INTO grave (uuid, owner_name) VALUES (?, ?)");
+                 PreparedStatement slotStatement = connection.prepareStatement(
+                         "INSERT INTO grave_slot (uuid_grave, slot, item) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < ROWS; i++) {
+                    String uuid = UUID.randomUUID().toString();
+
+                    graveStatement.setString(1, uuid);
+                    graveStatement.setString(2, "Player" + i);
+                    graveStatement.addBatch();
+
+                    for (int slot = 0; slot < i % 3; slot++) {
+                        slotStatement.setString(1, uuid);
+                        slotStatement.setInt(2, slot);
+                        slotStatement.setString(3, "GX1:" + i + ":" + slot);
+                        slotStatement.addBatch();
+                    }
+                }
+
+                graveStatement.executeBatch();
+                slotStatement.executeBatch();
+            }
+
+            statement.executeUpdate("DELETE FROM grave WHERE rowid % 7 = 0");
+            connection.commit();
+        }
+
+        return readColumn(url, "SELECT uuid FROM grave");
+    }
+
+    /**
+     * Creates the target tables. The primary keys reject a row that is copied twice.
+     *
+     * @param url the target URL.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static void createTarget(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE grave (uuid VARCHAR(255) NOT NULL PRIMARY KEY, "
+                    + "owner_name VARCHAR(255))");
+            statement.executeUpdate("CREATE TABLE grave_slot (uuid_grave VARCHAR(255) NOT NULL, slot INT NOT NULL, "
+                    + "item VARCHAR(255), PRIMARY KEY (uuid_grave, slot))");
+            statement.executeUpdate("CREATE TABLE grave_meta (meta_key VARCHAR(64) NOT NULL PRIMARY KEY, "
+                    + "meta_value BIGINT NOT NULL)");
+            statement.executeUpdate("INSERT INTO grave_meta (meta_key, meta_value) VALUES ('change_sequence', 0)");
+        }
+    }
+
+    /**
+     * Wraps a connection so writing the grave table fails after {@link #COMMITTED_CHUNKS} batches, as if the server
+     * stopped part way through the table.
+     *
+     * @param connection the connection.
+     * @param batchCount the number of grave batches executed so far.
+     * @return the wrapped connection.
+     */
+    private static Connection interruptGraveInserts(Connection connection, AtomicInteger batchCount) {
+        return (Connection) Proxy.newProxyInstance(DatabaseMigratorTest.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+
+                    if (method.getName().equals("prepareStatement") && ((String) args[0])
+                            .startsWith("INSERT INTO grave (")) {
+                        PreparedStatement statement = (PreparedStatement) result;
+
+                        return Proxy.newProxyInstance(DatabaseMigratorTest.class.getClassLoader(),
+                                new Class<?>[]{PreparedStatement.class}, (statementProxy, statementMethod,
+                                                                        statementArgs) -> {
+                                    if (statementMethod.getName().equals("executeBatch")
+                                            && batchCount.incrementAndGet() > COMMITTED_CHUNKS) {
+                                        throw new SQLException("Simulated interruption");
+                                    }
+
+                                    return invoke(statement, statementMethod, statementArgs);
+                                });
+                    }
+
+                    return result;
+                });
+    }
+
+    /**
+     * Invokes a method on a delegate, rethrowing what the method threw.
+     *
+     * @param delegate the delegate.
+     * @param method   the method.
+     * @param args     the arguments.
+     * @return the result.
+     * @throws Throwable the exception thrown by the method.
+     */
+    private static Object invoke(Object delegate, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    /**
+     * Reads the migration checkpoint of a table.
+     *
+     * @param url   the target URL.
+     * @param table the table name.
+     * @return the checkpoint.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static long readCheckpoint(String url, String table) throws SQLException {
+        return readMeta(url, "migration:" + table);
+    }
+
+    /**
+     * Reads a value of the meta table.
+     *
+     * @param url the target URL.
+     * @param key the meta key.
+     * @return the value.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static long readMeta(String url, String key) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT meta_value FROM grave_meta WHERE meta_key = ?")) {
+            statement.setString(1, key);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertTrue(resultSet.next(), "No meta value was written for key " + key);
+
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * Reads the rowids of the source grave table in order.
+     *
+     * @param url the source URL.
+     * @return the rowids.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static List<Long> readRowIds(String url) throws SQLException {
+        List<Long> rowIdList = new ArrayList<>();
+
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT rowid FROM grave ORDER BY rowid")) {
+            while (resultSet.next()) {
+                rowIdList.add(resultSet.getLong(1));
+            }
+        }
+
+        return rowIdList;
+    }
+
+    /**
+     * Counts the rows of a table.
+     *
+     * @param url   the database URL.
+     * @param table the table name.
+     * @return the number of rows.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static int countRows(String url, String table) throws SQLException {
+        return readColumnList(url, "SELECT 1 FROM " + table).size();
+    }
+
+    /**
+     * Reads the first column of a query into a set.
+     *
+     * @param url   the database URL.
+     * @param query the query.
+     * @return the distinct values.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static Set<String> readColumn(String url, String query) throws SQLException {
+        return new HashSet<>(readColumnList(url, query));
+    }
+
+    /**
+     * Reads the first column of a query into a list.
+     *
+     * @param url   the database URL.
+     * @param query the query.
+     * @return the values, duplicates included.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static List<String> readColumnList(String url, String query) throws SQLException {
+        List<String> valueList = new ArrayList<>();
+
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                valueList.add(resultSet.getString(1));
+            }
+        }
+
+        return valueList;
+    }
+}